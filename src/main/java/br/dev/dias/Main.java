@@ -4,13 +4,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import br.dev.dias.api.CrawlController;
+import br.dev.dias.model.ExecutionMode;
+import br.dev.dias.model.HttpClientMode;
 import br.dev.dias.service.CrawlerService;
 import br.dev.dias.service.HttpClientService;
-import br.dev.dias.service.KeywordSearchService;
 import br.dev.dias.service.LinkExtractorService;
 import br.dev.dias.service.SearchService;
 import br.dev.dias.service.ValidationService;
 import br.dev.dias.util.ApplicationConfiguration;
+import br.dev.dias.util.HttpClientHelper;
+import br.dev.dias.util.HttpResponseReader;
+import br.dev.dias.util.PageFetcher;
+import br.dev.dias.util.PolitePageFetcher;
+import br.dev.dias.util.PooledPageFetcher;
+import br.dev.dias.util.TransferMetrics;
+import br.dev.dias.util.UrlConnectionPageFetcher;
+import br.dev.dias.util.UrlCanonicalizer;
 
 /**
  * Entry point for the application.
@@ -32,11 +41,20 @@ public class Main {
             
             SearchService searchService = new SearchService();
             ValidationService validationService = new ValidationService();
-            KeywordSearchService keywordSearchService = new KeywordSearchService();
-            LinkExtractorService linkExtractorService = new LinkExtractorService();
-            HttpClientService httpClientService = new HttpClientService();
+            LinkExtractorService linkExtractorService = new LinkExtractorService(
+                    new UrlCanonicalizer(appConfig.getUrlNormalizationRules()), appConfig.isSkipBinaryLinks(),
+                    appConfig.getParallelPageThreshold());
+            // The asynchronous pipeline needs a fetcher that does not block
+            boolean pooled = appConfig.getHttpClientMode() == HttpClientMode.POOLED
+                    || appConfig.getExecutionMode() == ExecutionMode.ASYNC;
+            PageFetcher pageFetcher = pooled
+                    ? new PooledPageFetcher(appConfig.getMaxConnectionsPerHost(), appConfig.getMaxPageBytes())
+                    : new UrlConnectionPageFetcher(new HttpClientHelper(),
+                            new HttpResponseReader(new TransferMetrics(), appConfig.getMaxPageBytes()));
+            HttpClientService httpClientService = new HttpClientService(new PolitePageFetcher(pageFetcher,
+                    appConfig.getHostRequestsPerSecond(), appConfig.getHostMaxConcurrency()));
             
-            CrawlerService crawlerService = new CrawlerService(searchService, keywordSearchService, linkExtractorService, httpClientService, appConfig);
+            CrawlerService crawlerService = new CrawlerService(searchService, linkExtractorService, httpClientService, appConfig);
     
             CrawlController crawlController = new CrawlController(searchService, crawlerService, validationService);
             crawlController.initializeRoutes();
@@ -45,6 +63,7 @@ public class Main {
                 LOGGER.info("Shutting down application...");
                 spark.Spark.stop();
                 crawlerService.shutdown();
+                httpClientService.shutdown();
             }));
         } catch(IllegalArgumentException iae){
             LOGGER.error("Error to start application: {}", iae.getMessage());
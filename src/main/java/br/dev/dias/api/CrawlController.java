@@ -7,6 +7,7 @@ import com.google.gson.Gson;
 import br.dev.dias.exception.SearchAlreadyExistsException;
 import br.dev.dias.exception.SearchNotFoundException;
 import br.dev.dias.exception.ValidationException;
+import br.dev.dias.model.DedupeMode;
 import br.dev.dias.model.Search;
 import br.dev.dias.service.CrawlerService;
 import br.dev.dias.service.SearchService;
@@ -126,9 +127,10 @@ public class CrawlController {
                 validationService.validateKeyword(crawlRequest.getKeyword());
 
                 LOGGER.info("The search keyword {} is valid.", crawlRequest.getKeyword());
-                
+                validationService.validateDedupeMode(crawlRequest.getDedupe());
+                DedupeMode dedupeMode = crawlRequest.getDedupe() == null ? null : DedupeMode.fromValue(crawlRequest.getDedupe());
 
-                String searchId = searchService.createSearch(crawlRequest.getKeyword());
+                String searchId = searchService.createSearch(crawlRequest.getKeyword(), dedupeMode);
 
                 LOGGER.info("Search created with ID {}", searchId);
                 LOGGER.info("Starting crawl for search with ID {}", searchId);
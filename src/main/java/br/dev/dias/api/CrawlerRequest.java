@@ -3,6 +3,7 @@ package br.dev.dias.api;
 public class CrawlerRequest {
 
     private String keyword;
+    private String dedupe;
     
 
     public String getKeyword() {
@@ -13,4 +14,12 @@ public class CrawlerRequest {
         this.keyword = keyword;
     }
 
+    public String getDedupe() {
+        return dedupe;
+    }
+
+    public void setDedupe(String dedupe) {
+        this.dedupe = dedupe;
+    }
+
 }
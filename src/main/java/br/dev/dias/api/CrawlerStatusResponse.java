@@ -8,6 +8,7 @@ public class CrawlerStatusResponse {
     private String id;
     private String status;
     private List<String> urls;
+    private Long expectedSkippedUrls;
 
     public CrawlerStatusResponse() {
     }
@@ -31,6 +32,10 @@ public class CrawlerStatusResponse {
         this.urls = List.copyOf(urls);
     }
 
+    public void setExpectedSkippedUrls(Long expectedSkippedUrls) {
+        this.expectedSkippedUrls = expectedSkippedUrls;
+    }
+
     public String toJson() {
         return new Gson().toJson(this);
     }
@@ -46,4 +51,8 @@ public class CrawlerStatusResponse {
     public List<String> getUrls() {
         return urls;
     }
+
+    public Long getExpectedSkippedUrls() {
+        return expectedSkippedUrls;
+    }
 }
\ No newline at end of file
@@ -1,15 +1,16 @@
 package br.dev.dias.crawler;
 
 import java.util.List;
-import java.util.Queue;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import br.dev.dias.exception.SearchNotFoundException;
+import br.dev.dias.model.Link;
+import br.dev.dias.service.KeywordMatcher;
 import br.dev.dias.service.SearchService;
 import br.dev.dias.util.StringUtils;
 
@@ -22,11 +23,18 @@ public class CrawlJob {
     private final String keyword;
     private final String baseUrl;
     private final SearchService repoService;
-    private final Queue<String> pendingUrls;
-    private final Set<String> visitedUrls;
+    private final UrlFrontier pendingUrls;
+    private final UrlSeenSet seenUrls;
+    private final LinkScorer linkScorer;
+    private final KeywordMatcher keywordMatcher;
+    private final Set<String> indexedResults;
+    private final Map<String, Integer> failedAttempts;
     private final AtomicInteger pendingUrlsCounter;
     private final AtomicInteger visitedUrlsCounter;
     private final AtomicInteger processingUrlsCounter;
+    private final AtomicInteger outstandingUrlsCounter;
+    private final AtomicInteger activeWorkersCounter;
+    private final int maxWorkers;
     private final Lock lock;
 
     /**
@@ -38,46 +46,120 @@ public class CrawlJob {
      * @param repoService the service for storing search results
      */
     public CrawlJob(String searchId, String keyword, String baseUrl, SearchService repoService) {
+        this(searchId, keyword, baseUrl, repoService, 1);
+    }
+
+    /**
+     * Constructs a CrawlJob that may be processed by up to {@code maxWorkers} concurrent workers.
+     *
+     * @param searchId the unique identifier for the search
+     * @param keyword the keyword to search for
+     * @param baseUrl the starting URL for the crawl
+     * @param repoService the service for storing search results
+     * @param maxWorkers the maximum number of workers sharing this job's pending URLs
+     */
+    public CrawlJob(String searchId, String keyword, String baseUrl, SearchService repoService, int maxWorkers) {
+        this(searchId, keyword, baseUrl, repoService, maxWorkers, new FingerprintUrlSeenSet(),
+                new FifoUrlFrontier(new UrlTrie(baseUrl)));
+    }
+
+    /**
+     * Constructs a CrawlJob that deduplicates URLs with the given seen set.
+     *
+     * @param searchId the unique identifier for the search
+     * @param keyword the keyword to search for
+     * @param baseUrl the starting URL for the crawl
+     * @param repoService the service for storing search results
+     * @param maxWorkers the maximum number of workers sharing this job's pending URLs
+     * @param seenUrls the set used to admit each URL at most once
+     * @param pendingUrls the frontier holding the URLs to visit, owned by this job
+     */
+    public CrawlJob(String searchId, String keyword, String baseUrl, SearchService repoService, int maxWorkers,
+            UrlSeenSet seenUrls, UrlFrontier pendingUrls) {
         this.searchId = searchId;
         this.keyword = keyword;
         this.baseUrl = baseUrl;
         this.repoService = repoService;
-        this.pendingUrls = new ConcurrentLinkedQueue<>();
-        this.visitedUrls = ConcurrentHashMap.newKeySet();
-        this.pendingUrls.add(baseUrl);
+        this.pendingUrls = pendingUrls;
+        this.seenUrls = seenUrls;
+        this.linkScorer = new LinkScorer(keyword);
+        this.keywordMatcher = new KeywordMatcher(keyword);
+        this.indexedResults = ConcurrentHashMap.newKeySet();
+        this.failedAttempts = new ConcurrentHashMap<>();
+        this.seenUrls.add(baseUrl);
+        this.pendingUrls.offer(baseUrl);
         this.pendingUrlsCounter = new AtomicInteger(1);
         this.visitedUrlsCounter = new AtomicInteger(0);
         processingUrlsCounter = new AtomicInteger(0);
+        this.outstandingUrlsCounter = new AtomicInteger(1);
+        this.activeWorkersCounter = new AtomicInteger(0);
+        this.maxWorkers = Math.max(1, maxWorkers);
         this.lock = new ReentrantLock();
 
     }
 
     /**
      * Retrieves the next URL to be processed from the queue of pending URLs.
+     * The URL stays outstanding until {@link #markUrlAsProcessed(String)} is called for it.
      *
      * @return the next URL, or null if no URLs are pending
      */
     public String getNextUrl() {
+        String url = pendingUrls.poll();
+        if (url == null) {
+            return null;
+        }
         pendingUrlsCounter.decrementAndGet();
         processingUrlsCounter.incrementAndGet();
-        return pendingUrls.poll();
+        return url;
     }
 
     /**
-     * Adds new URLs to the queue of pending URLs, avoiding duplicates and already visited URLs.
+     * Adds links found on a page to the queue of pending URLs, avoiding duplicates and already
+     * visited URLs. Each URL is admitted through the seen set, so a URL is queued at most once even
+     * when several workers report it at the same time. When the frontier orders URLs by priority, each link is scored on its URL,
+     * anchor text and whether the page it was found on matched the keyword.
      *
-     * @param urls the list of URLs to add
+     * @param links the links found on the page
+     * @param parentMatched whether the page containing the links matched the keyword
      */
-    public void addNewUrls(List<String> urls) {
-        urls.removeAll(visitedUrls);
-        for (String url : urls) {
-            if (!pendingUrls.contains(url)) {
-                pendingUrls.add(url);
+    public void addNewLinks(List<Link> links, boolean parentMatched) {
+        boolean scored = pendingUrls.usesPriority();
+        for (Link link : links) {
+            if (seenUrls.add(link.getUrl())) {
+                outstandingUrlsCounter.incrementAndGet();
+                if (scored) {
+                    pendingUrls.offer(link.getUrl(), linkScorer.score(link.getUrl(), link.getAnchorText(), parentMatched));
+                } else {
+                    pendingUrls.offer(link.getUrl());
+                }
                 pendingUrlsCounter.incrementAndGet();
             }
         }
     }
 
+    /**
+     * Puts a URL taken with {@link #getNextUrl()} back on the queue of pending URLs, e.g. to retry
+     * it after a failed fetch. The URL stays outstanding, so the job does not complete meanwhile.
+     *
+     * @param url the URL to process again
+     */
+    public void requeueUrl(String url) {
+        processingUrlsCounter.decrementAndGet();
+        pendingUrls.offer(url);
+        pendingUrlsCounter.incrementAndGet();
+    }
+
+    /**
+     * Records a failed attempt to fetch a URL.
+     *
+     * @param url the URL that could not be fetched
+     * @return the number of failed attempts for the URL so far
+     */
+    public int recordFailedAttempt(String url) {
+        return failedAttempts.merge(url, 1, Integer::sum);
+    }
+
     /**
      * Checks if there are more URLs to process.
      *
@@ -89,11 +171,54 @@ public class CrawlJob {
 
     /**
      * Checks if the crawl job is complete (no pending or processing URLs).
+     * A URL is outstanding from the moment it is queued until it has been marked as processed,
+     * so the job cannot be seen as complete while a worker may still discover new links.
      *
      * @return true if the job is complete, false otherwise
      */
     public boolean isComplete() {
-        return pendingUrlsCounter.get() == 0 && processingUrlsCounter.get() == 0;
+        return outstandingUrlsCounter.get() == 0;
+    }
+
+    /**
+     * Tries to reserve a worker slot for this job, respecting the per-job parallelism cap.
+     *
+     * @return true if a slot was reserved and a new worker may be started, false otherwise
+     */
+    public boolean tryAcquireWorker() {
+        int current;
+        do {
+            current = activeWorkersCounter.get();
+            if (current >= maxWorkers) {
+                return false;
+            }
+        } while (!activeWorkersCounter.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Releases a worker slot previously reserved with {@link #tryAcquireWorker()}.
+     */
+    public void releaseWorker() {
+        activeWorkersCounter.decrementAndGet();
+    }
+
+    /**
+     * Gets the number of workers currently processing this job.
+     *
+     * @return the count of active workers
+     */
+    public int getActiveWorkersCount() {
+        return activeWorkersCounter.get();
+    }
+
+    /**
+     * Gets the maximum number of workers that may process this job concurrently.
+     *
+     * @return the per-job parallelism cap
+     */
+    public int getMaxWorkers() {
+        return maxWorkers;
     }
 
     /**
@@ -114,6 +239,15 @@ public class CrawlJob {
         return keyword;
     }
 
+    /**
+     * Gets the matcher compiled for the keyword, shared by every page checked for this job.
+     *
+     * @return the keyword matcher
+     */
+    public KeywordMatcher getKeywordMatcher() {
+        return keywordMatcher;
+    }
+
     /**
      * Gets the base URL for the crawl.
      *
@@ -133,23 +267,33 @@ public class CrawlJob {
     }
 
     /**
-     * Gets the set of visited URLs.
+     * Gets the set of URLs admitted to this job, either pending, processing or visited.
      *
-     * @return the set of visited URLs
+     * @return the set of seen URLs
      */
-    public Set<String> getVisitedUrls() {
-        return visitedUrls;
+    public UrlSeenSet getSeenUrls() {
+        return seenUrls;
     }
 
     /**
-     * Gets the queue of pending URLs.
+     * Gets the frontier of pending URLs.
      *
-     * @return the queue of pending URLs
+     * @return the frontier of pending URLs
      */
-    public Queue<String> getPendingUrls() {
+    public UrlFrontier getPendingUrls() {
         return pendingUrls;
     }
 
+    /**
+     * Gets the expected number of pages that were never crawled because the seen set wrongly
+     * reported them as already seen. Always zero with an exact seen set.
+     *
+     * @return the expected number of skipped pages
+     */
+    public long getExpectedSkippedUrlsCount() {
+        return Math.round(seenUrls.getExpectedFalsePositives());
+    }
+
     /**
      * Gets the lock used for synchronizing access to shared resources.
      *
@@ -169,6 +313,49 @@ public class CrawlJob {
         repoService.addUrlToSearch(getSearchId(), url);
     }
 
+    /**
+     * Adds results answered by the corpus index before the page is crawled again.
+     * Such a result is withdrawn if the crawl later finds the page no longer matches.
+     *
+     * @param urls the URLs found in the corpus index
+     * @throws SearchNotFoundException if the search ID is not found in the repository
+     */
+    public void addIndexedResults(List<String> urls) throws SearchNotFoundException {
+        for (String url : urls) {
+            indexedResults.add(url);
+            repoService.addUrlToSearch(getSearchId(), url);
+        }
+    }
+
+    /**
+     * Records whether a crawled page matched the keyword, adding it to the results or
+     * withdrawing an indexed result that no longer matches.
+     *
+     * @param url the crawled URL
+     * @param matched whether the page contains the keyword
+     * @throws SearchNotFoundException if the search ID is not found in the repository
+     */
+    public void updateResult(String url, boolean matched) throws SearchNotFoundException {
+        if (matched) {
+            addUrlToResults(url);
+        } else {
+            withdrawIndexedResult(url);
+        }
+    }
+
+    /**
+     * Withdraws a result answered by the corpus index, when its page no longer matches or can no
+     * longer be crawled. URLs that were not answered by the index are left alone.
+     *
+     * @param url the crawled URL
+     * @throws SearchNotFoundException if the search ID is not found in the repository
+     */
+    public void withdrawIndexedResult(String url) throws SearchNotFoundException {
+        if (!indexedResults.isEmpty() && indexedResults.remove(url)) {
+            repoService.removeUrlFromSearch(getSearchId(), url);
+        }
+    }
+
     /**
      * Gets the count of pending URLs.
      *
@@ -187,19 +374,38 @@ public class CrawlJob {
         return visitedUrlsCounter.get();
     }
 
+    /**
+     * Gets the count of URLs currently being processed.
+     *
+     * @return the count of processing URLs
+     */
     public int getProcessingUrlsCount() {
         return processingUrlsCounter.get();
     }
 
     /**
-     * Marks a URL as processed by adding it to the visited set and incrementing the counter.
+     * Marks a URL as processed by incrementing the visited counter.
+     * The URL itself was recorded in the seen set when it was queued.
+     * Links discovered on the page must be added before calling this method.
      *
      * @param url the URL to mark as processed
+     * @return true if this was the last outstanding URL and the job is now complete
      */
-    public void markUrlAsProcessed(String url) {
-        visitedUrls.add(url);
+    public boolean markUrlAsProcessed(String url) {
+        if (!failedAttempts.isEmpty()) {
+            failedAttempts.remove(url);
+        }
         visitedUrlsCounter.incrementAndGet();
         processingUrlsCounter.decrementAndGet();
+        return outstandingUrlsCounter.decrementAndGet() == 0;
+    }
+
+    /**
+     * Releases the resources of a finished job: the frontier is closed, and the URL store, owned
+     * by the job, is freed with it.
+     */
+    public void close() {
+        pendingUrls.close();
     }
 
     /**
@@ -0,0 +1,58 @@
+package br.dev.dias.crawler;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Breadth-first {@link UrlFrontier} backed by a growable ring buffer of ids in a {@link UrlStore}.
+ * Offers and polls only move an index under a short lock, so contention stays negligible next
+ * to the page fetches the workers spend their time on.
+ */
+public class FifoUrlFrontier implements UrlFrontier {
+
+    private final UrlStore urlStore;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final IntRingBuffer elements = new IntRingBuffer();
+    private volatile int size;
+
+    /**
+     * Constructs a FIFO frontier.
+     *
+     * @param urlStore the store holding the pending URLs
+     */
+    public FifoUrlFrontier(UrlStore urlStore) {
+        this.urlStore = urlStore;
+    }
+
+    @Override
+    public void offer(String url) {
+        int urlId = urlStore.add(url);
+        lock.lock();
+        try {
+            elements.add(urlId);
+            size = elements.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String poll() {
+        int urlId;
+        lock.lock();
+        try {
+            if (elements.isEmpty()) {
+                return null;
+            }
+            urlId = elements.poll();
+            size = elements.size();
+        } finally {
+            lock.unlock();
+        }
+        return urlStore.take(urlId);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
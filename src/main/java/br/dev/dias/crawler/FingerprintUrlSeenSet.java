@@ -0,0 +1,160 @@
+package br.dev.dias.crawler;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * {@link UrlSeenSet} that stores 64-bit URL fingerprints in primitive open-addressing tables.
+ * No object is allocated per URL: each entry costs one {@code long} slot, about 8 to 16 bytes
+ * depending on the table load.
+ *
+ * The table is split into independently locked segments selected by the high bits of the
+ * fingerprint, so a segment can be resized while the others keep admitting URLs. Lookups are
+ * lock-free and read the slots with acquire semantics.
+ *
+ * Two different URLs sharing the same 64-bit fingerprint are treated as the same URL; with a
+ * million URLs the chance of this happening at all is about one in 36 million.
+ */
+public class FingerprintUrlSeenSet implements UrlSeenSet {
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * Marker for free slots. Fingerprints equal to it are remapped to {@link #ZERO_REPLACEMENT}.
+     */
+    private static final long EMPTY = 0L;
+    private static final long ZERO_REPLACEMENT = 0x9e3779b97f4a7c15L;
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+    private static final int INITIAL_SEGMENT_CAPACITY = 64;
+    private static final double MAX_LOAD_FACTOR = 0.75;
+
+    /**
+     * Growth factor of a full segment. Growing by half keeps the average load above 50%,
+     * i.e. below 16 bytes per URL, unlike the usual doubling.
+     */
+    private static final double GROWTH_FACTOR = 1.5;
+
+    private final Segment[] segments;
+
+    /**
+     * Constructs an empty fingerprint set.
+     */
+    public FingerprintUrlSeenSet() {
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    @Override
+    public boolean add(String url) {
+        long fingerprint = fingerprint(url);
+        return segmentFor(fingerprint).add(fingerprint);
+    }
+
+    @Override
+    public boolean contains(String url) {
+        long fingerprint = fingerprint(url);
+        return segmentFor(fingerprint).contains(fingerprint);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of bytes held by the fingerprint tables.
+     *
+     * @return the size of all tables in bytes
+     */
+    public long getTableBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += (long) segment.table.length * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private Segment segmentFor(long fingerprint) {
+        return segments[(int) (fingerprint >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+
+    private static long fingerprint(String url) {
+        long fingerprint = UrlFingerprint.of(url);
+        return fingerprint == EMPTY ? ZERO_REPLACEMENT : fingerprint;
+    }
+
+    private static int indexFor(long fingerprint, int capacity) {
+        return (int) Long.remainderUnsigned(fingerprint, capacity);
+    }
+
+    /**
+     * A linear-probing table of fingerprints guarded by its own monitor for writes.
+     */
+    private static final class Segment {
+        private volatile long[] table = new long[INITIAL_SEGMENT_CAPACITY];
+        private volatile int size;
+
+        synchronized boolean add(long fingerprint) {
+            if (size + 1 > table.length * MAX_LOAD_FACTOR) {
+                resize();
+            }
+            long[] current = table;
+            int index = indexFor(fingerprint, current.length);
+            while (true) {
+                long slot = current[index];
+                if (slot == fingerprint) {
+                    return false;
+                }
+                if (slot == EMPTY) {
+                    SLOTS.setRelease(current, index, fingerprint);
+                    size++;
+                    return true;
+                }
+                index = index + 1 == current.length ? 0 : index + 1;
+            }
+        }
+
+        boolean contains(long fingerprint) {
+            long[] current = table;
+            int index = indexFor(fingerprint, current.length);
+            for (int probes = 0; probes < current.length; probes++) {
+                long slot = (long) SLOTS.getAcquire(current, index);
+                if (slot == fingerprint) {
+                    return true;
+                }
+                if (slot == EMPTY) {
+                    return false;
+                }
+                index = index + 1 == current.length ? 0 : index + 1;
+            }
+            return false;
+        }
+
+        /**
+         * Rehashes into a larger table and publishes it; concurrent readers keep using the
+         * previous table until they see the new reference.
+         */
+        private void resize() {
+            long[] current = table;
+            long[] resized = new long[(int) Math.ceil(current.length * GROWTH_FACTOR)];
+            for (long fingerprint : current) {
+                if (fingerprint != EMPTY) {
+                    int index = indexFor(fingerprint, resized.length);
+                    while (resized[index] != EMPTY) {
+                        index = index + 1 == resized.length ? 0 : index + 1;
+                    }
+                    resized[index] = fingerprint;
+                }
+            }
+            table = resized;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package br.dev.dias.crawler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-host circuit breaker keeping the crawler from hammering a host that stopped answering.
+ *
+ * After {@code failureThreshold} consecutive connection failures the host's circuit opens and
+ * requests to it are held back for the open duration. Once it elapses a single probe request is let
+ * through (half-open): its success closes the circuit, and its failure opens it again for twice as
+ * long, up to a maximum. A probe with no recorded outcome after the maximum open duration is taken
+ * as lost, and another one is let through.
+ */
+public class HostCircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long maxOpenNanos;
+    private final ConcurrentHashMap<String, Circuit> circuits;
+
+    /**
+     * Constructs a breaker opening after the given number of consecutive failures.
+     *
+     * @param failureThreshold the number of consecutive failures opening a circuit
+     * @param openMillis the time an opened circuit holds requests back
+     * @param maxOpenMillis the maximum time a circuit that keeps failing holds requests back
+     */
+    public HostCircuitBreaker(int failureThreshold, long openMillis, long maxOpenMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, openMillis));
+        this.maxOpenNanos = Math.max(this.openNanos, TimeUnit.MILLISECONDS.toNanos(maxOpenMillis));
+        this.circuits = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Tells how long a request to the host must wait. A zero answer lets the request through, and
+     * counts it as the probe when the circuit is half-open.
+     *
+     * @param host the host of the request
+     * @return 0 if the request may be sent now, otherwise the milliseconds to wait before asking again
+     */
+    public long delayBeforeRequest(String host) {
+        Circuit circuit = circuits.get(host);
+        if (circuit == null) {
+            return 0;
+        }
+        synchronized (circuit) {
+            if (!circuit.open) {
+                return 0;
+            }
+            long now = System.nanoTime();
+            long remaining = circuit.openUntil - now;
+            if (remaining > 0) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining));
+            }
+            if (!circuit.probing || now - circuit.probeStartedAt > maxOpenNanos) {
+                circuit.probing = true;
+                circuit.probeStartedAt = now;
+                return 0;
+            }
+            // A probe is in flight, its outcome decides
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(openNanos));
+        }
+    }
+
+    /**
+     * Records that the host answered, closing its circuit.
+     *
+     * @param host the host of the request
+     */
+    public void recordSuccess(String host) {
+        Circuit circuit = circuits.get(host);
+        if (circuit == null) {
+            return;
+        }
+        synchronized (circuit) {
+            circuit.consecutiveFailures = 0;
+            circuit.open = false;
+            circuit.probing = false;
+            circuit.currentOpenNanos = openNanos;
+        }
+    }
+
+    /**
+     * Records that the host could not be reached, opening its circuit once failures pile up.
+     *
+     * @param host the host of the request
+     */
+    public void recordFailure(String host) {
+        Circuit circuit = circuits.computeIfAbsent(host, h -> new Circuit(openNanos));
+        synchronized (circuit) {
+            circuit.consecutiveFailures++;
+            long now = System.nanoTime();
+            if (circuit.probing) {
+                circuit.probing = false;
+                circuit.currentOpenNanos = Math.min(maxOpenNanos, circuit.currentOpenNanos * 2);
+                circuit.openUntil = now + circuit.currentOpenNanos;
+            } else if (!circuit.open && circuit.consecutiveFailures >= failureThreshold) {
+                circuit.open = true;
+                circuit.openUntil = now + circuit.currentOpenNanos;
+            }
+        }
+    }
+
+    /**
+     * Tells whether the host's circuit is open or half-open.
+     *
+     * @param host the host
+     * @return true if requests to the host are being held back
+     */
+    public boolean isOpen(String host) {
+        Circuit circuit = circuits.get(host);
+        if (circuit == null) {
+            return false;
+        }
+        synchronized (circuit) {
+            return circuit.open;
+        }
+    }
+
+    private static final class Circuit {
+        private int consecutiveFailures;
+        // A flag rather than a zero openUntil, since nanoTime values may be zero or negative
+        private boolean open;
+        private long openUntil;
+        private long currentOpenNanos;
+        private boolean probing;
+        private long probeStartedAt;
+
+        Circuit(long openNanos) {
+            this.currentOpenNanos = openNanos;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package br.dev.dias.crawler;
+
+/**
+ * Growable FIFO ring buffer of {@code int} values. Not thread-safe: callers guard it with their own lock.
+ */
+class IntRingBuffer {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int[] elements = new int[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+
+    void add(int value) {
+        if (size == elements.length) {
+            resize(elements.length * 2);
+        }
+        elements[(head + size) & (elements.length - 1)] = value;
+        size++;
+    }
+
+    /**
+     * Removes the oldest value. The buffer must not be empty.
+     */
+    int poll() {
+        int value = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        if (elements.length > INITIAL_CAPACITY && size < elements.length / 4) {
+            resize(elements.length / 2);
+        }
+        return value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void resize(int capacity) {
+        int[] resized = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            resized[i] = elements[(head + i) & (elements.length - 1)];
+        }
+        elements = resized;
+        head = 0;
+    }
+}
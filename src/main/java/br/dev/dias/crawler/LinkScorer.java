@@ -0,0 +1,85 @@
+package br.dev.dias.crawler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Estimates how likely a link is to lead to a page containing a job's keyword.
+ * The score rewards the keyword (or its words) appearing in the URL or the anchor text, and
+ * links found on a page that already matched; deeper URLs get a small penalty so that ties are
+ * broken breadth-first.
+ */
+public class LinkScorer {
+
+    private static final double KEYWORD_IN_URL = 4.0;
+    private static final double KEYWORD_IN_ANCHOR = 3.0;
+    private static final double WORD_IN_URL = 1.0;
+    private static final double WORD_IN_ANCHOR = 1.0;
+    private static final double PARENT_MATCHED = 2.0;
+    private static final double DEPTH_PENALTY = 0.1;
+    private static final int MIN_WORD_LENGTH = 3;
+
+    private final String keyword;
+    private final String[] words;
+
+    /**
+     * Constructs a scorer for the given keyword.
+     *
+     * @param keyword the keyword of the crawl job
+     */
+    public LinkScorer(String keyword) {
+        this.keyword = keyword.toLowerCase(Locale.ROOT);
+        List<String> keywordWords = new ArrayList<>();
+        for (String word : this.keyword.split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= MIN_WORD_LENGTH) {
+                keywordWords.add(word);
+            }
+        }
+        // A single-word keyword is already covered by the whole-keyword checks.
+        this.words = keywordWords.size() > 1 ? keywordWords.toArray(new String[0]) : new String[0];
+    }
+
+    /**
+     * Scores a link; higher scores are crawled first.
+     *
+     * @param url the resolved URL of the link
+     * @param anchorText the text of the link's anchor, may be null
+     * @param parentMatched whether the page containing the link matched the keyword
+     * @return the score of the link
+     */
+    public double score(String url, String anchorText, boolean parentMatched) {
+        String lowerUrl = url.toLowerCase(Locale.ROOT);
+        String lowerAnchor = anchorText == null ? "" : anchorText.toLowerCase(Locale.ROOT);
+        double score = 0;
+        if (lowerUrl.contains(keyword)) {
+            score += KEYWORD_IN_URL;
+        }
+        if (lowerAnchor.contains(keyword)) {
+            score += KEYWORD_IN_ANCHOR;
+        }
+        for (String word : words) {
+            if (lowerUrl.contains(word)) {
+                score += WORD_IN_URL;
+            }
+            if (lowerAnchor.contains(word)) {
+                score += WORD_IN_ANCHOR;
+            }
+        }
+        if (parentMatched) {
+            score += PARENT_MATCHED;
+        }
+        return score - DEPTH_PENALTY * depth(url);
+    }
+
+    private static int depth(String url) {
+        int schemeEnd = url.indexOf("://");
+        int depth = 0;
+        for (int i = schemeEnd < 0 ? 0 : schemeEnd + 3; i < url.length(); i++) {
+            if (url.charAt(i) == '/') {
+                depth++;
+            }
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,208 @@
+package br.dev.dias.crawler;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Best-first {@link UrlFrontier} for focused crawls.
+ * URLs are spread over several independently locked binary heaps (a "MultiQueue"): offers go to
+ * a random heap, and polls compare the tops of two random heaps and take the better one. Workers
+ * therefore rarely contend on the same lock, at the cost of a slightly relaxed order: a poll
+ * returns one of the best URLs rather than always the single best one.
+ *
+ * URLs with the same priority come out in insertion order. The heaps hold ids in a {@link UrlStore}.
+ */
+public class PriorityUrlFrontier implements UrlFrontier {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int NO_ID = -1;
+    private static final int SEQUENCE_BITS = 40;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final double PRIORITY_SCALE = 100;
+    private static final long MAX_PRIORITY_BUCKET = 1L << 22;
+
+    private final UrlStore urlStore;
+    private final Stripe[] stripes;
+    private final AtomicLong sequence;
+    private final AtomicInteger size;
+
+    /**
+     * Constructs a priority frontier with the given number of heaps.
+     * About twice the number of concurrent workers keeps contention low.
+     *
+     * @param stripeCount the number of heaps
+     * @param urlStore the store holding the pending URLs
+     */
+    public PriorityUrlFrontier(int stripeCount, UrlStore urlStore) {
+        this.urlStore = urlStore;
+        this.stripes = new Stripe[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.sequence = new AtomicLong();
+        this.size = new AtomicInteger();
+    }
+
+    @Override
+    public void offer(String url) {
+        offer(url, 0);
+    }
+
+    @Override
+    public void offer(String url, double priority) {
+        int urlId = urlStore.add(url);
+        long key = key(priority, sequence.getAndIncrement());
+        Stripe stripe = lockRandomStripe();
+        try {
+            stripe.push(key, urlId);
+        } finally {
+            stripe.lock.unlock();
+        }
+        size.incrementAndGet();
+    }
+
+    @Override
+    public String poll() {
+        int urlId = pollId();
+        return urlId == NO_ID ? null : urlStore.take(urlId);
+    }
+
+    private int pollId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (size.get() > 0) {
+            Stripe first = stripes[random.nextInt(stripes.length)];
+            Stripe second = stripes[random.nextInt(stripes.length)];
+            Stripe best = first.top >= second.top ? first : second;
+            if (best.top == EMPTY) {
+                return pollAny(random.nextInt(stripes.length));
+            }
+            best.lock.lock();
+            try {
+                if (best.count > 0) {
+                    size.decrementAndGet();
+                    return best.pop();
+                }
+            } finally {
+                best.lock.unlock();
+            }
+        }
+        return NO_ID;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public boolean usesPriority() {
+        return true;
+    }
+
+    /**
+     * Scans every heap once, starting at the given one, for when random probing found only empty heaps.
+     */
+    private int pollAny(int start) {
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[(start + i) % stripes.length];
+            stripe.lock.lock();
+            try {
+                if (stripe.count > 0) {
+                    size.decrementAndGet();
+                    return stripe.pop();
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return NO_ID;
+    }
+
+    private Stripe lockRandomStripe() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < stripes.length; attempt++) {
+            Stripe stripe = stripes[random.nextInt(stripes.length)];
+            if (stripe.lock.tryLock()) {
+                return stripe;
+            }
+        }
+        Stripe stripe = stripes[random.nextInt(stripes.length)];
+        stripe.lock.lock();
+        return stripe;
+    }
+
+    /**
+     * Packs the priority, rounded to two decimals, above an inverted insertion sequence, so a
+     * larger key means a better priority or an older URL.
+     */
+    private static long key(double priority, long sequence) {
+        long bucket = Math.max(-MAX_PRIORITY_BUCKET, Math.min(MAX_PRIORITY_BUCKET, Math.round(priority * PRIORITY_SCALE)));
+        return (bucket << SEQUENCE_BITS) | (SEQUENCE_MASK - (sequence & SEQUENCE_MASK));
+    }
+
+    /**
+     * A binary max-heap of URL ids guarded by its own lock. Its best key is published in
+     * {@link #top} so other workers can compare heaps without locking them.
+     */
+    private static final class Stripe {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private int[] ids = new int[INITIAL_CAPACITY];
+        private int count;
+        private volatile long top = EMPTY;
+
+        void push(long key, int id) {
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            int index = count++;
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (keys[parent] >= key) {
+                    break;
+                }
+                keys[index] = keys[parent];
+                ids[index] = ids[parent];
+                index = parent;
+            }
+            keys[index] = key;
+            ids[index] = id;
+            top = keys[0];
+        }
+
+        int pop() {
+            int id = ids[0];
+            count--;
+            if (count > 0) {
+                long key = keys[count];
+                int last = ids[count];
+                int index = 0;
+                while (true) {
+                    int child = 2 * index + 1;
+                    if (child >= count) {
+                        break;
+                    }
+                    if (child + 1 < count && keys[child + 1] > keys[child]) {
+                        child++;
+                    }
+                    if (keys[child] <= key) {
+                        break;
+                    }
+                    keys[index] = keys[child];
+                    ids[index] = ids[child];
+                    index = child;
+                }
+                keys[index] = key;
+                ids[index] = last;
+            }
+            top = count > 0 ? keys[0] : EMPTY;
+            return id;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package br.dev.dias.crawler;
+
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs retries of failed URLs once their backoff delay elapsed, without holding a worker meanwhile.
+ * Pending retries wait in a {@link DelayQueue} drained by a single daemon thread, which runs each
+ * retry action as it becomes due. Actions are expected to be short, typically putting the URL back
+ * on its job's queue.
+ *
+ * Delays grow exponentially with the attempt number, up to a maximum, and are jittered so that
+ * URLs failing together during an outage are not all retried at the same instant.
+ */
+public class RetryScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetryScheduler.class);
+
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final DelayQueue<Retry> retries;
+    private final Thread dispatcher;
+
+    /**
+     * Constructs a scheduler whose backoff starts at {@code baseDelayMillis} and doubles up to {@code maxDelayMillis}.
+     *
+     * @param baseDelayMillis the delay before the first retry
+     * @param maxDelayMillis the maximum delay before a retry
+     */
+    public RetryScheduler(long baseDelayMillis, long maxDelayMillis) {
+        this.baseDelayMillis = Math.max(1, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+        this.retries = new DelayQueue<>();
+        this.dispatcher = Thread.ofPlatform().name("retry-scheduler").daemon().start(this::dispatch);
+    }
+
+    /**
+     * Computes the delay before the given retry: the base delay doubled for every previous attempt,
+     * capped, of which a random half is kept ("equal jitter").
+     *
+     * @param attempt the number of failed attempts so far, starting at one
+     * @return the delay in milliseconds
+     */
+    public long backoffDelayMillis(int attempt) {
+        long delay = baseDelayMillis << Math.min(Math.max(attempt - 1, 0), 30);
+        if (delay <= 0 || delay > maxDelayMillis) {
+            delay = maxDelayMillis;
+        }
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+
+    /**
+     * Runs an action once the given delay has elapsed.
+     *
+     * @param action the retry to run
+     * @param delayMillis the delay in milliseconds
+     */
+    public void schedule(Runnable action, long delayMillis) {
+        retries.add(new Retry(action, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis))));
+    }
+
+    /**
+     * Gets the number of retries waiting for their delay to elapse.
+     *
+     * @return the number of pending retries
+     */
+    public int size() {
+        return retries.size();
+    }
+
+    /**
+     * Stops the scheduler, dropping the pending retries.
+     */
+    public void shutdown() {
+        LOGGER.info("Shutting down RetryScheduler with {} pending retries...", retries.size());
+        dispatcher.interrupt();
+        retries.clear();
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Retry retry;
+            try {
+                retry = retries.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                retry.action.run();
+            } catch (RuntimeException e) {
+                LOGGER.error("Retry failed to run.", e);
+            }
+        }
+    }
+
+    private static final class Retry implements Delayed {
+        private final Runnable action;
+        private final long dueNanos;
+
+        Retry(Runnable action, long dueNanos) {
+            this.action = action;
+            this.dueNanos = dueNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Retry retry) {
+                return Long.compare(dueNanos - retry.dueNanos, 0);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package br.dev.dias.crawler;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Probabilistic {@link UrlSeenSet} backed by a scalable Bloom filter.
+ * Uses a few bytes per URL at a 1% false-positive rate, independently of the URL length and well
+ * below the 8 bytes of a fingerprint. The cost is that a new URL is occasionally reported as
+ * already seen. Such URLs are never crawled, so the set keeps an estimate of how many pages were
+ * skipped that way.
+ *
+ * The filter starts with a single Bloom filter sized for {@link #INITIAL_CAPACITY} URLs. When it
+ * is full, a new filter with {@link #GROWTH_FACTOR} times the capacity and a tighter error rate
+ * (times {@link #TIGHTENING_RATIO}) is appended, which bounds the compound false-positive rate
+ * by the configured one however many URLs are added.
+ */
+public class ScalableBloomUrlSeenSet implements UrlSeenSet {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    /**
+     * Admissions of the same URL are serialized on one of these locks, so a URL reported by
+     * several workers at once is admitted exactly once.
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    private final double falsePositiveRate;
+    private final Object[] locks;
+    private final AtomicInteger size;
+    private final DoubleAdder expectedFalsePositives;
+    private volatile BloomFilter[] filters;
+
+    /**
+     * Constructs a scalable Bloom filter with the given compound false-positive rate.
+     *
+     * @param falsePositiveRate the maximum probability of reporting a new URL as seen, between 0 and 1 (exclusive)
+     */
+    public ScalableBloomUrlSeenSet(double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1.");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.size = new AtomicInteger();
+        this.expectedFalsePositives = new DoubleAdder();
+        this.filters = new BloomFilter[] {
+            new BloomFilter(INITIAL_CAPACITY, falsePositiveRate * (1 - TIGHTENING_RATIO))
+        };
+    }
+
+    @Override
+    public boolean add(String url) {
+        long fingerprint = UrlFingerprint.of(url);
+        synchronized (locks[(int) (fingerprint >>> 58) & (LOCK_STRIPES - 1)]) {
+            if (mightContain(fingerprint)) {
+                return false;
+            }
+            // Every new URL faces the current false-positive probability of being skipped, so
+            // summing p / (1 - p) over admissions estimates how many new URLs were rejected.
+            double current = currentFalsePositiveRate();
+            expectedFalsePositives.add(current / (1 - current));
+            currentFilter().put(fingerprint);
+            size.incrementAndGet();
+            return true;
+        }
+    }
+
+    @Override
+    public boolean contains(String url) {
+        return mightContain(UrlFingerprint.of(url));
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public double getExpectedFalsePositives() {
+        return expectedFalsePositives.sum();
+    }
+
+    /**
+     * Gets the configured compound false-positive rate.
+     *
+     * @return the false-positive rate
+     */
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * Gets the number of bytes held by the bit arrays of all filters.
+     *
+     * @return the size of all filters in bytes
+     */
+    public long getFilterBytes() {
+        long bytes = 0;
+        for (BloomFilter filter : filters) {
+            bytes += (long) filter.words.length * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private boolean mightContain(long fingerprint) {
+        for (BloomFilter filter : filters) {
+            if (filter.mightContain(fingerprint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the probability that a new URL is reported as seen by any of the filters.
+     */
+    private double currentFalsePositiveRate() {
+        double allNegative = 1;
+        for (BloomFilter filter : filters) {
+            allNegative *= 1 - filter.estimatedFalsePositiveRate();
+        }
+        return 1 - allNegative;
+    }
+
+    /**
+     * Returns the filter accepting new URLs, appending a larger one when it is full.
+     */
+    private BloomFilter currentFilter() {
+        BloomFilter[] current = filters;
+        BloomFilter last = current[current.length - 1];
+        if (last.count.get() < last.capacity) {
+            return last;
+        }
+        synchronized (this) {
+            current = filters;
+            last = current[current.length - 1];
+            if (last.count.get() >= last.capacity) {
+                BloomFilter[] scaled = new BloomFilter[current.length + 1];
+                System.arraycopy(current, 0, scaled, 0, current.length);
+                last = new BloomFilter(last.capacity * GROWTH_FACTOR, last.targetRate * TIGHTENING_RATIO);
+                scaled[current.length] = last;
+                filters = scaled;
+            }
+            return last;
+        }
+    }
+
+    /**
+     * A fixed-size Bloom filter over a lock-free bit array, indexed by double hashing of the
+     * URL fingerprint.
+     */
+    private static final class BloomFilter {
+        private final long capacity;
+        private final double targetRate;
+        private final long bits;
+        private final int hashes;
+        private final long[] words;
+        private final AtomicInteger count;
+
+        BloomFilter(long capacity, double targetRate) {
+            this.capacity = capacity;
+            this.targetRate = targetRate;
+            double ln2 = Math.log(2);
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(targetRate) / (ln2 * ln2));
+            this.words = new long[(int) ((optimalBits + Long.SIZE - 1) / Long.SIZE)];
+            this.bits = (long) words.length * Long.SIZE;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * ln2));
+            this.count = new AtomicInteger();
+        }
+
+        void put(long fingerprint) {
+            long step = UrlFingerprint.mix(fingerprint) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(fingerprint + i * step, bits);
+                WORDS.getAndBitwiseOr(words, (int) (bit >>> 6), 1L << bit);
+            }
+            count.incrementAndGet();
+        }
+
+        boolean mightContain(long fingerprint) {
+            long step = UrlFingerprint.mix(fingerprint) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(fingerprint + i * step, bits);
+                long word = (long) WORDS.getAcquire(words, (int) (bit >>> 6));
+                if ((word & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double estimatedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-(double) hashes * count.get() / bits), hashes);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package br.dev.dias.crawler;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * FIFO {@link UrlFrontier} that keeps a bounded head in memory and spills the overflow to disk.
+ * URLs are held as UTF-8 bytes, not interned anywhere: once the head is full, new URLs are appended
+ * as length-prefixed records to memory-mapped segment files and read back sequentially into the
+ * head as it drains. The heap used by the frontier is therefore bounded by the head, however large
+ * the site is. Exhausted segments are recycled for later spills instead of being remapped.
+ *
+ * If a segment cannot be created the frontier logs the failure and queues the overflow in memory
+ * behind the spilled URLs, so the FIFO order is kept. Creating a segment is retried after a delay
+ * that doubles while it keeps failing; once it succeeds, the URLs queued in memory are spilled first.
+ */
+public class SpillingUrlFrontier implements UrlFrontier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillingUrlFrontier.class);
+
+    /**
+     * Size of a segment file in bytes (4 MB).
+     */
+    public static final int DEFAULT_SEGMENT_BYTES = 4 << 20;
+
+    /**
+     * Maximum number of exhausted segments kept mapped for reuse.
+     */
+    private static final int MAX_FREE_SEGMENTS = 2;
+
+    /**
+     * Default delay before retrying to create a segment after a failure, in milliseconds.
+     */
+    public static final long DEFAULT_RETRY_DELAY_MILLIS = 1000;
+
+    /**
+     * Upper bound of the doubling retry delay, in milliseconds.
+     */
+    private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+
+    private final Path directory;
+    private final int memoryCapacity;
+    private final int segmentBytes;
+    private final ReentrantLock lock;
+    private final Deque<byte[]> head;
+    private final Deque<Segment> segments;
+    private final Deque<byte[]> overflow;
+    private final Deque<Segment> freeSegments;
+    private final long retryDelayNanos;
+    private volatile int size;
+    private int spilled;
+    private boolean spillFailing;
+    private long nextSpillAttempt;
+    private long spillBackoffNanos;
+
+    /**
+     * Constructs a spilling frontier with the default segment size.
+     *
+     * @param directory the directory where segment files are created
+     * @param memoryCapacity the maximum number of URLs kept in memory
+     */
+    public SpillingUrlFrontier(Path directory, int memoryCapacity) {
+        this(directory, memoryCapacity, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Constructs a spilling frontier.
+     *
+     * @param directory the directory where segment files are created
+     * @param memoryCapacity the maximum number of URLs kept in memory
+     * @param segmentBytes the size of a segment file in bytes
+     */
+    public SpillingUrlFrontier(Path directory, int memoryCapacity, int segmentBytes) {
+        this(directory, memoryCapacity, segmentBytes, DEFAULT_RETRY_DELAY_MILLIS);
+    }
+
+    /**
+     * Constructs a spilling frontier.
+     *
+     * @param directory the directory where segment files are created
+     * @param memoryCapacity the maximum number of URLs kept in memory
+     * @param segmentBytes the size of a segment file in bytes
+     * @param retryDelayMillis the initial delay before retrying to create a segment after a failure
+     */
+    public SpillingUrlFrontier(Path directory, int memoryCapacity, int segmentBytes, long retryDelayMillis) {
+        this.directory = directory;
+        this.memoryCapacity = Math.max(1, memoryCapacity);
+        this.segmentBytes = Math.max(Integer.BYTES + 1, segmentBytes);
+        this.lock = new ReentrantLock();
+        this.head = new ArrayDeque<>();
+        this.segments = new ArrayDeque<>();
+        this.overflow = new ArrayDeque<>();
+        this.freeSegments = new ArrayDeque<>();
+        this.retryDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, retryDelayMillis));
+        this.spillBackoffNanos = retryDelayNanos;
+    }
+
+    @Override
+    public void offer(String url) {
+        byte[] record = url.getBytes(StandardCharsets.UTF_8);
+        lock.lock();
+        try {
+            // The order is head, then disk, then the in-memory overflow: new URLs go to the first
+            // place that is not full, but never ahead of URLs already queued after it.
+            if (spilled == 0 && overflow.isEmpty() && head.size() < memoryCapacity) {
+                head.addLast(record);
+            } else if (!spill(record)) {
+                overflow.addLast(record);
+            }
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String poll() {
+        byte[] record;
+        lock.lock();
+        try {
+            if (head.isEmpty()) {
+                refill();
+            }
+            record = head.pollFirst();
+            if (record == null) {
+                return null;
+            }
+            size--;
+        } finally {
+            lock.unlock();
+        }
+        return new String(record, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of URLs currently stored on disk, excluding the overflow kept in memory
+     * while segments cannot be created.
+     *
+     * @return the number of spilled URLs
+     */
+    public int getSpilledCount() {
+        lock.lock();
+        try {
+            return spilled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes every segment file of the frontier.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            segments.forEach(Segment::delete);
+            freeSegments.forEach(Segment::delete);
+            segments.clear();
+            freeSegments.clear();
+            spilled = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a record after the spilled ones, first moving the in-memory overflow to disk so it
+     * stays ahead of the record.
+     *
+     * @return true if the record was spilled, false if it has to be queued in the overflow
+     */
+    private boolean spill(byte[] record) {
+        if (spillFailing && System.nanoTime() - nextSpillAttempt < 0) {
+            return false;
+        }
+        while (!overflow.isEmpty() && write(overflow.peekFirst())) {
+            overflow.pollFirst();
+        }
+        return overflow.isEmpty() && write(record);
+    }
+
+    private boolean write(byte[] record) {
+        if (Integer.BYTES + record.length > segmentBytes) {
+            return false;
+        }
+        Segment tail = segments.peekLast();
+        if (tail == null || !tail.fits(record)) {
+            tail = acquireSegment();
+            if (tail == null) {
+                return false;
+            }
+            segments.addLast(tail);
+        }
+        tail.write(record);
+        spilled++;
+        return true;
+    }
+
+    /**
+     * Moves queued URLs back into the head, reading the oldest segments sequentially before the
+     * in-memory overflow.
+     */
+    private void refill() {
+        while (head.size() < memoryCapacity && spilled > 0) {
+            Segment segment = segments.peekFirst();
+            int count = Math.min(segment.remaining(), memoryCapacity - head.size());
+            for (int i = 0; i < count; i++) {
+                head.addLast(segment.read());
+            }
+            spilled -= count;
+            if (segment.remaining() == 0) {
+                segments.pollFirst();
+                recycle(segment);
+            }
+        }
+        while (head.size() < memoryCapacity && !overflow.isEmpty()) {
+            head.addLast(overflow.pollFirst());
+        }
+    }
+
+    private Segment acquireSegment() {
+        Segment segment = freeSegments.pollFirst();
+        if (segment != null) {
+            return segment;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path path = Files.createTempFile(directory, "frontier-", ".seg");
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+                LOGGER.debug("Created frontier segment {}", path);
+                spillFailing = false;
+                spillBackoffNanos = retryDelayNanos;
+                return new Segment(path, buffer);
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.error("Failed to create a frontier segment in {}. Keeping the overflow in memory for {} ms.",
+                    directory, TimeUnit.NANOSECONDS.toMillis(spillBackoffNanos), e);
+            spillFailing = true;
+            nextSpillAttempt = System.nanoTime() + spillBackoffNanos;
+            spillBackoffNanos = Math.min(2 * spillBackoffNanos, TimeUnit.MILLISECONDS.toNanos(MAX_RETRY_DELAY_MILLIS));
+            return null;
+        }
+    }
+
+    private void recycle(Segment segment) {
+        segment.reset();
+        if (freeSegments.size() < MAX_FREE_SEGMENTS) {
+            freeSegments.addLast(segment);
+        } else {
+            segment.delete();
+        }
+    }
+
+    /**
+     * An append-only, memory-mapped file of length-prefixed URL records read back in order.
+     */
+    private static final class Segment {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int readPosition;
+        private int writePosition;
+        private int readCount;
+        private int writeCount;
+
+        Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        boolean fits(byte[] record) {
+            return buffer.capacity() - writePosition >= Integer.BYTES + record.length;
+        }
+
+        void write(byte[] record) {
+            buffer.putInt(writePosition, record.length);
+            buffer.put(writePosition + Integer.BYTES, record);
+            writePosition += Integer.BYTES + record.length;
+            writeCount++;
+        }
+
+        byte[] read() {
+            byte[] record = new byte[buffer.getInt(readPosition)];
+            buffer.get(readPosition + Integer.BYTES, record);
+            readPosition += Integer.BYTES + record.length;
+            readCount++;
+            return record;
+        }
+
+        int remaining() {
+            return writeCount - readCount;
+        }
+
+        void reset() {
+            readPosition = 0;
+            writePosition = 0;
+            readCount = 0;
+            writeCount = 0;
+        }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to delete frontier segment {}", path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,538 @@
+package br.dev.dias.crawler;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Trigram inverted index over the text of the most recently crawled pages.
+ * Each indexed page gets a sequential document number, and every distinct trigram of its
+ * case-folded text gets the document number appended to a posting list. Posting lists are
+ * delta-encoded varints, and the page text is kept deflated for verification.
+ *
+ * A keyword containing a substring must contain all of its trigrams, so intersecting the posting
+ * lists of the keyword's trigrams yields a small candidate set. Candidates are then verified
+ * against their stored text, which makes answers exact. Keywords shorter than three characters
+ * have no trigram and are verified against every stored page.
+ *
+ * The index holds up to a fixed number of pages; past it, the page indexed longest ago is evicted.
+ * Re-indexing a page supersedes its previous document. Superseded and evicted document numbers
+ * are skipped at query time, and once they outnumber the live documents the posting lists are
+ * rewritten without them.
+ */
+public class TrigramIndex {
+
+    private static final int INITIAL_DOCUMENT_CAPACITY = 1 << 10;
+
+    /**
+     * Number of dead documents below which the posting lists are never rewritten.
+     */
+    private static final int MIN_COMPACTION_DOCUMENTS = 64;
+
+    /**
+     * Approximate size of a URL string and its entry in the map of current documents, besides its chars.
+     */
+    private static final int URL_OVERHEAD_BYTES = 96;
+
+    private static final int ENCODE_BUFFER_CHARS = 8192;
+
+    /**
+     * Marks an occupied slot of the trigram set, above the 48 bits of a packed trigram.
+     */
+    private static final long OCCUPIED = 1L << 48;
+
+    private final int maxPages;
+    private final ReentrantReadWriteLock lock;
+    private final Map<Long, PostingList> postings;
+    private final Map<String, Integer> currentDocuments;
+    private String[] documentUrls;
+    private int[] documentLengths;
+    private byte[][] documentTexts;
+    private int documentCount;
+    private int oldestDocument;
+    private int deadDocuments;
+    private long textBytes;
+    private long postingBytes;
+    private long urlBytes;
+
+    /**
+     * Constructs an empty index holding up to the given number of pages. The index keeps the URLs
+     * of its pages itself, independently of the URL stores of the crawl jobs, which are released
+     * when their job finishes.
+     *
+     * @param maxPages the number of pages kept before the oldest ones are evicted
+     */
+    public TrigramIndex(int maxPages) {
+        this.maxPages = Math.max(1, maxPages);
+        this.lock = new ReentrantReadWriteLock();
+        this.postings = new HashMap<>();
+        this.currentDocuments = new HashMap<>();
+        this.documentUrls = new String[INITIAL_DOCUMENT_CAPACITY];
+        this.documentLengths = new int[INITIAL_DOCUMENT_CAPACITY];
+        this.documentTexts = new byte[INITIAL_DOCUMENT_CAPACITY][];
+    }
+
+    /**
+     * Indexes the content of a page, replacing any previously indexed content of the same URL.
+     * The trigrams are read from the content in place and the text is deflated while it is
+     * encoded, so the page is never copied whole.
+     *
+     * @param url the URL of the page
+     * @param content the content of the page
+     */
+    public void index(String url, String content) {
+        if (url == null || content == null) {
+            return;
+        }
+        long[] trigrams = distinctTrigrams(content);
+        byte[] compressed;
+        int length;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            compressed = deflate(deflater, content);
+            length = (int) deflater.getBytesRead();
+        } finally {
+            deflater.end();
+        }
+
+        lock.writeLock().lock();
+        try {
+            int document = documentCount++;
+            ensureDocumentCapacity(documentCount);
+            documentUrls[document] = url;
+            documentLengths[document] = length;
+            documentTexts[document] = compressed;
+            textBytes += compressed.length;
+
+            Integer previous = currentDocuments.put(url, document);
+            if (previous != null) {
+                drop(previous);
+            } else {
+                urlBytes += URL_OVERHEAD_BYTES + url.length();
+            }
+            for (long trigram : trigrams) {
+                PostingList list = postings.get(trigram);
+                if (list == null) {
+                    list = new PostingList();
+                    postings.put(trigram, list);
+                    postingBytes += PostingList.OVERHEAD_BYTES;
+                }
+                postingBytes += list.append(document);
+            }
+            while (currentDocuments.size() > maxPages) {
+                evictOldest();
+            }
+            if (deadDocuments >= MIN_COMPACTION_DOCUMENTS && deadDocuments > currentDocuments.size()) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a page from the index, when it can no longer be crawled.
+     *
+     * @param url the URL of the page
+     */
+    public void remove(String url) {
+        if (url == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer document = currentDocuments.remove(url);
+            if (document != null) {
+                urlBytes -= URL_OVERHEAD_BYTES + url.length();
+                drop(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the indexed pages containing the given keyword.
+     * Candidates come from the posting lists of the keyword's trigrams and are kept only if the
+     * verifier accepts their stored content.
+     *
+     * @param keyword the keyword to search for
+     * @param verifier tells whether a page content really contains the keyword
+     * @return the URLs of the matching pages
+     */
+    public List<String> search(String keyword, Predicate<String> verifier) {
+        return searchBytes(keyword, raw -> verifier.test(new String(raw, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Finds the indexed pages containing the given keyword, verifying candidates against the
+     * UTF-8 bytes of their stored content, which are not decoded.
+     *
+     * @param keyword the keyword to search for
+     * @param verifier tells whether the UTF-8 bytes of a page content really contain the keyword
+     * @return the URLs of the matching pages
+     */
+    public List<String> searchBytes(String keyword, Predicate<byte[]> verifier) {
+        List<String> matches = new ArrayList<>();
+        if (keyword == null || keyword.isEmpty()) {
+            return matches;
+        }
+        long[] trigrams = distinctTrigrams(keyword);
+
+        String[] candidateUrls;
+        byte[][] candidateTexts;
+        int[] candidateLengths;
+        lock.readLock().lock();
+        try {
+            int[] candidates = trigrams.length == 0 ? allDocuments() : intersect(trigrams);
+            int live = 0;
+            for (int document : candidates) {
+                if (documentTexts[document] != null) {
+                    candidates[live++] = document;
+                }
+            }
+            candidateUrls = new String[live];
+            candidateTexts = new byte[live][];
+            candidateLengths = new int[live];
+            for (int i = 0; i < live; i++) {
+                candidateUrls[i] = documentUrls[candidates[i]];
+                candidateTexts[i] = documentTexts[candidates[i]];
+                candidateLengths[i] = documentLengths[candidates[i]];
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (int i = 0; i < candidateUrls.length; i++) {
+            if (verifier.test(inflate(candidateTexts[i], candidateLengths[i]))) {
+                matches.add(candidateUrls[i]);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Gets the number of pages currently indexed.
+     *
+     * @return the number of indexed pages
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return currentDocuments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of bytes used by the posting lists, the compressed page texts and the URLs.
+     *
+     * @return the approximate memory used by the index
+     */
+    public long getMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            return postingBytes + textBytes + urlBytes + 12L * documentUrls.length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets the text of a superseded or evicted document. Must be called with the write lock held.
+     */
+    private void drop(int document) {
+        textBytes -= documentTexts[document].length;
+        documentTexts[document] = null;
+        documentUrls[document] = null;
+        deadDocuments++;
+    }
+
+    /**
+     * Evicts the page indexed longest ago. Must be called with the write lock held.
+     */
+    private void evictOldest() {
+        while (documentTexts[oldestDocument] == null) {
+            oldestDocument++;
+        }
+        String url = documentUrls[oldestDocument];
+        currentDocuments.remove(url);
+        urlBytes -= URL_OVERHEAD_BYTES + url.length();
+        drop(oldestDocument);
+    }
+
+    /**
+     * Renumbers the live documents from zero and rewrites the posting lists without the dead ones.
+     * Must be called with the write lock held.
+     */
+    private void compact() {
+        int[] renumbered = new int[documentCount];
+        int live = 0;
+        for (int document = 0; document < documentCount; document++) {
+            if (documentTexts[document] == null) {
+                renumbered[document] = -1;
+                continue;
+            }
+            renumbered[document] = live;
+            documentUrls[live] = documentUrls[document];
+            documentLengths[live] = documentLengths[document];
+            documentTexts[live] = documentTexts[document];
+            currentDocuments.put(documentUrls[live], live);
+            live++;
+        }
+        Arrays.fill(documentUrls, live, documentCount, null);
+        Arrays.fill(documentTexts, live, documentCount, null);
+        documentCount = live;
+        oldestDocument = 0;
+        deadDocuments = 0;
+
+        postingBytes = 0;
+        Iterator<Map.Entry<Long, PostingList>> entries = postings.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Long, PostingList> entry = entries.next();
+            PostingList compacted = new PostingList();
+            for (int document : entry.getValue().decode()) {
+                if (renumbered[document] >= 0) {
+                    compacted.append(renumbered[document]);
+                }
+            }
+            if (compacted.count == 0) {
+                entries.remove();
+            } else {
+                entry.setValue(compacted);
+                postingBytes += PostingList.OVERHEAD_BYTES + compacted.data.length;
+            }
+        }
+    }
+
+    private int[] intersect(long[] trigrams) {
+        PostingList[] lists = new PostingList[trigrams.length];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings.get(trigrams[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.count));
+
+        int[] result = lists[0].decode();
+        int size = result.length;
+        for (int i = 1; i < lists.length && size > 0; i++) {
+            int[] other = lists[i].decode();
+            int kept = 0;
+            int j = 0;
+            for (int k = 0; k < size; k++) {
+                while (j < other.length && other[j] < result[k]) {
+                    j++;
+                }
+                if (j < other.length && other[j] == result[k]) {
+                    result[kept++] = result[k];
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private int[] allDocuments() {
+        int[] documents = new int[documentCount];
+        for (int i = 0; i < documentCount; i++) {
+            documents[i] = i;
+        }
+        return documents;
+    }
+
+    private void ensureDocumentCapacity(int capacity) {
+        if (capacity > documentUrls.length) {
+            int newCapacity = Math.max(capacity, documentUrls.length + (documentUrls.length >> 1));
+            documentUrls = Arrays.copyOf(documentUrls, newCapacity);
+            documentLengths = Arrays.copyOf(documentLengths, newCapacity);
+            documentTexts = Arrays.copyOf(documentTexts, newCapacity);
+        }
+    }
+
+    /**
+     * Returns the sorted distinct trigrams of the given text, each packed as three 16-bit case-folded
+     * chars. The trigrams are collected in an open-addressing set, sized to the distinct trigrams
+     * rather than to the text.
+     */
+    static long[] distinctTrigrams(CharSequence text) {
+        int length = text.length();
+        if (length < 3) {
+            return new long[0];
+        }
+        long[] table = new long[1024];
+        int size = 0;
+        long window = ((long) fold(text.charAt(0)) << 16) | fold(text.charAt(1));
+        for (int i = 2; i < length; i++) {
+            window = ((window << 16) | fold(text.charAt(i))) & (OCCUPIED - 1);
+            long entry = window | OCCUPIED;
+            int mask = table.length - 1;
+            int slot = (int) ((entry * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+            while (table[slot] != 0 && table[slot] != entry) {
+                slot = (slot + 1) & mask;
+            }
+            if (table[slot] == 0) {
+                table[slot] = entry;
+                if (++size * 2 > table.length) {
+                    table = rehash(table);
+                }
+            }
+        }
+        long[] trigrams = new long[size];
+        int count = 0;
+        for (long entry : table) {
+            if (entry != 0) {
+                trigrams[count++] = entry & (OCCUPIED - 1);
+            }
+        }
+        Arrays.sort(trigrams);
+        return trigrams;
+    }
+
+    private static long[] rehash(long[] table) {
+        long[] grown = new long[table.length * 2];
+        int mask = grown.length - 1;
+        for (long entry : table) {
+            if (entry != 0) {
+                int slot = (int) ((entry * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+                while (grown[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                grown[slot] = entry;
+            }
+        }
+        return grown;
+    }
+
+    /**
+     * Folds a char to the form compared when ignoring case, as {@link String#equalsIgnoreCase(String)} does.
+     */
+    private static char fold(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Encodes the text into UTF-8 a buffer at a time and deflates each buffer as it is encoded.
+     */
+    private static byte[] deflate(Deflater deflater, String text) {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.wrap(text);
+        ByteBuffer encoded = ByteBuffer.allocate(3 * ENCODE_BUFFER_CHARS);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, text.length() / 4));
+        byte[] buffer = new byte[8192];
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            int limit = Math.min(text.length(), chars.position() + ENCODE_BUFFER_CHARS);
+            endOfInput = limit == text.length();
+            chars.limit(limit);
+            encoded.clear();
+            encoder.encode(chars, encoded, endOfInput);
+            if (endOfInput) {
+                encoder.flush(encoded);
+            }
+            deflater.setInput(encoded.array(), 0, encoded.position());
+            while (!deflater.needsInput()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] compressed, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, length - read);
+            }
+            return read == length ? raw : Arrays.copyOf(raw, read);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted page text in the trigram index", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Ascending document numbers stored as varint-encoded gaps.
+     */
+    private static final class PostingList {
+        /**
+         * Approximate size of an empty list, its boxed key and its map entry.
+         */
+        static final int OVERHEAD_BYTES = 96;
+
+        private byte[] data = new byte[4];
+        private int length;
+        private int count;
+        private int last = -1;
+
+        /**
+         * Appends a document number greater than every previous one and returns the bytes it grew by.
+         */
+        int append(int document) {
+            int grown = 0;
+            if (length + 5 > data.length) {
+                int newCapacity = Math.max(length + 5, data.length * 2);
+                grown = newCapacity - data.length;
+                data = Arrays.copyOf(data, newCapacity);
+            }
+            int gap = document - last;
+            while ((gap & ~0x7F) != 0) {
+                data[length++] = (byte) ((gap & 0x7F) | 0x80);
+                gap >>>= 7;
+            }
+            data[length++] = (byte) gap;
+            last = document;
+            count++;
+            return grown;
+        }
+
+        int[] decode() {
+            int[] documents = new int[count];
+            int position = 0;
+            int document = -1;
+            for (int i = 0; i < count; i++) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    gap |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                document += gap;
+                documents[i] = document;
+            }
+            return documents;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package br.dev.dias.crawler;
+
+/**
+ * Computes 64-bit fingerprints of URLs.
+ * Uses FNV-1a over the UTF-16 code units followed by the MurmurHash3 finalizer, which spreads
+ * the bits well enough to index open-addressing tables and Bloom filters directly.
+ */
+public final class UrlFingerprint {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private UrlFingerprint() {}
+
+    /**
+     * Computes the fingerprint of the given URL without allocating.
+     *
+     * @param url the URL to fingerprint
+     * @return the 64-bit fingerprint
+     */
+    public static long of(CharSequence url) {
+        long hash = FNV_OFFSET_BASIS;
+        int length = url.length();
+        for (int i = 0; i < length; i++) {
+            hash ^= url.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix(hash ^ length);
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer.
+     *
+     * @param value the value to mix
+     * @return the mixed value
+     */
+    public static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,55 @@
+package br.dev.dias.crawler;
+
+/**
+ * Queue of URLs a crawl job still has to visit.
+ * Implementations choose how pending URLs are held, e.g. as ids in a {@link UrlStore} or as UTF-8
+ * records spilled to disk, and must be safe for concurrent use by the job's workers.
+ */
+public interface UrlFrontier {
+
+    /**
+     * Adds a URL to the frontier.
+     *
+     * @param url the URL to visit
+     */
+    void offer(String url);
+
+    /**
+     * Adds a URL with a priority; frontiers that do not order by priority ignore it.
+     *
+     * @param url the URL to visit
+     * @param priority the priority of the URL, higher values are visited first
+     */
+    default void offer(String url, double priority) {
+        offer(url);
+    }
+
+    /**
+     * Removes the next URL to visit.
+     *
+     * @return the next URL, or null if the frontier is empty
+     */
+    String poll();
+
+    /**
+     * Gets the number of URLs waiting in the frontier.
+     *
+     * @return the size of the frontier
+     */
+    int size();
+
+    /**
+     * Checks if this frontier orders URLs by the priority given to {@link #offer(String, double)}.
+     *
+     * @return true if priorities are used, false otherwise
+     */
+    default boolean usesPriority() {
+        return false;
+    }
+
+    /**
+     * Releases the resources held by the frontier once its job is finished.
+     */
+    default void close() {
+    }
+}
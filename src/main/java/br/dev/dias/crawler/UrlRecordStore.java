@@ -0,0 +1,94 @@
+package br.dev.dias.crawler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link UrlStore} that keeps each queued URL as a UTF-8 record and releases it once taken.
+ * Freed slots are reused for later URLs, so the memory held is proportional to the number of
+ * URLs pending at once rather than to every URL the job ever admitted. Used with probabilistic
+ * dedupe, where a store growing with the admitted URLs would defeat the Bloom filter's purpose.
+ */
+public class UrlRecordStore implements UrlStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private byte[][] records = new byte[INITIAL_CAPACITY][];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int slotCount;
+    private int size;
+
+    @Override
+    public int add(String url) {
+        byte[] record = url.getBytes(StandardCharsets.UTF_8);
+        lock.lock();
+        try {
+            int id;
+            if (freeCount > 0) {
+                id = freeSlots[--freeCount];
+            } else {
+                if (slotCount == records.length) {
+                    records = Arrays.copyOf(records, slotCount * 2);
+                }
+                id = slotCount++;
+            }
+            records[id] = record;
+            size++;
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String take(int id) {
+        byte[] record;
+        lock.lock();
+        try {
+            record = id >= 0 && id < slotCount ? records[id] : null;
+            if (record == null) {
+                throw new IllegalArgumentException(String.format("Unknown URL id: %d", id));
+            }
+            records[id] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = id;
+            size--;
+        } finally {
+            lock.unlock();
+        }
+        return new String(record, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the number of URLs currently stored.
+     *
+     * @return the number of URLs added and not taken yet
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of slots allocated so far, i.e. the largest number of URLs stored at once.
+     *
+     * @return the number of slots
+     */
+    public int getSlotCount() {
+        lock.lock();
+        try {
+            return slotCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package br.dev.dias.crawler;
+
+/**
+ * Set of URLs a crawl job has already admitted to its frontier.
+ * A URL is admitted exactly once, at enqueue time, so the same structure answers both
+ * "is it pending?" and "was it visited?".
+ */
+public interface UrlSeenSet {
+
+    /**
+     * Atomically admits the given URL if it has not been seen before.
+     *
+     * @param url the URL to admit
+     * @return true if the URL was admitted by this call, false if it had already been seen
+     */
+    boolean add(String url);
+
+    /**
+     * Checks if the given URL has already been seen.
+     *
+     * @param url the URL to check
+     * @return true if the URL was seen, false otherwise
+     */
+    boolean contains(String url);
+
+    /**
+     * Gets the number of URLs admitted so far.
+     *
+     * @return the number of seen URLs
+     */
+    int size();
+
+    /**
+     * Gets the expected number of new URLs wrongly reported as already seen.
+     * Exact implementations never do so.
+     *
+     * @return the expected number of false positives so far
+     */
+    default double getExpectedFalsePositives() {
+        return 0;
+    }
+}
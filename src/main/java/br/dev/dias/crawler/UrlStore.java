@@ -0,0 +1,26 @@
+package br.dev.dias.crawler;
+
+/**
+ * Holds the URLs queued in a frontier and hands out an {@code int} id for each one, so that
+ * frontiers can queue ids instead of strings.
+ * Implementations must be safe for concurrent use by the job's workers.
+ */
+public interface UrlStore {
+
+    /**
+     * Stores a URL the frontier is about to queue.
+     *
+     * @param url the URL to store
+     * @return the id of the URL
+     */
+    int add(String url);
+
+    /**
+     * Retrieves the URL of an id the frontier has just dequeued. Each id returned by
+     * {@link #add(String)} is taken exactly once, so implementations may release it afterwards.
+     *
+     * @param id the id returned by {@link #add(String)}
+     * @return the URL
+     */
+    String take(int id);
+}
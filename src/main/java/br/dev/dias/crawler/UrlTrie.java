@@ -0,0 +1,393 @@
+package br.dev.dias.crawler;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compact concurrent store of URLs sharing the crawler's base URL.
+ * Each URL is split after the base URL into path segments ("/docs", "/page.html?x=1") and
+ * stored as a path in a trie, so a segment shared by many URLs is kept only once. Every node
+ * is identified by an {@code int} id which frontiers can hold instead of the full string.
+ * As a {@link UrlStore} nodes are never released, so the trie lives as long as its job.
+ *
+ * Nodes live in chunked primitive arrays (parent id and a packed reference to the UTF-8 label
+ * in a shared byte arena), and children are found through a single open-addressing table keyed
+ * by (parent, label). A node costs about 20 bytes plus its label, with no object per URL.
+ *
+ * Lookups of existing URLs are lock-free. New nodes are added under a single lock and published
+ * with release semantics, so a reader that finds a node also sees its parent and label.
+ */
+public class UrlTrie implements UrlStore {
+
+    /**
+     * Id of the node holding the base URL itself.
+     */
+    public static final int ROOT = 0;
+
+    /**
+     * Returned by {@link #find(String)} for URLs that were never interned.
+     */
+    public static final int NO_NODE = -1;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private static final int NODE_CHUNK_BITS = 12;
+    private static final int NODE_CHUNK_SIZE = 1 << NODE_CHUNK_BITS;
+    private static final int NODE_CHUNK_MASK = NODE_CHUNK_SIZE - 1;
+    private static final int ARENA_BLOCK_SIZE = 1 << 16;
+    private static final int INITIAL_TABLE_CAPACITY = 1 << 10;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+
+    private final String baseUrl;
+    private final byte[] baseUrlBytes;
+    private final ReentrantLock writeLock;
+
+    private volatile int[][] parents;
+    /**
+     * Packed label references: arena block (24 bits), offset in the block (16 bits) and length (24 bits).
+     */
+    private volatile long[][] labels;
+    private volatile byte[][] arena;
+    /**
+     * Children table; each slot holds a node id plus one, or zero when empty.
+     */
+    private volatile int[] children;
+    private volatile int nodeCount;
+    private int arenaBlockCount;
+    private int arenaOffset;
+    private long arenaBytes;
+
+    /**
+     * Constructs an empty trie rooted at the given base URL.
+     *
+     * @param baseUrl the prefix shared by every URL of the trie
+     */
+    public UrlTrie(String baseUrl) {
+        this.baseUrl = Objects.requireNonNull(baseUrl, "Base URL cannot be null");
+        this.baseUrlBytes = baseUrl.getBytes(StandardCharsets.UTF_8);
+        this.writeLock = new ReentrantLock();
+        this.parents = new int[1][];
+        this.labels = new long[1][];
+        this.arena = new byte[0][];
+        this.children = new int[INITIAL_TABLE_CAPACITY];
+        this.arenaOffset = ARENA_BLOCK_SIZE;
+        writeLock.lock();
+        try {
+            addNode(NO_NODE, new byte[0], 0, 0);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the id of the given URL, adding it to the trie if needed.
+     *
+     * @param url a URL starting with the base URL
+     * @return the node id of the URL
+     * @throws IllegalArgumentException if the URL does not start with the base URL
+     */
+    public int intern(String url) {
+        byte[] suffix = suffixBytes(url);
+        int node = ROOT;
+        int start = 0;
+        while (start < suffix.length) {
+            int end = segmentEnd(suffix, start);
+            int child = findChild(children, node, suffix, start, end);
+            if (child == NO_NODE) {
+                return internLocked(node, suffix, start);
+            }
+            node = child;
+            start = end;
+        }
+        return node;
+    }
+
+    @Override
+    public int add(String url) {
+        return intern(url);
+    }
+
+    @Override
+    public String take(int id) {
+        return resolve(id);
+    }
+
+    /**
+     * Returns the id of the given URL without adding it.
+     *
+     * @param url the URL to look up
+     * @return the node id of the URL, or {@link #NO_NODE} if it was never interned
+     */
+    public int find(String url) {
+        if (!url.startsWith(baseUrl)) {
+            return NO_NODE;
+        }
+        byte[] suffix = suffixBytes(url);
+        int node = ROOT;
+        int start = 0;
+        while (start < suffix.length && node != NO_NODE) {
+            int end = segmentEnd(suffix, start);
+            node = findChild(children, node, suffix, start, end);
+            start = end;
+        }
+        return node;
+    }
+
+    /**
+     * Rebuilds the full URL of a node.
+     *
+     * @param id the node id returned by {@link #intern(String)}
+     * @return the URL of the node
+     */
+    public String resolve(int id) {
+        if (id < 0 || id >= nodeCount) {
+            throw new IllegalArgumentException(String.format("Unknown URL id: %d", id));
+        }
+        int length = baseUrlBytes.length;
+        for (int node = id; node != ROOT; node = parentOf(node)) {
+            length += labelLength(labelOf(node));
+        }
+        byte[] url = new byte[length];
+        System.arraycopy(baseUrlBytes, 0, url, 0, baseUrlBytes.length);
+        int end = length;
+        byte[][] blocks = arena;
+        for (int node = id; node != ROOT; node = parentOf(node)) {
+            long label = labelOf(node);
+            int labelLength = labelLength(label);
+            end -= labelLength;
+            System.arraycopy(blocks[labelBlock(label)], labelOffset(label), url, end, labelLength);
+        }
+        return new String(url, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the number of nodes in the trie, including the root.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return nodeCount;
+    }
+
+    /**
+     * Estimates the memory held by the trie: node arrays, children table and label arena.
+     *
+     * @return the estimated size in bytes
+     */
+    public long getMemoryBytes() {
+        writeLock.lock();
+        try {
+            long chunks = (nodeCount + NODE_CHUNK_SIZE - 1) / NODE_CHUNK_SIZE;
+            return chunks * NODE_CHUNK_SIZE * (Integer.BYTES + Long.BYTES)
+                    + (long) children.length * Integer.BYTES
+                    + arenaBytes;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private int internLocked(int node, byte[] suffix, int start) {
+        writeLock.lock();
+        try {
+            while (start < suffix.length) {
+                int end = segmentEnd(suffix, start);
+                int child = findChild(children, node, suffix, start, end);
+                if (child == NO_NODE) {
+                    child = addNode(node, suffix, start, end);
+                }
+                node = child;
+                start = end;
+            }
+            return node;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Appends a node and links it to its parent. Must be called with the write lock held.
+     */
+    private int addNode(int parent, byte[] label, int start, int end) {
+        int id = nodeCount;
+        int chunk = id >>> NODE_CHUNK_BITS;
+        if (chunk == parents.length) {
+            parents = Arrays.copyOf(parents, chunk * 2);
+            labels = Arrays.copyOf(labels, chunk * 2);
+        }
+        if (parents[chunk] == null) {
+            parents[chunk] = new int[NODE_CHUNK_SIZE];
+            labels[chunk] = new long[NODE_CHUNK_SIZE];
+        }
+        parents[chunk][id & NODE_CHUNK_MASK] = parent;
+        labels[chunk][id & NODE_CHUNK_MASK] = appendLabel(label, start, end);
+        if (parent != NO_NODE) {
+            if (id + 1 > children.length * MAX_LOAD_FACTOR) {
+                // Rehashes the nodes before this one, which is inserted once below
+                children = rehash(children.length * 2);
+            }
+            insertChild(children, id, hash(parent, label, start, end));
+        }
+        nodeCount = id + 1;
+        return id;
+    }
+
+    /**
+     * Counts the occupied slots of the children table, one per node besides the root.
+     *
+     * @return the number of occupied slots
+     */
+    int childSlots() {
+        writeLock.lock();
+        try {
+            int slots = 0;
+            for (int slot : children) {
+                if (slot != 0) {
+                    slots++;
+                }
+            }
+            return slots;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private long appendLabel(byte[] label, int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return 0L;
+        }
+        byte[] block;
+        if (length > ARENA_BLOCK_SIZE) {
+            block = newArenaBlock(length);
+            arenaOffset = ARENA_BLOCK_SIZE;
+        } else {
+            if (arenaOffset + length > ARENA_BLOCK_SIZE) {
+                newArenaBlock(ARENA_BLOCK_SIZE);
+                arenaOffset = 0;
+            }
+            block = arena[arenaBlockCount - 1];
+        }
+        int offset = length > ARENA_BLOCK_SIZE ? 0 : arenaOffset;
+        System.arraycopy(label, start, block, offset, length);
+        if (length <= ARENA_BLOCK_SIZE) {
+            arenaOffset += length;
+        }
+        return ((long) (arenaBlockCount - 1) << 40) | ((long) offset << 24) | length;
+    }
+
+    private byte[] newArenaBlock(int size) {
+        byte[] block = new byte[size];
+        byte[][] blocks = arena;
+        if (arenaBlockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, Math.max(4, blocks.length * 2));
+        }
+        blocks[arenaBlockCount++] = block;
+        arena = blocks;
+        arenaBytes += size;
+        return block;
+    }
+
+    private int[] rehash(int capacity) {
+        int[] table = new int[capacity];
+        byte[][] blocks = arena;
+        for (int id = 1; id < nodeCount; id++) {
+            long label = labelOf(id);
+            int offset = labelOffset(label);
+            insertChild(table, id, hash(parentOf(id), blocks[labelBlock(label)], offset, offset + labelLength(label)));
+        }
+        return table;
+    }
+
+    private static void insertChild(int[] table, int id, int hash) {
+        int mask = table.length - 1;
+        int index = hash & mask;
+        while (table[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        SLOTS.setRelease(table, index, id + 1);
+    }
+
+    private int findChild(int[] table, int parent, byte[] label, int start, int end) {
+        int mask = table.length - 1;
+        int index = hash(parent, label, start, end) & mask;
+        while (true) {
+            int slot = (int) SLOTS.getAcquire(table, index);
+            if (slot == 0) {
+                return NO_NODE;
+            }
+            int candidate = slot - 1;
+            if (parentOf(candidate) == parent && labelEquals(labelOf(candidate), label, start, end)) {
+                return candidate;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private boolean labelEquals(long label, byte[] bytes, int start, int end) {
+        int length = labelLength(label);
+        if (length != end - start) {
+            return false;
+        }
+        return Arrays.equals(arena[labelBlock(label)], labelOffset(label), labelOffset(label) + length, bytes, start, end);
+    }
+
+    private int parentOf(int id) {
+        return parents[id >>> NODE_CHUNK_BITS][id & NODE_CHUNK_MASK];
+    }
+
+    private long labelOf(int id) {
+        return labels[id >>> NODE_CHUNK_BITS][id & NODE_CHUNK_MASK];
+    }
+
+    private static int labelBlock(long label) {
+        return (int) (label >>> 40);
+    }
+
+    private static int labelOffset(long label) {
+        return (int) (label >>> 24) & 0xFFFF;
+    }
+
+    private static int labelLength(long label) {
+        return (int) label & 0xFFFFFF;
+    }
+
+    private static int hash(int parent, byte[] label, int start, int end) {
+        int hash = parent * 0x9E3779B9;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + label[i];
+        }
+        return (int) UrlFingerprint.mix(hash);
+    }
+
+    /**
+     * Segments start at a '/' and run until the next one, so "/a/b?c=1" splits into "/a" and "/b?c=1".
+     */
+    private static int segmentEnd(byte[] bytes, int start) {
+        int index = start + 1;
+        while (index < bytes.length && bytes[index] != '/') {
+            index++;
+        }
+        return index;
+    }
+
+    private byte[] suffixBytes(String url) {
+        if (!url.startsWith(baseUrl)) {
+            throw new IllegalArgumentException(String.format("URL %s does not start with %s", url, baseUrl));
+        }
+        int start = baseUrl.length();
+        int length = url.length() - start;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            char c = url.charAt(start + i);
+            if (c >= 0x80) {
+                return url.substring(start).getBytes(StandardCharsets.UTF_8);
+            }
+            bytes[i] = (byte) c;
+        }
+        return bytes;
+    }
+}
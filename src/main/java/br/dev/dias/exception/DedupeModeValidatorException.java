@@ -0,0 +1,12 @@
+package br.dev.dias.exception;
+
+public class DedupeModeValidatorException extends ValidationException {
+    public DedupeModeValidatorException(String message) {
+        super(message);
+    }
+
+    public DedupeModeValidatorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
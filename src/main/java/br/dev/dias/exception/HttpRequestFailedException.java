@@ -3,12 +3,40 @@ package br.dev.dias.exception;
 public class HttpRequestFailedException extends RuntimeException {
     private static final long serialVersionUID = 1L;
 
+    private final int statusCode;
+    private final String retryAfter;
+
     public HttpRequestFailedException(String message) {
-        super(message);
+        this(message, 0, null);
     }
 
     public HttpRequestFailedException(String message, Throwable cause) {
         super(message, cause);
+        this.statusCode = 0;
+        this.retryAfter = null;
+    }
+
+    public HttpRequestFailedException(String message, int statusCode, String retryAfter) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets the status code of the failed response.
+     *
+     * @return the status code, or 0 if unknown
+     */
+    public int getStatusCode() {
+        return statusCode;
     }
 
+    /**
+     * Gets the Retry-After header of the failed response.
+     *
+     * @return the header value, or null if the server did not send one
+     */
+    public String getRetryAfter() {
+        return retryAfter;
+    }
 }
@@ -0,0 +1,25 @@
+package br.dev.dias.exception;
+
+/**
+ * Thrown when a page answers with a content type the crawler does not parse, such as an image or
+ * a PDF. The body of such a response is never read.
+ */
+public class UnsupportedContentException extends HttpRequestFailedException {
+    private static final long serialVersionUID = 1L;
+
+    private final String contentType;
+
+    public UnsupportedContentException(String message, String contentType) {
+        super(message, 200, null);
+        this.contentType = contentType;
+    }
+
+    /**
+     * Gets the content type of the skipped response.
+     *
+     * @return the Content-Type header
+     */
+    public String getContentType() {
+        return contentType;
+    }
+}
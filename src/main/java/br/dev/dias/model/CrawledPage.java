@@ -0,0 +1,109 @@
+package br.dev.dias.model;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A fetched page shared by every search crawling it: its content and the links found on it.
+ *
+ * A page records which of the keywords searched while it was read it contains. A streamed page
+ * keeps no content, so other keywords can only be checked by reading the page again, while a
+ * buffered page can still be searched for them in its content.
+ */
+public class CrawledPage {
+
+    private final String url;
+    private final String content;
+    private final List<Link> links;
+    private final Map<String, Boolean> keywordMatches;
+
+    public CrawledPage(String url, String content, List<Link> links) {
+        this(url, content, links, null);
+    }
+
+    /**
+     * Constructs a buffered page whose content was already scanned for some keywords.
+     *
+     * @param url the URL of the page
+     * @param content the content of the page
+     * @param links the links found on the page
+     * @param keywordMatches whether the page contains each keyword it was scanned for, lower-cased in the root locale, or null
+     */
+    public CrawledPage(String url, String content, List<Link> links, Map<String, Boolean> keywordMatches) {
+        this.url = url;
+        this.content = content;
+        this.links = links == null ? null : List.copyOf(links);
+        this.keywordMatches = keywordMatches == null ? null : Map.copyOf(keywordMatches);
+    }
+
+    /**
+     * Constructs a streamed page, whose content was scanned for keywords while it was read.
+     *
+     * @param url the URL of the page
+     * @param links the links found on the page
+     * @param keywordMatches whether the page contains each keyword it was scanned for, lower-cased in the root locale
+     */
+    public CrawledPage(String url, List<Link> links, Map<String, Boolean> keywordMatches) {
+        this.url = url;
+        this.content = null;
+        this.links = links == null ? null : List.copyOf(links);
+        this.keywordMatches = Map.copyOf(keywordMatches);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Gets the content of the page.
+     *
+     * @return the content, or null if the page was streamed
+     */
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * Gets the links found on the page, or null if the page was cached before being parsed.
+     *
+     * @return the links of the page
+     */
+    public List<Link> getLinks() {
+        return links;
+    }
+
+    /**
+     * Checks whether the page can tell if it contains the given keyword, i.e. whether it has its
+     * content or was scanned for the keyword while streamed.
+     *
+     * @param keyword the keyword
+     * @return true if {@link #containsKeyword(String)} can answer for the keyword
+     */
+    public boolean hasCheckedKeyword(String keyword) {
+        return content != null || keyword == null
+                || (keywordMatches != null && keywordMatches.containsKey(keyword.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Checks whether the page was scanned for the given keyword while it was read, so that
+     * {@link #containsKeyword(String)} answers without searching the content.
+     *
+     * @param keyword the keyword
+     * @return true if the page was scanned for the keyword
+     */
+    public boolean isScannedFor(String keyword) {
+        return keyword != null && keywordMatches != null && keywordMatches.containsKey(keyword.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Tells whether the page was found to contain the given keyword when it was scanned, ignoring case.
+     *
+     * @param keyword the keyword
+     * @return true if the page was scanned for the keyword and contains it
+     */
+    public boolean containsKeyword(String keyword) {
+        return keyword != null && keywordMatches != null
+                && keywordMatches.getOrDefault(keyword.toLowerCase(Locale.ROOT), false);
+    }
+}
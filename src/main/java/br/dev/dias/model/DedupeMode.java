@@ -0,0 +1,33 @@
+package br.dev.dias.model;
+
+public enum DedupeMode {
+
+    EXACT("exact"),
+    PROBABILISTIC("probabilistic");
+
+    private String mode;
+
+    DedupeMode(String mode) {
+        this.mode = mode;
+    }
+
+    public String getValue() {
+        return mode;
+    }
+
+    /**
+     * Finds the dedupe mode matching the given value, ignoring case.
+     *
+     * @param value the value of the mode, e.g. "exact"
+     * @return the matching mode
+     * @throws IllegalArgumentException if no mode matches the value
+     */
+    public static DedupeMode fromValue(String value) {
+        for (DedupeMode dedupeMode : values()) {
+            if (dedupeMode.mode.equalsIgnoreCase(value)) {
+                return dedupeMode;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unknown dedupe mode: %s", value));
+    }
+}
@@ -0,0 +1,34 @@
+package br.dev.dias.model;
+
+public enum ExecutionMode {
+
+    THREADS("threads"),
+    ASYNC("async"),
+    VIRTUAL("virtual");
+
+    private String mode;
+
+    ExecutionMode(String mode) {
+        this.mode = mode;
+    }
+
+    public String getValue() {
+        return mode;
+    }
+
+    /**
+     * Finds the execution mode matching the given value, ignoring case.
+     *
+     * @param value the value of the mode, e.g. "async"
+     * @return the matching mode
+     * @throws IllegalArgumentException if no mode matches the value
+     */
+    public static ExecutionMode fromValue(String value) {
+        for (ExecutionMode executionMode : values()) {
+            if (executionMode.mode.equalsIgnoreCase(value)) {
+                return executionMode;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unknown execution mode: %s", value));
+    }
+}
@@ -0,0 +1,56 @@
+package br.dev.dias.model;
+
+/**
+ * Outcome of a possibly conditional page download: either the page content, or the answer
+ * that the cached copy is still current.
+ */
+public class FetchResult {
+
+    private final String content;
+    private final PageValidators validators;
+    private final boolean notModified;
+
+    private FetchResult(String content, PageValidators validators, boolean notModified) {
+        this.content = content;
+        this.validators = validators;
+        this.notModified = notModified;
+    }
+
+    /**
+     * Creates the result of a download that returned the page.
+     *
+     * @param content the content of the page
+     * @param validators the validators sent with the page, or null
+     * @return the result
+     */
+    public static FetchResult modified(String content, PageValidators validators) {
+        return new FetchResult(content, validators, false);
+    }
+
+    /**
+     * Creates the result of a conditional download answered with {@code 304 Not Modified}.
+     *
+     * @param validators the validators sent with the response, or null
+     * @return the result
+     */
+    public static FetchResult notModified(PageValidators validators) {
+        return new FetchResult(null, validators, true);
+    }
+
+    /**
+     * Gets the content of the page.
+     *
+     * @return the content, or null if the page was not modified or was streamed
+     */
+    public String getContent() {
+        return content;
+    }
+
+    public PageValidators getValidators() {
+        return validators;
+    }
+
+    public boolean isNotModified() {
+        return notModified;
+    }
+}
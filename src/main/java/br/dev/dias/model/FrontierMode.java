@@ -0,0 +1,34 @@
+package br.dev.dias.model;
+
+public enum FrontierMode {
+
+    FIFO("fifo"),
+    SPILLING("spilling"),
+    PRIORITY("priority");
+
+    private String mode;
+
+    FrontierMode(String mode) {
+        this.mode = mode;
+    }
+
+    public String getValue() {
+        return mode;
+    }
+
+    /**
+     * Finds the frontier mode matching the given value, ignoring case.
+     *
+     * @param value the value of the mode, e.g. "fifo"
+     * @return the matching mode
+     * @throws IllegalArgumentException if no mode matches the value
+     */
+    public static FrontierMode fromValue(String value) {
+        for (FrontierMode frontierMode : values()) {
+            if (frontierMode.mode.equalsIgnoreCase(value)) {
+                return frontierMode;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unknown frontier mode: %s", value));
+    }
+}
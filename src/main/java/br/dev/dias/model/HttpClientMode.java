@@ -0,0 +1,33 @@
+package br.dev.dias.model;
+
+public enum HttpClientMode {
+
+    URL_CONNECTION("url-connection"),
+    POOLED("pooled");
+
+    private String mode;
+
+    HttpClientMode(String mode) {
+        this.mode = mode;
+    }
+
+    public String getValue() {
+        return mode;
+    }
+
+    /**
+     * Finds the HTTP client mode matching the given value, ignoring case.
+     *
+     * @param value the value of the mode, e.g. "pooled"
+     * @return the matching mode
+     * @throws IllegalArgumentException if no mode matches the value
+     */
+    public static HttpClientMode fromValue(String value) {
+        for (HttpClientMode httpClientMode : values()) {
+            if (httpClientMode.mode.equalsIgnoreCase(value)) {
+                return httpClientMode;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unknown HTTP client mode: %s", value));
+    }
+}
@@ -0,0 +1,28 @@
+package br.dev.dias.model;
+
+/**
+ * A link found on a crawled page: its resolved URL and the text of its anchor.
+ */
+public class Link {
+
+    private final String url;
+    private final String anchorText;
+
+    public Link(String url, String anchorText) {
+        this.url = url;
+        this.anchorText = anchorText;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getAnchorText() {
+        return anchorText;
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+}
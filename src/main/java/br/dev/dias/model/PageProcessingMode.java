@@ -0,0 +1,33 @@
+package br.dev.dias.model;
+
+public enum PageProcessingMode {
+
+    BUFFERED("buffered"),
+    STREAMING("streaming");
+
+    private String mode;
+
+    PageProcessingMode(String mode) {
+        this.mode = mode;
+    }
+
+    public String getValue() {
+        return mode;
+    }
+
+    /**
+     * Finds the page processing mode matching the given value, ignoring case.
+     *
+     * @param value the value of the mode, e.g. "streaming"
+     * @return the matching mode
+     * @throws IllegalArgumentException if no mode matches the value
+     */
+    public static PageProcessingMode fromValue(String value) {
+        for (PageProcessingMode pageProcessingMode : values()) {
+            if (pageProcessingMode.mode.equalsIgnoreCase(value)) {
+                return pageProcessingMode;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unknown page processing mode: %s", value));
+    }
+}
@@ -0,0 +1,67 @@
+package br.dev.dias.model;
+
+/**
+ * Validators a server sent with a page, used to revalidate a cached copy with a conditional GET.
+ */
+public class PageValidators {
+
+    private final String etag;
+    private final String lastModified;
+    private final long contentLength;
+
+    public PageValidators(String etag, String lastModified, long contentLength) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.contentLength = contentLength;
+    }
+
+    /**
+     * Gets the entity tag, sent back in {@code If-None-Match}.
+     *
+     * @return the ETag header, or null if the server did not send one
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Gets the modification date, sent back in {@code If-Modified-Since}.
+     *
+     * @return the Last-Modified header, or null if the server did not send one
+     */
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Gets the size of the page body, i.e. the transfer a {@code 304 Not Modified} response saves.
+     *
+     * @return the length of the body in bytes
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Tells whether a conditional request can be made, i.e. the server sent an ETag or a Last-Modified date.
+     *
+     * @return true if the page can be revalidated
+     */
+    public boolean canRevalidate() {
+        return etag != null || lastModified != null;
+    }
+
+    /**
+     * Combines these validators with the ones of a {@code 304 Not Modified} response, which may omit some headers.
+     *
+     * @param response the validators sent with the response, or null
+     * @return the validators of the revalidated page
+     */
+    public PageValidators updatedBy(PageValidators response) {
+        if (response == null) {
+            return this;
+        }
+        return new PageValidators(response.etag != null ? response.etag : etag,
+                response.lastModified != null ? response.lastModified : lastModified, contentLength);
+    }
+}
@@ -1,28 +1,30 @@
 package br.dev.dias.model;
 
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Search {
     
     String id;
     String keyword;
     Status status;     
+    DedupeMode dedupeMode;
     private Set<String> urls;
+    private volatile Long expectedSkippedUrls;
 
     public Search(String id, String keyword, Status status) {
         this.id = id;
         this.keyword = keyword;
         this.status = status;
-        this.urls = new HashSet<>();
+        this.urls = ConcurrentHashMap.newKeySet();
     }
 
     public Search(String keyword) {
         this.id = null;
         this.keyword = keyword;
         this.status = Status.ACTIVE;
-        this.urls = new HashSet<>();
+        this.urls = ConcurrentHashMap.newKeySet();
     }
 
     public Set<String> getUrls() {
@@ -30,7 +32,9 @@ public class Search {
     }
 
     public void setUrls(Set<String> urls) {
-        this.urls = Set.copyOf(urls);
+        Set<String> copy = ConcurrentHashMap.newKeySet();
+        copy.addAll(urls);
+        this.urls = copy;
     }
 
     public String getId() {
@@ -49,6 +53,22 @@ public class Search {
         this.status = status;
     }
 
+    public DedupeMode getDedupeMode() {
+        return dedupeMode;
+    }
+
+    public void setDedupeMode(DedupeMode dedupeMode) {
+        this.dedupeMode = dedupeMode;
+    }
+
+    public Long getExpectedSkippedUrls() {
+        return expectedSkippedUrls;
+    }
+
+    public void setExpectedSkippedUrls(Long expectedSkippedUrls) {
+        this.expectedSkippedUrls = expectedSkippedUrls;
+    }
+
      @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,50 @@
+package br.dev.dias.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum UrlNormalizationRule {
+
+    DROP_FRAGMENT("drop-fragment"),
+    SORT_QUERY("sort-query"),
+    DOT_SEGMENTS("dot-segments"),
+    LOWERCASE_HOST("lowercase-host"),
+    DEFAULT_PORT("default-port"),
+    TRAILING_SLASH("trailing-slash");
+
+    private String rule;
+
+    UrlNormalizationRule(String rule) {
+        this.rule = rule;
+    }
+
+    public String getValue() {
+        return rule;
+    }
+
+    /**
+     * Rules applied when none are configured. Trailing slashes are kept, since "/docs" and "/docs/"
+     * resolve relative links differently.
+     *
+     * @return the default rules
+     */
+    public static Set<UrlNormalizationRule> defaults() {
+        return EnumSet.complementOf(EnumSet.of(TRAILING_SLASH));
+    }
+
+    /**
+     * Finds the rule matching the given value, ignoring case.
+     *
+     * @param value the value of the rule, e.g. "drop-fragment"
+     * @return the matching rule
+     * @throws IllegalArgumentException if no rule matches the value
+     */
+    public static UrlNormalizationRule fromValue(String value) {
+        for (UrlNormalizationRule normalizationRule : values()) {
+            if (normalizationRule.rule.equalsIgnoreCase(value)) {
+                return normalizationRule;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unknown URL normalization rule: %s", value));
+    }
+}
@@ -0,0 +1,458 @@
+package br.dev.dias.service;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import br.dev.dias.model.Link;
+
+/**
+ * Tokenizes HTML fed one char at a time and extracts its anchors, emitting each link with its
+ * text as soon as its closing tag is read.
+ *
+ * The tokenizer is a small state machine following the HTML syntax closely enough for link
+ * extraction: attribute values may be double-quoted, single-quoted or unquoted, and a {@code >}
+ * inside a quoted value does not end the tag. Comments and the bodies of {@code script} and
+ * {@code style} elements are skipped, so links written in them are not followed. The first
+ * {@code <base href>} changes the URL the following links are resolved against, and entities in
+ * hrefs are decoded. A link found several times on the page is emitted once, with the text of its
+ * first anchor.
+ *
+ * Only the tag being read and the text of the current anchor are buffered, each up to a fixed size.
+ *
+ * To read a large page in chunks, each starting at a tag, the extractor tells whether it stopped
+ * between tags, where a fresh extractor may take over, and can read on past its chunk only to
+ * finish the text of its last anchor.
+ */
+final class AnchorStreamExtractor {
+
+    /**
+     * Maximum number of characters of a tag kept to read its attributes. Longer tags are ignored.
+     */
+    private static final int MAX_TAG_CHARS = 2048;
+
+    /**
+     * Maximum number of characters read after an anchor's start tag to find its text.
+     */
+    private static final int MAX_ANCHOR_TEXT_SCAN = 512;
+
+    private static final int TEXT = 0;
+    private static final int TAG = 1;
+    private static final int COMMENT = 2;
+    private static final int RAW_TEXT = 3;
+
+    /**
+     * Resolves the hrefs found on a page.
+     */
+    interface LinkResolver {
+
+        /**
+         * Resolves an href into the link to crawl.
+         *
+         * @param href the decoded href of an anchor
+         * @return the link, or null if it is not followed
+         */
+        String resolve(String href);
+
+        /**
+         * Resolves the following hrefs against the given base instead of the page URL.
+         *
+         * @param href the decoded href of the page's base element
+         */
+        void rebase(String href);
+    }
+
+    private final LinkResolver linkResolver;
+    private final Consumer<Link> consumer;
+    private final StringBuilder tag;
+    private final StringBuilder text;
+    private final Set<String> emittedUrls;
+    private int state;
+    private boolean tagOverflow;
+    private char quote;
+    private boolean afterEquals;
+    private int commentDashes;
+    private String rawTextEnd;
+    private int rawTextMatched;
+    private boolean rebased;
+    private String baseHref;
+    private boolean draining;
+    private String pendingUrl;
+    private boolean pendingSpace;
+    private int anchorScanned;
+
+    /**
+     * Constructs an extractor emitting the accepted links to the consumer.
+     *
+     * @param linkResolver resolves the hrefs of the page into the links to crawl
+     * @param consumer the consumer of the extracted links
+     */
+    AnchorStreamExtractor(LinkResolver linkResolver, Consumer<Link> consumer) {
+        this.linkResolver = linkResolver;
+        this.consumer = consumer;
+        this.tag = new StringBuilder();
+        this.text = new StringBuilder();
+        this.emittedUrls = new HashSet<>();
+    }
+
+    /**
+     * Advances the extractor by one char of the page.
+     *
+     * @param c the next char of the page
+     */
+    void accept(char c) {
+        if (pendingUrl != null && ++anchorScanned > MAX_ANCHOR_TEXT_SCAN) {
+            emitPending();
+        }
+        switch (state) {
+            case TAG -> readTag(c);
+            case COMMENT -> {
+                if (c == '>' && commentDashes >= 2) {
+                    state = TEXT;
+                }
+                commentDashes = c == '-' ? commentDashes + 1 : 0;
+            }
+            case RAW_TEXT -> readRawText(c);
+            default -> {
+                if (c == '<') {
+                    startTag();
+                } else if (pendingUrl != null) {
+                    appendText(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Advances the extractor by the chars of the given text. Outside of tags and anchors, the text
+     * up to the next {@code <} is skipped at once.
+     *
+     * @param text the next chars of the page
+     */
+    void accept(String text) {
+        accept(text, 0, text.length());
+    }
+
+    /**
+     * Advances the extractor by the chars of a range of the given text.
+     *
+     * @param text the text holding the next chars of the page
+     * @param start the index of the first char to read
+     * @param end the index after the last char to read
+     */
+    void accept(String text, int start, int end) {
+        int i = start;
+        while (i < end) {
+            if ((state == TEXT && pendingUrl == null) || (state == RAW_TEXT && rawTextMatched == 0)) {
+                i = text.indexOf('<', i);
+                if (i < 0 || i >= end) {
+                    return;
+                }
+            }
+            accept(text.charAt(i++));
+        }
+    }
+
+    /**
+     * Emits the anchor still being read once the page ends.
+     */
+    void finish() {
+        emitPending();
+    }
+
+    /**
+     * Reads on from the given index only as far as needed to finish the text of the anchor being
+     * read, starting no other anchor and following no base element, then emits that anchor.
+     *
+     * @param text the text of the page
+     * @param start the index of the first char past the range read so far
+     */
+    void drain(String text, int start) {
+        draining = true;
+        for (int i = start; pendingUrl != null && i < text.length(); i++) {
+            accept(text.charAt(i));
+        }
+        emitPending();
+    }
+
+    /**
+     * Checks whether the extractor stopped between tags, outside of comments and of the bodies of
+     * scripts and styles, so the page may be read on by another extractor from a tag start.
+     *
+     * @return true if the last char read was plain text or ended a tag
+     */
+    boolean isBetweenTags() {
+        return state == TEXT;
+    }
+
+    /**
+     * Resolves the following links against the given base, as if the page's base element had been read.
+     *
+     * @param href the decoded href of the page's base element
+     */
+    void rebase(String href) {
+        linkResolver.rebase(href);
+        rebased = true;
+        baseHref = href;
+    }
+
+    /**
+     * Gets the href of the base element the links are resolved against.
+     *
+     * @return the decoded href, or null if no base element was read
+     */
+    String getBaseHref() {
+        return baseHref;
+    }
+
+    private void startTag() {
+        state = TAG;
+        tag.setLength(0);
+        tagOverflow = false;
+        quote = 0;
+        afterEquals = false;
+    }
+
+    private void readTag(char c) {
+        if (quote != 0) {
+            if (c == quote) {
+                quote = 0;
+            }
+            appendTag(c);
+            return;
+        }
+        if (tag.length() == 0 && !isAsciiLetter(c) && c != '/' && c != '!' && c != '?') {
+            // A '<' that does not start a tag ("a < b") is text
+            state = TEXT;
+            if (pendingUrl != null) {
+                appendText('<');
+            }
+            accept(c);
+            return;
+        }
+        if (c == '>') {
+            state = TEXT;
+            if (!tagOverflow) {
+                handleTag();
+            }
+            return;
+        }
+        if ((c == '"' || c == '\'') && afterEquals) {
+            quote = c;
+        }
+        if (c == '=') {
+            afterEquals = true;
+        } else if (!Character.isWhitespace(c)) {
+            afterEquals = false;
+        }
+        appendTag(c);
+        if (tag.length() == 3 && regionMatches(tag, 0, "!--")) {
+            state = COMMENT;
+            commentDashes = 0;
+        }
+    }
+
+    private void appendTag(char c) {
+        if (tag.length() < MAX_TAG_CHARS) {
+            tag.append(c);
+        } else {
+            tagOverflow = true;
+        }
+    }
+
+    /**
+     * Skips the body of a script or style element until its end tag starts.
+     */
+    private void readRawText(char c) {
+        if (Character.toLowerCase(c) == rawTextEnd.charAt(rawTextMatched)) {
+            if (++rawTextMatched == rawTextEnd.length()) {
+                startTag();
+                tag.append(rawTextEnd, 1, rawTextEnd.length());
+            }
+        } else {
+            rawTextMatched = c == '<' ? 1 : 0;
+        }
+    }
+
+    private void handleTag() {
+        if (isTag("a")) {
+            emitPending();
+            String href = draining ? null : attribute("href");
+            String link = href == null ? null : linkResolver.resolve(decodeEntities(href));
+            if (link != null && emittedUrls.add(link)) {
+                pendingUrl = link;
+                pendingSpace = false;
+                anchorScanned = 0;
+                text.setLength(0);
+            }
+        } else if (isTag("/a")) {
+            emitPending();
+        } else if (isTag("base") && !rebased && !draining) {
+            String href = attribute("href");
+            if (href != null) {
+                rebase(decodeEntities(href));
+            }
+        } else if (isTag("script") || isTag("style")) {
+            state = RAW_TEXT;
+            rawTextEnd = isTag("script") ? "</script" : "</style";
+            rawTextMatched = 0;
+        }
+    }
+
+    private boolean isTag(String name) {
+        int length = name.length();
+        return regionMatches(tag, 0, name)
+                && (tag.length() == length || !Character.isLetterOrDigit(tag.charAt(length)));
+    }
+
+    /**
+     * Finds the value of an attribute of the tag read, or null if the tag has no such attribute
+     * or the attribute has no value.
+     */
+    private String attribute(String name) {
+        int length = tag.length();
+        int position = 0;
+        while (position < length && !isTagSeparator(tag.charAt(position))) {
+            position++;
+        }
+        while (position < length) {
+            position = skipSeparators(position);
+            int nameStart = position;
+            while (position < length && !isTagSeparator(tag.charAt(position)) && tag.charAt(position) != '=') {
+                position++;
+            }
+            int nameEnd = position;
+            position = skipWhitespace(position);
+            if (position >= length || tag.charAt(position) != '=') {
+                if (nameStart == position) {
+                    position++;
+                }
+                continue;
+            }
+            position = skipWhitespace(position + 1);
+            int valueStart;
+            int valueEnd;
+            if (position < length && (tag.charAt(position) == '"' || tag.charAt(position) == '\'')) {
+                valueStart = position + 1;
+                valueEnd = valueStart;
+                while (valueEnd < length && tag.charAt(valueEnd) != tag.charAt(position)) {
+                    valueEnd++;
+                }
+                position = valueEnd + 1;
+            } else {
+                valueStart = position;
+                valueEnd = position;
+                while (valueEnd < length && !Character.isWhitespace(tag.charAt(valueEnd))) {
+                    valueEnd++;
+                }
+                position = valueEnd;
+            }
+            if (nameEnd - nameStart == name.length() && regionMatches(tag, nameStart, name)) {
+                return tag.substring(valueStart, valueEnd);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isTagSeparator(char c) {
+        return c == '/' || Character.isWhitespace(c);
+    }
+
+    private int skipSeparators(int position) {
+        while (position < tag.length() && isTagSeparator(tag.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private int skipWhitespace(int position) {
+        while (position < tag.length() && Character.isWhitespace(tag.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean regionMatches(CharSequence text, int offset, String lowerCase) {
+        if (offset + lowerCase.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < lowerCase.length(); i++) {
+            if (Character.toLowerCase(text.charAt(offset + i)) != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the character references of an attribute value: numeric ones and the named ones
+     * found in URLs. References without their closing semicolon are left as they are, since
+     * "&amp;b=2" in a query is far more common than a legacy entity.
+     */
+    static String decodeEntities(String value) {
+        int ampersand = value.indexOf('&');
+        if (ampersand < 0) {
+            return value;
+        }
+        StringBuilder decoded = new StringBuilder(value.length()).append(value, 0, ampersand);
+        int position = ampersand;
+        while (position < value.length()) {
+            char c = value.charAt(position);
+            int semicolon = c == '&' ? value.indexOf(';', position) : -1;
+            int codePoint = semicolon > position + 1 && semicolon - position <= 10
+                    ? entity(value, position + 1, semicolon) : -1;
+            if (codePoint >= 0) {
+                decoded.appendCodePoint(codePoint);
+                position = semicolon + 1;
+            } else {
+                decoded.append(c);
+                position++;
+            }
+        }
+        return decoded.toString();
+    }
+
+    private static int entity(String value, int start, int end) {
+        if (value.charAt(start) == '#') {
+            boolean hex = start + 1 < end && (value.charAt(start + 1) == 'x' || value.charAt(start + 1) == 'X');
+            try {
+                int codePoint = Integer.parseInt(value, hex ? start + 2 : start + 1, end, hex ? 16 : 10);
+                return Character.isValidCodePoint(codePoint) ? codePoint : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return switch (value.substring(start, end)) {
+            case "amp" -> '&';
+            case "lt" -> '<';
+            case "gt" -> '>';
+            case "quot" -> '"';
+            case "apos" -> '\'';
+            case "nbsp" -> '\u00a0';
+            default -> -1;
+        };
+    }
+
+    private void appendText(char c) {
+        if (Character.isWhitespace(c)) {
+            pendingSpace = text.length() > 0;
+        } else if (text.length() < MAX_ANCHOR_TEXT_SCAN) {
+            if (pendingSpace) {
+                text.append(' ');
+                pendingSpace = false;
+            }
+            text.append(c);
+        }
+    }
+
+    private void emitPending() {
+        if (pendingUrl != null) {
+            consumer.accept(new Link(pendingUrl, text.toString()));
+            pendingUrl = null;
+        }
+    }
+}
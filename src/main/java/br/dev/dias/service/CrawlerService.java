@@ -2,64 +2,135 @@ package br.dev.dias.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import br.dev.dias.crawler.CrawlJob;
+import br.dev.dias.crawler.FifoUrlFrontier;
+import br.dev.dias.crawler.FingerprintUrlSeenSet;
+import br.dev.dias.crawler.HostCircuitBreaker;
+import br.dev.dias.crawler.PriorityUrlFrontier;
+import br.dev.dias.crawler.RetryScheduler;
+import br.dev.dias.crawler.ScalableBloomUrlSeenSet;
+import br.dev.dias.crawler.SpillingUrlFrontier;
+import br.dev.dias.crawler.TrigramIndex;
+import br.dev.dias.crawler.UrlFrontier;
+import br.dev.dias.crawler.UrlRecordStore;
+import br.dev.dias.crawler.UrlSeenSet;
+import br.dev.dias.crawler.UrlStore;
+import br.dev.dias.crawler.UrlTrie;
 import br.dev.dias.exception.FailedFetchContentException;
 import br.dev.dias.exception.HttpRequestFailedException;
 import br.dev.dias.exception.SearchNotFoundException;
+import br.dev.dias.exception.UnsupportedContentException;
+import br.dev.dias.model.CrawledPage;
+import br.dev.dias.model.DedupeMode;
+import br.dev.dias.model.ExecutionMode;
+import br.dev.dias.model.FrontierMode;
 import br.dev.dias.model.Search;
 import br.dev.dias.util.ApplicationConfiguration;
+import br.dev.dias.util.UrlCanonicalizer;
 
 /**
  * Service responsible for managing and executing crawl jobs.
  * Handles job scheduling, URL processing, and thread management.
+ *
+ * In the default threads mode a pool of workers blocks on the pages they fetch. In async mode
+ * requests are issued without blocking, and each completion is processed on the executor. In
+ * virtual mode every URL is fetched and processed on its own virtual thread. The last two modes
+ * keep up to a global and a per-job number of pages in flight, and each finished page refills
+ * the in-flight window.
+ *
+ * A URL whose fetch fails to connect is handed to a {@link RetryScheduler} and put back on its
+ * job's queue after an exponential backoff with jitter, while workers go on with other URLs. After
+ * repeated failures a host's circuit opens in the {@link HostCircuitBreaker}, and its URLs are set
+ * aside until a probe request gets through again.
  */
 public class CrawlerService {
     private static final Logger LOGGER = LoggerFactory.getLogger(CrawlerService.class);
+    private static final int MAX_RETRIES = 3;
+    private static final int SKIPPED_URLS_UPDATE_INTERVAL = 256;
+    private static final long RETRY_BASE_DELAY_MILLIS = 500;
+    private static final long RETRY_MAX_DELAY_MILLIS = 30000;
+    private static final int CIRCUIT_FAILURE_THRESHOLD = 5;
+    private static final long CIRCUIT_OPEN_MILLIS = 2000;
+    private static final long CIRCUIT_MAX_OPEN_MILLIS = 60000;
     private final SearchService repositoryService;
-    private final ThreadPoolExecutor executor;
+    private final ExecutorService executor;
     private final Map<String, CrawlJob> activeJobs;
+    private final AtomicReference<KeywordAutomaton> keywordAutomaton;
     private final ApplicationConfiguration appConfig;
-    private final KeywordSearchService keywordSearchService;
     private final LinkExtractorService linkExtractorService;
     private final HttpClientService httpClientService;
     private final ThreadMonitorService threadMonitorService;
     private final ReentrantLock schedulingLock;
     private final HtmlCacheService htmlCacheService;
+    private final PageService pageService;
+    private final TrigramIndex corpusIndex;
+    private final ExecutionMode executionMode;
+    private final Semaphore inFlightPermits;
+    private final RetryScheduler retryScheduler;
+    private final HostCircuitBreaker circuitBreaker;
 
     /**
      * Constructs a CrawlerService with the specified dependencies.
      *
      * @param repositoryService the service for managing search data
-     * @param keywordSearchService the service for searching keywords in content
      * @param linkExtractorService the service for extracting links from content
      * @param httpClientService the service for making HTTP requests
      * @param appConfig the application configuration
      */
     public CrawlerService(SearchService repositoryService, 
-            KeywordSearchService keywordSearchService, 
             LinkExtractorService linkExtractorService, 
             HttpClientService httpClientService, ApplicationConfiguration appConfig) {
         this.repositoryService = repositoryService;
         this.appConfig = appConfig;
-        this.executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(appConfig.getMinThreads());
-        this.keywordSearchService = keywordSearchService;
+        this.executionMode = appConfig.getExecutionMode() != null ? appConfig.getExecutionMode() : ExecutionMode.THREADS;
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            this.executor = Executors.newVirtualThreadPerTaskExecutor();
+            this.threadMonitorService = null;
+        } else {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(appConfig.getMinThreads());
+            this.executor = pool;
+            this.threadMonitorService = new ThreadMonitorService(pool, appConfig);
+        }
         this.linkExtractorService = linkExtractorService;
         this.httpClientService = httpClientService;
         this.activeJobs = new ConcurrentHashMap<>();
-        this.threadMonitorService = new ThreadMonitorService(executor, appConfig);
+        this.keywordAutomaton = new AtomicReference<>(KeywordAutomaton.EMPTY);
         this.schedulingLock = new ReentrantLock();
-        this.htmlCacheService = new HtmlCacheService();
+        this.htmlCacheService = new HtmlCacheService(appConfig.getPageCacheSize());
+        this.corpusIndex = appConfig.isCorpusIndex() ? new TrigramIndex(appConfig.getCorpusIndexMaxPages()) : null;
+        if (corpusIndex != null) {
+            LOGGER.info("Corpus index pages are verified with {} keyword scanning.",
+                    Utf8KeywordScanner.isVectorAvailable() ? "vectorized" : "scalar");
+        }
+        this.pageService = new PageService(httpClientService, linkExtractorService, htmlCacheService,
+                corpusIndex, appConfig.getBaseUrl(), appConfig.getPageProcessingMode(), keywordAutomaton::get,
+                appConfig.getParallelPageThreshold());
+        this.inFlightPermits = new Semaphore(Math.max(1, appConfig.getMaxInFlight()));
+        this.retryScheduler = new RetryScheduler(RETRY_BASE_DELAY_MILLIS, RETRY_MAX_DELAY_MILLIS);
+        this.circuitBreaker = new HostCircuitBreaker(CIRCUIT_FAILURE_THRESHOLD, CIRCUIT_OPEN_MILLIS,
+                CIRCUIT_MAX_OPEN_MILLIS);
     }
 
     /**
      * Starts a new crawl job for the specified search ID.
+     * The job is processed by up to {@link ApplicationConfiguration#getJobParallelism()} workers
+     * sharing its pending URLs. When the corpus index is enabled, pages already in it that contain
+     * the keyword are added to the results first, on the executor, and the crawl then refreshes them.
      *
      * @param searchId the ID of the search to start crawling for
      * @return the search ID
@@ -70,79 +141,440 @@ public class CrawlerService {
         Search search = repositoryService.findSearchById(searchId);
 
         LOGGER.info("Creating a job for search ID: {}", searchId);
-        CrawlJob job = new CrawlJob(searchId, search.getKeyword(), appConfig.getBaseUrl(), repositoryService);
-        activeJobs.put(searchId, job);
-
-        executor.submit(new JobWorker(job));
-        LOGGER.info("Crawl job for search ID {} started.", searchId);
-        threadMonitorService.monitorThreads();
+        int maxWorkers = executionMode == ExecutionMode.THREADS
+                ? appConfig.getJobParallelism() : Math.max(1, appConfig.getMaxInFlightPerJob());
+        CrawlJob job = new CrawlJob(searchId, search.getKeyword(), appConfig.getBaseUrl(), repositoryService,
+                maxWorkers, createSeenSet(search), createFrontier(search));
+        if (corpusIndex == null) {
+            launch(job);
+            return searchId;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    answerFromIndex(job);
+                } finally {
+                    launch(job);
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            job.close();
+            LOGGER.warn("Crawl job for search ID {} rejected by the executor.", searchId);
+        }
 
         return searchId;
     }
 
     /**
-     * Processes a single URL for the given crawl job.
+     * Adds the pages of the corpus index containing the job's keyword to its results. Runs before
+     * the job is launched, so that its crawl refreshes every indexed result it adds.
      *
      * @param job the crawl job
-     * @param url the URL to process
      */
-    private void processUrl(CrawlJob job, String url) {
-        LOGGER.debug("Processing URL: {}", url);
-        int retryCount = 0;
-        final int maxRetries = 3;
-        final long retryInterval = 30000; // 30 seconds in milliseconds
+    private void answerFromIndex(CrawlJob job) {
+        try {
+            List<String> indexed = corpusIndex.searchBytes(job.getKeyword(),
+                    new Utf8KeywordScanner(job.getKeyword())::matches);
+            job.addIndexedResults(indexed);
+            LOGGER.info("Search ID {} answered {} URLs from the corpus index of {} pages.",
+                    job.getSearchId(), indexed.size(), corpusIndex.size());
+        } catch (SearchNotFoundException snfe) {
+            LOGGER.error("Search {} not found while answering from the corpus index.", job.getSearchId(), snfe);
+        }
+    }
+
+    /**
+     * Registers a job among the active ones and starts crawling it.
+     *
+     * @param job the crawl job
+     */
+    private void launch(CrawlJob job) {
+        activeJobs.put(job.getSearchId(), job);
+        refreshKeywords();
+        if (executionMode == ExecutionMode.THREADS) {
+            dispatchWorkers(job);
+            LOGGER.info("Crawl job for search ID {} started with up to {} workers.", job.getSearchId(), job.getMaxWorkers());
+            threadMonitorService.monitorThreads();
+        } else {
+            pump(job);
+            LOGGER.info("Crawl job for search ID {} started in {} mode with up to {} pages in flight.",
+                    job.getSearchId(), executionMode.getValue(), job.getMaxWorkers());
+        }
+    }
 
-        while (retryCount < maxRetries) {
-            if (Thread.currentThread().isInterrupted()) {
-                LOGGER.warn("Thread interrupted while processing URL: {}. Exiting process.", url);
+    /**
+     * Creates the URL seen set of a job according to the search's dedupe mode, falling back
+     * to the configured default.
+     *
+     * @param search the search being crawled
+     * @return the seen set for the search's job
+     */
+    private UrlSeenSet createSeenSet(Search search) {
+        if (getDedupeMode(search) == DedupeMode.PROBABILISTIC) {
+            LOGGER.info("Search ID {} uses probabilistic dedupe with a false-positive rate of {}",
+                    search.getId(), appConfig.getDedupeFalsePositiveRate());
+            return new ScalableBloomUrlSeenSet(appConfig.getDedupeFalsePositiveRate());
+        }
+        return new FingerprintUrlSeenSet();
+    }
+
+    /**
+     * Creates the frontier of a job according to the configured frontier mode.
+     *
+     * @param search the search being crawled
+     * @return the frontier for the search's job
+     */
+    private UrlFrontier createFrontier(Search search) {
+        if (appConfig.getFrontierMode() == FrontierMode.PRIORITY) {
+            LOGGER.info("Search ID {} uses a best-first priority frontier", search.getId());
+            return new PriorityUrlFrontier(2 * Math.max(1, appConfig.getJobParallelism()), createUrlStore(search));
+        }
+        if (appConfig.getFrontierMode() == FrontierMode.SPILLING) {
+            LOGGER.info("Search ID {} uses a spilling frontier keeping {} URLs in memory",
+                    search.getId(), appConfig.getFrontierMemoryLimit());
+            return new SpillingUrlFrontier(appConfig.getFrontierSpillDirectory(), appConfig.getFrontierMemoryLimit());
+        }
+        return new FifoUrlFrontier(createUrlStore(search));
+    }
+
+    /**
+     * Creates the store holding the pending URLs of an in-memory frontier. With probabilistic
+     * dedupe, URLs are released once polled so the job's memory does not grow with every admitted
+     * URL; otherwise they are interned into a trie kept for the whole job.
+     *
+     * @param search the search being crawled
+     * @return the URL store for the search's frontier
+     */
+    private UrlStore createUrlStore(Search search) {
+        if (getDedupeMode(search) == DedupeMode.PROBABILISTIC) {
+            return new UrlRecordStore();
+        }
+        return new UrlTrie(appConfig.getBaseUrl());
+    }
+
+    /**
+     * Gets the dedupe mode of a search, falling back to the configured default.
+     *
+     * @param search the search being crawled
+     * @return the dedupe mode to use
+     */
+    private DedupeMode getDedupeMode(Search search) {
+        return search.getDedupeMode() != null ? search.getDedupeMode() : appConfig.getDedupeMode();
+    }
+
+    /**
+     * Starts additional workers for the given job while it has more pending URLs than active workers,
+     * up to the job's parallelism cap.
+     *
+     * @param job the crawl job to fan out
+     */
+    private void dispatchWorkers(CrawlJob job) {
+        while (!executor.isShutdown()
+                && job.getActiveWorkersCount() < job.getPendingUrlsCount()
+                && job.tryAcquireWorker()) {
+            try {
+                executor.submit(new JobWorker(job));
+            } catch (RejectedExecutionException ree) {
+                job.releaseWorker();
+                LOGGER.warn("Worker for job ID {} rejected by the executor.", job.getSearchId());
                 return;
             }
-            try {
-                String content = htmlCacheService.get(url);
-                if (content == null) {
-                    content = httpClientService.fetchContent(url);
-                    htmlCacheService.put(url, content);
-                }
-                if (keywordSearchService.containsKeyword(content, job.getKeyword())) {
-                    job.addUrlToResults(url);
-                }
-                List<String> links = linkExtractorService.extractLinks(content, url, job.getBaseUrl());
-                job.addNewUrls(links);
-                job.markUrlAsProcessed(url);
-                return; 
-            } catch(HttpRequestFailedException hrfe) {
-                LOGGER.error("HTTP request failed for URL: {}. Error: {}", url, hrfe.getMessage());
-                job.markUrlAsProcessed(url);
-                return; 
-
-            } catch (FailedFetchContentException e) {
-                retryCount++;
-                LOGGER.warn("Job of search {} has a connection issue for URL: {}. Retrying {}/{} in {} seconds...", 
-                    job.getSearchId(), url, retryCount, maxRetries, retryInterval / 1000);
+        }
+    }
+
+    /**
+     * Starts fetching the job's pending URLs while both the global and the job's in-flight limits
+     * allow, asynchronously or on virtual threads. Each slot is held until its page has been processed.
+     *
+     * @param job the crawl job to fetch pages for
+     */
+    private void pump(CrawlJob job) {
+        while (!executor.isShutdown() && job.getPendingUrlsCount() > 0 && inFlightPermits.tryAcquire()) {
+            if (!job.tryAcquireWorker()) {
+                inFlightPermits.release();
+                return;
+            }
+            String url = job.getNextUrl();
+            if (url == null) {
+                job.releaseWorker();
+                inFlightPermits.release();
+                return;
+            }
+            if (executionMode == ExecutionMode.ASYNC) {
+                fetchAsync(job, url);
+            } else {
+                processOnVirtualThread(job, url);
+            }
+        }
+    }
+
+    /**
+     * Fetches and processes a URL on its own virtual thread, then refills the in-flight window.
+     *
+     * @param job the crawl job
+     * @param url the URL to process
+     */
+    private void processOnVirtualThread(CrawlJob job, String url) {
+        try {
+            executor.execute(() -> {
                 try {
-                    Thread.sleep(retryInterval);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    LOGGER.error("Retry interrupted for URL: {}", url, ie);
-                    return;
+                    processUrl(job, url);
+                } finally {
+                    job.releaseWorker();
+                    inFlightPermits.release();
+                    activeJobs.values().forEach(this::pump);
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            job.releaseWorker();
+            inFlightPermits.release();
+            LOGGER.warn("Task for job ID {} rejected by the executor.", job.getSearchId());
+        }
+    }
+
+    /**
+     * Fetches a page asynchronously and processes it once it arrives. A failed connection releases
+     * the in-flight slot and leaves the URL to the retry scheduler.
+     *
+     * @param job the crawl job
+     * @param url the URL to fetch
+     */
+    private void fetchAsync(CrawlJob job, String url) {
+        if (!admit(job, url)) {
+            // The enclosing pump goes on with the next URL
+            job.releaseWorker();
+            inFlightPermits.release();
+            return;
+        }
+        String host = UrlCanonicalizer.hostOf(url);
+        CompletableFuture<CrawledPage> fetch;
+        try {
+            fetch = pageService.getPageAsync(url, job.getKeyword(), executor);
+        } catch (RuntimeException e) {
+            fetch = CompletableFuture.failedFuture(e);
+        }
+        // Handled on the executor, also for cached pages, so that completions never recurse into pump
+        fetch.whenCompleteAsync((page, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            boolean retrying = false;
+            try {
+                if (cause == null) {
+                    circuitBreaker.recordSuccess(host);
+                    processPage(job, url, page);
+                } else if (cause instanceof UnsupportedContentException) {
+                    circuitBreaker.recordSuccess(host);
+                    LOGGER.debug(cause.getMessage());
+                    withdrawResult(job, url);
+                } else if (cause instanceof HttpRequestFailedException) {
+                    circuitBreaker.recordSuccess(host);
+                    LOGGER.error("HTTP request failed for URL: {}. Error: {}", url, cause.getMessage());
+                    withdrawResult(job, url);
+                } else if (cause instanceof FailedFetchContentException) {
+                    retrying = retryLater(job, url);
+                    if (!retrying) {
+                        withdrawResult(job, url);
+                    }
+                } else {
+                    // Releases the circuit's probe, which may be this request
+                    circuitBreaker.recordFailure(host);
+                    LOGGER.error("Failed to process URL: {}", url, cause);
+                    withdrawResult(job, url);
                 }
             } catch (SearchNotFoundException snfe) {
                 LOGGER.error("Search {} not found for URL: {}.", job.getSearchId(), url, snfe);
-                break;
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to process URL: {}", url, e);
+            } finally {
+                job.releaseWorker();
+                inFlightPermits.release();
+                if (!retrying) {
+                    completeUrl(job, url);
+                }
+                activeJobs.values().forEach(this::pump);
             }
+        }, executor);
+    }
+
+    /**
+     * Checks the circuit of the URL's host before fetching it. While the circuit is open the URL is
+     * set aside and put back on the job's queue once the host may be tried again.
+     *
+     * @param job the crawl job
+     * @param url the URL about to be fetched
+     * @return true if the URL may be fetched now
+     */
+    private boolean admit(CrawlJob job, String url) {
+        long delayMillis = circuitBreaker.delayBeforeRequest(UrlCanonicalizer.hostOf(url));
+        if (delayMillis <= 0) {
+            return true;
         }
+        LOGGER.debug("Circuit open for URL: {}. Deferring it by {} ms.", url, delayMillis);
+        requeueLater(job, url, delayMillis);
+        return false;
+    }
 
-        if (retryCount >= maxRetries) {
+    /**
+     * Handles a failed connection by scheduling another attempt after an exponential backoff with jitter.
+     * The URL stays outstanding until it is fetched or given up.
+     *
+     * @param job the crawl job
+     * @param url the URL that could not be fetched
+     * @return true if a retry was scheduled, false if the URL was given up
+     */
+    private boolean retryLater(CrawlJob job, String url) {
+        circuitBreaker.recordFailure(UrlCanonicalizer.hostOf(url));
+        int attempt = job.recordFailedAttempt(url);
+        if (attempt >= MAX_RETRIES || executor.isShutdown()) {
             LOGGER.error("Max retries reached for URL: {}. Marking task as done.", url);
-            job.getLock().lock();
-            try {
-                job.markUrlAsProcessed(url);
-                if (!job.hasMoreUrls()) {
-                    finishJob(job.getSearchId());
-                }
-            } finally {
-                job.getLock().unlock();
+            return false;
+        }
+        long delayMillis = retryScheduler.backoffDelayMillis(attempt);
+        LOGGER.warn("Job of search {} has a connection issue for URL: {}. Retrying {}/{} in {} ms...",
+            job.getSearchId(), url, attempt, MAX_RETRIES - 1, delayMillis);
+        requeueLater(job, url, delayMillis);
+        return true;
+    }
+
+    /**
+     * Puts a URL back on its job's queue after the given delay and resumes the job's processing.
+     *
+     * @param job the crawl job
+     * @param url the URL to process again
+     * @param delayMillis the delay in milliseconds
+     */
+    private void requeueLater(CrawlJob job, String url, long delayMillis) {
+        retryScheduler.schedule(() -> {
+            job.requeueUrl(url);
+            if (executionMode == ExecutionMode.THREADS) {
+                dispatchWorkers(job);
+            } else {
+                pump(job);
+            }
+        }, delayMillis);
+    }
+
+    /**
+     * Swaps in the automaton of the running jobs' keywords, which fetched pages are scanned for,
+     * after a job started or finished. The automaton is rebuilt from the jobs active when the swap
+     * succeeds, so concurrent starts and finishes cannot leave a stale one in place.
+     */
+    private void refreshKeywords() {
+        keywordAutomaton.updateAndGet(current -> {
+            Set<String> keywords = activeJobs.values().stream().map(CrawlJob::getKeyword).collect(Collectors.toSet());
+            boolean unchanged = keywords.size() == current.size() && keywords.stream().allMatch(current::contains);
+            return unchanged ? current : new KeywordAutomaton(keywords);
+        });
+    }
+
+    /**
+     * Matches the keyword of the job against a fetched page and queues the page's links.
+     *
+     * @param job the crawl job
+     * @param url the URL of the page
+     * @param page the fetched page
+     * @throws SearchNotFoundException if the search ID is not found
+     */
+    private void processPage(CrawlJob job, String url, CrawledPage page) throws SearchNotFoundException {
+        boolean matched = page.isScannedFor(job.getKeyword())
+                ? page.containsKeyword(job.getKeyword())
+                : job.getKeywordMatcher().matches(page.getContent(), appConfig.getParallelPageThreshold());
+        job.updateResult(url, matched);
+        job.addNewLinks(page.getLinks(), matched);
+    }
+
+    /**
+     * Processes a single URL for the given crawl job.
+     *
+     * @param job the crawl job
+     * @param url the URL to process
+     */
+    private void processUrl(CrawlJob job, String url) {
+        LOGGER.debug("Processing URL: {}", url);
+        if (Thread.currentThread().isInterrupted()) {
+            LOGGER.warn("Thread interrupted while processing URL: {}. Putting it back on the queue.", url);
+            job.requeueUrl(url);
+            return;
+        }
+        if (!admit(job, url)) {
+            return;
+        }
+        String host = UrlCanonicalizer.hostOf(url);
+        try {
+            CrawledPage page = pageService.getPage(url, job.getKeyword());
+            circuitBreaker.recordSuccess(host);
+            processPage(job, url, page);
+        } catch (UnsupportedContentException uce) {
+            circuitBreaker.recordSuccess(host);
+            LOGGER.debug(uce.getMessage());
+            withdrawResult(job, url);
+        } catch(HttpRequestFailedException hrfe) {
+            circuitBreaker.recordSuccess(host);
+            LOGGER.error("HTTP request failed for URL: {}. Error: {}", url, hrfe.getMessage());
+            withdrawResult(job, url);
+        } catch (FailedFetchContentException e) {
+            if (retryLater(job, url)) {
+                return;
             }
+            withdrawResult(job, url);
+        } catch (SearchNotFoundException snfe) {
+            LOGGER.error("Search {} not found for URL: {}.", job.getSearchId(), url, snfe);
+        } catch (RuntimeException e) {
+            // Releases the circuit's probe, which may be this request
+            circuitBreaker.recordFailure(host);
+            LOGGER.error("Failed to process URL: {}", url, e);
+            withdrawResult(job, url);
+        }
+        completeUrl(job, url);
+    }
+
+    /**
+     * Drops a page that could not be crawled from the corpus index and withdraws it from the job's
+     * results if the index had answered it.
+     *
+     * @param job the crawl job
+     * @param url the URL that could not be crawled
+     */
+    private void withdrawResult(CrawlJob job, String url) {
+        if (corpusIndex == null) {
+            return;
+        }
+        corpusIndex.remove(url);
+        try {
+            job.withdrawIndexedResult(url);
+        } catch (SearchNotFoundException snfe) {
+            LOGGER.error("Search {} not found while withdrawing URL: {}.", job.getSearchId(), url, snfe);
+        }
+    }
+
+    /**
+     * Marks a URL as processed and finishes the job if it was the last outstanding URL.
+     *
+     * @param job the crawl job
+     * @param url the processed URL
+     */
+    private void completeUrl(CrawlJob job, String url) {
+        boolean complete = job.markUrlAsProcessed(url);
+        if (complete) {
+            finishJob(job.getSearchId());
+        } else if (job.getProcessedUrlsCount() % SKIPPED_URLS_UPDATE_INTERVAL == 0) {
+            updateExpectedSkippedUrls(job);
+        }
+    }
+
+    /**
+     * Stores the estimate of the URLs a probabilistic dedupe job skipped as false positives.
+     * Called every {@link #SKIPPED_URLS_UPDATE_INTERVAL} processed URLs and when the job finishes.
+     *
+     * @param job the crawl job
+     */
+    private void updateExpectedSkippedUrls(CrawlJob job) {
+        if (!(job.getSeenUrls() instanceof ScalableBloomUrlSeenSet)) {
+            return;
+        }
+        try {
+            repositoryService.updateExpectedSkippedUrls(job.getSearchId(), job.getExpectedSkippedUrlsCount());
+        } catch (SearchNotFoundException snfe) {
+            LOGGER.error("Search {} not found while updating skipped URLs.", job.getSearchId(), snfe);
         }
     }
 
@@ -156,7 +588,10 @@ public class CrawlerService {
         try {
             CrawlJob job = activeJobs.remove(searchId);
             if (job != null) {
+                refreshKeywords();
                 LOGGER.info("Removed job with ID {} from activeJobs. Remaining jobs: {}", searchId, activeJobs.size());
+                updateExpectedSkippedUrls(job);
+                job.close();
                 try {
                     repositoryService.updateSearchStatus(searchId);
                 } catch (SearchNotFoundException e) {
@@ -174,12 +609,18 @@ public class CrawlerService {
     public void shutdown() {
         LOGGER.info("Shutting down CrawlerService...");
         executor.shutdown();
-        threadMonitorService.shutdown();
+        retryScheduler.shutdown();
+        activeJobs.values().forEach(CrawlJob::close);
+        if (threadMonitorService != null) {
+            threadMonitorService.shutdown();
+        }
         htmlCacheService.shutdown();
     }
 
     /**
      * Worker class responsible for executing a crawl job.
+     * Several workers may share the same job; each one pulls URLs until the job's queue is drained
+     * and fans out new workers as links are discovered.
      */
     private class JobWorker implements Runnable {
         private final CrawlJob job;
@@ -196,19 +637,21 @@ public class CrawlerService {
         @Override
         public void run() {
             try {
-                while (!job.isComplete() && !Thread.currentThread().isInterrupted()) {
-                    String url = job.getNextUrl();
-                    if (url != null) {
-                        processUrl(job, url);
-                    } else {
-                        LOGGER.debug("No more URLs to process for job ID: {}", job.getSearchId());
-                        break;
-                    }
-                    Thread.yield(); 
+                String url;
+                while (!Thread.currentThread().isInterrupted() && (url = job.getNextUrl()) != null) {
+                    processUrl(job, url);
+                    dispatchWorkers(job);
                 }
-                LOGGER.info("Job ID {} is complete or interrupted.", job.getSearchId());
+                LOGGER.debug("No more URLs to process for job ID: {}", job.getSearchId());
             } finally {
-                finishJob(job.getSearchId());
+                job.releaseWorker();
+                if (job.isComplete() || executor.isShutdown()) {
+                    LOGGER.info("Job ID {} is complete or the service is shutting down.", job.getSearchId());
+                    finishJob(job.getSearchId());
+                } else {
+                    // URLs queued after our last poll must not be left without a worker.
+                    dispatchWorkers(job);
+                }
             }
         }
     }
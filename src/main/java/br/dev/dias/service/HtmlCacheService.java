@@ -1,43 +1,105 @@
 package br.dev.dias.service;
 
+import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import br.dev.dias.model.CrawledPage;
+import br.dev.dias.model.PageValidators;
+
 public class HtmlCacheService {
     private static final Logger LOGGER = LoggerFactory.getLogger(HtmlCacheService.class);
     private static final long CACHE_EXPIRATION_MINUTES = 5;
-    private static final int MAX_CACHE_SIZE = 2000; 
+    private static final long STALE_RETENTION_MINUTES = 60;
+    private static final int DEFAULT_MAX_CACHE_SIZE = 2000; 
     private final ConcurrentHashMap<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    // Entries in the order they were added or last requeued, so the least recently used come first
+    private final ConcurrentLinkedQueue<CacheEntry> expiryQueue = new ConcurrentLinkedQueue<>();
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final int maxCacheSize;
+    private final long expirationMillis;
 
     public HtmlCacheService() {
-        LOGGER.info("Initializing HtmlCacheService with expiration time of {} minutes.", CACHE_EXPIRATION_MINUTES);
+        this(DEFAULT_MAX_CACHE_SIZE);
+    }
+
+    public HtmlCacheService(int maxCacheSize) {
+        this(maxCacheSize, Duration.ofMinutes(CACHE_EXPIRATION_MINUTES));
+    }
+
+    public HtmlCacheService(int maxCacheSize, Duration expiration) {
+        this.maxCacheSize = maxCacheSize > 0 ? maxCacheSize : DEFAULT_MAX_CACHE_SIZE;
+        this.expirationMillis = expiration.toMillis();
+        LOGGER.info("Initializing HtmlCacheService with expiration time of {} minutes and up to {} pages.",
+                expiration.toMinutes(), this.maxCacheSize);
         scheduler.scheduleAtFixedRate(this::removeExpiredEntries, 1, 1, TimeUnit.MINUTES);
     }
 
     public String get(String url) {
+        CrawledPage page = getPage(url);
+        return page == null ? null : page.getContent();
+    }
+
+    public CrawledPage getPage(String url) {
         LOGGER.debug("Fetching content for URL: {}", url);
         CacheEntry entry = cache.get(url);
         if (entry != null && !entry.isExpired()) {
             LOGGER.debug("Cache hit for URL: {}", url);
             entry.updateLastAccessTime();
-            return entry.getContent();
+            return entry.getPage();
         }
         LOGGER.debug("Cache miss for URL: {}", url);
         return null;
     }
 
+    public PageValidators getValidators(String url) {
+        CacheEntry entry = cache.get(url);
+        return entry == null || entry.getValidators() == null || !entry.getValidators().canRevalidate()
+                ? null : entry.getValidators();
+    }
+
+    public CrawledPage revalidate(String url, PageValidators responseValidators) {
+        CacheEntry entry = cache.get(url);
+        if (entry == null) {
+            LOGGER.debug("Revalidated entry for URL {} was evicted.", url);
+            return null;
+        }
+        LOGGER.debug("Revalidated cached content for URL: {}", url);
+        PageValidators validators = entry.getValidators() != null
+                ? entry.getValidators().updatedBy(responseValidators) : responseValidators;
+        CacheEntry revalidated = new CacheEntry(entry.getPage(), validators);
+        cache.put(url, revalidated);
+        expiryQueue.add(revalidated);
+        return entry.getPage();
+    }
+
     public void put(String url, String content) {
-        if (cache.size() >= MAX_CACHE_SIZE) {
+        putPage(new CrawledPage(url, content, null));
+    }
+
+    public void putPage(CrawledPage page) {
+        CacheEntry previous = cache.get(page.getUrl());
+        putPage(page, previous == null ? null : previous.getValidators());
+    }
+
+    public void putPage(CrawledPage page, PageValidators validators) {
+        if (cache.size() >= maxCacheSize && !cache.containsKey(page.getUrl())) {
+            // Stale entries kept for revalidation make room for new pages
+            evictExpiredEntries(System.currentTimeMillis());
+        }
+        if (cache.size() >= maxCacheSize && !cache.containsKey(page.getUrl())) {
             LOGGER.warn("Cache size exceeded the maximum limit. Consider increasing the limit or optimizing usage.");
             return;
         }
-        LOGGER.debug("Adding content to cache for URL: {}", url);
-        cache.put(url, new CacheEntry(content));
+        LOGGER.debug("Adding content to cache for URL: {}", page.getUrl());
+        CacheEntry entry = new CacheEntry(page, validators);
+        cache.put(page.getUrl(), entry);
+        expiryQueue.add(entry);
     }
 
     public void shutdown() {
@@ -45,27 +107,64 @@ public class HtmlCacheService {
         scheduler.shutdown();
     }
 
+    /**
+     * Evicts expired entries from the head of the expiry queue. Entries that were replaced are
+     * dropped, and entries requested since they were queued are moved to the tail, so each entry
+     * is looked at about once per access instead of scanning the whole cache on every put.
+     */
+    private void evictExpiredEntries(long now) {
+        for (int requeued = 0; requeued <= maxCacheSize; ) {
+            CacheEntry head = expiryQueue.poll();
+            if (head == null) {
+                return;
+            }
+            if (cache.get(head.getPage().getUrl()) != head) {
+                continue;
+            }
+            if (head.isExpired(now)) {
+                cache.remove(head.getPage().getUrl(), head);
+            } else if (head.wasAccessedSinceQueued()) {
+                head.markQueued();
+                expiryQueue.add(head);
+                requeued++;
+            } else {
+                // The oldest untouched entry is still fresh, and so are the ones queued after it
+                expiryQueue.add(head);
+                return;
+            }
+        }
+    }
+
     private void removeExpiredEntries() {
         LOGGER.debug("Running cache cleanup for expired entries.");
         long now = System.currentTimeMillis();
         int initialSize = cache.size();
-        cache.entrySet().removeIf(entry -> entry.getValue().isExpired(now));
+        cache.entrySet().removeIf(entry -> entry.getValue().isEvictable(now));
+        expiryQueue.removeIf(entry -> cache.get(entry.getPage().getUrl()) != entry);
         int finalSize = cache.size();
         LOGGER.info("Cache cleanup completed. Removed {} expired entries.", initialSize - finalSize);
     }
 
-    private static class CacheEntry {
-        private final String content;
+    private class CacheEntry {
+        private final CrawledPage page;
+        private final PageValidators validators;
         private volatile long lastAccessTime;
+        private volatile long queuedAccessTime;
 
-        public CacheEntry(String content) {
-            this.content = content;
+        public CacheEntry(CrawledPage page, PageValidators validators) {
+            this.page = page;
+            this.validators = validators;
             this.lastAccessTime = System.currentTimeMillis();
+            this.queuedAccessTime = lastAccessTime;
             LOGGER.debug("Created new cache entry.");
         }
 
-        public String getContent() {
-            return content;
+        public CrawledPage getPage() {
+            return page;
+        }
+
+        public PageValidators getValidators() {
+            return validators;
         }
 
         public void updateLastAccessTime() {
@@ -73,16 +172,31 @@ public class HtmlCacheService {
             LOGGER.debug("Updated last access time for cache entry.");
         }
 
+        public boolean wasAccessedSinceQueued() {
+            return lastAccessTime != queuedAccessTime;
+        }
+
+        public void markQueued() {
+            this.queuedAccessTime = lastAccessTime;
+        }
+
         public boolean isExpired() {
             return isExpired(System.currentTimeMillis());
         }
 
         public boolean isExpired(long currentTime) {
-            boolean expired = (currentTime - lastAccessTime) > TimeUnit.MINUTES.toMillis(CACHE_EXPIRATION_MINUTES);
+            boolean expired = (currentTime - lastAccessTime) > expirationMillis;
             if (expired) {
                 LOGGER.debug("Cache entry expired.");
             }
             return expired;
         }
+
+        public boolean isEvictable(long currentTime) {
+            if (validators == null || !validators.canRevalidate()) {
+                return isExpired(currentTime);
+            }
+            return (currentTime - lastAccessTime) > TimeUnit.MINUTES.toMillis(STALE_RETENTION_MINUTES);
+        }
     }
 }
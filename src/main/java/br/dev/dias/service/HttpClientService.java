@@ -2,14 +2,20 @@ package br.dev.dias.service;
 
 import java.io.IOException;
 import java.net.ConnectException;
-import java.net.HttpURLConnection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import br.dev.dias.exception.FailedFetchContentException;
 import br.dev.dias.exception.HttpRequestFailedException;
+import br.dev.dias.model.FetchResult;
+import br.dev.dias.model.PageValidators;
 import br.dev.dias.util.HttpClientHelper;
 import br.dev.dias.util.HttpResponseReader;
+import br.dev.dias.util.PageFetcher;
+import br.dev.dias.util.PageSink;
+import br.dev.dias.util.UrlConnectionPageFetcher;
 
 /**
  * Service class for handling HTTP client operations.
@@ -19,16 +25,13 @@ public class HttpClientService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientService.class);
 
-    private final HttpClientHelper httpClientHelper;
-    private final HttpResponseReader httpResponseReader;
+    private final PageFetcher pageFetcher;
 
     /**
      * Default constructor that initializes the service with default helper and reader instances.
      */
     public HttpClientService() {
-        LOGGER.info("Initializing HttpClientService");
-        this.httpClientHelper = new HttpClientHelper();
-        this.httpResponseReader = new HttpResponseReader();
+        this(new HttpClientHelper(), new HttpResponseReader());
     }
 
     /**
@@ -38,9 +41,17 @@ public class HttpClientService {
      * @param httpResponseReader the reader for processing HTTP responses
      */
     public HttpClientService(HttpClientHelper httpClientHelper, HttpResponseReader httpResponseReader) {
-        LOGGER.info("Initializing HttpClientService");
-        this.httpClientHelper = httpClientHelper;
-        this.httpResponseReader = httpResponseReader;
+        this(new UrlConnectionPageFetcher(httpClientHelper, httpResponseReader));
+    }
+
+    /**
+     * Constructor that allows choosing how pages are downloaded.
+     *
+     * @param pageFetcher the transport used to download pages
+     */
+    public HttpClientService(PageFetcher pageFetcher) {
+        LOGGER.info("Initializing HttpClientService with {}", pageFetcher.getClass().getSimpleName());
+        this.pageFetcher = pageFetcher;
     }
 
     /**
@@ -53,27 +64,144 @@ public class HttpClientService {
      */
     public String fetchContent(String url) throws FailedFetchContentException, HttpRequestFailedException {
         LOGGER.debug("Fetching content from URL: {}", url);
-        HttpURLConnection httpConnection = null;
         try {
-            httpConnection = httpClientHelper.createConnection(url, "GET", null, 5000, 5000);
-            httpClientHelper.validateSucessResponse(httpConnection);
-            return httpResponseReader.readResponse(httpConnection);
+            return pageFetcher.fetch(url);
         } catch (HttpRequestFailedException hrfe){
             throw hrfe;
-        } catch (ConnectException ce){
-            LOGGER.error("Connection error occurred while fetching content from URL: {}", url, ce);
-            throw new FailedFetchContentException(
-                String.format("Connection error occurred while fetching content from URL: %s", url), ce);
+        } catch (IOException ioe){
+            throw fetchFailure(url, ioe);
         }
-        catch (IOException ioe){
-            LOGGER.error("I/O error occurred while fetching content from URL: {}", url, ioe);
-            throw new FailedFetchContentException(
-                String.format("I/O error occurred while fetching content from URL: %s", url), ioe);
-        } 
-        finally {
-            if (httpConnection != null) {
-                httpConnection.disconnect();
+    }
+
+    /**
+     * Fetches the page at the specified URL with a conditional GET when validators of a cached copy are known.
+     *
+     * @param url the URL to fetch content from
+     * @param validators the validators of the cached copy, or null to download unconditionally
+     * @return the page with its validators, or a not-modified result
+     * @throws FailedFetchContentException if the content could not be fetched due to connection or I/O errors
+     * @throws HttpRequestFailedException if the HTTP request is not successful (response code is neither 200 nor 304)
+     */
+    public FetchResult fetchPage(String url, PageValidators validators) throws FailedFetchContentException, HttpRequestFailedException {
+        LOGGER.debug("Fetching page from URL: {}", url);
+        try {
+            return pageFetcher.fetch(url, validators);
+        } catch (HttpRequestFailedException hrfe){
+            throw hrfe;
+        } catch (IOException ioe){
+            throw fetchFailure(url, ioe);
+        }
+    }
+
+    /**
+     * Fetches the page at the specified URL like {@link #fetchPage(String, PageValidators)}, handing
+     * its text to the sink as it is read instead of returning it.
+     *
+     * @param url the URL to fetch content from
+     * @param validators the validators of the cached copy, or null to download unconditionally
+     * @param sink the sink receiving the text of the page
+     * @return the validators of the page without its content, or a not-modified result
+     * @throws FailedFetchContentException if the content could not be fetched due to connection or I/O errors
+     * @throws HttpRequestFailedException if the HTTP request is not successful (response code is neither 200 nor 304)
+     */
+    public FetchResult fetchPage(String url, PageValidators validators, PageSink sink)
+            throws FailedFetchContentException, HttpRequestFailedException {
+        LOGGER.debug("Streaming page from URL: {}", url);
+        try {
+            return pageFetcher.fetch(url, validators, sink);
+        } catch (HttpRequestFailedException hrfe){
+            throw hrfe;
+        } catch (IOException ioe){
+            throw fetchFailure(url, ioe);
+        }
+    }
+
+    /**
+     * Fetches the content from the specified URL without blocking the calling thread.
+     * Requires a fetcher supporting asynchronous requests, such as the pooled one.
+     *
+     * @param url the URL to fetch content from
+     * @return a future completed with the content, or failed with a {@link FailedFetchContentException}
+     *         or an {@link HttpRequestFailedException}
+     */
+    public CompletableFuture<String> fetchContentAsync(String url) {
+        LOGGER.debug("Fetching content asynchronously from URL: {}", url);
+        return pageFetcher.fetchAsync(url).handle((content, error) -> {
+            if (error == null) {
+                return content;
+            }
+            throw asyncFetchFailure(url, error);
+        });
+    }
+
+    /**
+     * Fetches the page at the specified URL without blocking the calling thread, with a conditional
+     * GET when validators of a cached copy are known.
+     *
+     * @param url the URL to fetch content from
+     * @param validators the validators of the cached copy, or null to download unconditionally
+     * @return a future completed with the page or a not-modified result, or failed with a
+     *         {@link FailedFetchContentException} or an {@link HttpRequestFailedException}
+     */
+    public CompletableFuture<FetchResult> fetchPageAsync(String url, PageValidators validators) {
+        LOGGER.debug("Fetching page asynchronously from URL: {}", url);
+        return pageFetcher.fetchAsync(url, validators).handle((result, error) -> {
+            if (error == null) {
+                return result;
+            }
+            throw asyncFetchFailure(url, error);
+        });
+    }
+
+    /**
+     * Fetches the page at the specified URL like {@link #fetchPageAsync(String, PageValidators)},
+     * handing its text to the sink as it arrives instead of returning it.
+     *
+     * @param url the URL to fetch content from
+     * @param validators the validators of the cached copy, or null to download unconditionally
+     * @param sink the sink receiving the text of the page
+     * @return a future completed with the validators of the page or a not-modified result, or failed
+     *         with a {@link FailedFetchContentException} or an {@link HttpRequestFailedException}
+     */
+    public CompletableFuture<FetchResult> fetchPageAsync(String url, PageValidators validators, PageSink sink) {
+        LOGGER.debug("Streaming page asynchronously from URL: {}", url);
+        return pageFetcher.fetchAsync(url, validators, sink).handle((result, error) -> {
+            if (error == null) {
+                return result;
             }
+            throw asyncFetchFailure(url, error);
+        });
+    }
+
+    private static FailedFetchContentException fetchFailure(String url, IOException ioe) {
+        if (ioe instanceof ConnectException) {
+            LOGGER.error("Connection error occurred while fetching content from URL: {}", url, ioe);
+            return new FailedFetchContentException(
+                String.format("Connection error occurred while fetching content from URL: %s", url), ioe);
+        }
+        LOGGER.error("I/O error occurred while fetching content from URL: {}", url, ioe);
+        return new FailedFetchContentException(
+            String.format("I/O error occurred while fetching content from URL: %s", url), ioe);
+    }
+
+    private static RuntimeException asyncFetchFailure(String url, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        LOGGER.error("I/O error occurred while fetching content from URL: {}", url, cause);
+        return new FailedFetchContentException(
+            String.format("I/O error occurred while fetching content from URL: %s", url), cause);
+    }
+
+    /**
+     * Releases the connections held by the underlying fetcher.
+     */
+    public void shutdown() {
+        LOGGER.info("Shutting down HttpClientService...");
+        if (pageFetcher.getTransferMetrics() != null) {
+            LOGGER.info("Transferred pages: {}", pageFetcher.getTransferMetrics());
         }
+        pageFetcher.close();
     }
 }
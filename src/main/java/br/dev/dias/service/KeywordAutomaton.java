@@ -0,0 +1,320 @@
+package br.dev.dias.service;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Aho-Corasick automaton finding several keywords at once, ignoring case. A text is read once,
+ * one transition per char, whatever the number of keywords, so checking a page for every active
+ * search costs about the same as checking it for one.
+ *
+ * The automaton is immutable and shared: it is built when the set of keywords changes, and each
+ * text is read with its own {@link Scanner}, which carries a partial match across the chunks of a
+ * streamed page. Transitions are precomputed into a dense table over the chars of the keywords;
+ * every other char leads back to the root.
+ *
+ * A page from a configured size is split into chunks read in parallel by {@link PageChunks}, each
+ * overlapping the next by the length of the longest keyword minus one, and the keywords found in
+ * any chunk are found in the page.
+ */
+public final class KeywordAutomaton {
+
+    private static final int[] NO_OUTPUT = new int[0];
+
+    /**
+     * An automaton without keywords.
+     */
+    public static final KeywordAutomaton EMPTY = new KeywordAutomaton(Set.of());
+
+    private final String[] keywords;
+    private final Set<String> keywordSet;
+    private final int[] asciiClasses;
+    private final char[] otherChars;
+    private final int[] otherClasses;
+    private final int alphabetSize;
+    private final int maxLength;
+    private final int[] transitions;
+    private final int[][] outputs;
+
+    /**
+     * Builds the automaton for the given keywords.
+     *
+     * @param keywords the keywords to find; null and empty ones are ignored
+     */
+    public KeywordAutomaton(Collection<String> keywords) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.isEmpty()) {
+                distinct.add(keyword.toLowerCase(Locale.ROOT));
+            }
+        }
+        this.keywords = distinct.toArray(new String[0]);
+        this.keywordSet = Set.copyOf(distinct);
+
+        // Number the distinct folded chars of the keywords; class 0 stands for every other char
+        this.asciiClasses = new int[128];
+        Map<Character, Integer> classes = new HashMap<>();
+        int totalLength = 0;
+        int longest = 0;
+        for (String keyword : this.keywords) {
+            totalLength += keyword.length();
+            longest = Math.max(longest, keyword.length());
+            for (int i = 0; i < keyword.length(); i++) {
+                classes.putIfAbsent(KeywordMatcher.fold(keyword.charAt(i)), classes.size() + 1);
+            }
+        }
+        this.alphabetSize = classes.size() + 1;
+        this.maxLength = longest;
+        StringBuilder nonAscii = new StringBuilder();
+        classes.forEach((c, index) -> {
+            if (c >= 128) {
+                nonAscii.append(c);
+            }
+        });
+        for (char c = 0; c < 128; c++) {
+            asciiClasses[c] = classes.getOrDefault(KeywordMatcher.fold(c), 0);
+        }
+        this.otherChars = nonAscii.toString().toCharArray();
+        Arrays.sort(otherChars);
+        this.otherClasses = new int[otherChars.length];
+        for (int i = 0; i < otherChars.length; i++) {
+            otherClasses[i] = classes.get(otherChars[i]);
+        }
+
+        int maxStates = totalLength + 1;
+        this.transitions = new int[maxStates * alphabetSize];
+        Arrays.fill(transitions, -1);
+        int[][] stateOutputs = new int[maxStates][];
+        int states = 1;
+        for (int k = 0; k < this.keywords.length; k++) {
+            String keyword = this.keywords[k];
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int index = state * alphabetSize + classOf(keyword.charAt(i));
+                if (transitions[index] < 0) {
+                    transitions[index] = states++;
+                }
+                state = transitions[index];
+            }
+            stateOutputs[state] = append(stateOutputs[state], k);
+        }
+
+        // Breadth-first, complete the missing transitions with those of the failure state
+        int[] failures = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int a = 0; a < alphabetSize; a++) {
+            int next = transitions[a];
+            if (next < 0) {
+                transitions[a] = 0;
+            } else {
+                failures[next] = 0;
+                queue.add(next);
+            }
+        }
+        this.outputs = new int[states][];
+        outputs[0] = NO_OUTPUT;
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            int[] own = stateOutputs[state] == null ? NO_OUTPUT : stateOutputs[state];
+            int[] inherited = outputs[failures[state]];
+            outputs[state] = inherited.length == 0 ? own : concat(own, inherited);
+            for (int a = 0; a < alphabetSize; a++) {
+                int index = state * alphabetSize + a;
+                int fallback = transitions[failures[state] * alphabetSize + a];
+                if (transitions[index] < 0) {
+                    transitions[index] = fallback;
+                } else {
+                    failures[transitions[index]] = fallback;
+                    queue.add(transitions[index]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of distinct keywords of the automaton.
+     *
+     * @return the number of keywords
+     */
+    public int size() {
+        return keywords.length;
+    }
+
+    /**
+     * Checks whether the automaton finds the given keyword.
+     *
+     * @param keyword the keyword
+     * @return true if the keyword is one of the automaton's keywords, ignoring case
+     */
+    public boolean contains(String keyword) {
+        return keyword != null && keywordSet.contains(keyword.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets an automaton finding the given keyword too.
+     *
+     * @param keyword the keyword to add, or null
+     * @return this automaton if it already finds the keyword, or a new one
+     */
+    public KeywordAutomaton with(String keyword) {
+        if (keyword == null || keyword.isEmpty() || contains(keyword)) {
+            return this;
+        }
+        Set<String> extended = new LinkedHashSet<>(Arrays.asList(keywords));
+        extended.add(keyword);
+        return new KeywordAutomaton(extended);
+    }
+
+    /**
+     * Reads the whole text and tells which keywords it contains, stopping once all were found.
+     *
+     * @param text the text to search within
+     * @return the lower-cased keywords mapped to whether they were found
+     */
+    public Map<String, Boolean> match(CharSequence text) {
+        return scan(text, 0, text.length()).results();
+    }
+
+    /**
+     * Reads the whole text and tells which keywords it contains, reading chunks of the text in
+     * parallel if it is large.
+     *
+     * @param text the text to search within
+     * @param parallelThreshold the number of chars from which the text is split, or 0 to never split it
+     * @return the lower-cased keywords mapped to whether they were found
+     */
+    public Map<String, Boolean> match(CharSequence text, int parallelThreshold) {
+        return matchInChunks(text, PageChunks.count(text.length(), parallelThreshold));
+    }
+
+    /**
+     * Tells which keywords the text contains, reading the given number of chunks in parallel.
+     */
+    Map<String, Boolean> matchInChunks(CharSequence text, int chunks) {
+        if (chunks <= 1) {
+            return match(text);
+        }
+        int length = text.length();
+        int overlap = Math.max(0, maxLength - 1);
+        Scanner merged = new Scanner();
+        IntStream.range(0, chunks).parallel()
+                .mapToObj(i -> scan(text, PageChunks.start(length, chunks, i),
+                        (int) Math.min(length, (long) PageChunks.start(length, chunks, i + 1) + overlap)))
+                .forEachOrdered(merged::merge);
+        return merged.results();
+    }
+
+    private Scanner scan(CharSequence text, int start, int end) {
+        Scanner scanner = new Scanner();
+        int[] table = transitions;
+        int width = alphabetSize;
+        int state = 0;
+        for (int i = start; i < end && scanner.remaining > 0; i++) {
+            char c = text.charAt(i);
+            state = table[state * width + (c < 128 ? asciiClasses[c] : classOf(c))];
+            if (outputs[state].length > 0) {
+                scanner.found(state);
+            }
+        }
+        return scanner;
+    }
+
+    /**
+     * Creates a scanner reading a text one char at a time.
+     *
+     * @return a new scanner at the start of a text
+     */
+    public Scanner newScanner() {
+        return new Scanner();
+    }
+
+    private int classOf(char c) {
+        char folded = KeywordMatcher.fold(c);
+        if (folded < 128) {
+            return asciiClasses[folded];
+        }
+        int index = Arrays.binarySearch(otherChars, folded);
+        return index < 0 ? 0 : otherClasses[index];
+    }
+
+    private static int[] append(int[] values, int value) {
+        if (values == null) {
+            return new int[] {value};
+        }
+        int[] appended = Arrays.copyOf(values, values.length + 1);
+        appended[values.length] = value;
+        return appended;
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * Reads one text through the automaton, remembering which keywords were found.
+     */
+    public final class Scanner {
+        private final boolean[] found;
+        private int remaining;
+        private int state;
+
+        private Scanner() {
+            this.found = new boolean[keywords.length];
+            this.remaining = keywords.length;
+        }
+
+        /**
+         * Advances the scanner by one char of the text.
+         *
+         * @param c the next char of the text
+         */
+        public void accept(char c) {
+            if (remaining == 0) {
+                return;
+            }
+            state = transitions[state * alphabetSize + (c < 128 ? asciiClasses[c] : classOf(c))];
+            found(state);
+        }
+
+        private void found(int state) {
+            for (int k : outputs[state]) {
+                if (!found[k]) {
+                    found[k] = true;
+                    remaining--;
+                }
+            }
+        }
+
+        private void merge(Scanner other) {
+            for (int k = 0; k < found.length; k++) {
+                if (other.found[k] && !found[k]) {
+                    found[k] = true;
+                    remaining--;
+                }
+            }
+        }
+
+        /**
+         * Gets whether each keyword was found in the text read so far.
+         *
+         * @return the lower-cased keywords mapped to whether they were found
+         */
+        public Map<String, Boolean> results() {
+            Map<String, Boolean> results = new HashMap<>();
+            for (int k = 0; k < keywords.length; k++) {
+                results.put(keywords[k], found[k]);
+            }
+            return results;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package br.dev.dias.service;
+
+import java.util.Arrays;
+
+/**
+ * Case-insensitive matcher for one keyword, compiled once per search and shared by every page
+ * checked for it. It runs the Boyer-Moore-Horspool algorithm over case-folded chars: the page is
+ * read in place and never copied, and the search stops at the first match.
+ *
+ * The skip table is indexed by the low byte of the folded char. Chars sharing a low byte keep the
+ * smallest of their shifts, which is always safe and exact for Latin text.
+ *
+ * A page from a configured size is split into chunks searched in parallel by {@link PageChunks},
+ * each overlapping the next by the length of the keyword minus one so that no match is missed.
+ */
+public final class KeywordMatcher {
+
+    private static final int TABLE_SIZE = 256;
+
+    private final char[] pattern;
+    private final int[] shifts;
+
+    /**
+     * Compiles a matcher for the given keyword.
+     *
+     * @param keyword the keyword to search for
+     */
+    public KeywordMatcher(String keyword) {
+        int length = keyword.length();
+        this.pattern = new char[length];
+        for (int i = 0; i < length; i++) {
+            pattern[i] = fold(keyword.charAt(i));
+        }
+        this.shifts = new int[TABLE_SIZE];
+        Arrays.fill(shifts, Math.max(1, length));
+        for (int i = 0; i < length - 1; i++) {
+            shifts[pattern[i] & (TABLE_SIZE - 1)] = length - 1 - i;
+        }
+    }
+
+    /**
+     * Checks whether the content contains the keyword, ignoring case.
+     *
+     * @param content the content to search within
+     * @return true if the keyword is found in the content, false otherwise
+     */
+    public boolean matches(CharSequence content) {
+        return content != null && matches(content, 0, content.length());
+    }
+
+    /**
+     * Checks whether the content contains the keyword, ignoring case, searching chunks of the
+     * content in parallel if it is large.
+     *
+     * @param content the content to search within
+     * @param parallelThreshold the number of chars from which the content is split, or 0 to never split it
+     * @return true if the keyword is found in the content, false otherwise
+     */
+    public boolean matches(CharSequence content, int parallelThreshold) {
+        if (content == null) {
+            return false;
+        }
+        return matchesInChunks(content, PageChunks.count(content.length(), parallelThreshold));
+    }
+
+    /**
+     * Checks whether the content contains the keyword, searching the given number of chunks in parallel.
+     */
+    boolean matchesInChunks(CharSequence content, int chunks) {
+        if (chunks <= 1) {
+            return matches(content, 0, content.length());
+        }
+        return PageChunks.anyMatch(content.length(), chunks, Math.max(0, pattern.length - 1),
+                (start, end) -> matches(content, start, end));
+    }
+
+    /**
+     * Checks whether a range of the content contains the keyword, ignoring case.
+     *
+     * @param content the content to search within
+     * @param start the index of the first char of the range
+     * @param end the index after the last char of the range
+     * @return true if the keyword is found within the range, false otherwise
+     */
+    public boolean matches(CharSequence content, int start, int end) {
+        int length = pattern.length;
+        int last = length - 1;
+        if (length == 0) {
+            return true;
+        }
+        char lastChar = pattern[last];
+        for (int position = start + last; position < end; ) {
+            char c = fold(content.charAt(position));
+            if (c == lastChar) {
+                int i = last - 1;
+                int j = position - 1;
+                while (i >= 0 && fold(content.charAt(j)) == pattern[i]) {
+                    i--;
+                    j--;
+                }
+                if (i < 0) {
+                    return true;
+                }
+            }
+            position += shifts[c & (TABLE_SIZE - 1)];
+        }
+        return false;
+    }
+
+    /**
+     * Folds a char to the form compared when ignoring case, as {@link String#equalsIgnoreCase(String)} does.
+     */
+    static char fold(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Service for searching keywords within a given content.
+ * Crawl jobs check many pages for the same keyword with a {@link KeywordMatcher} compiled once instead.
  */
 public class KeywordSearchService {
 
@@ -22,7 +23,7 @@ public class KeywordSearchService {
         if (content == null || keyword == null) {
             return false;
         }
-        return content.toLowerCase().contains(keyword.toLowerCase());
+        return new KeywordMatcher(keyword).matches(content);
     }
 
 }
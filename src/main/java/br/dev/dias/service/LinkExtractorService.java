@@ -1,28 +1,89 @@
 package br.dev.dias.service;
 
-import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import br.dev.dias.model.Link;
+import br.dev.dias.util.UrlCanonicalizer;
+
 /**
  * Service for extracting links from HTML content.
- * Resolves relative URLs and filters links based on a specified base URL.
+ * Anchors are found by the {@link AnchorStreamExtractor} tokenizer, whether the page is buffered
+ * or streamed. Resolves relative URLs into their canonical form and filters links based on a
+ * specified base URL. Each link is returned once per page.
+ * Links whose extension names a file that is not a page, such as an image, an archive or a
+ * stylesheet, can be left out so that they are never requested.
+ * From a configured size, a page is split at tag starts into chunks tokenized in parallel. The
+ * chunks are merged in page order, and a chunk whose start turns out to fall inside a comment,
+ * a script or a tag, or after a base element, is read again, so the links are the same as those
+ * read by a single tokenizer.
  */
 public class LinkExtractorService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LinkExtractorService.class);
 
     /**
-     * Regex to match anchor tags with href attributes, excluding mailto links.
-     * This regex captures the URL in the href attribute.
-     * It matches the pattern <a href="URL"> or <a href='URL'>, where URL can be
-     * any valid URL except mailto links.
+     * Extensions of files that are not HTML pages and therefore have no links or text to crawl.
+     */
+    private static final Set<String> BINARY_EXTENSIONS = Set.of(
+            "7z", "avi", "bin", "bmp", "bz2", "css", "csv", "dmg", "doc", "docx", "eot", "epub", "exe",
+            "flac", "gif", "gz", "ico", "iso", "jar", "jpeg", "jpg", "js", "m4a", "mkv", "mov", "mp3",
+            "mp4", "mpeg", "mpg", "msi", "odt", "ogg", "otf", "pdf", "png", "ppt", "pptx", "rar", "rss",
+            "svg", "tar", "tgz", "tif", "tiff", "ttf", "wav", "webm", "webp", "wmv", "woff", "woff2",
+            "xls", "xlsx", "xz", "zip");
+
+    private final UrlCanonicalizer urlCanonicalizer;
+    private final boolean skipBinaryLinks;
+    private final int parallelThreshold;
+
+    /**
+     * Constructs a LinkExtractorService applying the default URL normalization rules.
+     */
+    public LinkExtractorService() {
+        this(new UrlCanonicalizer());
+    }
+
+    /**
+     * Constructs a LinkExtractorService with the specified URL canonicalizer, skipping binary links.
+     *
+     * @param urlCanonicalizer the canonicalizer used to resolve links
+     */
+    public LinkExtractorService(UrlCanonicalizer urlCanonicalizer) {
+        this(urlCanonicalizer, true);
+    }
+
+    /**
+     * Constructs a LinkExtractorService with the specified URL canonicalizer.
+     *
+     * @param urlCanonicalizer the canonicalizer used to resolve links
+     * @param skipBinaryLinks whether links to images, archives and other non-page files are left out
      */
-    private static final String ANCHOR_HREF_REGEX = "<a\\b[^>]*?\\s+href\\s*=\\s*[\"'](?!mailto:)([^\"'>]*)[\"'][^>]*>";
+    public LinkExtractorService(UrlCanonicalizer urlCanonicalizer, boolean skipBinaryLinks) {
+        this(urlCanonicalizer, skipBinaryLinks, 0);
+    }
+
+    /**
+     * Constructs a LinkExtractorService with the specified URL canonicalizer, tokenizing large pages in parallel.
+     *
+     * @param urlCanonicalizer the canonicalizer used to resolve links
+     * @param skipBinaryLinks whether links to images, archives and other non-page files are left out
+     * @param parallelThreshold the number of chars from which a page is split into chunks, or 0 to never split it
+     */
+    public LinkExtractorService(UrlCanonicalizer urlCanonicalizer, boolean skipBinaryLinks, int parallelThreshold) {
+        this.urlCanonicalizer = urlCanonicalizer;
+        this.skipBinaryLinks = skipBinaryLinks;
+        this.parallelThreshold = parallelThreshold;
+    }
 
     /**
      * Extracts links from the given HTML content.
@@ -34,47 +95,225 @@ public class LinkExtractorService {
      * @return a list of extracted and resolved links
      */
     public List<String> extractLinks(String content, String currentUrl, String baseUrl) {
+        List<Link> anchors = extractAnchors(content, currentUrl, baseUrl);
+        List<String> links = new ArrayList<>(anchors.size());
+        for (Link anchor : anchors) {
+            links.add(anchor.getUrl());
+        }
+        return links;
+    }
+
+    /**
+     * Extracts links together with their anchor text from the given HTML content.
+     * Resolves relative URLs and filters links that start with the specified base URL.
+     *
+     * @param content the HTML content to extract links from
+     * @param currentUrl the current URL being processed, used to resolve relative links
+     * @param baseUrl the base URL to filter links
+     * @return a list of extracted links with their anchor text
+     */
+    public List<Link> extractAnchors(String content, String currentUrl, String baseUrl) {
         LOGGER.debug("Extracting links from content for base URL: {}", baseUrl);
         // LOGGER.debug("Content: {}", content);
-        List<String> links = new ArrayList<>();
+        List<Link> links = new ArrayList<>();
         if (content == null || baseUrl == null) {
             return links;
         }
 
-        var pattern = Pattern.compile(ANCHOR_HREF_REGEX, Pattern.CASE_INSENSITIVE);
-        var matcher = pattern.matcher(content);
+        int chunks = PageChunks.count(content.length(), parallelThreshold);
+        if (chunks > 1) {
+            links = extractAnchorsInChunks(content, currentUrl, baseUrl, chunks);
+        } else {
+            AnchorStreamExtractor extractor = streamAnchors(currentUrl, baseUrl, links::add);
+            extractor.accept(content);
+            extractor.finish();
+        }
+
+        LOGGER.debug("New links founded: {}", links.size());
+        return links;
+    }
 
-        while (matcher.find()) {
-            String link = matcher.group(1);
+    /**
+     * Extracts the links of the content split into about the given number of chunks, tokenized in parallel.
+     */
+    List<Link> extractAnchorsInChunks(String content, String currentUrl, String baseUrl, int chunks) {
+        int[] starts = tagBoundaries(content, chunks);
+        int count = starts.length - 1;
+        ChunkExtraction[] extractions = new ChunkExtraction[count];
+        extractChunks(content, currentUrl, baseUrl, starts, 0, null, extractions);
 
-            LOGGER.trace("Path founded: {}", link);
-            if (!link.startsWith("http")) {
-                link = resolveRelativeUrl(currentUrl, link);
+        List<Link> links = new ArrayList<>();
+        Set<String> urls = new HashSet<>();
+        String assumedBase = null;
+        ChunkExtraction previous = null;
+        for (int i = 0; i < count; i++) {
+            ChunkExtraction extraction = extractions[i];
+            if (previous != null && !previous.endedBetweenTags) {
+                // The chunk starts inside a comment, a script or a tag: the previous tokenizer reads it on
+                previous.extract(starts[i], starts[i + 1]);
+                extraction = previous;
             }
+            for (Link link : extraction.links) {
+                if (urls.add(link.getUrl())) {
+                    links.add(link);
+                }
+            }
+            String baseHref = extraction.extractor.getBaseHref();
+            if (!Objects.equals(baseHref, assumedBase) && i + 1 < count) {
+                // The following chunks were read without the base element found in this one
+                extractChunks(content, currentUrl, baseUrl, starts, i + 1, baseHref, extractions);
+                assumedBase = baseHref;
+            }
+            previous = extraction;
+        }
+        return links;
+    }
 
-            if (link.startsWith(baseUrl)) {
-                links.add(link);
+    private void extractChunks(String content, String currentUrl, String baseUrl, int[] starts, int first,
+            String baseHref, ChunkExtraction[] extractions) {
+        IntStream.range(first, extractions.length).parallel().forEach(i -> {
+            ChunkExtraction extraction = new ChunkExtraction(content, currentUrl, baseUrl, baseHref);
+            extraction.extract(starts[i], starts[i + 1]);
+            extractions[i] = extraction;
+        });
+    }
+
+    /**
+     * Splits the content into chunks starting at the first tag start after their nominal boundary.
+     *
+     * @return the start of each chunk, followed by the length of the content
+     */
+    private static int[] tagBoundaries(String content, int chunks) {
+        int length = content.length();
+        int[] starts = new int[chunks + 1];
+        int count = 1;
+        for (int i = 1; i < chunks; i++) {
+            int start = nextTagStart(content, Math.max(PageChunks.start(length, chunks, i), starts[count - 1] + 1));
+            if (start < 0) {
+                break;
             }
+            starts[count++] = start;
         }
+        starts[count++] = length;
+        return Arrays.copyOf(starts, count);
+    }
 
-        LOGGER.debug("New links founded: {}", links.size());
-        return links;
+    private static int nextTagStart(String content, int from) {
+        for (int i = content.indexOf('<', from); i >= 0 && i + 1 < content.length(); i = content.indexOf('<', i + 1)) {
+            char next = content.charAt(i + 1);
+            if ((next >= 'a' && next <= 'z') || (next >= 'A' && next <= 'Z') || next == '/' || next == '!') {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
-     * Resolves a relative URL against the current URL.
+     * Creates an extractor finding the links of a page fed one char at a time, emitting each link
+     * as soon as its anchor is read.
      *
-     * @param currentUrl the current URL being processed
-     * @param relativeUrl the relative URL to resolve
-     * @return the resolved absolute URL, or the relative URL if resolution fails
+     * @param currentUrl the URL of the page, used to resolve relative links
+     * @param baseUrl the base URL to filter links
+     * @param consumer the consumer of the extracted links
+     * @return the extractor
      */
-    private String resolveRelativeUrl(String currentUrl, String relativeUrl) {
-        try {
-            URL base = new URL(currentUrl);
-            return new URL(base, relativeUrl).toString();
-        } catch (Exception e) {
-            LOGGER.error("Failed to resolve relative URL: {}", relativeUrl, e);
-            return relativeUrl; 
+    AnchorStreamExtractor streamAnchors(String currentUrl, String baseUrl, Consumer<Link> consumer) {
+        UrlCanonicalizer.Base base = currentUrl == null ? null : urlCanonicalizer.parse(currentUrl);
+        if (base == null) {
+            LOGGER.warn("Failed to parse page URL {}, only absolute links will be extracted", currentUrl);
+        }
+        return new AnchorStreamExtractor(new PageLinkResolver(base, baseUrl), consumer);
+    }
+
+    /**
+     * Tokenizes one chunk of a page, keeping the links it emits while reading the chunk.
+     */
+    private final class ChunkExtraction implements Consumer<Link> {
+        private final String content;
+        private final AnchorStreamExtractor extractor;
+        private List<Link> links;
+        private boolean endedBetweenTags;
+
+        ChunkExtraction(String content, String currentUrl, String baseUrl, String baseHref) {
+            this.content = content;
+            this.extractor = streamAnchors(currentUrl, baseUrl, this);
+            if (baseHref != null) {
+                extractor.rebase(baseHref);
+            }
+        }
+
+        /**
+         * Reads the chunk, then the text of its last anchor if the chunk ends between tags.
+         */
+        void extract(int start, int end) {
+            links = new ArrayList<>();
+            extractor.accept(content, start, end);
+            endedBetweenTags = extractor.isBetweenTags();
+            if (end == content.length()) {
+                extractor.finish();
+            } else if (endedBetweenTags) {
+                extractor.drain(content, end);
+            }
+        }
+
+        @Override
+        public void accept(Link link) {
+            links.add(link);
+        }
+    }
+
+    /**
+     * Resolves the hrefs of a page against its URL, or its base element, and keeps the followed links.
+     */
+    private final class PageLinkResolver implements AnchorStreamExtractor.LinkResolver {
+        private final String baseUrl;
+        private UrlCanonicalizer.Base base;
+
+        PageLinkResolver(UrlCanonicalizer.Base base, String baseUrl) {
+            this.base = base;
+            this.baseUrl = baseUrl;
+        }
+
+        @Override
+        public String resolve(String href) {
+            String link = base != null ? base.resolve(href) : urlCanonicalizer.canonicalize(href);
+            if (link == null || !link.startsWith(baseUrl) || (skipBinaryLinks && hasBinaryExtension(link))) {
+                return null;
+            }
+            return link;
+        }
+
+        @Override
+        public void rebase(String href) {
+            UrlCanonicalizer.Base parsed = urlCanonicalizer.parse(base != null ? base.resolve(href) : href);
+            if (parsed != null) {
+                base = parsed;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the last path segment of a canonical URL ends with the extension of a binary file.
+     *
+     * @param url an absolute URL
+     * @return true if the URL likely points to a file that is not a page
+     */
+    static boolean hasBinaryExtension(String url) {
+        int end = url.length();
+        int query = url.indexOf('?');
+        if (query >= 0) {
+            end = query;
+        }
+        int fragment = url.indexOf('#');
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        int dot = url.lastIndexOf('.', end - 1);
+        int slash = url.lastIndexOf('/', end - 1);
+        // A URL without a path has a host, not a file name ("http://example.zip")
+        if (slash <= url.indexOf("://") + 2 || dot <= slash || end - dot - 1 > 5) {
+            return false;
         }
+        return BINARY_EXTENSIONS.contains(url.substring(dot + 1, end).toLowerCase(Locale.ROOT));
     }
 }
@@ -0,0 +1,79 @@
+package br.dev.dias.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Splits a large page into chunks scanned in parallel on the common {@link ForkJoinPool}, so a
+ * multi-megabyte page is not read by a single worker while the other cores are idle.
+ *
+ * A page is split once it reaches the configured threshold, into as many chunks as the pool has
+ * workers, each at least {@link #MIN_CHUNK_CHARS} long. Chunk boundaries are nominal: a scanner
+ * that needs to see across them extends its chunks, as keyword matchers do by the length of the
+ * keyword minus one.
+ */
+final class PageChunks {
+
+    /**
+     * Smallest chunk worth a task of its own: below it, scheduling costs more than the scan saves.
+     */
+    static final int MIN_CHUNK_CHARS = 64 * 1024;
+
+    /**
+     * Tests a range of the page.
+     */
+    interface RangePredicate {
+
+        /**
+         * Tests the chars of the page from start, inclusive, to end, exclusive.
+         *
+         * @param start the index of the first char of the range
+         * @param end the index after the last char of the range
+         * @return the result of the test
+         */
+        boolean test(int start, int end);
+    }
+
+    private PageChunks() {
+    }
+
+    /**
+     * Gets the number of chunks a page of the given length is split into.
+     *
+     * @param length the number of chars of the page
+     * @param threshold the number of chars from which pages are split, or 0 to never split them
+     * @return the number of chunks, 1 if the page is scanned as a whole
+     */
+    static int count(int length, int threshold) {
+        if (threshold <= 0 || length < threshold) {
+            return 1;
+        }
+        return Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), length / MIN_CHUNK_CHARS));
+    }
+
+    /**
+     * Gets the nominal start of a chunk.
+     *
+     * @param length the number of chars of the page
+     * @param chunks the number of chunks
+     * @param index the index of the chunk, or the number of chunks for the end of the page
+     * @return the index of the first char of the chunk
+     */
+    static int start(int length, int chunks, int index) {
+        return (int) ((long) length * index / chunks);
+    }
+
+    /**
+     * Tests the chunks of a page in parallel, each extended past its end by the given overlap.
+     *
+     * @param length the number of chars of the page
+     * @param chunks the number of chunks
+     * @param overlap the number of chars of the next chunk each chunk also covers
+     * @param predicate the test run on each extended chunk
+     * @return true if the test holds for any chunk
+     */
+    static boolean anyMatch(int length, int chunks, int overlap, RangePredicate predicate) {
+        return IntStream.range(0, chunks).parallel().anyMatch(i -> predicate.test(start(length, chunks, i),
+                (int) Math.min(length, (long) start(length, chunks, i + 1) + overlap)));
+    }
+}
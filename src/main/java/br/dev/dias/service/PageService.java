@@ -0,0 +1,428 @@
+package br.dev.dias.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.dev.dias.crawler.TrigramIndex;
+import br.dev.dias.exception.FailedFetchContentException;
+import br.dev.dias.exception.HttpRequestFailedException;
+import br.dev.dias.model.CrawledPage;
+import br.dev.dias.model.FetchResult;
+import br.dev.dias.model.Link;
+import br.dev.dias.model.PageProcessingMode;
+import br.dev.dias.model.PageValidators;
+
+/**
+ * Shared fetch pipeline used by every crawl job.
+ * A page is downloaded and link-extracted once, then served to every search that reaches it:
+ * concurrent requests for a page being fetched wait for that fetch instead of starting their
+ * own, and parsed pages are kept in the {@link HtmlCacheService} for searches that reach them
+ * later. While many searches are active, a parsed page is scanned once for all of their keywords
+ * by a {@link KeywordAutomaton}; otherwise, or if its keyword was not among them, a search
+ * evaluates its own keyword against the shared page. Pages from a configured size are scanned
+ * for keywords in parallel chunks.
+ * Every downloaded page is also added to the corpus {@link TrigramIndex}.
+ * Once a cached page expires, it is fetched with a conditional GET carrying its ETag and
+ * Last-Modified validators, and a {@code 304 Not Modified} answer reuses the cached copy.
+ *
+ * In streaming mode a page is scanned for the keywords of every active search and for its links
+ * while it is read, by a {@link StreamingPageProcessor}, and its text is dropped. The cached page
+ * then answers for those keywords only, a search started later reads the page again, and the
+ * corpus index is not fed.
+ */
+public class PageService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PageService.class);
+
+    /**
+     * Number of active keywords from which a buffered page is scanned once for all of them.
+     * Below it, each search's own Boyer-Moore-Horspool matcher, which skips ahead, is faster.
+     */
+    private static final int MIN_SCANNED_KEYWORDS = 8;
+
+    private final HttpClientService httpClientService;
+    private final LinkExtractorService linkExtractorService;
+    private final HtmlCacheService htmlCacheService;
+    private final TrigramIndex corpusIndex;
+    private final String baseUrl;
+    private final boolean streaming;
+    private final Supplier<KeywordAutomaton> activeKeywords;
+    private final int parallelPageThreshold;
+    private final ConcurrentHashMap<String, CompletableFuture<CrawledPage>> inFlight;
+    private final LongAdder fetches;
+    private final LongAdder sharedFetches;
+    private final LongAdder cacheHits;
+    private final LongAdder notModified;
+    private final LongAdder savedBytes;
+
+    /**
+     * Constructs a PageService with the specified dependencies.
+     *
+     * @param httpClientService the service for making HTTP requests
+     * @param linkExtractorService the service for extracting links from content
+     * @param htmlCacheService the cache of parsed pages
+     * @param corpusIndex the index every downloaded page is added to, or null
+     * @param baseUrl the base URL links are filtered on
+     */
+    public PageService(HttpClientService httpClientService, LinkExtractorService linkExtractorService,
+            HtmlCacheService htmlCacheService, TrigramIndex corpusIndex, String baseUrl) {
+        this(httpClientService, linkExtractorService, htmlCacheService, corpusIndex, baseUrl,
+                PageProcessingMode.BUFFERED, () -> KeywordAutomaton.EMPTY);
+    }
+
+    /**
+     * Constructs a PageService processing pages in the given mode.
+     *
+     * @param httpClientService the service for making HTTP requests
+     * @param linkExtractorService the service for extracting links from content
+     * @param htmlCacheService the cache of parsed pages
+     * @param corpusIndex the index every buffered page is added to, or null
+     * @param baseUrl the base URL links are filtered on
+     * @param mode whether pages are kept whole or streamed through the keyword and link scanners
+     * @param activeKeywords supplies the automaton of the active searches' keywords, which pages are scanned for
+     */
+    public PageService(HttpClientService httpClientService, LinkExtractorService linkExtractorService,
+            HtmlCacheService htmlCacheService, TrigramIndex corpusIndex, String baseUrl,
+            PageProcessingMode mode, Supplier<KeywordAutomaton> activeKeywords) {
+        this(httpClientService, linkExtractorService, htmlCacheService, corpusIndex, baseUrl, mode, activeKeywords, 0);
+    }
+
+    /**
+     * Constructs a PageService processing pages in the given mode, scanning large pages in parallel.
+     *
+     * @param httpClientService the service for making HTTP requests
+     * @param linkExtractorService the service for extracting links from content
+     * @param htmlCacheService the cache of parsed pages
+     * @param corpusIndex the index every buffered page is added to, or null
+     * @param baseUrl the base URL links are filtered on
+     * @param mode whether pages are kept whole or streamed through the keyword and link scanners
+     * @param activeKeywords supplies the automaton of the active searches' keywords, which pages are scanned for
+     * @param parallelPageThreshold the number of chars from which a buffered page is scanned in chunks, or 0 to never split it
+     */
+    public PageService(HttpClientService httpClientService, LinkExtractorService linkExtractorService,
+            HtmlCacheService htmlCacheService, TrigramIndex corpusIndex, String baseUrl,
+            PageProcessingMode mode, Supplier<KeywordAutomaton> activeKeywords, int parallelPageThreshold) {
+        this.streaming = mode == PageProcessingMode.STREAMING;
+        this.activeKeywords = activeKeywords;
+        this.parallelPageThreshold = parallelPageThreshold;
+        this.httpClientService = httpClientService;
+        this.linkExtractorService = linkExtractorService;
+        this.htmlCacheService = htmlCacheService;
+        this.corpusIndex = corpusIndex;
+        this.baseUrl = baseUrl;
+        this.inFlight = new ConcurrentHashMap<>();
+        this.fetches = new LongAdder();
+        this.sharedFetches = new LongAdder();
+        this.cacheHits = new LongAdder();
+        this.notModified = new LongAdder();
+        this.savedBytes = new LongAdder();
+    }
+
+    /**
+     * Gets the parsed page at the given URL, fetching it only if no other search already did.
+     *
+     * @param url the URL of the page
+     * @return the parsed page
+     * @throws FailedFetchContentException if the content could not be fetched due to connection or I/O errors
+     * @throws HttpRequestFailedException if the HTTP request is not successful
+     */
+    public CrawledPage getPage(String url) throws FailedFetchContentException, HttpRequestFailedException {
+        return getPage(url, null);
+    }
+
+    /**
+     * Gets the parsed page at the given URL able to tell whether it contains the keyword, fetching
+     * it only if no other search already did.
+     *
+     * @param url the URL of the page
+     * @param keyword the keyword of the search, or null
+     * @return the parsed page
+     * @throws FailedFetchContentException if the content could not be fetched due to connection or I/O errors
+     * @throws HttpRequestFailedException if the HTTP request is not successful
+     */
+    public CrawledPage getPage(String url, String keyword) throws FailedFetchContentException, HttpRequestFailedException {
+        CrawledPage cached = htmlCacheService.getPage(url);
+        if (isParsedFor(cached, keyword)) {
+            cacheHits.increment();
+            return cached;
+        }
+
+        CompletableFuture<CrawledPage> fetch = new CompletableFuture<>();
+        CompletableFuture<CrawledPage> existing = inFlight.putIfAbsent(url, fetch);
+        if (existing != null) {
+            sharedFetches.increment();
+            LOGGER.debug("Waiting for the in-flight fetch of URL: {}", url);
+            CrawledPage shared = await(existing, url);
+            // A streamed page may have been read before the search started
+            return isParsedFor(shared, keyword) ? shared : getPage(url, keyword);
+        }
+
+        try {
+            // The page may have been cached between the first lookup and winning the fetch.
+            cached = htmlCacheService.getPage(url);
+            CrawledPage page = isParsedFor(cached, keyword) ? cached : load(url, cached, keyword);
+            fetch.complete(page);
+            return page;
+        } catch (RuntimeException e) {
+            fetch.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(url, fetch);
+        }
+    }
+
+    /**
+     * Gets the parsed page at the given URL without blocking the calling thread.
+     * The download is asynchronous and the page is parsed on the given executor.
+     *
+     * @param url the URL of the page
+     * @param parseExecutor the executor parsing the downloaded page
+     * @return a future completed with the parsed page, or failed with a {@link FailedFetchContentException}
+     *         or an {@link HttpRequestFailedException}
+     */
+    public CompletableFuture<CrawledPage> getPageAsync(String url, Executor parseExecutor) {
+        return getPageAsync(url, null, parseExecutor);
+    }
+
+    /**
+     * Gets the parsed page at the given URL able to tell whether it contains the keyword, without
+     * blocking the calling thread. The download is asynchronous, and the page is parsed on the given
+     * executor, or while it arrives in streaming mode.
+     *
+     * @param url the URL of the page
+     * @param keyword the keyword of the search, or null
+     * @param parseExecutor the executor parsing the downloaded page
+     * @return a future completed with the parsed page, or failed with a {@link FailedFetchContentException}
+     *         or an {@link HttpRequestFailedException}
+     */
+    public CompletableFuture<CrawledPage> getPageAsync(String url, String keyword, Executor parseExecutor) {
+        CrawledPage cached = htmlCacheService.getPage(url);
+        if (isParsedFor(cached, keyword)) {
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<CrawledPage> fetch = new CompletableFuture<>();
+        CompletableFuture<CrawledPage> existing = inFlight.putIfAbsent(url, fetch);
+        if (existing != null) {
+            sharedFetches.increment();
+            // A streamed page may have been read before the search started
+            return existing.thenCompose(shared -> isParsedFor(shared, keyword)
+                    ? CompletableFuture.completedFuture(shared) : getPageAsync(url, keyword, parseExecutor));
+        }
+
+        // The page may have been cached between the first lookup and winning the fetch.
+        cached = htmlCacheService.getPage(url);
+        if (isParsedFor(cached, keyword)) {
+            inFlight.remove(url, fetch);
+            fetch.complete(cached);
+            return fetch;
+        }
+        CompletableFuture<CrawledPage> page;
+        if (streaming) {
+            page = streamAsync(url, keyword);
+        } else if (cached != null) {
+            String content = cached.getContent();
+            page = CompletableFuture.supplyAsync(() -> parse(url, content, false, null), parseExecutor);
+        } else {
+            page = httpClientService.fetchPageAsync(url, htmlCacheService.getValidators(url)).thenCompose(result -> {
+                CrawledPage revalidated = result.isNotModified() ? revalidate(url, result) : null;
+                if (revalidated != null) {
+                    return revalidated.getLinks() != null ? CompletableFuture.completedFuture(revalidated)
+                            : CompletableFuture.supplyAsync(() -> parse(url, revalidated.getContent(), false, null), parseExecutor);
+                }
+                // A not-modified answer for an entry evicted meanwhile needs an unconditional download
+                CompletableFuture<FetchResult> download = result.isNotModified()
+                        ? httpClientService.fetchPageAsync(url, null) : CompletableFuture.completedFuture(result);
+                return download.thenApplyAsync(downloaded -> {
+                    fetches.increment();
+                    return parse(url, downloaded.getContent(), true, downloaded.getValidators());
+                }, parseExecutor);
+            });
+        }
+        page.whenComplete((parsed, error) -> {
+            inFlight.remove(url, fetch);
+            if (error == null) {
+                fetch.complete(parsed);
+            } else {
+                fetch.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+        });
+        return fetch;
+    }
+
+    /**
+     * Gets the number of pages downloaded from the origin.
+     *
+     * @return the number of fetches
+     */
+    public long getFetchCount() {
+        return fetches.sum();
+    }
+
+    /**
+     * Gets the number of requests served by another search's in-flight fetch.
+     *
+     * @return the number of shared fetches
+     */
+    public long getSharedFetchCount() {
+        return sharedFetches.sum();
+    }
+
+    /**
+     * Gets the number of requests served by the page cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Gets the number of expired pages the origin confirmed with {@code 304 Not Modified}.
+     *
+     * @return the number of revalidated pages
+     */
+    public long getNotModifiedCount() {
+        return notModified.sum();
+    }
+
+    /**
+     * Gets the number of body bytes revalidated pages did not transfer again.
+     *
+     * @return the bytes saved by conditional requests
+     */
+    public long getSavedBytes() {
+        return savedBytes.sum();
+    }
+
+    private CrawledPage load(String url, CrawledPage cached, String keyword) {
+        if (streaming) {
+            return stream(url, keyword);
+        }
+        if (cached != null) {
+            return parse(url, cached.getContent(), false, null);
+        }
+        FetchResult result = httpClientService.fetchPage(url, htmlCacheService.getValidators(url));
+        if (result.isNotModified()) {
+            CrawledPage revalidated = revalidate(url, result);
+            if (revalidated != null) {
+                return revalidated.getLinks() != null ? revalidated : parse(url, revalidated.getContent(), false, null);
+            }
+            // The entry was evicted meanwhile, so the page has to be downloaded again
+            result = httpClientService.fetchPage(url, null);
+        }
+        fetches.increment();
+        return parse(url, result.getContent(), true, result.getValidators());
+    }
+
+    /**
+     * Downloads a page through a streaming processor, reusing the cached page if it is not modified
+     * and was scanned for the keyword.
+     */
+    private CrawledPage stream(String url, String keyword) {
+        StreamingPageProcessor processor = newProcessor(url, keyword);
+        FetchResult result = httpClientService.fetchPage(url, htmlCacheService.getValidators(url), processor);
+        if (result.isNotModified()) {
+            CrawledPage revalidated = revalidate(url, result);
+            if (isParsedFor(revalidated, keyword)) {
+                return revalidated;
+            }
+            processor = newProcessor(url, keyword);
+            result = httpClientService.fetchPage(url, null, processor);
+        }
+        fetches.increment();
+        return store(processor, result);
+    }
+
+    private CompletableFuture<CrawledPage> streamAsync(String url, String keyword) {
+        StreamingPageProcessor processor = newProcessor(url, keyword);
+        return httpClientService.fetchPageAsync(url, htmlCacheService.getValidators(url), processor).thenCompose(result -> {
+            if (!result.isNotModified()) {
+                fetches.increment();
+                return CompletableFuture.completedFuture(store(processor, result));
+            }
+            CrawledPage revalidated = revalidate(url, result);
+            if (isParsedFor(revalidated, keyword)) {
+                return CompletableFuture.completedFuture(revalidated);
+            }
+            StreamingPageProcessor download = newProcessor(url, keyword);
+            return httpClientService.fetchPageAsync(url, null, download).thenApply(downloaded -> {
+                fetches.increment();
+                return store(download, downloaded);
+            });
+        });
+    }
+
+    private StreamingPageProcessor newProcessor(String url, String keyword) {
+        return new StreamingPageProcessor(url, activeKeywords.get().with(keyword), linkExtractorService, baseUrl);
+    }
+
+    private CrawledPage store(StreamingPageProcessor processor, FetchResult result) {
+        CrawledPage page = processor.finish();
+        htmlCacheService.putPage(page, result.getValidators());
+        return page;
+    }
+
+    /**
+     * Checks whether a cached or shared page was parsed and can tell whether it contains the keyword.
+     */
+    private static boolean isParsedFor(CrawledPage page, String keyword) {
+        return page != null && page.getLinks() != null && page.hasCheckedKeyword(keyword);
+    }
+
+    private CrawledPage revalidate(String url, FetchResult result) {
+        PageValidators validators = htmlCacheService.getValidators(url);
+        CrawledPage page = htmlCacheService.revalidate(url, result.getValidators());
+        if (page != null) {
+            LOGGER.debug("Page not modified since it was cached: {}", url);
+            notModified.increment();
+            if (validators != null) {
+                savedBytes.add(validators.getContentLength());
+            }
+        }
+        return page;
+    }
+
+    private CrawledPage parse(String url, String content, boolean downloaded, PageValidators validators) {
+        if (downloaded && corpusIndex != null) {
+            corpusIndex.index(url, content);
+        }
+        List<Link> links = linkExtractorService.extractAnchors(content, url, baseUrl);
+        KeywordAutomaton keywords = activeKeywords.get();
+        CrawledPage page = new CrawledPage(url, content, links,
+                keywords.size() >= MIN_SCANNED_KEYWORDS && content != null ? keywords.match(content, parallelPageThreshold) : null);
+        if (downloaded) {
+            htmlCacheService.putPage(page, validators);
+        } else {
+            htmlCacheService.putPage(page);
+        }
+        return page;
+    }
+
+    private static CrawledPage await(CompletableFuture<CrawledPage> fetch, String url) {
+        try {
+            return fetch.get();
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ee.getCause();
+            }
+            throw new FailedFetchContentException(
+                String.format("Shared fetch failed for URL: %s", url), ee.getCause());
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new FailedFetchContentException(
+                String.format("Interrupted while waiting for URL: %s", url), ie);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 
 import br.dev.dias.exception.SearchAlreadyExistsException;
 import br.dev.dias.exception.SearchNotFoundException;
+import br.dev.dias.model.DedupeMode;
 import br.dev.dias.model.Search;
 import br.dev.dias.model.Status;
 import br.dev.dias.repository.SearchRepository;
@@ -47,6 +48,18 @@ public class SearchService {
      * @throws SearchAlreadyExistsException if a search with the same keyword already exists
      */
     public String createSearch(String keyword) throws SearchAlreadyExistsException {
+        return createSearch(keyword, null);
+    }
+
+    /**
+     * Creates a new search with the specified keyword and URL dedupe mode.
+     *
+     * @param keyword the keyword for the search
+     * @param dedupeMode the dedupe mode of the search, or null to use the configured default
+     * @return the ID of the created search
+     * @throws SearchAlreadyExistsException if a search with the same keyword already exists
+     */
+    public String createSearch(String keyword, DedupeMode dedupeMode) throws SearchAlreadyExistsException {
 
         try {
             LOGGER.debug("Checking if search with keyword '{}' already exists", keyword);
@@ -58,6 +71,7 @@ public class SearchService {
             LOGGER.debug("Search with keyword '{}' does not exist. Proceeding to save.", keyword);
             String id = IDGenerator.generateUniqueId(searchRepository);
             Search search = new Search(id, keyword, Status.ACTIVE);
+            search.setDedupeMode(dedupeMode);
             searchRepository.save(search);
             LOGGER.info("Search with keyword '{}' and ID '{}' saved successfully.", keyword,
                     id);
@@ -106,6 +120,18 @@ public class SearchService {
         return search;
     }
 
+    /**
+     * Updates the expected number of pages a probabilistic search skipped as false positives.
+     *
+     * @param id the ID of the search to update
+     * @param expectedSkippedUrls the expected number of skipped pages
+     * @throws SearchNotFoundException if no search with the specified ID is found
+     */
+    public void updateExpectedSkippedUrls(String id, long expectedSkippedUrls) throws SearchNotFoundException {
+        Search search = findSearchById(id);
+        search.setExpectedSkippedUrls(expectedSkippedUrls);
+    }
+
     /**
      * Finds a search by its keyword.
      *
@@ -137,4 +163,20 @@ public class SearchService {
         searchRepository.save(search);
 
     }
+
+    /**
+     * Removes a URL from the search with the specified ID.
+     *
+     * @param id the ID of the search
+     * @param url the URL to remove
+     * @throws SearchNotFoundException if no search with the specified ID is found
+     */
+    public void removeUrlFromSearch(String id, String url) throws SearchNotFoundException {
+        var errorMessage = String.format("Search with ID %s not found", id);
+        Search search = searchRepository.findById(id).orElseThrow(()-> {
+            return new SearchNotFoundException(errorMessage);
+        });
+
+        search.getUrls().remove(url);
+    }
 }
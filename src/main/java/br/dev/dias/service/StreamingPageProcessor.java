@@ -0,0 +1,57 @@
+package br.dev.dias.service;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.dev.dias.model.CrawledPage;
+import br.dev.dias.model.Link;
+import br.dev.dias.util.PageSink;
+
+/**
+ * Processes a page in a single pass while it is read: every char is fed to the keyword automaton
+ * and to the anchor extractor in turn, and the page text is never assembled. What the processor
+ * keeps is the links found and, per keyword, whether it was found.
+ */
+final class StreamingPageProcessor implements PageSink {
+
+    private final String url;
+    private final KeywordAutomaton.Scanner keywordScanner;
+    private final AnchorStreamExtractor anchorExtractor;
+    private final List<Link> links;
+
+    /**
+     * Constructs a processor for the page at the given URL.
+     *
+     * @param url the URL of the page
+     * @param keywords the automaton of the keywords to look for
+     * @param linkExtractorService the service resolving and filtering the links of the page
+     * @param baseUrl the base URL links are filtered on
+     */
+    StreamingPageProcessor(String url, KeywordAutomaton keywords, LinkExtractorService linkExtractorService, String baseUrl) {
+        this.url = url;
+        this.links = new ArrayList<>();
+        this.keywordScanner = keywords.newScanner();
+        this.anchorExtractor = linkExtractorService.streamAnchors(url, baseUrl, links::add);
+    }
+
+    @Override
+    public void accept(CharBuffer chunk) {
+        int end = chunk.limit();
+        for (int i = chunk.position(); i < end; i++) {
+            char c = chunk.get(i);
+            keywordScanner.accept(c);
+            anchorExtractor.accept(c);
+        }
+    }
+
+    /**
+     * Completes the processing once the whole page was read.
+     *
+     * @return the page, with its links and keyword matches but without its content
+     */
+    CrawledPage finish() {
+        anchorExtractor.finish();
+        return new CrawledPage(url, links, keywordScanner.results());
+    }
+}
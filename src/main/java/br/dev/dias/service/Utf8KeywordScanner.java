@@ -0,0 +1,184 @@
+package br.dev.dias.service;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Case-insensitive matcher for one keyword working on the UTF-8 bytes of a text, so the text
+ * does not need to be decoded into a String to be searched.
+ *
+ * For an ASCII keyword, candidate positions are those where both the first and the last byte
+ * of the keyword are found, case-folded, a byte at a time. Each candidate is then verified byte
+ * by byte. Non-ASCII keywords fall back to decoding the text and running a {@link KeywordMatcher}.
+ *
+ * Builds with the {@code vector} Maven profile also compile {@code VectorByteSearch}, which finds
+ * candidates a whole vector of bytes at a time with the incubating Vector API. It is looked up
+ * reflectively, and used only when it was compiled and the JVM runs with
+ * {@code --add-modules jdk.incubator.vector}.
+ *
+ * ASCII letters of the keyword match both cases of the same ASCII letter only, so the few
+ * non-ASCII chars that fold to an ASCII letter, like the Kelvin sign, are not matched.
+ */
+public final class Utf8KeywordScanner {
+
+    private static final MethodHandle VECTOR_SCAN = findVectorScan();
+    private static final boolean VECTOR_AVAILABLE = VECTOR_SCAN != null;
+
+    private final byte[] bytes;
+    private final boolean[] letters;
+    private final boolean ascii;
+    private final boolean vectorized;
+    private final KeywordMatcher fallback;
+
+    /**
+     * Compiles a scanner for the given keyword, using the Vector API if it is available.
+     *
+     * @param keyword the keyword to search for
+     */
+    public Utf8KeywordScanner(String keyword) {
+        this(keyword, true);
+    }
+
+    /**
+     * Compiles a scanner for the given keyword.
+     *
+     * @param keyword the keyword to search for
+     * @param allowVector whether the Vector API is used when it is available
+     */
+    public Utf8KeywordScanner(String keyword, boolean allowVector) {
+        this.bytes = keyword.getBytes(StandardCharsets.UTF_8);
+        this.letters = new boolean[bytes.length];
+        boolean allAscii = true;
+        for (int i = 0; i < bytes.length; i++) {
+            byte b = bytes[i];
+            allAscii &= b >= 0;
+            if ((b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z')) {
+                bytes[i] = (byte) (b | 0x20);
+                letters[i] = true;
+            }
+        }
+        this.ascii = allAscii;
+        this.vectorized = allowVector && VECTOR_AVAILABLE && allAscii && bytes.length > 0;
+        this.fallback = allAscii ? null : new KeywordMatcher(keyword);
+    }
+
+    /**
+     * Checks whether the build and the Java runtime provide the Vector API used to scan many bytes at once.
+     *
+     * @return true if the vector scan was compiled and the {@code jdk.incubator.vector} module is available
+     */
+    public static boolean isVectorAvailable() {
+        return VECTOR_AVAILABLE;
+    }
+
+    /**
+     * Checks whether the UTF-8 text contains the keyword, ignoring case.
+     *
+     * @param text the UTF-8 bytes of the text
+     * @return true if the keyword is found in the text, false otherwise
+     */
+    public boolean matches(byte[] text) {
+        return text != null && matches(text, 0, text.length);
+    }
+
+    /**
+     * Checks whether a range of UTF-8 bytes contains the keyword, ignoring case.
+     *
+     * @param text the UTF-8 bytes of the text
+     * @param offset the index of the first byte of the range
+     * @param length the number of bytes of the range
+     * @return true if the keyword is found in the range, false otherwise
+     */
+    public boolean matches(byte[] text, int offset, int length) {
+        if (!ascii) {
+            return fallback.matches(new String(text, offset, length, StandardCharsets.UTF_8));
+        }
+        if (bytes.length == 0) {
+            return true;
+        }
+        int end = offset + length - bytes.length;
+        int position = vectorized ? vectorScan(text, offset, end) : offset;
+        if (position < 0) {
+            return true;
+        }
+        return scanScalar(text, position, end);
+    }
+
+    private int vectorScan(byte[] text, int start, int end) {
+        try {
+            return (int) VECTOR_SCAN.invokeExact(this, text, start, end);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Looks up the scan of {@code VectorByteSearch}, absent from builds without the {@code vector} profile.
+     *
+     * @return the scan, or null if the class or the {@code jdk.incubator.vector} module is missing
+     */
+    private static MethodHandle findVectorScan() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            Class<?> search = Class.forName(Utf8KeywordScanner.class.getPackageName() + ".VectorByteSearch");
+            return MethodHandles.lookup().findStatic(search, "scan",
+                    MethodType.methodType(int.class, Utf8KeywordScanner.class, byte[].class, int.class, int.class));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks candidate positions one by one, from start to end inclusive.
+     */
+    boolean scanScalar(byte[] text, int start, int end) {
+        byte first = bytes[0];
+        boolean firstLetter = letters[0];
+        for (int i = start; i <= end; i++) {
+            byte b = text[i];
+            if ((firstLetter ? (byte) (b | 0x20) : b) == first && matchesAt(text, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Verifies that the keyword starts at the given index of the text.
+     */
+    boolean matchesAt(byte[] text, int index) {
+        for (int j = bytes.length - 1; j >= 0; j--) {
+            byte b = text[index + j];
+            if ((letters[j] ? (byte) (b | 0x20) : b) != bytes[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int length() {
+        return bytes.length;
+    }
+
+    byte firstByte() {
+        return bytes[0];
+    }
+
+    byte lastByte() {
+        return bytes[bytes.length - 1];
+    }
+
+    boolean isFirstLetter() {
+        return letters[0];
+    }
+
+    boolean isLastLetter() {
+        return letters[letters.length - 1];
+    }
+}
@@ -1,7 +1,9 @@
 package br.dev.dias.service;
 
+import br.dev.dias.exception.DedupeModeValidatorException;
 import br.dev.dias.exception.KeywordValidatorException;
 import br.dev.dias.exception.SearchIDValidatorException;
+import br.dev.dias.model.DedupeMode;
 
 /**
  * Service for validating keywords and search IDs.
@@ -55,6 +57,23 @@ public class ValidationService {
         }
     }
 
+    /**
+     * Validates the optional dedupe mode of a crawl request.
+     *
+     * @param dedupeMode the dedupe mode to validate, may be null to use the configured default
+     * @throws DedupeModeValidatorException if the dedupe mode is not exact or probabilistic
+     */
+    public void validateDedupeMode(String dedupeMode) throws DedupeModeValidatorException {
+        if (dedupeMode == null) {
+            return;
+        }
+        try {
+            DedupeMode.fromValue(dedupeMode);
+        } catch (IllegalArgumentException iae) {
+            throw new DedupeModeValidatorException("Invalid dedupe mode: must be exact or probabilistic.", iae);
+        }
+    }
+
     /**
      * Validates the given search ID to ensure it meets length, format, and non-null requirements.
      *
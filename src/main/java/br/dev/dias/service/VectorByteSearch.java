@@ -0,0 +1,56 @@
+package br.dev.dias.service;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Finds the candidate positions of an ASCII keyword in UTF-8 bytes with the Vector API, comparing
+ * a whole vector of positions (32 or 64 bytes, depending on the CPU) against the first and the
+ * last byte of the keyword at once. Only compiled by the {@code vector} Maven profile, and only
+ * loaded when the {@code jdk.incubator.vector} module is available, see {@link Utf8KeywordScanner}.
+ */
+final class VectorByteSearch {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final byte CASE_BIT = 0x20;
+
+    private VectorByteSearch() {
+    }
+
+    /**
+     * Scans the positions of the text that fill whole vectors, verifying each candidate.
+     *
+     * @param scanner the keyword scanner, which verifies candidates
+     * @param text the UTF-8 bytes of the text
+     * @param start the first position the keyword may start at
+     * @param end the last position the keyword may start at
+     * @return -1 if the keyword was found, or else the first position left to scan one by one
+     */
+    static int scan(Utf8KeywordScanner scanner, byte[] text, int start, int end) {
+        int lanes = SPECIES.length();
+        int lastOffset = scanner.length() - 1;
+        boolean firstLetter = scanner.isFirstLetter();
+        boolean lastLetter = scanner.isLastLetter();
+        ByteVector first = ByteVector.broadcast(SPECIES, scanner.firstByte());
+        ByteVector last = ByteVector.broadcast(SPECIES, scanner.lastByte());
+        int position = start;
+        for (; position + lanes - 1 <= end; position += lanes) {
+            ByteVector heads = ByteVector.fromArray(SPECIES, text, position);
+            ByteVector tails = ByteVector.fromArray(SPECIES, text, position + lastOffset);
+            if (firstLetter) {
+                heads = heads.or(CASE_BIT);
+            }
+            if (lastLetter) {
+                tails = tails.or(CASE_BIT);
+            }
+            long candidates = heads.eq(first).and(tails.eq(last)).toLong();
+            while (candidates != 0) {
+                if (scanner.matchesAt(text, position + Long.numberOfTrailingZeros(candidates))) {
+                    return -1;
+                }
+                candidates &= candidates - 1;
+            }
+        }
+        return position;
+    }
+}
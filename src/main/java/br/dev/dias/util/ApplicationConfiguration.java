@@ -3,6 +3,16 @@ package br.dev.dias.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.util.Set;
+
+import br.dev.dias.model.DedupeMode;
+import br.dev.dias.model.ExecutionMode;
+import br.dev.dias.model.FrontierMode;
+import br.dev.dias.model.HttpClientMode;
+import br.dev.dias.model.PageProcessingMode;
+import br.dev.dias.model.UrlNormalizationRule;
+
 /**
  * The AppConfig class is responsible for loading and validating application configuration
  * from environment variables. It ensures that required configurations are properly set
@@ -11,6 +21,27 @@ import org.slf4j.LoggerFactory;
  * Configuration:
  * - BASE_URL: The base URL for the application (required).
  * - THREAD_COUNT: The maximum number of threads allowed (optional, validated).
+ * - JOB_PARALLELISM: The maximum number of workers a single crawl job may use (optional, validated).
+ * - DEDUPE_MODE: The default URL dedupe mode of crawl jobs, exact or probabilistic (optional, validated).
+ * - DEDUPE_FALSE_POSITIVE_RATE: The false-positive rate of the probabilistic dedupe mode (optional, validated).
+ * - FRONTIER_MODE: How crawl jobs queue pending URLs, fifo, spilling or priority (optional, validated).
+ * - FRONTIER_MEMORY_LIMIT: The number of pending URLs a spilling frontier keeps in memory (optional, validated).
+ * - FRONTIER_SPILL_DIR: The directory where spilling frontiers write their segments (optional).
+ * - PAGE_CACHE_SIZE: The number of parsed pages shared between searches (optional, validated).
+ * - URL_NORMALIZATION: The rules used to canonicalize crawled URLs (optional, validated).
+ * - HTTP_CLIENT: The HTTP client used to fetch pages, url-connection or pooled (optional, validated).
+ * - HTTP_MAX_CONNECTIONS_PER_HOST: The maximum number of concurrent connections to a host (optional, validated).
+ * - EXECUTION_MODE: How crawl jobs wait for pages, threads, async or virtual (optional, validated).
+ * - ASYNC_MAX_IN_FLIGHT: The maximum number of pages fetched at once in async and virtual modes (optional, validated).
+ * - ASYNC_MAX_IN_FLIGHT_PER_JOB: The maximum number of pages a job fetches at once in async and virtual modes (optional, validated).
+ * - HOST_REQUESTS_PER_SECOND: The maximum request rate to a single host (optional, validated).
+ * - HOST_MAX_CONCURRENCY: The maximum number of requests in flight to a single host (optional, validated).
+ * - MAX_PAGE_BYTES: The number of decoded bytes read from a page before it is truncated (optional, validated).
+ * - SKIP_BINARY_LINKS: Whether links to images, archives and other non-page files are left out (optional, validated).
+ * - PAGE_PROCESSING: Whether pages are buffered or streamed through the keyword and link scanners (optional, validated).
+ * - PARALLEL_PAGE_THRESHOLD: The number of chars from which a page is scanned in parallel chunks, 0 to never (optional, validated).
+ * - CORPUS_INDEX: Whether crawled pages are kept in an index answering new searches right away (optional, validated).
+ * - CORPUS_INDEX_MAX_PAGES: The number of pages kept in the corpus index before the oldest are evicted (optional, validated).
  */
 public class ApplicationConfiguration {
 
@@ -19,6 +50,27 @@ public class ApplicationConfiguration {
     private final String baseUrl;
     private final int maxThreads;
     private final int minThreads;
+    private final int jobParallelism;
+    private final DedupeMode dedupeMode;
+    private final double dedupeFalsePositiveRate;
+    private final FrontierMode frontierMode;
+    private final int frontierMemoryLimit;
+    private final Path frontierSpillDirectory;
+    private final int pageCacheSize;
+    private final Set<UrlNormalizationRule> urlNormalizationRules;
+    private final HttpClientMode httpClientMode;
+    private final int maxConnectionsPerHost;
+    private final ExecutionMode executionMode;
+    private final int maxInFlight;
+    private final int maxInFlightPerJob;
+    private final double hostRequestsPerSecond;
+    private final int hostMaxConcurrency;
+    private final int maxPageBytes;
+    private final boolean skipBinaryLinks;
+    private final PageProcessingMode pageProcessingMode;
+    private final int parallelPageThreshold;
+    private final boolean corpusIndex;
+    private final int corpusIndexMaxPages;
     
     /**
      * Constructs an AppConfig instance by loading and validating configuration values
@@ -30,13 +82,62 @@ public class ApplicationConfiguration {
     public ApplicationConfiguration() {
         LOGGER.info("Initializing application configuration...");
 
-        String rawBaseUrl = ConfigurationValidator.validateBaseUrl(System.getenv("BASE_URL"));
-        this.baseUrl = rawBaseUrl.endsWith("/") ? rawBaseUrl.substring(0, rawBaseUrl.length() - 1) : rawBaseUrl;
+        this.urlNormalizationRules = ConfigurationValidator.validateUrlNormalization(System.getenv("URL_NORMALIZATION"));
+        LOGGER.info("URL normalization rules: {}", this.urlNormalizationRules);
+
+        this.baseUrl = ConfigurationValidator.validateBaseUrl(System.getenv("BASE_URL"), this.urlNormalizationRules);
         LOGGER.info("Base URL: {}", this.baseUrl);
 
         this.maxThreads = ConfigurationValidator.validateThreadCount(System.getenv("THREAD_COUNT"));
         LOGGER.trace("BASE_URL: {}\tTHREAD_COUNT: {}", this.baseUrl, this.maxThreads);
         this.minThreads = Math.max(1, this.maxThreads / 2); 
+
+        this.jobParallelism = ConfigurationValidator.validateJobParallelism(System.getenv("JOB_PARALLELISM"), this.maxThreads);
+        LOGGER.info("Job parallelism: {}", this.jobParallelism);
+
+        this.dedupeMode = ConfigurationValidator.validateDedupeMode(System.getenv("DEDUPE_MODE"));
+        this.dedupeFalsePositiveRate = ConfigurationValidator.validateFalsePositiveRate(System.getenv("DEDUPE_FALSE_POSITIVE_RATE"));
+        LOGGER.info("Dedupe mode: {} (false-positive rate {})", this.dedupeMode.getValue(), this.dedupeFalsePositiveRate);
+
+        this.frontierMode = ConfigurationValidator.validateFrontierMode(System.getenv("FRONTIER_MODE"));
+        this.frontierMemoryLimit = ConfigurationValidator.validateFrontierMemoryLimit(System.getenv("FRONTIER_MEMORY_LIMIT"));
+        this.frontierSpillDirectory = ConfigurationValidator.validateSpillDirectory(System.getenv("FRONTIER_SPILL_DIR"));
+        LOGGER.info("Frontier mode: {} (memory limit {}, spill directory {})",
+                this.frontierMode.getValue(), this.frontierMemoryLimit, this.frontierSpillDirectory);
+
+        this.pageCacheSize = ConfigurationValidator.validatePageCacheSize(System.getenv("PAGE_CACHE_SIZE"));
+        LOGGER.info("Page cache size: {}", this.pageCacheSize);
+
+        this.httpClientMode = ConfigurationValidator.validateHttpClientMode(System.getenv("HTTP_CLIENT"));
+        this.maxConnectionsPerHost = ConfigurationValidator.validateMaxConnectionsPerHost(System.getenv("HTTP_MAX_CONNECTIONS_PER_HOST"));
+        LOGGER.info("HTTP client: {} (up to {} connections per host)", this.httpClientMode.getValue(), this.maxConnectionsPerHost);
+
+        this.executionMode = ConfigurationValidator.validateExecutionMode(System.getenv("EXECUTION_MODE"));
+        this.maxInFlight = ConfigurationValidator.validateMaxInFlight(System.getenv("ASYNC_MAX_IN_FLIGHT"), false);
+        this.maxInFlightPerJob = Math.min(this.maxInFlight,
+                ConfigurationValidator.validateMaxInFlight(System.getenv("ASYNC_MAX_IN_FLIGHT_PER_JOB"), true));
+        LOGGER.info("Execution mode: {} (up to {} requests in flight, {} per job)",
+                this.executionMode.getValue(), this.maxInFlight, this.maxInFlightPerJob);
+
+        this.hostRequestsPerSecond = ConfigurationValidator.validateHostRequestsPerSecond(System.getenv("HOST_REQUESTS_PER_SECOND"));
+        this.hostMaxConcurrency = ConfigurationValidator.validateHostMaxConcurrency(System.getenv("HOST_MAX_CONCURRENCY"));
+        LOGGER.info("Politeness: up to {} requests per second and {} in flight per host",
+                this.hostRequestsPerSecond, this.hostMaxConcurrency);
+
+        this.maxPageBytes = ConfigurationValidator.validateMaxPageBytes(System.getenv("MAX_PAGE_BYTES"));
+        this.skipBinaryLinks = ConfigurationValidator.validateSkipBinaryLinks(System.getenv("SKIP_BINARY_LINKS"));
+        LOGGER.info("Pages: truncated after {} bytes, binary links {}",
+                this.maxPageBytes, this.skipBinaryLinks ? "skipped" : "followed");
+
+        this.pageProcessingMode = ConfigurationValidator.validatePageProcessingMode(System.getenv("PAGE_PROCESSING"));
+        LOGGER.info("Page processing: {}", this.pageProcessingMode.getValue());
+
+        this.parallelPageThreshold = ConfigurationValidator.validateParallelPageThreshold(System.getenv("PARALLEL_PAGE_THRESHOLD"));
+        LOGGER.info("Pages of {} chars or more are scanned in parallel chunks", this.parallelPageThreshold);
+
+        this.corpusIndex = ConfigurationValidator.validateCorpusIndex(System.getenv("CORPUS_INDEX"));
+        this.corpusIndexMaxPages = ConfigurationValidator.validateCorpusIndexMaxPages(System.getenv("CORPUS_INDEX_MAX_PAGES"));
+        LOGGER.info("Corpus index: {} (up to {} pages)", this.corpusIndex ? "enabled" : "disabled", this.corpusIndexMaxPages);
     }
     
     /**
@@ -65,4 +166,193 @@ public class ApplicationConfiguration {
     public int getMinThreads() {
         return minThreads;
     }
+
+    /**
+     * Retrieves the maximum number of workers that may process a single crawl job concurrently.
+     * 
+     * @return The per-job parallelism cap as an integer.
+     */
+    public int getJobParallelism() {
+        return jobParallelism;
+    }
+
+    /**
+     * Retrieves the URL dedupe mode used by crawl jobs that do not choose one.
+     * 
+     * @return The default dedupe mode.
+     */
+    public DedupeMode getDedupeMode() {
+        return dedupeMode;
+    }
+
+    /**
+     * Retrieves the false-positive rate of the probabilistic dedupe mode.
+     * 
+     * @return The false-positive rate, between 0 and 1.
+     */
+    public double getDedupeFalsePositiveRate() {
+        return dedupeFalsePositiveRate;
+    }
+
+    /**
+     * Retrieves how crawl jobs queue their pending URLs.
+     * 
+     * @return The frontier mode.
+     */
+    public FrontierMode getFrontierMode() {
+        return frontierMode;
+    }
+
+    /**
+     * Retrieves the number of pending URLs a spilling frontier keeps in memory.
+     * 
+     * @return The in-memory limit of a spilling frontier.
+     */
+    public int getFrontierMemoryLimit() {
+        return frontierMemoryLimit;
+    }
+
+    /**
+     * Retrieves the directory where spilling frontiers write their segment files.
+     * 
+     * @return The spill directory.
+     */
+    public Path getFrontierSpillDirectory() {
+        return frontierSpillDirectory;
+    }
+
+    /**
+     * Retrieves the number of parsed pages kept for every search to share.
+     * 
+     * @return The page cache size.
+     */
+    public int getPageCacheSize() {
+        return pageCacheSize;
+    }
+
+    /**
+     * Retrieves the rules used to canonicalize crawled URLs.
+     * 
+     * @return The URL normalization rules.
+     */
+    public Set<UrlNormalizationRule> getUrlNormalizationRules() {
+        return urlNormalizationRules;
+    }
+
+    /**
+     * Retrieves the HTTP client used to fetch pages.
+     * 
+     * @return The HTTP client mode.
+     */
+    public HttpClientMode getHttpClientMode() {
+        return httpClientMode;
+    }
+
+    /**
+     * Retrieves the maximum number of concurrent connections to a single host.
+     * 
+     * @return The per-host connection limit.
+     */
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    /**
+     * Retrieves how crawl jobs wait for pages.
+     * 
+     * @return The execution mode.
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Retrieves the maximum number of pages fetched at once across all jobs in async and virtual modes.
+     * 
+     * @return The global in-flight limit.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Retrieves the maximum number of pages a single job fetches at once in async and virtual modes.
+     * 
+     * @return The per-job in-flight limit.
+     */
+    public int getMaxInFlightPerJob() {
+        return maxInFlightPerJob;
+    }
+
+    /**
+     * Retrieves the maximum request rate to a single host.
+     * 
+     * @return The per-host requests per second.
+     */
+    public double getHostRequestsPerSecond() {
+        return hostRequestsPerSecond;
+    }
+
+    /**
+     * Retrieves the maximum number of requests in flight to a single host, reached while the host keeps up.
+     * 
+     * @return The per-host concurrency ceiling.
+     */
+    public int getHostMaxConcurrency() {
+        return hostMaxConcurrency;
+    }
+
+    /**
+     * Retrieves the number of decoded bytes read from a page before the rest of it is dropped.
+     * 
+     * @return The page size limit in bytes.
+     */
+    public int getMaxPageBytes() {
+        return maxPageBytes;
+    }
+
+    /**
+     * Retrieves whether links whose extension names a non-page file, such as an image or an archive, are skipped.
+     * 
+     * @return True if binary links are skipped.
+     */
+    public boolean isSkipBinaryLinks() {
+        return skipBinaryLinks;
+    }
+
+    /**
+     * Retrieves whether downloaded pages are kept whole or streamed through the keyword and link scanners.
+     * 
+     * @return The page processing mode.
+     */
+    public PageProcessingMode getPageProcessingMode() {
+        return pageProcessingMode;
+    }
+
+    /**
+     * Retrieves the number of chars from which a buffered page is matched and link-extracted in parallel chunks.
+     * 
+     * @return The parallel page threshold in chars, or 0 if pages are always scanned by a single thread.
+     */
+    public int getParallelPageThreshold() {
+        return parallelPageThreshold;
+    }
+
+    /**
+     * Retrieves whether crawled pages are kept in the corpus index answering new searches right away.
+     * 
+     * @return True if the corpus index is enabled.
+     */
+    public boolean isCorpusIndex() {
+        return corpusIndex;
+    }
+
+    /**
+     * Retrieves the number of pages kept in the corpus index before the oldest are evicted.
+     * 
+     * @return The corpus index page limit.
+     */
+    public int getCorpusIndexMaxPages() {
+        return corpusIndexMaxPages;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package br.dev.dias.util;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Counting semaphore whose permits are handed out as futures, so that asynchronous callers
+ * wait for a permit without blocking a thread. A released permit goes directly to the oldest
+ * waiter; cancelled waiters are skipped.
+ */
+final class AsyncPermits {
+
+    private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+    private final ArrayDeque<CompletableFuture<Void>> waiters;
+    private int available;
+
+    AsyncPermits(int permits) {
+        this.waiters = new ArrayDeque<>();
+        this.available = permits;
+    }
+
+    /**
+     * Returns a future completed once a permit is granted to the caller.
+     */
+    CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            if (available > 0) {
+                available--;
+                return GRANTED;
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+    }
+
+    /**
+     * Waits for a permit, blocking the calling thread.
+     */
+    void acquireBlocking() throws InterruptedException {
+        CompletableFuture<Void> permit = acquire();
+        try {
+            permit.get();
+        } catch (InterruptedException e) {
+            if (!permit.cancel(false)) {
+                // The permit was granted while we were being interrupted
+                release();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void release() {
+        while (true) {
+            CompletableFuture<Void> waiter;
+            synchronized (this) {
+                waiter = waiters.poll();
+                if (waiter == null) {
+                    available++;
+                    return;
+                }
+            }
+            if (waiter.complete(null)) {
+                return;
+            }
+        }
+    }
+}
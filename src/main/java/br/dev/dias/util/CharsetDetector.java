@@ -0,0 +1,141 @@
+package br.dev.dias.util;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Locale;
+
+/**
+ * Determines the charset of a page the way browsers do, in order of precedence: a byte order
+ * mark, the charset parameter of the Content-Type header, a {@code <meta charset>} or
+ * {@code <meta http-equiv="Content-Type">} declaration in the first bytes of the page, and
+ * finally UTF-8.
+ */
+final class CharsetDetector {
+
+    /**
+     * Number of bytes at the start of a page searched for a meta charset declaration.
+     */
+    static final int SNIFF_BYTES = 1024;
+
+    private CharsetDetector() {
+    }
+
+    /**
+     * Detects the charset of a page.
+     *
+     * @param contentType the Content-Type header, or null
+     * @param prefix the first bytes of the page, or null if they are not known yet
+     * @param length the number of bytes in the prefix
+     * @return the charset of the page
+     */
+    static Charset detect(String contentType, byte[] prefix, int length) {
+        Charset charset = prefix == null ? null : fromByteOrderMark(prefix, length);
+        if (charset == null) {
+            charset = fromContentType(contentType);
+        }
+        if (charset == null && prefix != null) {
+            charset = fromMeta(prefix, Math.min(length, SNIFF_BYTES));
+        }
+        return charset == null ? StandardCharsets.UTF_8 : charset;
+    }
+
+    /**
+     * Gets the charset named by the charset parameter of a Content-Type header.
+     *
+     * @param contentType the Content-Type header, or null
+     * @return the named charset, or null if the header names none or an unsupported one
+     */
+    static Charset fromContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index < 0) {
+            return null;
+        }
+        int start = index + "charset=".length();
+        int end = contentType.indexOf(';', start);
+        String name = contentType.substring(start, end < 0 ? contentType.length() : end).strip();
+        if (name.length() > 1 && (name.charAt(0) == '"' || name.charAt(0) == '\'')) {
+            name = name.substring(1, name.length() - 1);
+        }
+        return forName(name);
+    }
+
+    private static Charset fromByteOrderMark(byte[] prefix, int length) {
+        if (length >= 3 && (prefix[0] & 0xFF) == 0xEF && (prefix[1] & 0xFF) == 0xBB && (prefix[2] & 0xFF) == 0xBF) {
+            return StandardCharsets.UTF_8;
+        }
+        if (length >= 2 && (prefix[0] & 0xFF) == 0xFE && (prefix[1] & 0xFF) == 0xFF) {
+            return StandardCharsets.UTF_16BE;
+        }
+        if (length >= 2 && (prefix[0] & 0xFF) == 0xFF && (prefix[1] & 0xFF) == 0xFE) {
+            return StandardCharsets.UTF_16LE;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the charset declared by the first meta tag naming one, reading the bytes as ASCII.
+     */
+    private static Charset fromMeta(byte[] prefix, int length) {
+        int position = 0;
+        while ((position = indexOfIgnoreCase(prefix, length, "<meta", position)) >= 0) {
+            int end = position;
+            while (end < length && prefix[end] != '>') {
+                end++;
+            }
+            int declaration = indexOfIgnoreCase(prefix, end, "charset", position);
+            if (declaration >= 0) {
+                int start = declaration + "charset".length();
+                while (start < end && (prefix[start] == '=' || prefix[start] == '"' || prefix[start] == '\''
+                        || Character.isWhitespace(prefix[start]))) {
+                    start++;
+                }
+                int nameEnd = start;
+                while (nameEnd < end && isCharsetNameByte(prefix[nameEnd])) {
+                    nameEnd++;
+                }
+                Charset charset = forName(new String(prefix, start, nameEnd - start, StandardCharsets.US_ASCII));
+                if (charset != null) {
+                    // A page read as ASCII cannot really be UTF-16, whatever it declares
+                    return charset.name().startsWith("UTF-16") ? StandardCharsets.UTF_8 : charset;
+                }
+            }
+            position = end;
+        }
+        return null;
+    }
+
+    private static boolean isCharsetNameByte(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+                || b == '-' || b == '_' || b == '.' || b == ':';
+    }
+
+    private static int indexOfIgnoreCase(byte[] bytes, int length, String lowerCase, int from) {
+        int last = length - lowerCase.length();
+        for (int i = from; i <= last; i++) {
+            int j = 0;
+            while (j < lowerCase.length() && Character.toLowerCase(bytes[i + j]) == lowerCase.charAt(j)) {
+                j++;
+            }
+            if (j == lowerCase.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Charset forName(String name) {
+        if (name.isEmpty()) {
+            return null;
+        }
+        try {
+            return Charset.forName(name);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            return null;
+        }
+    }
+}
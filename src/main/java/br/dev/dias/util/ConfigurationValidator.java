@@ -3,23 +3,66 @@ package br.dev.dias.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+
+import br.dev.dias.model.DedupeMode;
+import br.dev.dias.model.ExecutionMode;
+import br.dev.dias.model.FrontierMode;
+import br.dev.dias.model.HttpClientMode;
+import br.dev.dias.model.PageProcessingMode;
+import br.dev.dias.model.UrlNormalizationRule;
+
 /**
  * The ConfigValidator class provides utility methods for validating application configuration values.
  * It ensures that configuration values such as thread count and base URL meet the required criteria.
  * 
  * Validation methods:
  * - validateThreadCount: Validates and parses the thread count.
- * - validateBaseUrl: Validates the format of the base URL.
+ * - validateJobParallelism: Validates and parses the per-job worker cap.
+ * - validateDedupeMode: Validates and parses the URL dedupe mode.
+ * - validateFalsePositiveRate: Validates and parses the probabilistic dedupe false-positive rate.
+ * - validateFrontierMode: Validates and parses the frontier mode.
+ * - validateFrontierMemoryLimit: Validates and parses the in-memory limit of spilling frontiers.
+ * - validateSpillDirectory: Validates the directory of spilling frontiers.
+ * - validatePageCacheSize: Validates and parses the number of cached pages.
+ * - validateUrlNormalization: Validates and parses the URL normalization rules.
+ * - validateHttpClientMode: Validates and parses the HTTP client used to fetch pages.
+ * - validateMaxConnectionsPerHost: Validates and parses the per-host connection limit.
+ * - validateExecutionMode: Validates and parses how crawl jobs wait for pages.
+ * - validateMaxInFlight: Validates and parses a limit of asynchronous requests in flight.
+ * - validateHostRequestsPerSecond: Validates and parses the per-host request rate.
+ * - validateHostMaxConcurrency: Validates and parses the per-host concurrency ceiling.
+ * - validateMaxPageBytes: Validates and parses the page size limit.
+ * - validateSkipBinaryLinks: Validates and parses whether binary links are skipped.
+ * - validatePageProcessingMode: Validates and parses how downloaded pages are processed.
+ * - validateParallelPageThreshold: Validates and parses the page size from which pages are scanned in parallel.
+ * - validateCorpusIndex: Validates and parses whether crawled pages are kept in the corpus index.
+ * - validateCorpusIndexMaxPages: Validates and parses the number of pages kept in the corpus index.
+ * - validateBaseUrl: Validates the format of the base URL and rewrites it into its canonical form.
  */
 public class ConfigurationValidator {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationValidator.class);
     private static final String VALID_URL_REGEX = "https?://[\\w.-]+(:\\d+)?(/.*)?"; 
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    private static final int DEFAULT_FRONTIER_MEMORY_LIMIT = 1 << 16;
+    private static final int DEFAULT_PAGE_CACHE_SIZE = 2000;
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 8;
+    private static final int DEFAULT_MAX_IN_FLIGHT = 256;
+    private static final int DEFAULT_MAX_IN_FLIGHT_PER_JOB = 64;
+    private static final double DEFAULT_HOST_REQUESTS_PER_SECOND = 50;
+    private static final int DEFAULT_HOST_MAX_CONCURRENCY = 32;
+    private static final int DEFAULT_MAX_PAGE_BYTES = 2 * 1024 * 1024;
+    private static final int DEFAULT_PARALLEL_PAGE_THRESHOLD = 512 * 1024;
+    private static final int DEFAULT_CORPUS_INDEX_MAX_PAGES = 10000;
     
     public static int validateThreadCount(String threadCount) {
         int numThreads = Runtime.getRuntime().availableProcessors() + 1; 
         if (threadCount != null && !threadCount.isBlank()) {
             try {
-                numThreads = Integer.parseInt(threadCount);
+                numThreads = Integer.parseInt(threadCount.trim());
             } catch (NumberFormatException e) {
                 var message = "THREAD_COUNT must be a valid integer";
                 LOGGER.error(message);
@@ -29,6 +72,394 @@ public class ConfigurationValidator {
         return numThreads;
     }
 
+    /**
+     * Validates the per-job parallelism, i.e. how many workers may share a single crawl job.
+     * Defaults to the maximum thread count and is capped by it.
+     * 
+     * @param jobParallelism The raw value of the per-job parallelism.
+     * @param maxThreads The maximum number of threads allowed.
+     * @return The validated per-job parallelism.
+     * @throws IllegalStateException if the value is not a valid positive integer.
+     */
+    public static int validateJobParallelism(String jobParallelism, int maxThreads) {
+        int parallelism = positiveInt("JOB_PARALLELISM", jobParallelism, Math.max(1, maxThreads));
+        return Math.min(parallelism, Math.max(1, maxThreads));
+    }
+
+    /**
+     * Validates the URL dedupe mode. Defaults to exact dedupe.
+     * 
+     * @param dedupeMode The raw value of the dedupe mode.
+     * @return The validated dedupe mode.
+     * @throws IllegalStateException if the value is not a known dedupe mode.
+     */
+    public static DedupeMode validateDedupeMode(String dedupeMode) {
+        if (dedupeMode == null || dedupeMode.isBlank()) {
+            return DedupeMode.EXACT;
+        }
+        try {
+            return DedupeMode.fromValue(dedupeMode.trim());
+        } catch (IllegalArgumentException e) {
+            var message = "DEDUPE_MODE must be exact or probabilistic";
+            LOGGER.error(message);
+            throw new IllegalStateException(message, e);
+        }
+    }
+
+    /**
+     * Validates the false-positive rate of the probabilistic dedupe mode. Defaults to 1%.
+     * 
+     * @param falsePositiveRate The raw value of the false-positive rate.
+     * @return The validated false-positive rate.
+     * @throws IllegalStateException if the value is not a number between 0 and 1 (exclusive).
+     */
+    public static double validateFalsePositiveRate(String falsePositiveRate) {
+        double rate = DEFAULT_FALSE_POSITIVE_RATE;
+        if (falsePositiveRate != null && !falsePositiveRate.isBlank()) {
+            try {
+                rate = Double.parseDouble(falsePositiveRate.trim());
+            } catch (NumberFormatException e) {
+                var message = "DEDUPE_FALSE_POSITIVE_RATE must be a valid number";
+                LOGGER.error(message);
+                throw new IllegalStateException(message, e);
+            }
+            if (!(rate > 0 && rate < 1)) {
+                var message = "DEDUPE_FALSE_POSITIVE_RATE must be between 0 and 1";
+                LOGGER.error(message);
+                throw new IllegalStateException(message);
+            }
+        }
+        return rate;
+    }
+
+    /**
+     * Validates the frontier mode. Defaults to an in-memory FIFO frontier.
+     * 
+     * @param frontierMode The raw value of the frontier mode.
+     * @return The validated frontier mode.
+     * @throws IllegalStateException if the value is not a known frontier mode.
+     */
+    public static FrontierMode validateFrontierMode(String frontierMode) {
+        if (frontierMode == null || frontierMode.isBlank()) {
+            return FrontierMode.FIFO;
+        }
+        try {
+            return FrontierMode.fromValue(frontierMode.trim());
+        } catch (IllegalArgumentException e) {
+            var message = "FRONTIER_MODE must be one of: fifo, spilling, priority";
+            LOGGER.error(message);
+            throw new IllegalStateException(message, e);
+        }
+    }
+
+    /**
+     * Validates the number of pending URLs a spilling frontier keeps in memory. Defaults to 65536.
+     * 
+     * @param memoryLimit The raw value of the memory limit.
+     * @return The validated memory limit.
+     * @throws IllegalStateException if the value is not a valid positive integer.
+     */
+    public static int validateFrontierMemoryLimit(String memoryLimit) {
+        return positiveInt("FRONTIER_MEMORY_LIMIT", memoryLimit, DEFAULT_FRONTIER_MEMORY_LIMIT);
+    }
+
+    /**
+     * Validates the number of parsed pages shared between searches. Defaults to 2000.
+     * 
+     * @param cacheSize The raw value of the cache size.
+     * @return The validated cache size.
+     * @throws IllegalStateException if the value is not a valid positive integer.
+     */
+    public static int validatePageCacheSize(String cacheSize) {
+        return positiveInt("PAGE_CACHE_SIZE", cacheSize, DEFAULT_PAGE_CACHE_SIZE);
+    }
+
+    /**
+     * Validates the URL normalization rules, given as a comma-separated list of rule names,
+     * "all" or "none". Defaults to every rule but trailing-slash.
+     * 
+     * @param normalization The raw list of rules.
+     * @return The validated rules.
+     * @throws IllegalStateException if a rule is unknown.
+     */
+    public static Set<UrlNormalizationRule> validateUrlNormalization(String normalization) {
+        if (normalization == null || normalization.isBlank()) {
+            return UrlNormalizationRule.defaults();
+        }
+        if ("all".equalsIgnoreCase(normalization.trim())) {
+            return EnumSet.allOf(UrlNormalizationRule.class);
+        }
+        Set<UrlNormalizationRule> rules = EnumSet.noneOf(UrlNormalizationRule.class);
+        if ("none".equalsIgnoreCase(normalization.trim())) {
+            return rules;
+        }
+        for (String rule : normalization.split(",")) {
+            try {
+                rules.add(UrlNormalizationRule.fromValue(rule.trim()));
+            } catch (IllegalArgumentException e) {
+                var message = "URL_NORMALIZATION must be all, none or a comma-separated list of: "
+                        + "drop-fragment, sort-query, dot-segments, lowercase-host, default-port, trailing-slash";
+                LOGGER.error(message);
+                throw new IllegalStateException(message, e);
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Validates the HTTP client used to fetch pages. Defaults to url-connection.
+     * 
+     * @param httpClientMode The raw value of the HTTP client mode.
+     * @return The validated HTTP client mode.
+     * @throws IllegalStateException if the value is not a known HTTP client mode.
+     */
+    public static HttpClientMode validateHttpClientMode(String httpClientMode) {
+        if (httpClientMode == null || httpClientMode.isBlank()) {
+            return HttpClientMode.URL_CONNECTION;
+        }
+        try {
+            return HttpClientMode.fromValue(httpClientMode.trim());
+        } catch (IllegalArgumentException e) {
+            var message = "HTTP_CLIENT must be one of: url-connection, pooled";
+            LOGGER.error(message);
+            throw new IllegalStateException(message, e);
+        }
+    }
+
+    /**
+     * Validates the maximum number of concurrent connections to a single host. Defaults to 8.
+     * 
+     * @param maxConnections The raw value of the connection limit.
+     * @return The validated connection limit.
+     * @throws IllegalStateException if the value is not a valid positive integer.
+     */
+    public static int validateMaxConnectionsPerHost(String maxConnections) {
+        return positiveInt("HTTP_MAX_CONNECTIONS_PER_HOST", maxConnections, DEFAULT_MAX_CONNECTIONS_PER_HOST);
+    }
+
+    /**
+     * Validates how crawl jobs wait for pages. Defaults to threads.
+     * 
+     * @param executionMode The raw value of the execution mode.
+     * @return The validated execution mode.
+     * @throws IllegalStateException if the value is not a known execution mode.
+     */
+    public static ExecutionMode validateExecutionMode(String executionMode) {
+        if (executionMode == null || executionMode.isBlank()) {
+            return ExecutionMode.THREADS;
+        }
+        try {
+            return ExecutionMode.fromValue(executionMode.trim());
+        } catch (IllegalArgumentException e) {
+            var message = "EXECUTION_MODE must be one of: threads, async, virtual";
+            LOGGER.error(message);
+            throw new IllegalStateException(message, e);
+        }
+    }
+
+    /**
+     * Validates a limit of asynchronous requests in flight, either global or per job.
+     * Defaults to 256 globally and 64 per job.
+     * 
+     * @param maxInFlight The raw value of the limit.
+     * @param perJob Whether the limit applies to a single job.
+     * @return The validated limit.
+     * @throws IllegalStateException if the value is not a valid positive integer.
+     */
+    public static int validateMaxInFlight(String maxInFlight, boolean perJob) {
+        return perJob
+                ? positiveInt("ASYNC_MAX_IN_FLIGHT_PER_JOB", maxInFlight, DEFAULT_MAX_IN_FLIGHT_PER_JOB)
+                : positiveInt("ASYNC_MAX_IN_FLIGHT", maxInFlight, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Validates the maximum request rate to a single host. Defaults to 50 requests per second.
+     * 
+     * @param requestsPerSecond The raw value of the request rate.
+     * @return The validated request rate.
+     * @throws IllegalStateException if the value is not a valid positive number.
+     */
+    public static double validateHostRequestsPerSecond(String requestsPerSecond) {
+        double rate = DEFAULT_HOST_REQUESTS_PER_SECOND;
+        if (requestsPerSecond != null && !requestsPerSecond.isBlank()) {
+            try {
+                rate = Double.parseDouble(requestsPerSecond.trim());
+            } catch (NumberFormatException e) {
+                var message = "HOST_REQUESTS_PER_SECOND must be a valid number";
+                LOGGER.error(message);
+                throw new IllegalStateException(message, e);
+            }
+            if (!(rate > 0) || Double.isInfinite(rate)) {
+                var message = "HOST_REQUESTS_PER_SECOND must be greater than zero";
+                LOGGER.error(message);
+                throw new IllegalStateException(message);
+            }
+        }
+        return rate;
+    }
+
+    /**
+     * Validates the maximum number of requests in flight to a single host. Defaults to 32.
+     * 
+     * @param maxConcurrency The raw value of the concurrency ceiling.
+     * @return The validated concurrency ceiling.
+     * @throws IllegalStateException if the value is not a valid positive integer.
+     */
+    public static int validateHostMaxConcurrency(String maxConcurrency) {
+        return positiveInt("HOST_MAX_CONCURRENCY", maxConcurrency, DEFAULT_HOST_MAX_CONCURRENCY);
+    }
+
+    /**
+     * Validates the number of decoded bytes read from a page before it is truncated. Defaults to 2 MiB.
+     * 
+     * @param maxPageBytes The raw value of the page size limit.
+     * @return The validated page size limit.
+     * @throws IllegalStateException if the value is not a valid positive integer.
+     */
+    public static int validateMaxPageBytes(String maxPageBytes) {
+        return positiveInt("MAX_PAGE_BYTES", maxPageBytes, DEFAULT_MAX_PAGE_BYTES);
+    }
+
+    /**
+     * Validates whether links to binary files are skipped during link extraction. Defaults to true.
+     * 
+     * @param skipBinaryLinks The raw value, true or false.
+     * @return The validated flag.
+     * @throws IllegalStateException if the value is neither true nor false.
+     */
+    public static boolean validateSkipBinaryLinks(String skipBinaryLinks) {
+        return flag("SKIP_BINARY_LINKS", skipBinaryLinks, true);
+    }
+
+    /**
+     * Validates how downloaded pages are processed. Defaults to buffered.
+     * 
+     * @param pageProcessingMode The raw value of the page processing mode.
+     * @return The validated page processing mode.
+     * @throws IllegalStateException if the value is not a known page processing mode.
+     */
+    public static PageProcessingMode validatePageProcessingMode(String pageProcessingMode) {
+        if (pageProcessingMode == null || pageProcessingMode.isBlank()) {
+            return PageProcessingMode.BUFFERED;
+        }
+        try {
+            return PageProcessingMode.fromValue(pageProcessingMode.trim());
+        } catch (IllegalArgumentException e) {
+            var message = "PAGE_PROCESSING must be one of: buffered, streaming";
+            LOGGER.error(message);
+            throw new IllegalStateException(message, e);
+        }
+    }
+
+    /**
+     * Validates the number of chars from which a page is scanned in parallel chunks. Defaults to 512 Ki;
+     * 0 turns parallel scanning off.
+     * 
+     * @param parallelPageThreshold The raw value of the parallel page threshold.
+     * @return The validated threshold.
+     * @throws IllegalStateException if the value is not a valid non-negative integer.
+     */
+    public static int validateParallelPageThreshold(String parallelPageThreshold) {
+        return boundedInt("PARALLEL_PAGE_THRESHOLD", parallelPageThreshold, DEFAULT_PARALLEL_PAGE_THRESHOLD, 0);
+    }
+
+    /**
+     * Validates whether crawled pages are kept in the corpus index answering new searches. Defaults to false.
+     * 
+     * @param corpusIndex The raw value, true or false.
+     * @return The validated flag.
+     * @throws IllegalStateException if the value is neither true nor false.
+     */
+    public static boolean validateCorpusIndex(String corpusIndex) {
+        return flag("CORPUS_INDEX", corpusIndex, false);
+    }
+
+    /**
+     * Validates the number of pages kept in the corpus index before the oldest are evicted. Defaults to 10000.
+     * 
+     * @param maxPages The raw value of the page limit.
+     * @return The validated page limit.
+     * @throws IllegalStateException if the value is not a valid positive integer.
+     */
+    public static int validateCorpusIndexMaxPages(String maxPages) {
+        return positiveInt("CORPUS_INDEX_MAX_PAGES", maxPages, DEFAULT_CORPUS_INDEX_MAX_PAGES);
+    }
+
+    /**
+     * Validates the directory of spilling frontiers. Defaults to a folder in the system temporary directory.
+     * 
+     * @param spillDirectory The raw path of the spill directory.
+     * @return The validated spill directory.
+     * @throws IllegalStateException if the value is not a valid path.
+     */
+    public static Path validateSpillDirectory(String spillDirectory) {
+        if (spillDirectory == null || spillDirectory.isBlank()) {
+            return Path.of(System.getProperty("java.io.tmpdir"), "crawler-frontier");
+        }
+        try {
+            return Path.of(spillDirectory);
+        } catch (InvalidPathException e) {
+            var message = "FRONTIER_SPILL_DIR must be a valid path";
+            LOGGER.error(message);
+            throw new IllegalStateException(message, e);
+        }
+    }
+
+    /**
+     * Parses an optional integer setting that must be greater than zero.
+     * 
+     * @param name The name of the environment variable, used in error messages.
+     * @param raw The raw value, or null or blank to use the default.
+     * @param defaultValue The value used when none is given.
+     * @return The parsed value, or the default.
+     * @throws IllegalStateException if the value is not a valid positive integer.
+     */
+    static int positiveInt(String name, String raw, int defaultValue) {
+        return boundedInt(name, raw, defaultValue, 1);
+    }
+
+    /**
+     * Parses an optional true or false setting.
+     * 
+     * @param name The name of the environment variable, used in error messages.
+     * @param raw The raw value, or null or blank to use the default.
+     * @param defaultValue The value used when none is given.
+     * @return The parsed value, or the default.
+     * @throws IllegalStateException if the value is neither true nor false.
+     */
+    static boolean flag(String name, String raw, boolean defaultValue) {
+        if (raw == null || raw.isBlank()) {
+            return defaultValue;
+        }
+        String value = raw.trim();
+        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+            return Boolean.parseBoolean(value);
+        }
+        var message = name + " must be true or false";
+        LOGGER.error(message);
+        throw new IllegalStateException(message);
+    }
+
+    private static int boundedInt(String name, String raw, int defaultValue, int min) {
+        if (raw == null || raw.isBlank()) {
+            return defaultValue;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(raw.trim());
+        } catch (NumberFormatException e) {
+            var message = name + " must be a valid integer";
+            LOGGER.error(message);
+            throw new IllegalStateException(message, e);
+        }
+        if (value < min) {
+            var message = name + (min == 1 ? " must be greater than zero" : " must be " + min + " or greater");
+            LOGGER.error(message);
+            throw new IllegalStateException(message);
+        }
+        return value;
+    }
+
     /**
      * Validates the base URL.
      * 
@@ -45,4 +476,21 @@ public class ConfigurationValidator {
         }
         return baseUrl;
     }
+
+    /**
+     * Validates the base URL and rewrites it into the canonical form extracted links are compared
+     * against, without its trailing slash.
+     * 
+     * @param baseUrl The base URL to validate.
+     * @param rules The URL normalization rules applied to crawled URLs.
+     * @return The canonical base URL.
+     * @throws IllegalArgumentException if the base URL is null, blank, or invalid.
+     */
+    public static String validateBaseUrl(String baseUrl, Set<UrlNormalizationRule> rules) {
+        String canonical = new UrlCanonicalizer(rules).canonicalize(validateBaseUrl(baseUrl).trim());
+        if (canonical == null) {
+            throw new IllegalArgumentException("BASE_URL must start with http or https and be a valid URL.");
+        }
+        return canonical.endsWith("/") ? canonical.substring(0, canonical.length() - 1) : canonical;
+    }
 }
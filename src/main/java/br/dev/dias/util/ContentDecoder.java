@@ -0,0 +1,253 @@
+package br.dev.dias.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decodes gzip and deflate response bodies without buffering them whole.
+ *
+ * Blocking readers wrap the body stream with {@link #wrap(InputStream, String)}. Non-blocking
+ * readers create a decoder with {@link #of(String)} and push the body chunks into it as they
+ * arrive; each chunk is inflated into fixed-size output buffers handed downstream, and never
+ * beyond the number of decoded bytes the caller still accepts, so a small compressed body cannot
+ * expand into more memory than the page size limit. The gzip trailer's CRC-32 and size are checked
+ * once the body is complete.
+ *
+ * A "deflate" body is supposed to be zlib-wrapped, but some servers send raw deflate data, so
+ * the first two bytes decide which one it is.
+ */
+final class ContentDecoder {
+
+    /**
+     * The content codings the crawler accepts.
+     */
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private static final int GZIP_TRAILER_LENGTH = 8;
+
+    private final boolean gzip;
+    private final CRC32 crc;
+    private final byte[] trailer;
+    private int trailerLength;
+    private byte[] header;
+    private Inflater inflater;
+
+    private ContentDecoder(boolean gzip) {
+        this.gzip = gzip;
+        this.crc = gzip ? new CRC32() : null;
+        this.trailer = gzip ? new byte[GZIP_TRAILER_LENGTH] : null;
+        this.header = new byte[0];
+    }
+
+    /**
+     * Creates a decoder for the given content coding.
+     *
+     * @param encoding the Content-Encoding header, or null
+     * @return the decoder, or null if the body is not encoded
+     * @throws IOException if the coding is not supported
+     */
+    static ContentDecoder of(String encoding) throws IOException {
+        return switch (normalize(encoding)) {
+            case "", "identity" -> null;
+            case "gzip", "x-gzip" -> new ContentDecoder(true);
+            case "deflate" -> new ContentDecoder(false);
+            default -> throw new IOException(String.format("Unsupported Content-Encoding: %s", encoding));
+        };
+    }
+
+    /**
+     * Wraps a body stream so that reading it yields the decoded body.
+     *
+     * @param body the body as received
+     * @param encoding the Content-Encoding header, or null
+     * @return the decoded body stream
+     * @throws IOException if the coding is not supported or the gzip header is invalid
+     */
+    static InputStream wrap(InputStream body, String encoding) throws IOException {
+        switch (normalize(encoding)) {
+            case "", "identity":
+                return body;
+            case "gzip", "x-gzip":
+                return new GZIPInputStream(body, BUFFER_SIZE);
+            case "deflate":
+                PushbackInputStream pushback = new PushbackInputStream(body, 2);
+                byte[] start = pushback.readNBytes(2);
+                pushback.unread(start);
+                Inflater inflater = new Inflater(!(start.length == 2 && isZlibHeader(start[0], start[1])));
+                return new InflaterInputStream(pushback, inflater, BUFFER_SIZE) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            inflater.end();
+                        }
+                    }
+                };
+            default:
+                throw new IOException(String.format("Unsupported Content-Encoding: %s", encoding));
+        }
+    }
+
+    /**
+     * Decodes the next chunk of the body, inflating at most {@code maxBytes} bytes.
+     *
+     * @param chunk the received bytes, fully consumed by the call unless the limit is reached
+     * @param maxBytes the number of decoded bytes the caller still accepts
+     * @return the decoded bytes, possibly none, holding at most {@code maxBytes} bytes
+     * @throws IOException if the body is corrupted
+     */
+    List<ByteBuffer> decode(ByteBuffer chunk, long maxBytes) throws IOException {
+        if (inflater == null) {
+            // Hold the bytes back until the whole gzip header, or the two zlib header bytes, arrived
+            int length = header.length;
+            header = Arrays.copyOf(header, length + chunk.remaining());
+            chunk.get(header, length, header.length - length);
+            int headerLength = gzip ? gzipHeaderLength(header) : (header.length >= 2 ? 0 : -1);
+            if (headerLength < 0) {
+                return List.of();
+            }
+            inflater = new Inflater(gzip || !isZlibHeader(header[0], header[1]));
+            chunk = ByteBuffer.wrap(header, headerLength, header.length - headerLength);
+            header = null;
+        }
+
+        List<ByteBuffer> decoded = new ArrayList<>();
+        if (!inflater.finished()) {
+            inflater.setInput(chunk);
+            long budget = maxBytes;
+            try {
+                while (budget > 0 && !inflater.finished() && !inflater.needsInput()) {
+                    ByteBuffer output = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, budget));
+                    int inflated = inflater.inflate(output);
+                    if (inflated > 0) {
+                        output.flip();
+                        if (gzip) {
+                            crc.update(output.duplicate());
+                        }
+                        decoded.add(output);
+                        budget -= inflated;
+                    } else if (inflater.needsDictionary()) {
+                        throw new IOException("Deflate body requires a preset dictionary");
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupted compressed body", e);
+            }
+            if (!inflater.finished()) {
+                return decoded;
+            }
+        }
+        if (gzip) {
+            // The inflater stopped at the end of the compressed data, where the trailer starts
+            int length = Math.min(chunk.remaining(), GZIP_TRAILER_LENGTH - trailerLength);
+            chunk.get(trailer, trailerLength, length);
+            trailerLength += length;
+        }
+        chunk.position(chunk.limit());
+        return decoded;
+    }
+
+    /**
+     * Checks that the whole body was decoded and releases the decoder.
+     *
+     * @throws IOException if the body ended before the compressed data did, or its gzip trailer
+     *         does not match the decoded bytes
+     */
+    void finish() throws IOException {
+        boolean complete = inflater != null && inflater.finished()
+                && (!gzip || trailerLength == GZIP_TRAILER_LENGTH);
+        long size = complete ? inflater.getBytesWritten() : 0;
+        end();
+        if (!complete) {
+            throw new IOException("Truncated compressed body");
+        }
+        if (gzip && (readIntLE(trailer, 0) != (int) crc.getValue() || readIntLE(trailer, 4) != (int) size)) {
+            throw new IOException("Corrupted gzip body: CRC or size mismatch");
+        }
+    }
+
+    /**
+     * Releases the decoder.
+     */
+    void end() {
+        if (inflater != null) {
+            inflater.end();
+        }
+    }
+
+    private static String normalize(String encoding) {
+        return encoding == null ? "" : encoding.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Tells whether two bytes start a zlib stream: deflate compression method and a valid header checksum.
+     */
+    static boolean isZlibHeader(byte cmf, byte flg) {
+        return (cmf & 0x0F) == 8 && (((cmf & 0xFF) << 8) | (flg & 0xFF)) % 31 == 0;
+    }
+
+    /**
+     * Returns the length of the gzip header at the start of the bytes, or -1 if it is not complete yet.
+     */
+    private static int gzipHeaderLength(byte[] bytes) throws IOException {
+        if (bytes.length < 10) {
+            return -1;
+        }
+        if (((bytes[0] & 0xFF) | ((bytes[1] & 0xFF) << 8)) != GZIP_MAGIC || bytes[2] != 8) {
+            throw new IOException("Not in gzip format");
+        }
+        int flags = bytes[3] & 0xFF;
+        int position = 10;
+        if ((flags & FEXTRA) != 0) {
+            if (bytes.length < position + 2) {
+                return -1;
+            }
+            position += 2 + ((bytes[position] & 0xFF) | ((bytes[position + 1] & 0xFF) << 8));
+        }
+        if ((flags & FNAME) != 0) {
+            position = skipZeroTerminated(bytes, position);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            position = skipZeroTerminated(bytes, position);
+        }
+        if ((flags & FHCRC) != 0 && position >= 0) {
+            position += 2;
+        }
+        return position >= 0 && position <= bytes.length ? position : -1;
+    }
+
+    private static int readIntLE(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8)
+                | ((bytes[offset + 2] & 0xFF) << 16) | ((bytes[offset + 3] & 0xFF) << 24);
+    }
+
+    private static int skipZeroTerminated(byte[] bytes, int position) {
+        if (position < 0) {
+            return -1;
+        }
+        for (int i = position; i < bytes.length; i++) {
+            if (bytes[i] == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+}
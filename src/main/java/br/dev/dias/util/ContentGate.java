@@ -0,0 +1,51 @@
+package br.dev.dias.util;
+
+import java.util.Locale;
+
+import br.dev.dias.exception.UnsupportedContentException;
+
+/**
+ * Decides from the response headers whether a page body is worth reading, before any of it is
+ * downloaded. Only HTML is parsed, so other content types are rejected. Responses without a
+ * Content-Type are read, as browsers would sniff them.
+ */
+final class ContentGate {
+
+    /**
+     * Default number of decoded bytes read from a page body, beyond which the page is truncated.
+     */
+    static final int DEFAULT_MAX_BODY_BYTES = 2 * 1024 * 1024;
+
+    private ContentGate() {
+    }
+
+    /**
+     * Checks whether a Content-Type header names an HTML document.
+     *
+     * @param contentType the Content-Type header, or null
+     * @return true if the body should be read
+     */
+    static boolean isHtml(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return true;
+        }
+        int parameters = contentType.indexOf(';');
+        String mediaType = (parameters < 0 ? contentType : contentType.substring(0, parameters))
+                .strip().toLowerCase(Locale.ROOT);
+        return mediaType.equals("text/html") || mediaType.equals("application/xhtml+xml");
+    }
+
+    /**
+     * Rejects a response whose Content-Type is not HTML.
+     *
+     * @param url the URL of the page
+     * @param contentType the Content-Type header, or null
+     * @throws UnsupportedContentException if the content type is not HTML
+     */
+    static void requireHtml(String url, String contentType) {
+        if (!isHtml(contentType)) {
+            throw new UnsupportedContentException(
+                    String.format("Skipping URL: %s, Content-Type: %s", url, contentType), contentType);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package br.dev.dias.util;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Decodes a compressed response body chunk by chunk as the {@link java.net.http.HttpClient}
+ * delivers it, handing the decoded chunks to the subscriber building or streaming the page, and records the
+ * wire and decoded sizes of the body.
+ *
+ * Once the decoded body reaches the size limit, the last chunk is cut, the rest of the response is
+ * cancelled and the page completes truncated. Compressed chunks are only inflated up to the limit,
+ * so a compression bomb never expands past it. A limit of zero cancels the response as soon as it
+ * is subscribed to, so that its body is never downloaded.
+ */
+final class DecodingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+    private final HttpResponse.BodySubscriber<T> downstream;
+    private final String encoding;
+    private final long maxBytes;
+    private final TransferMetrics transferMetrics;
+    private Flow.Subscription subscription;
+    private ContentDecoder decoder;
+    private boolean done;
+    private long wireBytes;
+    private long decodedBytes;
+
+    /**
+     * Constructs a subscriber decoding the body for the given downstream subscriber.
+     *
+     * @param downstream the subscriber receiving the decoded body
+     * @param encoding the Content-Encoding header, or null
+     * @param maxBytes the number of decoded bytes handed downstream before the body is truncated
+     * @param transferMetrics the metrics recording the body sizes
+     */
+    DecodingBodySubscriber(HttpResponse.BodySubscriber<T> downstream, String encoding, long maxBytes,
+            TransferMetrics transferMetrics) {
+        this.downstream = downstream;
+        this.encoding = encoding;
+        this.maxBytes = maxBytes;
+        this.transferMetrics = transferMetrics;
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return downstream.getBody();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        downstream.onSubscribe(subscription);
+        if (maxBytes <= 0) {
+            truncate();
+            return;
+        }
+        try {
+            decoder = ContentDecoder.of(encoding);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        if (done) {
+            return;
+        }
+        for (ByteBuffer item : items) {
+            wireBytes += item.remaining();
+        }
+        List<ByteBuffer> kept = new ArrayList<>(items.size());
+        try {
+            for (ByteBuffer item : items) {
+                if (decodedBytes >= maxBytes) {
+                    break;
+                }
+                if (decoder == null) {
+                    keep(item, kept);
+                    continue;
+                }
+                for (ByteBuffer buffer : decoder.decode(item, maxBytes - decodedBytes)) {
+                    keep(buffer, kept);
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        if (!kept.isEmpty()) {
+            downstream.onNext(kept);
+        }
+        if (decodedBytes >= maxBytes) {
+            truncate();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (done) {
+            return;
+        }
+        done = true;
+        if (decoder != null) {
+            decoder.end();
+        }
+        downstream.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        if (decoder != null && wireBytes == 0) {
+            // Bodiless responses such as 304 Not Modified may still name the page's encoding
+            decoder.end();
+        } else if (decoder != null) {
+            try {
+                decoder.finish();
+            } catch (IOException e) {
+                downstream.onError(e);
+                return;
+            }
+        }
+        transferMetrics.record(wireBytes, decodedBytes);
+        downstream.onComplete();
+    }
+
+    /**
+     * Adds a decoded buffer to the ones handed downstream, cut to the bytes left under the limit.
+     */
+    private void keep(ByteBuffer buffer, List<ByteBuffer> kept) {
+        long remaining = maxBytes - decodedBytes;
+        if (buffer.remaining() > remaining) {
+            buffer = buffer.slice(buffer.position(), (int) remaining);
+        }
+        decodedBytes += buffer.remaining();
+        kept.add(buffer);
+    }
+
+    /**
+     * Completes the body with what was handed downstream so far and cancels the rest of the response.
+     */
+    private void truncate() {
+        done = true;
+        subscription.cancel();
+        if (decoder != null) {
+            decoder.end();
+        }
+        transferMetrics.record(wireBytes, decodedBytes);
+        downstream.onComplete();
+    }
+
+    private void fail(IOException e) {
+        done = true;
+        subscription.cancel();
+        if (decoder != null) {
+            decoder.end();
+        }
+        downstream.onError(e);
+    }
+}
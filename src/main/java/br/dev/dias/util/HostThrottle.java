@@ -0,0 +1,217 @@
+package br.dev.dias.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the requests to a single host.
+ *
+ * A token bucket caps the request rate, allowing bursts of one second worth of requests. An
+ * adaptive limit caps the requests in flight (AIMD): it grows by one request per window of
+ * successful requests while their latency stays close to the best latency seen, and is halved,
+ * at most once per window, on timeouts and overload responses. A Retry-After answer pauses the
+ * host until the given time.
+ *
+ * Permits are handed out as futures in arrival order, so asynchronous callers wait for their
+ * turn without blocking a thread. Cancelled waiters are skipped.
+ */
+final class HostThrottle {
+
+    private static final int INITIAL_LIMIT = 4;
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double LATENCY_SMOOTHING = 0.2;
+    private static final double MIN_LATENCY_DRIFT = 1.001;
+    private static final long MIN_DECREASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final ScheduledExecutorService timer;
+    private final double tokensPerNano;
+    private final double burst;
+    private final int maxConcurrency;
+    private final ArrayDeque<CompletableFuture<Void>> waiters;
+
+    private double tokens;
+    private long refilledAt;
+    private double limit;
+    private int inFlight;
+    // nanoTime values may be negative, so they are never compared to zero: each one starts
+    // from the construction time or comes with a flag telling whether it was set
+    private long pausedUntil;
+    private boolean wakeupScheduled;
+    private long wakeupAt;
+    private double smoothedLatency;
+    private double minLatency;
+    private boolean decreased;
+    private long decreasedAt;
+
+    /**
+     * Constructs a throttle for a host.
+     *
+     * @param requestsPerSecond the maximum sustained request rate
+     * @param maxConcurrency the maximum number of requests in flight
+     * @param timer the scheduler waking up waiters once tokens are refilled or a pause ends
+     */
+    HostThrottle(double requestsPerSecond, int maxConcurrency, ScheduledExecutorService timer) {
+        this.timer = timer;
+        this.tokensPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, requestsPerSecond);
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.waiters = new ArrayDeque<>();
+        this.tokens = burst;
+        this.refilledAt = System.nanoTime();
+        this.pausedUntil = refilledAt;
+        this.limit = Math.min(INITIAL_LIMIT, this.maxConcurrency);
+    }
+
+    /**
+     * Returns a future completed once the caller may send its request.
+     */
+    CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        synchronized (this) {
+            waiters.add(waiter);
+        }
+        dispatch();
+        return waiter;
+    }
+
+    /**
+     * Waits for the caller's turn, blocking the calling thread.
+     */
+    void acquireBlocking() throws InterruptedException {
+        CompletableFuture<Void> permit = acquire();
+        try {
+            permit.get();
+        } catch (InterruptedException e) {
+            if (!permit.cancel(false)) {
+                // The permit was granted while we were being interrupted
+                release();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Ends a successful request, growing the concurrency limit while the latency stays stable.
+     *
+     * @param latencyNanos the time the request took
+     */
+    void releaseSucceeded(long latencyNanos) {
+        synchronized (this) {
+            boolean saturated = inFlight * 2 >= limit;
+            inFlight--;
+            smoothedLatency = smoothedLatency == 0 ? latencyNanos
+                    : smoothedLatency + LATENCY_SMOOTHING * (latencyNanos - smoothedLatency);
+            minLatency = minLatency == 0 ? latencyNanos : Math.min(latencyNanos, minLatency * MIN_LATENCY_DRIFT);
+            if (saturated && smoothedLatency <= minLatency * LATENCY_TOLERANCE) {
+                limit = Math.min(maxConcurrency, limit + 1 / limit);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Ends a request the host could not serve (timeout, 5xx, 429), halving the concurrency limit.
+     *
+     * @param retryAfterNanos how long the host asked to be left alone, or 0
+     */
+    void releaseOverloaded(long retryAfterNanos) {
+        synchronized (this) {
+            inFlight--;
+            long now = System.nanoTime();
+            if (!decreased || now - decreasedAt > Math.max(MIN_DECREASE_INTERVAL_NANOS, (long) smoothedLatency)) {
+                limit = Math.max(1, limit * DECREASE_FACTOR);
+                decreased = true;
+                decreasedAt = now;
+            }
+            if (retryAfterNanos > 0 && now + retryAfterNanos - pausedUntil > 0) {
+                pausedUntil = now + retryAfterNanos;
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Ends a request whose outcome says nothing about the host's load.
+     */
+    void release() {
+        synchronized (this) {
+            inFlight--;
+        }
+        dispatch();
+    }
+
+    synchronized int getConcurrencyLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Grants the oldest waiters their turn while the pause, the concurrency limit and the tokens allow.
+     */
+    private void dispatch() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            while (!waiters.isEmpty()) {
+                if (waiters.peek().isDone()) {
+                    waiters.poll();
+                } else if (pausedUntil - now > 0) {
+                    scheduleWakeup(now, pausedUntil - now);
+                    break;
+                } else if (inFlight >= (int) limit) {
+                    // The next release dispatches again
+                    break;
+                } else if (tokens < 1) {
+                    scheduleWakeup(now, (long) Math.ceil((1 - tokens) / tokensPerNano));
+                    break;
+                } else {
+                    tokens--;
+                    inFlight++;
+                    granted.add(waiters.poll());
+                }
+            }
+        }
+        for (CompletableFuture<Void> waiter : granted) {
+            if (!waiter.complete(null)) {
+                // Cancelled after being picked
+                release();
+            }
+        }
+    }
+
+    private void scheduleWakeup(long now, long delayNanos) {
+        long at = now + delayNanos;
+        if (wakeupScheduled && wakeupAt - at <= 0) {
+            return;
+        }
+        wakeupScheduled = true;
+        wakeupAt = at;
+        try {
+            timer.schedule(() -> {
+                synchronized (this) {
+                    if (wakeupScheduled && wakeupAt == at) {
+                        wakeupScheduled = false;
+                    }
+                }
+                dispatch();
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: waiters are abandoned along with their requests
+            wakeupScheduled = false;
+        }
+    }
+}
@@ -84,7 +84,7 @@ public class HttpClientHelper {
             String errorMessage = String.format("Failed to fetch content from URL: %s, Response Code: %d",
                     connection.getURL(), responseCode);
             logger.error(errorMessage);
-            throw new HttpRequestFailedException(errorMessage);
+            throw new HttpRequestFailedException(errorMessage, responseCode, connection.getHeaderField("Retry-After"));
         }
     }
 }
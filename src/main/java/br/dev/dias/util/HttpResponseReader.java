@@ -1,18 +1,75 @@
 package br.dev.dias.util;
 
-import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
-import java.util.stream.Collectors;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Utility class for reading HTTP responses from an HttpURLConnection.
  * Handles both successful and error responses.
+ * Gzip and deflate bodies are decoded while they are read, and the size of every body on the
+ * wire and once decoded is recorded in the reader's {@link TransferMetrics}.
+ * Bodies are truncated once the decoded size reaches the reader's limit, and the rest is never read.
+ *
+ * Text is decoded with the charset detected by {@link CharsetDetector}, from the Content-Type
+ * header or a {@code <meta charset>} declaration. The byte and char buffers and the charset
+ * decoder used to read a body are taken from a small pool and reused across responses, so that
+ * reading a page allocates little more than the resulting String.
  */
 public class HttpResponseReader {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpResponseReader.class);
+    private static final int BYTE_BUFFER_SIZE = 8192;
+    private static final int INITIAL_CHARS = 16 * 1024;
+    private static final int MAX_POOLED_CHARS = 512 * 1024;
+    private static final int POOL_SIZE = 32;
+
+    private final TransferMetrics transferMetrics;
+    private final int maxBodyBytes;
+    private final BlockingQueue<ReadBuffers> bufferPool;
+
+    /**
+     * Default constructor that records the transfers in new metrics.
+     */
+    public HttpResponseReader() {
+        this(new TransferMetrics());
+    }
+
+    /**
+     * Constructor that allows sharing the metrics the transfers are recorded in.
+     *
+     * @param transferMetrics the metrics recording the body sizes
+     */
+    public HttpResponseReader(TransferMetrics transferMetrics) {
+        this(transferMetrics, ContentGate.DEFAULT_MAX_BODY_BYTES);
+    }
+
+    /**
+     * Constructor that allows sharing the metrics and limiting the size of the bodies read.
+     *
+     * @param transferMetrics the metrics recording the body sizes
+     * @param maxBodyBytes the number of decoded bytes read from a body before it is truncated
+     */
+    public HttpResponseReader(TransferMetrics transferMetrics, int maxBodyBytes) {
+        this.transferMetrics = transferMetrics;
+        this.maxBodyBytes = Math.max(1, maxBodyBytes);
+        this.bufferPool = new ArrayBlockingQueue<>(POOL_SIZE);
+    }
+
     /**
      * Reads the response from the given HttpURLConnection.
      * If the response code indicates success (2xx), reads from the input stream.
@@ -23,14 +80,226 @@ public class HttpResponseReader {
      * @throws IOException if an I/O error occurs while reading the response
      */
     public String readResponse(HttpURLConnection connection) throws IOException {
-        InputStream inputStream;
+        CountingInputStream wire = new CountingInputStream(bodyOf(connection), Long.MAX_VALUE);
+        CountingInputStream decoded = new CountingInputStream(
+                ContentDecoder.wrap(wire, connection.getContentEncoding()), maxBodyBytes);
+        ReadBuffers buffers = acquireBuffers();
+        try (decoded) {
+            CharBuffer text = decode(decoded, connection.getContentType(), buffers, CharBuffer.wrap(buffers.chars),
+                    buffers::grow);
+            record(connection, wire, decoded);
+            return toContent(buffers.chars, text.position());
+        } finally {
+            releaseBuffers(buffers);
+        }
+    }
+
+    /**
+     * Reads the response from the given HttpURLConnection chunk by chunk, handing each chunk of
+     * text to the sink instead of building the whole content.
+     *
+     * @param connection the HttpURLConnection to read the response from
+     * @param sink the sink receiving the text of the response
+     * @return the number of chars read
+     * @throws IOException if an I/O error occurs while reading the response
+     */
+    public long readResponse(HttpURLConnection connection, PageSink sink) throws IOException {
+        CountingInputStream wire = new CountingInputStream(bodyOf(connection), Long.MAX_VALUE);
+        CountingInputStream decoded = new CountingInputStream(
+                ContentDecoder.wrap(wire, connection.getContentEncoding()), maxBodyBytes);
+        ReadBuffers buffers = acquireBuffers();
+        try (decoded) {
+            long[] chars = new long[1];
+            UnaryOperator<CharBuffer> emit = full -> {
+                full.flip();
+                chars[0] += full.remaining();
+                sink.accept(full);
+                return full.clear();
+            };
+            CharBuffer rest = decode(decoded, connection.getContentType(), buffers, CharBuffer.wrap(buffers.chars), emit);
+            if (rest.position() > 0) {
+                emit.apply(rest);
+            }
+            record(connection, wire, decoded);
+            return chars[0];
+        } finally {
+            releaseBuffers(buffers);
+        }
+    }
+
+    /**
+     * Decodes a body into the output buffer, handing the buffer to the overflow handler whenever
+     * it is full. The first bytes of the body are read before decoding starts, so that the charset
+     * can be sniffed from them.
+     *
+     * @return the output buffer, holding the last decoded chars before its position
+     */
+    private static CharBuffer decode(InputStream in, String contentType, ReadBuffers buffers, CharBuffer output,
+            UnaryOperator<CharBuffer> overflow) throws IOException {
+        byte[] bytes = buffers.bytes;
+        int filled = 0;
+        int read = 0;
+        while (filled < CharsetDetector.SNIFF_BYTES
+                && (read = in.read(bytes, filled, CharsetDetector.SNIFF_BYTES - filled)) >= 0) {
+            filled += read;
+        }
+        CharsetDecoder decoder = buffers.decoderFor(CharsetDetector.detect(contentType, bytes, filled));
+
+        ByteBuffer input = ByteBuffer.wrap(bytes, 0, filled);
+        boolean endOfInput = read < 0;
+        while (true) {
+            CoderResult result = decoder.decode(input, output, endOfInput);
+            if (result.isOverflow()) {
+                output = overflow.apply(output);
+            } else if (endOfInput) {
+                break;
+            } else {
+                input.compact();
+                read = in.read(bytes, input.position(), input.remaining());
+                if (read < 0) {
+                    endOfInput = true;
+                } else {
+                    input.position(input.position() + read);
+                }
+                input.flip();
+            }
+        }
+        while (decoder.flush(output).isOverflow()) {
+            output = overflow.apply(output);
+        }
+        return output;
+    }
+
+    /**
+     * Builds the content of a page from its decoded chars, with line breaks normalized to "\n" and
+     * surrounding whitespace trimmed, in a single allocation of the resulting String.
+     */
+    private static String toContent(char[] chars, int length) {
+        int end = 0;
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c == '\r') {
+                c = '\n';
+                if (i + 1 < length && chars[i + 1] == '\n') {
+                    i++;
+                }
+            }
+            chars[end++] = c;
+        }
+        int start = 0;
+        while (start < end && chars[start] <= ' ') {
+            start++;
+        }
+        while (end > start && chars[end - 1] <= ' ') {
+            end--;
+        }
+        return new String(chars, start, end - start);
+    }
+
+    private ReadBuffers acquireBuffers() {
+        ReadBuffers buffers = bufferPool.poll();
+        return buffers == null ? new ReadBuffers() : buffers;
+    }
+
+    private void releaseBuffers(ReadBuffers buffers) {
+        if (buffers.chars.length > MAX_POOLED_CHARS) {
+            buffers.chars = new char[INITIAL_CHARS];
+        }
+        bufferPool.offer(buffers);
+    }
+
+    private static InputStream bodyOf(HttpURLConnection connection) throws IOException {
         if (connection.getResponseCode() >= 200 && connection.getResponseCode() < 300) {
-            inputStream = connection.getInputStream();
-        } else {
-            inputStream = connection.getErrorStream();
+            return connection.getInputStream();
+        }
+        return connection.getErrorStream();
+    }
+
+    private void record(HttpURLConnection connection, CountingInputStream wire, CountingInputStream decoded) {
+        transferMetrics.record(wire.count, decoded.count);
+        if (decoded.count >= maxBodyBytes) {
+            LOGGER.debug("Truncated response of {} to {} bytes", connection.getURL(), maxBodyBytes);
+        }
+    }
+
+    /**
+     * Gets the metrics the transfers read are recorded in.
+     *
+     * @return the transfer metrics
+     */
+    public TransferMetrics getTransferMetrics() {
+        return transferMetrics;
+    }
+
+    /**
+     * The buffers and the decoder used to read one body at a time.
+     */
+    private static final class ReadBuffers {
+        private final byte[] bytes = new byte[BYTE_BUFFER_SIZE];
+        private char[] chars = new char[INITIAL_CHARS];
+        private CharsetDecoder decoder;
+
+        CharsetDecoder decoderFor(Charset charset) {
+            if (decoder == null || !decoder.charset().equals(charset)) {
+                decoder = charset.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            } else {
+                decoder.reset();
+            }
+            return decoder;
+        }
+
+        /**
+         * Doubles the char buffer, keeping the chars decoded so far.
+         */
+        CharBuffer grow(CharBuffer full) {
+            chars = Arrays.copyOf(chars, chars.length * 2);
+            return CharBuffer.wrap(chars).position(full.position());
         }
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-            return reader.lines().collect(Collectors.joining("\n")).trim();
+    }
+
+    /**
+     * Counts the bytes read through it, and reports the end of the stream once the limit is reached.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        CountingInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (count >= limit) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (count >= limit) {
+                return -1;
+            }
+            int read = super.read(b, off, (int) Math.min(len, limit - count));
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, limit - count));
+            count += skipped;
+            return skipped;
         }
     }
 }
@@ -0,0 +1,119 @@
+package br.dev.dias.util;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.concurrent.CompletableFuture;
+
+import br.dev.dias.exception.HttpRequestFailedException;
+import br.dev.dias.model.FetchResult;
+import br.dev.dias.model.PageValidators;
+
+/**
+ * Transport used by the crawler to download pages with HTTP GET requests.
+ */
+public interface PageFetcher {
+
+    /**
+     * Downloads the page at the given URL.
+     *
+     * @param url the URL to fetch
+     * @return the content of the page
+     * @throws IOException if the page could not be downloaded
+     * @throws HttpRequestFailedException if the response code is not 200
+     */
+    String fetch(String url) throws IOException, HttpRequestFailedException;
+
+    /**
+     * Downloads the page at the given URL unless it still matches the given validators.
+     * Fetchers that do not send conditional requests always download the page.
+     *
+     * @param url the URL to fetch
+     * @param validators the validators of the cached copy, or null to download unconditionally
+     * @return the page with its validators, or a not-modified result
+     * @throws IOException if the page could not be downloaded
+     * @throws HttpRequestFailedException if the response code is neither 200 nor 304
+     */
+    default FetchResult fetch(String url, PageValidators validators) throws IOException, HttpRequestFailedException {
+        return FetchResult.modified(fetch(url), null);
+    }
+
+    /**
+     * Downloads the page at the given URL unless it still matches the given validators, handing its
+     * text to the sink as it is read instead of returning it. Fetchers that cannot stream a page
+     * read it whole and hand it over in a single chunk.
+     *
+     * @param url the URL to fetch
+     * @param validators the validators of the cached copy, or null to download unconditionally
+     * @param sink the sink receiving the text of the page
+     * @return the validators of the page without its content, or a not-modified result
+     * @throws IOException if the page could not be downloaded
+     * @throws HttpRequestFailedException if the response code is neither 200 nor 304
+     */
+    default FetchResult fetch(String url, PageValidators validators, PageSink sink)
+            throws IOException, HttpRequestFailedException {
+        return drain(fetch(url, validators), sink);
+    }
+
+    /**
+     * Starts downloading the page at the given URL without blocking the calling thread.
+     * Fetchers that can only block do not support it.
+     *
+     * @param url the URL to fetch
+     * @return a future completed with the content of the page, or failed with an {@link IOException}
+     *         or an {@link HttpRequestFailedException}
+     */
+    default CompletableFuture<String> fetchAsync(String url) {
+        return CompletableFuture.failedFuture(new UnsupportedOperationException(
+            String.format("%s does not support asynchronous fetches", getClass().getSimpleName())));
+    }
+
+    /**
+     * Starts downloading the page at the given URL unless it still matches the given validators,
+     * without blocking the calling thread.
+     *
+     * @param url the URL to fetch
+     * @param validators the validators of the cached copy, or null to download unconditionally
+     * @return a future completed with the page or a not-modified result, or failed with an
+     *         {@link IOException} or an {@link HttpRequestFailedException}
+     */
+    default CompletableFuture<FetchResult> fetchAsync(String url, PageValidators validators) {
+        return fetchAsync(url).thenApply(content -> FetchResult.modified(content, null));
+    }
+
+    /**
+     * Starts downloading the page at the given URL unless it still matches the given validators,
+     * without blocking the calling thread, and hands its text to the sink as it arrives.
+     *
+     * @param url the URL to fetch
+     * @param validators the validators of the cached copy, or null to download unconditionally
+     * @param sink the sink receiving the text of the page
+     * @return a future completed with the validators of the page or a not-modified result, or
+     *         failed with an {@link IOException} or an {@link HttpRequestFailedException}
+     */
+    default CompletableFuture<FetchResult> fetchAsync(String url, PageValidators validators, PageSink sink) {
+        return fetchAsync(url, validators).thenApply(result -> drain(result, sink));
+    }
+
+    /**
+     * Gets the metrics recording the wire and decoded sizes of the downloaded bodies.
+     *
+     * @return the transfer metrics, or null if the fetcher does not record them
+     */
+    default TransferMetrics getTransferMetrics() {
+        return null;
+    }
+
+    /**
+     * Releases the connections held by the fetcher.
+     */
+    default void close() {
+    }
+
+    private static FetchResult drain(FetchResult result, PageSink sink) {
+        if (result.isNotModified()) {
+            return result;
+        }
+        sink.accept(CharBuffer.wrap(result.getContent()));
+        return FetchResult.modified(null, result.getValidators());
+    }
+}
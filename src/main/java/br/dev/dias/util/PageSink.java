@@ -0,0 +1,19 @@
+package br.dev.dias.util;
+
+import java.nio.CharBuffer;
+
+/**
+ * Receives the decoded text of a page chunk by chunk while the page is being read, so that the
+ * page is processed without ever being held whole in memory.
+ */
+@FunctionalInterface
+public interface PageSink {
+
+    /**
+     * Consumes the next chunk of the page. The chunk is only valid during the call, as its
+     * buffer is reused for the following chunks.
+     *
+     * @param chunk the chars between the position and the limit of the buffer
+     */
+    void accept(CharBuffer chunk);
+}
@@ -0,0 +1,171 @@
+package br.dev.dias.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.dev.dias.exception.HttpRequestFailedException;
+import br.dev.dias.model.FetchResult;
+import br.dev.dias.model.PageValidators;
+
+/**
+ * Fetcher that spaces and bounds the requests sent to each host before handing them to another fetcher.
+ * Every host gets a {@link HostThrottle} combining a token-bucket request rate with a concurrency
+ * limit that adapts to how the host copes: it grows while responses come back as fast as usual and
+ * is halved on timeouts, refused connections, 5xx and 429 responses. A Retry-After header on such a
+ * response pauses the host for the requested time.
+ */
+public class PolitePageFetcher implements PageFetcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PolitePageFetcher.class);
+    private static final long MAX_RETRY_AFTER_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final PageFetcher delegate;
+    private final double requestsPerSecond;
+    private final int maxConcurrency;
+    private final ConcurrentHashMap<String, HostThrottle> throttles;
+    private final ScheduledExecutorService timer;
+
+    /**
+     * Constructs a fetcher throttling the requests of the given fetcher.
+     *
+     * @param delegate the fetcher sending the requests
+     * @param requestsPerSecond the maximum request rate per host
+     * @param maxConcurrency the maximum number of requests in flight per host
+     */
+    public PolitePageFetcher(PageFetcher delegate, double requestsPerSecond, int maxConcurrency) {
+        this.delegate = delegate;
+        this.requestsPerSecond = requestsPerSecond;
+        this.maxConcurrency = maxConcurrency;
+        this.throttles = new ConcurrentHashMap<>();
+        this.timer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("politeness-timer").daemon().factory());
+        LOGGER.info("Initializing polite fetching with up to {} requests per second and {} in flight per host",
+                requestsPerSecond, maxConcurrency);
+    }
+
+    @Override
+    public String fetch(String url) throws IOException, HttpRequestFailedException {
+        return fetch(url, null).getContent();
+    }
+
+    @Override
+    public FetchResult fetch(String url, PageValidators validators) throws IOException, HttpRequestFailedException {
+        return fetch(url, validators, null);
+    }
+
+    @Override
+    public FetchResult fetch(String url, PageValidators validators, PageSink sink)
+            throws IOException, HttpRequestFailedException {
+        HostThrottle throttle = throttleOf(url);
+        try {
+            throttle.acquireBlocking();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Interrupted while waiting to fetch %s", url));
+        }
+        long start = System.nanoTime();
+        FetchResult result;
+        try {
+            result = sink == null ? delegate.fetch(url, validators) : delegate.fetch(url, validators, sink);
+        } catch (IOException | RuntimeException e) {
+            release(throttle, start, e);
+            throw e;
+        }
+        release(throttle, start, null);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<String> fetchAsync(String url) {
+        return fetchAsync(url, null).thenApply(FetchResult::getContent);
+    }
+
+    @Override
+    public CompletableFuture<FetchResult> fetchAsync(String url, PageValidators validators) {
+        return fetchAsync(url, validators, null);
+    }
+
+    @Override
+    public CompletableFuture<FetchResult> fetchAsync(String url, PageValidators validators, PageSink sink) {
+        HostThrottle throttle = throttleOf(url);
+        return throttle.acquire().thenCompose(granted -> {
+            long start = System.nanoTime();
+            return (sink == null ? delegate.fetchAsync(url, validators) : delegate.fetchAsync(url, validators, sink))
+                    .whenComplete((result, error) -> release(throttle, start, error));
+        });
+    }
+
+    @Override
+    public TransferMetrics getTransferMetrics() {
+        return delegate.getTransferMetrics();
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        delegate.close();
+    }
+
+    private HostThrottle throttleOf(String url) {
+        return throttles.computeIfAbsent(UrlCanonicalizer.hostOf(url), host -> new HostThrottle(requestsPerSecond, maxConcurrency, timer));
+    }
+
+    private static void release(HostThrottle throttle, long start, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause == null) {
+            throttle.releaseSucceeded(System.nanoTime() - start);
+        } else if (cause instanceof HttpRequestFailedException failure
+                && (failure.getStatusCode() == 429 || failure.getStatusCode() >= 500)) {
+            long retryAfterNanos = retryAfterNanos(failure.getRetryAfter());
+            if (retryAfterNanos > 0) {
+                LOGGER.warn("Host asked to retry after {} ms: {}", TimeUnit.NANOSECONDS.toMillis(retryAfterNanos),
+                        failure.getMessage());
+            }
+            throttle.releaseOverloaded(retryAfterNanos);
+        } else if (cause instanceof HttpTimeoutException || cause instanceof SocketTimeoutException
+                || cause instanceof ConnectException) {
+            throttle.releaseOverloaded(0);
+        } else {
+            throttle.release();
+        }
+    }
+
+    /**
+     * Parses a Retry-After header, either a number of seconds or an HTTP date.
+     *
+     * @return the delay in nanoseconds, capped to five minutes, or 0 if the header is absent or invalid
+     */
+    static long retryAfterNanos(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return 0;
+        }
+        long nanos;
+        try {
+            nanos = TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                nanos = Duration.between(ZonedDateTime.now(date.getZone()), date).toNanos();
+            } catch (DateTimeParseException | ArithmeticException ignored) {
+                return 0;
+            }
+        }
+        return Math.max(0, Math.min(nanos, MAX_RETRY_AFTER_NANOS));
+    }
+}
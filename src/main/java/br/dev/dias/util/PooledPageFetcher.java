@@ -0,0 +1,277 @@
+package br.dev.dias.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.dev.dias.exception.HttpRequestFailedException;
+import br.dev.dias.model.FetchResult;
+import br.dev.dias.model.PageValidators;
+
+/**
+ * Fetches pages through a single shared {@link HttpClient}.
+ * The client negotiates HTTP/2, multiplexing concurrent requests to a host over one connection,
+ * and otherwise keeps HTTP/1.1 connections alive in its pool, so pages of the same host do not
+ * pay a new TCP and TLS handshake each.
+ *
+ * Requests in flight to a host are capped by per-host permits. Over HTTP/1.1 this bounds the
+ * number of pooled connections to the host, and over HTTP/2 the number of concurrent streams.
+ * {@link #fetchAsync(String)} waits for its permit and its response without holding a thread.
+ * Cached pages are revalidated with {@code If-None-Match} and {@code If-Modified-Since}.
+ * Pages are requested gzip or deflate compressed and decoded chunk by chunk as they arrive.
+ * Responses that are not HTML are cancelled from their headers, before their body is downloaded,
+ * and bodies are truncated once their decoded size reaches the fetcher's limit. Pages can be
+ * streamed to a {@link PageSink} as they arrive instead of being collected into a string.
+ */
+public class PooledPageFetcher implements PageFetcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PooledPageFetcher.class);
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(5000);
+
+    private final HttpClient httpClient;
+    private final int maxConnectionsPerHost;
+    private final Duration timeout;
+    private final ConcurrentHashMap<String, AsyncPermits> hostPermits;
+    private final TransferMetrics transferMetrics;
+    private final long maxBodyBytes;
+    private final HttpResponse.BodyHandler<String> bodyHandler;
+
+    /**
+     * Constructs a fetcher allowing up to {@code maxConnectionsPerHost} requests in flight per host.
+     *
+     * @param maxConnectionsPerHost the maximum number of concurrent requests to a single host
+     */
+    public PooledPageFetcher(int maxConnectionsPerHost) {
+        this(maxConnectionsPerHost, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Constructs a fetcher allowing up to {@code maxConnectionsPerHost} requests in flight per host
+     * and reading up to {@code maxBodyBytes} decoded bytes of each page.
+     *
+     * @param maxConnectionsPerHost the maximum number of concurrent requests to a single host
+     * @param maxBodyBytes the number of decoded bytes read from a page before it is truncated
+     */
+    public PooledPageFetcher(int maxConnectionsPerHost, int maxBodyBytes) {
+        this(maxConnectionsPerHost, DEFAULT_TIMEOUT, maxBodyBytes);
+    }
+
+    /**
+     * Constructs a fetcher allowing up to {@code maxConnectionsPerHost} requests in flight per host.
+     *
+     * @param maxConnectionsPerHost the maximum number of concurrent requests to a single host
+     * @param timeout the connection and request timeout
+     */
+    public PooledPageFetcher(int maxConnectionsPerHost, Duration timeout) {
+        this(maxConnectionsPerHost, timeout, ContentGate.DEFAULT_MAX_BODY_BYTES);
+    }
+
+    /**
+     * Constructs a fetcher allowing up to {@code maxConnectionsPerHost} requests in flight per host
+     * and reading up to {@code maxBodyBytes} decoded bytes of each page.
+     *
+     * @param maxConnectionsPerHost the maximum number of concurrent requests to a single host
+     * @param timeout the connection and request timeout
+     * @param maxBodyBytes the number of decoded bytes read from a page before it is truncated
+     */
+    public PooledPageFetcher(int maxConnectionsPerHost, Duration timeout, int maxBodyBytes) {
+        this.maxConnectionsPerHost = Math.max(1, maxConnectionsPerHost);
+        this.timeout = timeout;
+        this.hostPermits = new ConcurrentHashMap<>();
+        this.transferMetrics = new TransferMetrics();
+        this.maxBodyBytes = Math.max(1, maxBodyBytes);
+        this.bodyHandler = responseInfo -> new DecodingBodySubscriber<>(
+                HttpResponse.BodyHandlers.ofString().apply(responseInfo), encodingOf(responseInfo),
+                isSkipped(responseInfo) ? 0 : this.maxBodyBytes, transferMetrics);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(timeout)
+                .build();
+        LOGGER.info("Initializing pooled HTTP client with up to {} connections per host", this.maxConnectionsPerHost);
+    }
+
+    @Override
+    public String fetch(String url) throws IOException, HttpRequestFailedException {
+        return fetch(url, null).getContent();
+    }
+
+    @Override
+    public FetchResult fetch(String url, PageValidators validators) throws IOException, HttpRequestFailedException {
+        return readResult(url, send(url, validators, bodyHandler), validators);
+    }
+
+    @Override
+    public FetchResult fetch(String url, PageValidators validators, PageSink sink)
+            throws IOException, HttpRequestFailedException {
+        return readStreamedResult(url, send(url, validators, streamingHandler(sink)), validators);
+    }
+
+    @Override
+    public CompletableFuture<String> fetchAsync(String url) {
+        return fetchAsync(url, null).thenApply(FetchResult::getContent);
+    }
+
+    @Override
+    public CompletableFuture<FetchResult> fetchAsync(String url, PageValidators validators) {
+        return sendAsync(url, validators, bodyHandler).thenApply(response -> readResult(url, response, validators));
+    }
+
+    @Override
+    public CompletableFuture<FetchResult> fetchAsync(String url, PageValidators validators, PageSink sink) {
+        return sendAsync(url, validators, streamingHandler(sink))
+                .thenApply(response -> readStreamedResult(url, response, validators));
+    }
+
+    private <T> HttpResponse<T> send(String url, PageValidators validators, HttpResponse.BodyHandler<T> handler)
+            throws IOException {
+        URI uri = toUri(url);
+        HttpRequest request = newRequest(uri, validators);
+
+        AsyncPermits permits = permitsOf(uri);
+        try {
+            permits.acquireBlocking();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Interrupted while waiting for a connection to %s", url));
+        }
+        try {
+            return httpClient.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Interrupted while fetching %s", url));
+        } finally {
+            permits.release();
+        }
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(String url, PageValidators validators,
+            HttpResponse.BodyHandler<T> handler) {
+        URI uri;
+        try {
+            uri = toUri(url);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest request = newRequest(uri, validators);
+
+        AsyncPermits permits = permitsOf(uri);
+        return permits.acquire()
+                .thenCompose(granted -> httpClient.sendAsync(request, handler))
+                .whenComplete((response, error) -> permits.release());
+    }
+
+    /**
+     * Creates a handler streaming the text of a successful HTML response to the sink. Other
+     * responses are not handed to the sink, and bodies that are not HTML are not downloaded.
+     */
+    private HttpResponse.BodyHandler<Long> streamingHandler(PageSink sink) {
+        return responseInfo -> {
+            if (responseInfo.statusCode() != 200) {
+                return HttpResponse.BodySubscribers.replacing(0L);
+            }
+            String contentType = responseInfo.headers().firstValue("Content-Type").orElse(null);
+            return new DecodingBodySubscriber<>(new SinkBodySubscriber(sink, CharsetDetector.detect(contentType, null, 0)),
+                    encodingOf(responseInfo), ContentGate.isHtml(contentType) ? maxBodyBytes : 0, transferMetrics);
+        };
+    }
+
+    private static String encodingOf(HttpResponse.ResponseInfo responseInfo) {
+        return responseInfo.headers().firstValue("Content-Encoding").orElse(null);
+    }
+
+    private HttpRequest newRequest(URI uri, PageValidators validators) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(timeout).GET()
+                .header("Accept-Encoding", ContentDecoder.ACCEPT_ENCODING);
+        if (validators != null && validators.getEtag() != null) {
+            request.header("If-None-Match", validators.getEtag());
+        }
+        if (validators != null && validators.getLastModified() != null) {
+            request.header("If-Modified-Since", validators.getLastModified());
+        }
+        return request.build();
+    }
+
+    /**
+     * Checks whether a successful response carries content that is not parsed, so its body can be skipped.
+     */
+    private static boolean isSkipped(HttpResponse.ResponseInfo responseInfo) {
+        return responseInfo.statusCode() == 200
+                && !ContentGate.isHtml(responseInfo.headers().firstValue("Content-Type").orElse(null));
+    }
+
+    private AsyncPermits permitsOf(URI uri) {
+        return hostPermits.computeIfAbsent(String.valueOf(uri.getAuthority()),
+                host -> new AsyncPermits(maxConnectionsPerHost));
+    }
+
+    private static URI toUri(String url) throws IOException {
+        try {
+            return URI.create(url);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(String.format("Invalid URL: %s", url), e);
+        }
+    }
+
+    private static FetchResult readResult(String url, HttpResponse<String> response, PageValidators validators) {
+        FetchResult notModified = checkResponse(url, response, validators);
+        if (notModified != null) {
+            return notModified;
+        }
+        long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(response.body().length());
+        return FetchResult.modified(response.body().trim(), validatorsOf(response, contentLength));
+    }
+
+    private static FetchResult readStreamedResult(String url, HttpResponse<Long> response, PageValidators validators) {
+        FetchResult notModified = checkResponse(url, response, validators);
+        if (notModified != null) {
+            return notModified;
+        }
+        long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(response.body());
+        return FetchResult.modified(null, validatorsOf(response, contentLength));
+    }
+
+    /**
+     * Checks the status and the content type of a response.
+     *
+     * @return a not-modified result if the cached copy is still current, or null if the page was sent
+     */
+    private static FetchResult checkResponse(String url, HttpResponse<?> response, PageValidators validators) {
+        if (response.statusCode() == 304 && validators != null && validators.canRevalidate()) {
+            return FetchResult.notModified(validatorsOf(response, validators.getContentLength()));
+        }
+        if (response.statusCode() != 200) {
+            String errorMessage = String.format("Failed to fetch content from URL: %s, Response Code: %d",
+                    url, response.statusCode());
+            LOGGER.error(errorMessage);
+            throw new HttpRequestFailedException(errorMessage, response.statusCode(),
+                    response.headers().firstValue("Retry-After").orElse(null));
+        }
+        ContentGate.requireHtml(url, response.headers().firstValue("Content-Type").orElse(null));
+        return null;
+    }
+
+    private static PageValidators validatorsOf(HttpResponse<?> response, long contentLength) {
+        return new PageValidators(response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null), contentLength);
+    }
+
+    @Override
+    public TransferMetrics getTransferMetrics() {
+        return transferMetrics;
+    }
+
+    @Override
+    public void close() {
+        httpClient.shutdown();
+    }
+}
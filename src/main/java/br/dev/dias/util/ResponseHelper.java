@@ -69,6 +69,7 @@ public class ResponseHelper {
             }
         }
         crawlStatusResponse.setUrls(urls);
+        crawlStatusResponse.setExpectedSkippedUrls(searchStatus.getExpectedSkippedUrls());
         
         LOGGER.trace("CrawlerStatusResponse created with ID: {}, Status: {}, URLs: {}", 
                      crawlStatusResponse.getId(), 
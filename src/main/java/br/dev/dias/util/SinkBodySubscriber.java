@@ -0,0 +1,119 @@
+package br.dev.dias.util;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Decodes a response body into text chunk by chunk as the {@link java.net.http.HttpClient}
+ * delivers it, handing each chunk to a {@link PageSink} through a single reused buffer.
+ * The bytes of a character split across two deliveries are carried over to the next one.
+ * The body completes with the number of chars handed to the sink.
+ */
+final class SinkBodySubscriber implements HttpResponse.BodySubscriber<Long> {
+
+    private static final int CHUNK_CHARS = 8192;
+
+    private final PageSink sink;
+    private final CharsetDecoder decoder;
+    private final CharBuffer chunk;
+    private final ByteBuffer carry;
+    private final CompletableFuture<Long> body;
+    private Flow.Subscription subscription;
+    private long chars;
+
+    /**
+     * Constructs a subscriber handing the text of the body to the given sink.
+     *
+     * @param sink the sink receiving the text
+     * @param charset the charset of the body
+     */
+    SinkBodySubscriber(PageSink sink, Charset charset) {
+        this.sink = sink;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chunk = CharBuffer.allocate(CHUNK_CHARS);
+        this.carry = ByteBuffer.allocate(16);
+        this.body = new CompletableFuture<>();
+    }
+
+    @Override
+    public CompletionStage<Long> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        if (body.isDone()) {
+            return;
+        }
+        try {
+            for (ByteBuffer item : items) {
+                // Completes the character split across the previous delivery
+                while (carry.position() > 0 && item.hasRemaining()) {
+                    carry.put(item.get()).flip();
+                    decode(carry, false);
+                    carry.compact();
+                }
+                decode(item, false);
+                if (item.hasRemaining()) {
+                    carry.put(item);
+                }
+            }
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            body.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (body.isDone()) {
+            return;
+        }
+        try {
+            carry.flip();
+            decode(carry, true);
+            decoder.flush(chunk);
+            emit();
+            body.complete(chars);
+        } catch (RuntimeException e) {
+            body.completeExceptionally(e);
+        }
+    }
+
+    private void decode(ByteBuffer input, boolean endOfInput) {
+        while (decoder.decode(input, chunk, endOfInput) == CoderResult.OVERFLOW) {
+            emit();
+        }
+    }
+
+    private void emit() {
+        chunk.flip();
+        if (chunk.hasRemaining()) {
+            chars += chunk.remaining();
+            sink.accept(chunk);
+        }
+        chunk.clear();
+    }
+}
@@ -0,0 +1,58 @@
+package br.dev.dias.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the bytes pages take on the wire and once decoded, showing what compressed transfers save.
+ */
+public class TransferMetrics {
+
+    private final LongAdder transfers = new LongAdder();
+    private final LongAdder wireBytes = new LongAdder();
+    private final LongAdder decodedBytes = new LongAdder();
+
+    /**
+     * Records the transfer of one response body.
+     *
+     * @param wire the number of body bytes received, possibly compressed
+     * @param decoded the number of body bytes after decompression
+     */
+    public void record(long wire, long decoded) {
+        transfers.increment();
+        wireBytes.add(wire);
+        decodedBytes.add(decoded);
+    }
+
+    /**
+     * Gets the number of response bodies recorded.
+     *
+     * @return the number of transfers
+     */
+    public long getTransferCount() {
+        return transfers.sum();
+    }
+
+    /**
+     * Gets the number of body bytes received.
+     *
+     * @return the bytes on the wire
+     */
+    public long getWireBytes() {
+        return wireBytes.sum();
+    }
+
+    /**
+     * Gets the number of body bytes after decompression.
+     *
+     * @return the decoded bytes
+     */
+    public long getDecodedBytes() {
+        return decodedBytes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d transfers, %d wire bytes, %d decoded bytes", getTransferCount(), getWireBytes(),
+                getDecodedBytes());
+    }
+}
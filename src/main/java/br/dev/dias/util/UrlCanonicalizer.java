@@ -0,0 +1,359 @@
+package br.dev.dias.util;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+import br.dev.dias.model.UrlNormalizationRule;
+
+/**
+ * Resolves links found on a page and rewrites them into a canonical form, so that spellings
+ * of the same address ("/a#x", "/a?c=2&b=1", "/x/../a") are crawled and reported once.
+ *
+ * The page URL is parsed once with {@link #parse(String)}, and each link on it is then resolved
+ * with {@link Base#resolve(String)} following RFC 3986, working on string indices instead of
+ * allocating {@code java.net.URL} or {@code java.net.URI} objects. Only http and https URLs are
+ * produced; other schemes (mailto, javascript, ftp...) resolve to null.
+ *
+ * The applied {@link UrlNormalizationRule}s are configurable. The scheme is always lower-cased.
+ */
+public class UrlCanonicalizer {
+
+    private final boolean dropFragment;
+    private final boolean sortQuery;
+    private final boolean dotSegments;
+    private final boolean lowercaseHost;
+    private final boolean defaultPort;
+    private final boolean trailingSlash;
+
+    /**
+     * Constructs a canonicalizer applying the default rules.
+     */
+    public UrlCanonicalizer() {
+        this(UrlNormalizationRule.defaults());
+    }
+
+    /**
+     * Constructs a canonicalizer applying the given rules.
+     *
+     * @param rules the normalization rules to apply
+     */
+    public UrlCanonicalizer(Set<UrlNormalizationRule> rules) {
+        Set<UrlNormalizationRule> enabled = rules == null || rules.isEmpty()
+                ? EnumSet.noneOf(UrlNormalizationRule.class) : EnumSet.copyOf(rules);
+        this.dropFragment = enabled.contains(UrlNormalizationRule.DROP_FRAGMENT);
+        this.sortQuery = enabled.contains(UrlNormalizationRule.SORT_QUERY);
+        this.dotSegments = enabled.contains(UrlNormalizationRule.DOT_SEGMENTS);
+        this.lowercaseHost = enabled.contains(UrlNormalizationRule.LOWERCASE_HOST);
+        this.defaultPort = enabled.contains(UrlNormalizationRule.DEFAULT_PORT);
+        this.trailingSlash = enabled.contains(UrlNormalizationRule.TRAILING_SLASH);
+    }
+
+    /**
+     * Parses an absolute URL so that links found on it can be resolved.
+     *
+     * @param url an absolute http or https URL
+     * @return the parsed, canonical URL, or null if the URL is not an absolute http or https URL
+     */
+    public Base parse(String url) {
+        return url == null ? null : resolve(null, url);
+    }
+
+    /**
+     * Rewrites an absolute URL into its canonical form.
+     *
+     * @param url an absolute http or https URL
+     * @return the canonical URL, or null if the URL is not an absolute http or https URL
+     */
+    public String canonicalize(String url) {
+        Base base = parse(url);
+        return base == null ? null : base.toString();
+    }
+
+    /**
+     * Extracts the authority of an absolute URL, i.e. its host and port, without parsing the rest of it.
+     *
+     * @param url an absolute URL
+     * @return the authority of the URL
+     */
+    public static String hostOf(String url) {
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return url.substring(start, end);
+    }
+
+    /**
+     * A parsed canonical URL, used as the base of the relative links of a page. Its path keeps its
+     * trailing slashes, which decide how relative links resolve; the trailing slash rule only
+     * applies to the canonical string.
+     */
+    public final class Base {
+        private final String scheme;
+        private final String authority;
+        private final String path;
+        private final String query;
+        private final String fragment;
+
+        private Base(String scheme, String authority, String path, String query, String fragment) {
+            this.scheme = scheme;
+            this.authority = authority;
+            this.path = path;
+            this.query = query;
+            this.fragment = fragment;
+        }
+
+        /**
+         * Resolves a link against this URL and canonicalizes the result.
+         *
+         * @param reference the link, relative or absolute
+         * @return the canonical absolute URL, or null if the link does not lead to an http or https URL
+         */
+        public String resolve(String reference) {
+            if (reference == null) {
+                return null;
+            }
+            Base resolved = UrlCanonicalizer.this.resolve(this, reference);
+            return resolved == null ? null : resolved.toString();
+        }
+
+        @Override
+        public String toString() {
+            int pathEnd = path.length();
+            if (trailingSlash) {
+                while (pathEnd > 0 && path.charAt(pathEnd - 1) == '/') {
+                    pathEnd--;
+                }
+            }
+            int length = scheme.length() + 3 + authority.length() + pathEnd
+                    + (query == null ? 0 : query.length() + 1) + (fragment == null ? 0 : fragment.length() + 1);
+            StringBuilder url = new StringBuilder(length).append(scheme).append("://").append(authority)
+                    .append(path, 0, pathEnd);
+            if (query != null) {
+                url.append('?').append(query);
+            }
+            if (fragment != null) {
+                url.append('#').append(fragment);
+            }
+            return url.toString();
+        }
+    }
+
+    /**
+     * Resolves a reference against a base URL following RFC 3986, section 5.2.
+     * A null base only accepts absolute references.
+     */
+    private Base resolve(Base base, String reference) {
+        String ref = reference.strip();
+        int length = ref.length();
+        int fragmentStart = ref.indexOf('#');
+        int end = fragmentStart < 0 ? length : fragmentStart;
+        int queryStart = ref.indexOf('?');
+        if (queryStart >= end) {
+            queryStart = -1;
+        }
+        int pathEnd = queryStart < 0 ? end : queryStart;
+        String fragment = dropFragment || fragmentStart < 0 ? null : ref.substring(fragmentStart + 1);
+        String query = queryStart < 0 ? null : normalizeQuery(ref.substring(queryStart + 1, end));
+
+        int schemeEnd = schemeEnd(ref, pathEnd);
+        int position = 0;
+        String scheme;
+        if (schemeEnd > 0) {
+            scheme = httpScheme(ref, schemeEnd);
+            if (scheme == null) {
+                return null;
+            }
+            position = schemeEnd + 1;
+        } else if (base != null) {
+            scheme = base.scheme;
+        } else {
+            return null;
+        }
+
+        if (ref.startsWith("//", position)) {
+            int authorityStart = position + 2;
+            int authorityEnd = ref.indexOf('/', authorityStart);
+            if (authorityEnd < 0 || authorityEnd > pathEnd) {
+                authorityEnd = pathEnd;
+            }
+            if (authorityEnd == authorityStart) {
+                return null;
+            }
+            String authority = normalizeAuthority(scheme, ref, authorityStart, authorityEnd);
+            return new Base(scheme, authority, normalizePath(ref.substring(authorityEnd, pathEnd)), query, fragment);
+        }
+        if (schemeEnd > 0 || base == null) {
+            // "http:path" has no authority to crawl
+            return null;
+        }
+
+        String path;
+        if (position == pathEnd) {
+            path = base.path;
+            if (queryStart < 0) {
+                query = base.query;
+            }
+        } else if (ref.charAt(position) == '/') {
+            path = normalizePath(ref.substring(position, pathEnd));
+        } else {
+            path = normalizePath(merge(base, ref, position, pathEnd));
+        }
+        return new Base(scheme, base.authority, path, query, fragment);
+    }
+
+    /**
+     * Returns the index of the colon ending the scheme of the reference, or -1 if it has none.
+     */
+    private static int schemeEnd(String ref, int limit) {
+        if (limit == 0 || !isAsciiLetter(ref.charAt(0))) {
+            return -1;
+        }
+        for (int i = 1; i < limit; i++) {
+            char c = ref.charAt(i);
+            if (c == ':') {
+                return i;
+            }
+            if (!isAsciiLetter(c) && !(c >= '0' && c <= '9') && c != '+' && c != '-' && c != '.') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static String httpScheme(String ref, int schemeEnd) {
+        if (schemeEnd == 4 && ref.regionMatches(true, 0, "http", 0, 4)) {
+            return "http";
+        }
+        if (schemeEnd == 5 && ref.regionMatches(true, 0, "https", 0, 5)) {
+            return "https";
+        }
+        return null;
+    }
+
+    private String normalizeAuthority(String scheme, String ref, int start, int end) {
+        int hostStart = ref.lastIndexOf('@', end - 1) + 1;
+        if (hostStart <= start) {
+            hostStart = start;
+        }
+        int hostEnd = end;
+        int closingBracket = hostStart < end && ref.charAt(hostStart) == '[' ? ref.indexOf(']', hostStart) : -1;
+        int portSeparator = ref.indexOf(':', closingBracket >= 0 ? closingBracket : hostStart);
+        if (portSeparator >= 0 && portSeparator < end) {
+            hostEnd = portSeparator;
+        }
+
+        String host = ref.substring(hostStart, hostEnd);
+        if (lowercaseHost) {
+            host = host.toLowerCase(Locale.ROOT);
+        }
+        String port = hostEnd < end ? ref.substring(hostEnd + 1, end) : null;
+        if (defaultPort && port != null && (port.isEmpty()
+                || ("http".equals(scheme) && "80".equals(port))
+                || ("https".equals(scheme) && "443".equals(port)))) {
+            port = null;
+        }
+
+        StringBuilder authority = new StringBuilder(end - start);
+        authority.append(ref, start, hostStart).append(host);
+        if (port != null) {
+            authority.append(':').append(port);
+        }
+        return authority.toString();
+    }
+
+    /**
+     * Merges a relative path with the path of the base URL, i.e. replaces the last segment of the base path.
+     */
+    private static String merge(Base base, String ref, int start, int end) {
+        if (base.path.isEmpty()) {
+            return "/" + ref.substring(start, end);
+        }
+        int directoryEnd = base.path.lastIndexOf('/') + 1;
+        return new StringBuilder(directoryEnd + end - start)
+                .append(base.path, 0, directoryEnd)
+                .append(ref, start, end)
+                .toString();
+    }
+
+    private String normalizePath(String path) {
+        return dotSegments ? removeDotSegments(path) : path;
+    }
+
+    /**
+     * Removes "." and ".." segments from a path, as described in RFC 3986, section 5.2.4.
+     */
+    static String removeDotSegments(String path) {
+        if (!path.startsWith(".") && !path.contains("/.")) {
+            return path;
+        }
+        StringBuilder output = new StringBuilder(path.length());
+        int length = path.length();
+        int i = 0;
+        while (i < length) {
+            if (path.startsWith("../", i)) {
+                i += 3;
+            } else if (path.startsWith("./", i)) {
+                i += 2;
+            } else if (path.startsWith("/./", i)) {
+                i += 2;
+            } else if (i + 2 == length && path.startsWith("/.", i)) {
+                output.append('/');
+                i = length;
+            } else if (path.startsWith("/../", i)) {
+                i += 3;
+                removeLastSegment(output);
+            } else if (i + 3 == length && path.startsWith("/..", i)) {
+                removeLastSegment(output);
+                output.append('/');
+                i = length;
+            } else if ((i + 1 == length && path.charAt(i) == '.') || (i + 2 == length && path.startsWith("..", i))) {
+                i = length;
+            } else {
+                int next = path.indexOf('/', i + 1);
+                if (next < 0) {
+                    next = length;
+                }
+                output.append(path, i, next);
+                i = next;
+            }
+        }
+        return output.toString();
+    }
+
+    private static void removeLastSegment(StringBuilder output) {
+        int lastSlash = output.lastIndexOf("/");
+        output.setLength(Math.max(lastSlash, 0));
+    }
+
+    /**
+     * Sorts the parameters of a query by name, keeping the order of repeated names, and drops empty ones.
+     */
+    private String normalizeQuery(String query) {
+        if (!sortQuery) {
+            return query;
+        }
+        if (query.isEmpty()) {
+            return null;
+        }
+        if (query.indexOf('&') < 0) {
+            return query;
+        }
+        String[] parameters = Arrays.stream(query.split("&")).filter(p -> !p.isEmpty()).toArray(String[]::new);
+        Arrays.sort(parameters, (a, b) -> parameterName(a).compareTo(parameterName(b)));
+        return parameters.length == 0 ? null : String.join("&", parameters);
+    }
+
+    private static String parameterName(String parameter) {
+        int separator = parameter.indexOf('=');
+        return separator < 0 ? parameter : parameter.substring(0, separator);
+    }
+}
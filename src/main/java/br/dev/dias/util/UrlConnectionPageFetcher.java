@@ -0,0 +1,109 @@
+package br.dev.dias.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+
+import br.dev.dias.exception.HttpRequestFailedException;
+import br.dev.dias.model.FetchResult;
+import br.dev.dias.model.PageValidators;
+
+/**
+ * Fetches each page over an {@link HttpURLConnection}. Once the page is read its body stream is
+ * closed rather than the connection disconnected, so the JDK keeps the HTTP/1.1 connection alive
+ * for the next request to the same host.
+ * Cached pages are revalidated with {@code If-None-Match} and {@code If-Modified-Since}, and
+ * pages are requested gzip or deflate compressed. Responses that are not HTML are rejected from
+ * their headers, before their body is read. Pages can be streamed to a {@link PageSink} as they are read.
+ */
+public class UrlConnectionPageFetcher implements PageFetcher {
+
+    private static final int TIMEOUT_MILLIS = 5000;
+
+    private final HttpClientHelper httpClientHelper;
+    private final HttpResponseReader httpResponseReader;
+
+    /**
+     * Constructs a fetcher using the given helper and reader.
+     *
+     * @param httpClientHelper the helper for creating and managing HTTP connections
+     * @param httpResponseReader the reader for processing HTTP responses
+     */
+    public UrlConnectionPageFetcher(HttpClientHelper httpClientHelper, HttpResponseReader httpResponseReader) {
+        this.httpClientHelper = httpClientHelper;
+        this.httpResponseReader = httpResponseReader;
+    }
+
+    @Override
+    public String fetch(String url) throws IOException, HttpRequestFailedException {
+        return fetch(url, null).getContent();
+    }
+
+    @Override
+    public FetchResult fetch(String url, PageValidators validators) throws IOException, HttpRequestFailedException {
+        return fetch(url, validators, null);
+    }
+
+    @Override
+    public FetchResult fetch(String url, PageValidators validators, PageSink sink)
+            throws IOException, HttpRequestFailedException {
+        HttpURLConnection httpConnection = null;
+        try {
+            httpConnection = httpClientHelper.createConnection(url, "GET", null, TIMEOUT_MILLIS, TIMEOUT_MILLIS);
+            httpConnection.setRequestProperty("Accept-Encoding", ContentDecoder.ACCEPT_ENCODING);
+            if (validators != null && validators.canRevalidate()) {
+                if (validators.getEtag() != null) {
+                    httpConnection.setRequestProperty("If-None-Match", validators.getEtag());
+                }
+                if (validators.getLastModified() != null) {
+                    httpConnection.setRequestProperty("If-Modified-Since", validators.getLastModified());
+                }
+                if (httpConnection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    return FetchResult.notModified(validatorsOf(httpConnection, validators.getContentLength()));
+                }
+            }
+            httpClientHelper.validateSucessResponse(httpConnection);
+            ContentGate.requireHtml(url, httpConnection.getContentType());
+            String content = null;
+            long length;
+            if (sink == null) {
+                content = httpResponseReader.readResponse(httpConnection);
+                length = content.length();
+            } else {
+                length = httpResponseReader.readResponse(httpConnection, sink);
+            }
+            long contentLength = httpConnection.getContentLengthLong();
+            return FetchResult.modified(content, validatorsOf(httpConnection, contentLength >= 0 ? contentLength : length));
+        } finally {
+            if (httpConnection != null) {
+                release(httpConnection);
+            }
+        }
+    }
+
+    @Override
+    public TransferMetrics getTransferMetrics() {
+        return httpResponseReader.getTransferMetrics();
+    }
+
+    /**
+     * Closes the response body, handing the connection back to the JDK's keep-alive cache, or
+     * disconnects it when no response was received.
+     */
+    private static void release(HttpURLConnection httpConnection) {
+        try {
+            InputStream body = httpConnection.getResponseCode() < HttpURLConnection.HTTP_BAD_REQUEST
+                    ? httpConnection.getInputStream() : httpConnection.getErrorStream();
+            if (body != null) {
+                body.close();
+            }
+        } catch (IOException e) {
+            httpConnection.disconnect();
+        }
+    }
+
+    private static PageValidators validatorsOf(HttpURLConnection httpConnection, long contentLength) {
+        return new PageValidators(httpConnection.getHeaderField("ETag"),
+                httpConnection.getHeaderField("Last-Modified"), contentLength);
+    }
+}
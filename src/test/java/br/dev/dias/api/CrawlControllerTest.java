@@ -8,7 +8,6 @@ import org.junit.jupiter.api.Test;
 import br.dev.dias.helper.JsonHelper;
 import br.dev.dias.service.CrawlerService;
 import br.dev.dias.service.HttpClientService;
-import br.dev.dias.service.KeywordSearchService;
 import br.dev.dias.service.LinkExtractorService;
 import br.dev.dias.service.SearchService;
 import br.dev.dias.service.ValidationService;
@@ -43,10 +42,9 @@ class CrawlControllerTest {
 
         SearchService searchService = new SearchService();
         ValidationService validationService = new ValidationService();
-        KeywordSearchService keywordSearchService = new KeywordSearchService();
         LinkExtractorService linkExtractorService = new LinkExtractorService();
         HttpClientService httpClientService = new HttpClientService();
-        CrawlerService crawlerService = new CrawlerService(searchService, keywordSearchService, linkExtractorService, httpClientService, appConfig);
+        CrawlerService crawlerService = new CrawlerService(searchService, linkExtractorService, httpClientService, appConfig);
         CrawlController crawlController = new CrawlController(searchService, crawlerService, validationService);
         crawlController.initializeRoutes();
         spark.Spark.awaitInitialization();
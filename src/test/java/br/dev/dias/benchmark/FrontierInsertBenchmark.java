@@ -0,0 +1,107 @@
+package br.dev.dias.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.dev.dias.crawler.CrawlJob;
+import br.dev.dias.model.Link;
+
+/**
+ * Measures how fast a page's links are admitted to a crawl job's frontier as the frontier grows.
+ * Compares the former linear {@code pendingUrls.contains} scan against
+ * {@link CrawlJob#addNewLinks(List, boolean)}, which admits links through the job's seen set.
+ *
+ * Run with: mvn -P benchmark test-compile exec:exec -Dbenchmark=FrontierInsertBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrontierInsertBenchmark {
+
+    private static final String BASE_URL = "http://example.com";
+    private static final int LINKS_PER_PAGE = 50;
+    private static final int NEW_LINKS_PER_PAGE = 10;
+
+    @Param({"1000", "10000", "50000"})
+    private int frontierSize;
+
+    private Queue<String> pendingUrls;
+    private Set<String> visitedUrls;
+    private CrawlJob job;
+    private int nextUrl;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        pendingUrls = new ConcurrentLinkedQueue<>();
+        visitedUrls = ConcurrentHashMap.newKeySet();
+        job = new CrawlJob("bench", "keyword", BASE_URL, null);
+        List<Link> initial = new ArrayList<>(frontierSize);
+        for (nextUrl = 0; nextUrl < frontierSize; nextUrl++) {
+            initial.add(link(nextUrl));
+            pendingUrls.add(url(nextUrl));
+        }
+        job.addNewLinks(initial, false);
+    }
+
+    @Benchmark
+    public int queueScan() {
+        int added = 0;
+        for (Link link : nextPage()) {
+            String url = link.getUrl();
+            if (!visitedUrls.contains(url) && !pendingUrls.contains(url)) {
+                pendingUrls.add(url);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    @Benchmark
+    public int seenSet() {
+        job.addNewLinks(nextPage(), false);
+        return job.getPendingUrlsCount();
+    }
+
+    /**
+     * Builds the links of a typical page: mostly URLs already in the frontier plus a few new ones.
+     */
+    private List<Link> nextPage() {
+        List<Link> links = new ArrayList<>(LINKS_PER_PAGE);
+        for (int i = 0; i < LINKS_PER_PAGE - NEW_LINKS_PER_PAGE; i++) {
+            links.add(link((nextUrl * 31 + i * 997) % frontierSize));
+        }
+        for (int i = 0; i < NEW_LINKS_PER_PAGE; i++) {
+            links.add(link(nextUrl++));
+        }
+        return links;
+    }
+
+    private static Link link(int index) {
+        return new Link(url(index), "Page " + index);
+    }
+
+    private static String url(int index) {
+        return BASE_URL + "/section-" + (index % 97) + "/page-" + index + ".html";
+    }
+}
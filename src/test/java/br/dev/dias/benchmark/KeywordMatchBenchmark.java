@@ -0,0 +1,62 @@
+package br.dev.dias.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.dev.dias.service.KeywordMatcher;
+
+/**
+ * Measures how fast a page is checked for a keyword it does not contain, which reads the whole
+ * page. Compares the former lower-casing of the page and the keyword against a {@link KeywordMatcher}
+ * compiled once per search.
+ *
+ * Run with: mvn -P benchmark test-compile exec:exec -Dbenchmark=KeywordMatchBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordMatchBenchmark {
+
+    private static final String KEYWORD = "Crawler Security";
+
+    @Param({"10", "100", "1000"})
+    private int pageKb;
+
+    private String page;
+    private KeywordMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        StringBuilder html = new StringBuilder(pageKb * 1024);
+        while (html.length() < pageKb * 1024) {
+            html.append("<p>Crawlers read the <a href=\"/docs/guide.html\">Guide</a> and check the text of ")
+                    .append("every page for the keyword of each search, in Any Case.</p>\n");
+        }
+        page = html.toString();
+        matcher = new KeywordMatcher(KEYWORD);
+    }
+
+    @Benchmark
+    public boolean lowerCaseContains() {
+        return page.toLowerCase().contains(KEYWORD.toLowerCase());
+    }
+
+    @Benchmark
+    public boolean compiledMatcher() {
+        return matcher.matches(page);
+    }
+}
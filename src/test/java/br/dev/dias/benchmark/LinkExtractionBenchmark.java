@@ -0,0 +1,147 @@
+package br.dev.dias.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.dev.dias.model.Link;
+import br.dev.dias.service.LinkExtractorService;
+import br.dev.dias.util.UrlCanonicalizer;
+
+/**
+ * Measures how fast the links of a page are extracted, from 10 KB to 5 MB pages shaped like real
+ * ones: a head with inline styles and scripts, navigation lists, and paragraphs of text with
+ * inline links and comments. Malformed pages also have paragraphs full of stray {@code <a}
+ * sequences that are never closed, as in "a <a b" comparisons or broken markup. Compares the
+ * former regex, compiled on every call, against the tokenizer used by {@link LinkExtractorService}.
+ * Both resolve and canonicalize the links the same way.
+ *
+ * Run with: mvn -P benchmark test-compile exec:exec -Dbenchmark=LinkExtractionBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkExtractionBenchmark {
+
+    private static final String BASE_URL = "http://example.com";
+    private static final String PAGE_URL = BASE_URL + "/docs/index.html";
+    private static final String ANCHOR_HREF_REGEX = "<a\\b[^>]*?\\s+href\\s*=\\s*[\"'](?!mailto:)([^\"'>]*)[\"'][^>]*>";
+    private static final int MAX_ANCHOR_TEXT_SCAN = 512;
+
+    @Param({"10", "100", "1000", "5000"})
+    private int pageKb;
+
+    @Param({"well-formed", "malformed"})
+    private String shape;
+
+    private String page;
+    private UrlCanonicalizer urlCanonicalizer;
+    private LinkExtractorService linkExtractorService;
+
+    @Setup
+    public void setUp() {
+        page = buildPage(pageKb * 1024, "malformed".equals(shape));
+        urlCanonicalizer = new UrlCanonicalizer();
+        linkExtractorService = new LinkExtractorService(urlCanonicalizer);
+    }
+
+    @Benchmark
+    public List<Link> regex() {
+        List<Link> links = new ArrayList<>();
+        Matcher matcher = Pattern.compile(ANCHOR_HREF_REGEX, Pattern.CASE_INSENSITIVE).matcher(page);
+        UrlCanonicalizer.Base base = urlCanonicalizer.parse(PAGE_URL);
+        while (matcher.find()) {
+            String link = base.resolve(matcher.group(1));
+            if (link != null && link.startsWith(BASE_URL)) {
+                links.add(new Link(link, anchorText(page, matcher.end())));
+            }
+        }
+        return links;
+    }
+
+    @Benchmark
+    public List<Link> tokenizer() {
+        return linkExtractorService.extractAnchors(page, PAGE_URL, BASE_URL);
+    }
+
+    private static String anchorText(String content, int start) {
+        int limit = Math.min(content.length(), start + MAX_ANCHOR_TEXT_SCAN);
+        StringBuilder text = new StringBuilder();
+        boolean inTag = false;
+        boolean pendingSpace = false;
+        for (int i = start; i < limit; i++) {
+            char c = content.charAt(i);
+            if (c == '<') {
+                if (content.regionMatches(true, i, "</a", 0, 3)) {
+                    break;
+                }
+                inTag = true;
+            } else if (c == '>' && inTag) {
+                inTag = false;
+            } else if (!inTag) {
+                if (Character.isWhitespace(c)) {
+                    pendingSpace = text.length() > 0;
+                } else {
+                    if (pendingSpace) {
+                        text.append(' ');
+                        pendingSpace = false;
+                    }
+                    text.append(c);
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private static String buildPage(int size, boolean malformed) {
+        StringBuilder html = new StringBuilder(size + 4096)
+                .append("<!DOCTYPE html><html lang=\"en\"><head><meta charset=\"utf-8\"><title>Docs</title>\n")
+                .append("<style>.nav a { color: #333; } .nav a:hover > span { text-decoration: underline; }</style>\n")
+                .append("<script>window.dataLayer = window.dataLayer || []; if (a < b && c > d) { track('view'); }</script>\n")
+                .append("</head><body>\n");
+        int section = 0;
+        while (html.length() < size) {
+            html.append("<nav class=\"nav\"><ul>\n");
+            for (int i = 0; i < 10; i++) {
+                html.append("<li><a class=\"nav-link\" data-id=\"").append(i).append("\" href=\"/docs/section-")
+                        .append(i).append(".html\"><span>Section ").append(i).append("</span></a></li>\n");
+            }
+            html.append("</ul></nav>\n<!-- section ").append(section).append(" -->\n<article><h2 id=\"s")
+                    .append(section).append("\">Chapter ").append(section).append("</h2>\n");
+            for (int i = 0; i < 5; i++) {
+                html.append("<p>Crawlers follow <a href=\"../guide/page-").append(section).append('-').append(i)
+                        .append(".html?ref=body&amp;v=2\" title=\"Guide\">the guide</a> and read the text of ")
+                        .append("every page they visit, looking for <em>keywords</em> in paragraphs like this ")
+                        .append("one, which go on for a while before the next <a href=\"https://other.com/x\">")
+                        .append("external link</a> or <a href=\"mailto:team@example.com\">mail</a>.</p>\n");
+            }
+            if (malformed) {
+                html.append("<p>");
+                for (int i = 0; i < 300; i++) {
+                    html.append(i).append(" <a ").append(i + 1).append(' ');
+                }
+                html.append("</p>\n");
+            }
+            html.append("</article>\n");
+            section++;
+        }
+        return html.append("</body></html>").toString();
+    }
+}
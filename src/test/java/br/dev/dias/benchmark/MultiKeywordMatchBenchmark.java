@@ -0,0 +1,78 @@
+package br.dev.dias.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.dev.dias.service.KeywordAutomaton;
+import br.dev.dias.service.KeywordMatcher;
+
+/**
+ * Measures how fast a 100 KB page is checked for the keywords of every active search, as the
+ * number of searches grows. Compares one {@link KeywordMatcher} per search, each reading the page,
+ * against a single pass of a {@link KeywordAutomaton} over all the keywords.
+ *
+ * Run with: mvn -P benchmark test-compile exec:exec -Dbenchmark=MultiKeywordMatchBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiKeywordMatchBenchmark {
+
+    private static final int PAGE_SIZE = 100 * 1024;
+
+    @Param({"1", "8", "64"})
+    private int searches;
+
+    private String page;
+    private List<KeywordMatcher> matchers;
+    private KeywordAutomaton automaton;
+
+    @Setup
+    public void setUp() {
+        StringBuilder html = new StringBuilder(PAGE_SIZE);
+        while (html.length() < PAGE_SIZE) {
+            html.append("<p>Crawlers read the <a href=\"/docs/guide.html\">Guide</a> and check the text of ")
+                    .append("every page for the keyword of each search, in Any Case.</p>\n");
+        }
+        page = html.toString();
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < searches; i++) {
+            keywords.add("search term " + i);
+        }
+        matchers = keywords.stream().map(KeywordMatcher::new).toList();
+        automaton = new KeywordAutomaton(keywords);
+    }
+
+    @Benchmark
+    public int matcherPerSearch() {
+        int found = 0;
+        for (KeywordMatcher matcher : matchers) {
+            if (matcher.matches(page)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public Map<String, Boolean> automaton() {
+        return automaton.match(page);
+    }
+}
@@ -0,0 +1,98 @@
+package br.dev.dias.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.net.httpserver.HttpServer;
+
+import br.dev.dias.util.HttpClientHelper;
+import br.dev.dias.util.HttpResponseReader;
+import br.dev.dias.util.PageFetcher;
+import br.dev.dias.util.PooledPageFetcher;
+import br.dev.dias.util.UrlConnectionPageFetcher;
+
+/**
+ * Measures the latency of downloading a page from a local server with {@link UrlConnectionPageFetcher}
+ * and with the shared {@link PooledPageFetcher}. Both end up on a single keep-alive connection: a
+ * fully read {@code HttpURLConnection} goes back to the JDK keep-alive cache before {@code disconnect()}.
+ *
+ * Run with: mvn -P benchmark test-compile exec:exec -Dbenchmark=PageFetchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageFetchBenchmark {
+
+    private static final int PAGE_SIZE = 16 * 1024;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String pageUrl;
+    private PageFetcher urlConnectionFetcher;
+    private PageFetcher pooledFetcher;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StringBuilder page = new StringBuilder("<html><body>");
+        while (page.length() < PAGE_SIZE) {
+            page.append("<p><a href=\"/docs/page.html\">Documentation</a> keyword text</p>\n");
+        }
+        byte[] body = page.append("</body></html>").toString().getBytes(StandardCharsets.UTF_8);
+
+        // Without TCP_NODELAY the server's separate header and body writes hit a 40ms delayed-ACK stall
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverExecutor);
+        server.start();
+        pageUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/index.html";
+
+        urlConnectionFetcher = new UrlConnectionPageFetcher(new HttpClientHelper(), new HttpResponseReader());
+        pooledFetcher = new PooledPageFetcher(8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pooledFetcher.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public String urlConnection() throws IOException {
+        return urlConnectionFetcher.fetch(pageUrl);
+    }
+
+    @Benchmark
+    public String pooled() throws IOException {
+        return pooledFetcher.fetch(pageUrl);
+    }
+}
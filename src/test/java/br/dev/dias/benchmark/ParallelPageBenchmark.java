@@ -0,0 +1,101 @@
+package br.dev.dias.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.dev.dias.model.Link;
+import br.dev.dias.service.KeywordAutomaton;
+import br.dev.dias.service.KeywordMatcher;
+import br.dev.dias.service.LinkExtractorService;
+import br.dev.dias.util.UrlCanonicalizer;
+
+/**
+ * Measures how long a single multi-megabyte generated listing takes to be matched for one keyword,
+ * for ten keywords at once, and to be link-extracted, read by one thread (threshold 0) or split
+ * into one chunk per core of the common fork-join pool. The keyword is absent, so the whole page
+ * is read. The speedup of the parallel runs is bounded by the number of cores of the machine.
+ *
+ * Run with: mvn -P benchmark test-compile exec:exec -Dbenchmark=ParallelPageBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelPageBenchmark {
+
+    private static final String BASE_URL = "http://example.com";
+    private static final String PAGE_URL = BASE_URL + "/listing/index.html";
+
+    @Param({"1000", "4000"})
+    private int pageKb;
+
+    @Param({"0", "524288"})
+    private int threshold;
+
+    private String page;
+    private KeywordMatcher keywordMatcher;
+    private KeywordAutomaton keywordAutomaton;
+    private LinkExtractorService linkExtractorService;
+
+    @Setup
+    public void setUp() {
+        page = buildListing(pageKb * 1024);
+        keywordMatcher = new KeywordMatcher("unlisted keyword");
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            keywords.add("unlisted keyword " + i);
+        }
+        keywordAutomaton = new KeywordAutomaton(keywords);
+        linkExtractorService = new LinkExtractorService(new UrlCanonicalizer(), true, threshold);
+    }
+
+    @Benchmark
+    public boolean keyword() {
+        return keywordMatcher.matches(page, threshold);
+    }
+
+    @Benchmark
+    public Map<String, Boolean> keywords() {
+        return keywordAutomaton.match(page, threshold);
+    }
+
+    @Benchmark
+    public List<Link> links() {
+        return linkExtractorService.extractAnchors(page, PAGE_URL, BASE_URL);
+    }
+
+    private static String buildListing(int size) {
+        StringBuilder html = new StringBuilder(size + 4096)
+                .append("<!DOCTYPE html><html><head><title>Listing</title>\n")
+                .append("<script>var rows = []; if (a < b) { rows.push('<tr>'); }</script>\n")
+                .append("</head><body><table>\n");
+        int row = 0;
+        while (html.length() < size) {
+            html.append("<tr class=\"row\"><td><a href=\"/listing/item-").append(row).append(".html\">Item ")
+                    .append(row).append("</a></td><td>Generated description of item ").append(row)
+                    .append(", with enough text to look like a real listing row</td><td><a href=\"/listing/page-")
+                    .append(row / 50).append(".html\">page ").append(row / 50).append("</a></td></tr>\n");
+            if (row % 100 == 0) {
+                html.append("<!-- batch ").append(row).append(" -->\n");
+            }
+            row++;
+        }
+        return html.append("</table></body></html>").toString();
+    }
+}
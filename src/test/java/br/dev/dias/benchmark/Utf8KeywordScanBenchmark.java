@@ -0,0 +1,87 @@
+package br.dev.dias.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.dev.dias.service.KeywordMatcher;
+import br.dev.dias.service.KeywordSearchService;
+import br.dev.dias.service.Utf8KeywordScanner;
+
+/**
+ * Measures how fast the UTF-8 bytes of a multi-megabyte page, mostly ASCII, are checked for a
+ * keyword they do not contain. Compares {@link KeywordSearchService#containsKeyword(String, String)}
+ * on the already decoded page, decoding the bytes and running a {@link KeywordMatcher}, and the
+ * {@link Utf8KeywordScanner} on the bytes, one at a time and with the Vector API.
+ *
+ * Run with: mvn -P benchmark,vector test-compile exec:exec -Dbenchmark=Utf8KeywordScanBenchmark
+ * (without the vector profile, both scanners scan a byte at a time)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Utf8KeywordScanBenchmark {
+
+    @Param({"1", "4"})
+    private int pageMb;
+
+    @Param({"scan", "crawler security"})
+    private String keyword;
+
+    private String page;
+    private byte[] bytes;
+    private KeywordSearchService keywordSearchService;
+    private KeywordMatcher matcher;
+    private Utf8KeywordScanner scalarScanner;
+    private Utf8KeywordScanner vectorScanner;
+
+    @Setup
+    public void setUp() {
+        int size = pageMb * 1024 * 1024;
+        StringBuilder html = new StringBuilder(size);
+        while (html.length() < size) {
+            html.append("<p>Crawlers read the <a href=\"/docs/guide.html\">Guide</a> and check the text of ")
+                    .append("every page for the keyword of each search, in Any Case. Ação rápida.</p>\n");
+        }
+        page = html.toString();
+        bytes = page.getBytes(StandardCharsets.UTF_8);
+        keywordSearchService = new KeywordSearchService();
+        matcher = new KeywordMatcher(keyword);
+        scalarScanner = new Utf8KeywordScanner(keyword, false);
+        vectorScanner = new Utf8KeywordScanner(keyword);
+    }
+
+    @Benchmark
+    public boolean containsKeyword() {
+        return keywordSearchService.containsKeyword(page, keyword);
+    }
+
+    @Benchmark
+    public boolean decodeAndMatch() {
+        return matcher.matches(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public boolean scalarBytes() {
+        return scalarScanner.matches(bytes);
+    }
+
+    @Benchmark
+    public boolean vectorBytes() {
+        return vectorScanner.matches(bytes);
+    }
+}
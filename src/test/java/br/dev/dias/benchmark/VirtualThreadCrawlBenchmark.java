@@ -0,0 +1,125 @@
+package br.dev.dias.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.net.httpserver.HttpServer;
+
+import br.dev.dias.util.PageFetcher;
+import br.dev.dias.util.PooledPageFetcher;
+
+/**
+ * Measures the pages per second of blocking fetches against a local server answering after a fixed
+ * latency, as the crawler's threads and virtual execution modes issue them: a fixed pool of platform
+ * threads sized like the default thread count, a pool of one platform thread per concurrent fetch,
+ * and one virtual thread per page bounded by a semaphore. Add {@code -prof gc} to compare allocations.
+ *
+ * Run with: mvn -P benchmark test-compile exec:exec -Dbenchmark=VirtualThreadCrawlBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class VirtualThreadCrawlBenchmark {
+
+    private static final int PAGES = 2000;
+    private static final int CONCURRENCY = 1000;
+    private static final long LATENCY_MILLIS = 20;
+
+    @Param({"pool", "platform", "virtual"})
+    public String mode;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private PageFetcher fetcher;
+    private ExecutorService executor;
+    private Semaphore permits;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] body = "<html><body><a href=\"/next.html\">keyword</a></body></html>".getBytes(StandardCharsets.UTF_8);
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(serverExecutor);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/page";
+
+        fetcher = new PooledPageFetcher(CONCURRENCY);
+        permits = new Semaphore(CONCURRENCY);
+        executor = switch (mode) {
+            case "pool" -> Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() + 1);
+            case "platform" -> Executors.newFixedThreadPool(CONCURRENCY);
+            default -> Executors.newVirtualThreadPerTaskExecutor();
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        fetcher.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGES)
+    public int crawl() throws InterruptedException, ExecutionException {
+        List<Future<Integer>> pages = new ArrayList<>(PAGES);
+        for (int i = 0; i < PAGES; i++) {
+            String url = baseUrl + i + ".html";
+            permits.acquire();
+            pages.add(executor.submit(() -> {
+                try {
+                    return fetcher.fetch(url).length();
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        int bytes = 0;
+        for (Future<Integer> page : pages) {
+            bytes += page.get();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,62 @@
+package br.dev.dias.crawler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class FingerprintUrlSeenSetTest {
+
+    private final FingerprintUrlSeenSet seenSet = new FingerprintUrlSeenSet();
+
+    @Test
+    void shouldAdmitUrlOnlyOnce() {
+        String url = "http://example.com/page.html";
+
+        assertThat("First admission should succeed", seenSet.add(url), is(true));
+        assertThat("Second admission should be rejected", seenSet.add(url), is(false));
+        assertThat("URL should be reported as seen", seenSet.contains(url), is(true));
+        assertThat("Set should contain a single URL", seenSet.size(), is(1));
+    }
+
+    @Test
+    void shouldAdmitEachUrlExactlyOnceUnderConcurrency() throws InterruptedException {
+        int threads = 8;
+        int urls = 5000;
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < urls; i++) {
+                    if (seenSet.add("http://example.com/" + i)) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        assertThat("Every URL should be admitted exactly once", admitted.get(), is(urls));
+        assertThat("Set size should match the distinct URLs", seenSet.size(), is(urls));
+    }
+
+    @Test
+    void shouldKeepUrlsAcrossResizes() {
+        int urls = 100_000;
+        for (int i = 0; i < urls; i++) {
+            seenSet.add("http://example.com/page-" + i + ".html");
+        }
+
+        for (int i = 0; i < urls; i++) {
+            assertThat("URL should survive resizing", seenSet.contains("http://example.com/page-" + i + ".html"), is(true));
+        }
+        assertThat("Unseen URL should not be reported", seenSet.contains("http://example.com/other.html"), is(false));
+        assertThat("Tables should use less than 16 bytes per URL", (double) seenSet.getTableBytes() / urls, is(lessThan(16.0)));
+    }
+}
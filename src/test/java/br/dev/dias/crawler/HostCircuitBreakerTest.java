@@ -0,0 +1,29 @@
+package br.dev.dias.crawler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class HostCircuitBreakerTest {
+
+    private static final String HOST = "example.com";
+
+    @Test
+    void shouldLetAnotherProbeThroughOnceTheFirstIsLost() throws InterruptedException {
+        HostCircuitBreaker breaker = new HostCircuitBreaker(1, 1, 50);
+        breaker.recordFailure(HOST);
+        Thread.sleep(5);
+
+        assertThat("The first request after the open duration should probe the host",
+            breaker.delayBeforeRequest(HOST), is(0L));
+        assertThat("Other requests should wait for the probe", breaker.delayBeforeRequest(HOST), greaterThan(0L));
+
+        Thread.sleep(100);
+
+        assertThat("A probe without an outcome should not hold the host back forever",
+            breaker.delayBeforeRequest(HOST), is(0L));
+        breaker.recordSuccess(HOST);
+        assertThat("A successful probe should close the circuit", breaker.isOpen(HOST), is(false));
+    }
+}
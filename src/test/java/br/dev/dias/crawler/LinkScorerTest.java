@@ -0,0 +1,25 @@
+package br.dev.dias.crawler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class LinkScorerTest {
+
+    @Test
+    void shouldScoreLinksByKeywordLikelihood() {
+        LinkScorer scorer = new LinkScorer("Java Streams");
+
+        double inUrl = scorer.score("http://example.com/java-streams.html", "", false);
+        double inAnchor = scorer.score("http://example.com/page.html", "All about Java streams", false);
+        double oneWord = scorer.score("http://example.com/java/intro.html", "", false);
+        double unrelated = scorer.score("http://example.com/about.html", "About us", false);
+        double unrelatedWithMatchedParent = scorer.score("http://example.com/about.html", "About us", true);
+
+        assertThat(inAnchor, is(greaterThan(oneWord)));
+        assertThat(oneWord, is(greaterThan(unrelated)));
+        assertThat(unrelatedWithMatchedParent, is(greaterThan(unrelated)));
+        assertThat(scorer.score("http://example.com/java-streams", "java streams", false), is(greaterThan(inUrl)));
+    }
+}
@@ -0,0 +1,84 @@
+package br.dev.dias.crawler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class PriorityUrlFrontierTest {
+
+    private static final String BASE_URL = "https://example.com";
+
+    private static String url(int i) {
+        return BASE_URL + "/page/" + i;
+    }
+
+    private static int page(String url) {
+        return Integer.parseInt(url.substring(url.lastIndexOf('/') + 1));
+    }
+
+    @Test
+    void shouldPollBestFirstAndFifoOnTies() {
+        PriorityUrlFrontier frontier = new PriorityUrlFrontier(1, new UrlTrie(BASE_URL));
+        frontier.offer(url(1), 0.5);
+        frontier.offer(url(2), 3.0);
+        frontier.offer(url(3), 0.5);
+        frontier.offer(url(4), -1.0);
+        frontier.offer(url(5), 3.0);
+
+        assertThat(frontier.poll(), is(url(2)));
+        assertThat(frontier.poll(), is(url(5)));
+        assertThat(frontier.poll(), is(url(1)));
+        assertThat(frontier.poll(), is(url(3)));
+        assertThat(frontier.poll(), is(url(4)));
+        assertThat("Frontier should be empty", frontier.poll(), is(nullValue()));
+    }
+
+    @Test
+    void shouldFavorHighPriorityUrlsAcrossStripes() {
+        PriorityUrlFrontier frontier = new PriorityUrlFrontier(8, new UrlTrie(BASE_URL));
+        for (int i = 0; i < 1000; i++) {
+            frontier.offer(url(i), i < 100 ? 10.0 : 0.0);
+        }
+
+        int highPriorityInFirstHundred = 0;
+        for (int i = 0; i < 100; i++) {
+            if (page(frontier.poll()) < 100) {
+                highPriorityInFirstHundred++;
+            }
+        }
+        assertThat("Most of the first polls should be high priority URLs", highPriorityInFirstHundred, is(greaterThan(80)));
+    }
+
+    @Test
+    void shouldNotLoseUrlsUnderConcurrency() throws InterruptedException {
+        PriorityUrlFrontier frontier = new PriorityUrlFrontier(8, new UrlRecordStore());
+        int threads = 8;
+        int perThread = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    frontier.offer(url(offset + i), i % 7);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        Set<String> polled = new HashSet<>();
+        String url;
+        while ((url = frontier.poll()) != null) {
+            polled.add(url);
+        }
+        assertThat("Every URL should be polled exactly once", polled.size(), is(threads * perThread));
+        assertThat("Frontier should be empty", frontier.size(), is(0));
+    }
+}
@@ -0,0 +1,49 @@
+package br.dev.dias.crawler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ScalableBloomUrlSeenSetTest {
+
+    @Test
+    void shouldNeverForgetAdmittedUrls() {
+        ScalableBloomUrlSeenSet seenSet = new ScalableBloomUrlSeenSet(0.01);
+        int urls = 200_000;
+        int admitted = 0;
+        for (int i = 0; i < urls; i++) {
+            if (seenSet.add("http://example.com/page-" + i + ".html")) {
+                admitted++;
+            }
+        }
+
+        for (int i = 0; i < urls; i++) {
+            assertThat("Admitted URL should be reported as seen", seenSet.contains("http://example.com/page-" + i + ".html"), is(true));
+        }
+        assertThat("Nearly every distinct URL should be admitted", admitted, is(greaterThan((int) (urls * 0.98))));
+        assertThat("Size should count admissions", seenSet.size(), is(admitted));
+    }
+
+    @Test
+    void shouldStayCloseToConfiguredFalsePositiveRate() {
+        ScalableBloomUrlSeenSet seenSet = new ScalableBloomUrlSeenSet(0.01);
+        int urls = 200_000;
+        for (int i = 0; i < urls; i++) {
+            seenSet.add("http://example.com/page-" + i + ".html");
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (seenSet.contains("http://example.com/other-" + i + ".html")) {
+                falsePositives++;
+            }
+        }
+
+        assertThat("Observed false-positive rate should respect the configured rate",
+            (double) falsePositives / probes, is(lessThan(0.01)));
+        assertThat("Expected skipped pages should be estimated", seenSet.getExpectedFalsePositives(), is(greaterThan(0.0)));
+        assertThat("Filters should use less than a fingerprint per URL", (double) seenSet.getFilterBytes() / urls, is(lessThan(8.0)));
+    }
+}
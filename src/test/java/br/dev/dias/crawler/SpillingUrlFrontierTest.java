@@ -0,0 +1,114 @@
+package br.dev.dias.crawler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class SpillingUrlFrontierTest {
+
+    private static final String BASE_URL = "https://example.com";
+
+    @TempDir
+    Path directory;
+
+    private static String url(int i) {
+        return BASE_URL + "/section/" + (i % 97) + "/page-" + i + ".html";
+    }
+
+    @Test
+    void shouldKeepFifoOrderAcrossSpilledSegments() {
+        SpillingUrlFrontier frontier = new SpillingUrlFrontier(directory, 100, 512);
+        int urls = 1000;
+        for (int i = 0; i < urls; i++) {
+            frontier.offer(url(i));
+        }
+
+        assertThat("Overflow should be spilled to disk", frontier.getSpilledCount(), is(urls - 100));
+        assertThat("Size should count memory and disk", frontier.size(), is(urls));
+        for (int i = 0; i < urls; i++) {
+            assertThat("URLs should come back in insertion order", frontier.poll(), is(url(i)));
+        }
+        assertThat("Frontier should be empty", frontier.poll(), is(nullValue()));
+        frontier.close();
+    }
+
+    @Test
+    void shouldRecycleExhaustedSegments() throws IOException {
+        SpillingUrlFrontier frontier = new SpillingUrlFrontier(directory, 10, 512);
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 40; i++) {
+                frontier.offer(url(next++));
+            }
+            for (int i = 0; i < 40; i++) {
+                assertThat("URLs should come back in insertion order", frontier.poll(), is(url(expected++)));
+            }
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat("Exhausted segments should be reused", files.count(), is(lessThanOrEqualTo(4L)));
+        }
+        frontier.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat("Closing should delete every segment", files.count(), is(0L));
+        }
+    }
+
+    @Test
+    void shouldKeepFifoOrderAndRetryWhenSegmentsCannotBeCreated() throws Exception {
+        Path blocked = directory.resolve("blocked");
+        Files.createFile(blocked);
+        SpillingUrlFrontier frontier = new SpillingUrlFrontier(blocked, 10, 512, 20);
+        for (int i = 0; i < 100; i++) {
+            frontier.offer(url(i));
+        }
+        assertThat("Nothing can be spilled while the directory is blocked", frontier.getSpilledCount(), is(0));
+
+        Files.delete(blocked);
+        Thread.sleep(50);
+        frontier.offer(url(100));
+        assertThat("The overflow should be spilled once segments can be created again",
+            frontier.getSpilledCount(), is(91));
+
+        for (int i = 0; i <= 100; i++) {
+            assertThat("URLs should come back in insertion order", frontier.poll(), is(url(i)));
+        }
+        assertThat("Frontier should be empty", frontier.poll(), is(nullValue()));
+        frontier.close();
+    }
+
+    @Test
+    void shouldKeepHeapFlatWhileSpilling() {
+        SpillingUrlFrontier frontier = new SpillingUrlFrontier(directory, 1000);
+        int urls = 500_000;
+        long urlBytes = 0;
+        long heapBefore = usedHeap();
+        for (int i = 0; i < urls; i++) {
+            String url = url(i);
+            urlBytes += url.length();
+            frontier.offer(url);
+        }
+        long heapGrowth = usedHeap() - heapBefore;
+
+        assertThat("Overflow should be spilled to disk", frontier.getSpilledCount(), is(urls - 1000));
+        assertThat("Spilled URLs should not be kept on the heap", heapGrowth, is(lessThan(urlBytes / 4)));
+        assertThat("The first URL should still come out first", frontier.poll(), is(url(0)));
+        frontier.close();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,114 @@
+package br.dev.dias.crawler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Predicate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TrigramIndexTest {
+
+    private static final String BASE_URL = "http://example.com";
+
+    private final TrigramIndex index = new TrigramIndex(1000);
+
+    private static Predicate<String> verifier(String keyword) {
+        return content -> content.toLowerCase().contains(keyword.toLowerCase());
+    }
+
+    @Test
+    void shouldFindPagesContainingKeyword() {
+        index.index(BASE_URL + "/a.html", "<p>Security Guide for Linux</p>");
+        index.index(BASE_URL + "/b.html", "<p>Kernel internals</p>");
+        index.index(BASE_URL + "/c.html", "<p>LINUX kernel tuning</p>");
+
+        assertThat("Matching should ignore case",
+            index.search("linux", verifier("linux")),
+            containsInAnyOrder(BASE_URL + "/a.html", BASE_URL + "/c.html"));
+        assertThat("Keywords spanning words should match",
+            index.search("linux kernel", verifier("linux kernel")), contains(BASE_URL + "/c.html"));
+        assertThat("Missing trigrams should yield no candidates",
+            index.search("windows", verifier("windows")), is(empty()));
+    }
+
+    @Test
+    void shouldVerifyCandidatesAgainstStoredText() {
+        // All trigrams of "abcd" appear, but never "abcd" itself
+        index.index(BASE_URL + "/a.html", "abc bcd");
+
+        assertThat("Candidates sharing the trigrams only should be rejected",
+            index.search("abcd", verifier("abcd")), is(empty()));
+    }
+
+    @Test
+    void shouldVerifyShortKeywordsAgainstEveryPage() {
+        index.index(BASE_URL + "/a.html", "go home");
+        index.index(BASE_URL + "/b.html", "stay");
+
+        assertThat("Keywords without trigrams should still be answered",
+            index.search("go", verifier("go")), contains(BASE_URL + "/a.html"));
+    }
+
+    @Test
+    void shouldReplacePreviousContentOfPage() {
+        index.index(BASE_URL + "/a.html", "old keyword");
+        index.index(BASE_URL + "/a.html", "new content");
+
+        assertThat("Superseded content should not match", index.search("keyword", verifier("keyword")), is(empty()));
+        assertThat("Current content should match", index.search("content", verifier("content")), contains(BASE_URL + "/a.html"));
+        assertThat("The page should be indexed once", index.size(), is(1));
+    }
+
+    @Test
+    void shouldKeepIndexSmallerThanCorpus() {
+        StringBuilder page = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            page.append("<li><a href=\"/docs/page").append(i).append(".html\">Documentation page ").append(i).append("</a></li>\n");
+        }
+        long corpusBytes = 0;
+        for (int i = 0; i < 100; i++) {
+            String content = page + "<p>unique token " + i + "</p>";
+            corpusBytes += content.length();
+            index.index(BASE_URL + "/section" + i + "/index.html", content);
+        }
+
+        assertThat("Every page should be found", index.search("documentation", verifier("documentation")), hasSize(100));
+        assertThat("One page should be found", index.search("unique token 42<", verifier("unique token 42<")),
+            contains(BASE_URL + "/section42/index.html"));
+        assertThat("The compressed index should be smaller than the raw corpus",
+            index.getMemoryBytes(), lessThan(corpusBytes));
+    }
+
+    @Test
+    void shouldEvictOldestPagesPastTheLimit() {
+        TrigramIndex small = new TrigramIndex(2);
+        small.index(BASE_URL + "/a.html", "keyword one");
+        small.index(BASE_URL + "/b.html", "keyword two");
+        small.index(BASE_URL + "/c.html", "keyword three");
+
+        assertThat("Only the limit of pages should be kept", small.size(), is(2));
+        assertThat("The oldest page should be evicted", small.search("keyword", verifier("keyword")),
+            containsInAnyOrder(BASE_URL + "/b.html", BASE_URL + "/c.html"));
+    }
+
+    @Test
+    void shouldNotGrowWhenPagesAreReindexed() {
+        for (int i = 0; i < 50; i++) {
+            index.index(BASE_URL + "/page" + i + ".html", "<p>stable content " + i + "</p>");
+        }
+        long initial = index.getMemoryBytes();
+        for (int round = 0; round < 40; round++) {
+            for (int i = 0; i < 50; i++) {
+                index.index(BASE_URL + "/page" + i + ".html", "<p>stable content " + i + "</p>");
+            }
+        }
+
+        assertThat("Re-indexed pages should be counted once", index.size(), is(50));
+        assertThat("Superseded postings should be compacted", index.getMemoryBytes(), lessThan(2 * initial));
+        assertThat("Every page should still be found", index.search("stable content", verifier("stable content")),
+            hasSize(50));
+        assertThat("One page should be found", index.search("content 7<", verifier("content 7<")),
+            contains(BASE_URL + "/page7.html"));
+    }
+}
@@ -0,0 +1,38 @@
+package br.dev.dias.crawler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UrlRecordStoreTest {
+
+    private final UrlRecordStore store = new UrlRecordStore();
+
+    @Test
+    void shouldReturnEachUrlOnceAndReleaseIt() {
+        int id = store.add("https://example.com/docs/página?q=1");
+
+        assertThat(store.take(id), is("https://example.com/docs/página?q=1"));
+        assertThat("Taken URLs should be released", store.size(), is(0));
+        assertThrows(IllegalArgumentException.class, () -> store.take(id));
+    }
+
+    @Test
+    void shouldReuseSlotsSoMemoryFollowsPendingUrls() {
+        int next = 0;
+        for (int round = 0; round < 1000; round++) {
+            int[] ids = new int[10];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = store.add("https://example.com/page/" + next++);
+            }
+            for (int i = 0; i < ids.length; i++) {
+                assertThat(store.take(ids[i]), is("https://example.com/page/" + (next - ids.length + i)));
+            }
+        }
+
+        assertThat("Slots should be bounded by the URLs pending at once", store.getSlotCount(), is(10));
+        assertThat("Every URL should have been taken", store.size(), is(0));
+    }
+}
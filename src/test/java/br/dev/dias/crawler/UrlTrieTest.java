@@ -0,0 +1,110 @@
+package br.dev.dias.crawler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UrlTrieTest {
+
+    private static final String BASE_URL = "http://example.com";
+
+    private final UrlTrie trie = new UrlTrie(BASE_URL);
+
+    @Test
+    void shouldResolveInternedUrls() {
+        String[] urls = {
+            BASE_URL,
+            BASE_URL + "/",
+            BASE_URL + "/docs/index.html",
+            BASE_URL + "/docs/guide/page.html?lang=en&v=2",
+            BASE_URL + "/café/menú.html"
+        };
+
+        for (String url : urls) {
+            int id = trie.intern(url);
+            assertThat("URL should be rebuilt from its id", trie.resolve(id), is(url));
+            assertThat("Interning again should return the same id", trie.intern(url), is(id));
+            assertThat("Lookup should find the URL", trie.find(url), is(id));
+        }
+        assertThat("Base URL should be the root", trie.intern(BASE_URL), is(UrlTrie.ROOT));
+    }
+
+    @Test
+    void shouldShareCommonSegments() {
+        trie.intern(BASE_URL + "/docs/guide/a.html");
+        int sizeBefore = trie.size();
+        trie.intern(BASE_URL + "/docs/guide/b.html");
+
+        assertThat("Only the last segment should be added", trie.size(), is(sizeBefore + 1));
+        assertThat("Unknown URL should not be found", trie.find(BASE_URL + "/docs/guide/c.html"), is(UrlTrie.NO_NODE));
+    }
+
+    @Test
+    void shouldHoldOneChildSlotPerNodeAfterGrowth() {
+        for (int i = 0; i < 5_000; i++) {
+            trie.intern(url(i));
+        }
+
+        assertThat("The children table should have grown", trie.size(), greaterThan(1024));
+        assertThat("Every node but the root should take exactly one slot", trie.childSlots(), is(trie.size() - 1));
+    }
+
+    @Test
+    void shouldRejectUrlsOutsideBaseUrl() {
+        assertThrows(IllegalArgumentException.class, () -> trie.intern("http://other.com/page.html"));
+        assertThat("Lookup outside the base URL should miss", trie.find("http://other.com/page.html"), is(UrlTrie.NO_NODE));
+    }
+
+    @Test
+    void shouldInternConcurrently() throws Exception {
+        int threads = 8;
+        int urls = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<int[]>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                int[] ids = new int[urls];
+                for (int i = 0; i < urls; i++) {
+                    ids[i] = trie.intern(url(i));
+                }
+                return ids;
+            }));
+        }
+        int[] expected = results.get(0).get();
+        for (Future<int[]> result : results) {
+            assertThat("Every thread should get the same ids", result.get(), is(expected));
+        }
+        executor.shutdown();
+
+        for (int i = 0; i < urls; i++) {
+            assertThat("Concurrently interned URL should resolve", trie.resolve(expected[i]), is(url(i)));
+        }
+    }
+
+    @Test
+    void shouldUseLessMemoryThanFullStrings() {
+        int urls = 50_000;
+        long stringBytes = 0;
+        for (int i = 0; i < urls; i++) {
+            String url = url(i);
+            trie.intern(url);
+            // String header, byte[] header and Latin-1 content.
+            stringBytes += 24 + 16 + url.length();
+        }
+
+        assertThat("Trie should take less than half the memory of the strings",
+            (double) stringBytes / trie.getMemoryBytes(), is(greaterThan(2.0)));
+    }
+
+    private static String url(int index) {
+        return BASE_URL + "/catalog/category-" + (index % 50) + "/products/item-" + index + ".html";
+    }
+}
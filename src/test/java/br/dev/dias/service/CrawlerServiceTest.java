@@ -0,0 +1,239 @@
+package br.dev.dias.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import br.dev.dias.exception.SearchNotFoundException;
+import br.dev.dias.model.ExecutionMode;
+import br.dev.dias.model.PageProcessingMode;
+import br.dev.dias.model.Search;
+import br.dev.dias.model.Status;
+import br.dev.dias.util.ApplicationConfiguration;
+import br.dev.dias.util.PooledPageFetcher;
+
+class CrawlerServiceTest {
+
+    private static final int PAGE_COUNT = 60;
+    private static final long PAGE_DELAY_MILLIS = 100;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Map<String, AtomicInteger> requestsPerPath = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> visitsPerPath = new ConcurrentHashMap<>();
+    private final AtomicInteger droppedRequests = new AtomicInteger();
+    private volatile int droppedRequestsPerMatchingPage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(PAGE_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            visitsPerPath.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            if (path.endsWith("7.html") && requestsPerPath.computeIfAbsent(path, p -> new AtomicInteger())
+                    .incrementAndGet() <= droppedRequestsPerMatchingPage) {
+                droppedRequests.incrementAndGet();
+                // Closes the connection without a response
+                throw new IOException("Dropped request");
+            }
+            StringBuilder page = new StringBuilder("<html><body>");
+            if (exchange.getRequestURI().getPath().equals("/")) {
+                for (int i = 0; i < PAGE_COUNT; i++) {
+                    page.append("<a href=\"/page").append(i).append(".html\">Page ").append(i).append("</a>");
+                }
+            } else if (exchange.getRequestURI().getPath().endsWith("7.html")) {
+                page.append("<p>keyword</p>");
+            }
+            byte[] body = page.append("</body></html>").toString().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(64);
+        server.setExecutor(serverExecutor);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should keep many requests in flight with a couple of threads in async mode")
+    void shouldCrawlAsynchronouslyWithFewThreads() throws Exception {
+        // Given
+        HttpClientService httpClientService = new HttpClientService(new PooledPageFetcher(32));
+
+        // When
+        Search search = crawl(ExecutionMode.ASYNC, httpClientService);
+
+        // Then
+        assertCrawled(search);
+        assertThat("Far more requests than threads should be in flight", maxInFlight.get(), greaterThan(8));
+    }
+
+    @Test
+    @DisplayName("Should fetch every page on its own virtual thread in virtual mode")
+    void shouldCrawlOnVirtualThreads() throws Exception {
+        // Given
+        HttpClientService httpClientService = new HttpClientService();
+
+        // When
+        Search search = crawl(ExecutionMode.VIRTUAL, httpClientService);
+
+        // Then
+        assertCrawled(search);
+        assertThat("Far more requests than platform threads should be in flight", maxInFlight.get(), greaterThan(8));
+    }
+
+    @Test
+    @DisplayName("Should retry dropped connections without blocking the workers")
+    void shouldRetryDroppedConnectionsWithBackoff() throws Exception {
+        // Given
+        droppedRequestsPerMatchingPage = 2;
+        HttpClientService httpClientService = new HttpClientService();
+
+        // When
+        long start = System.nanoTime();
+        Search search = crawl(ExecutionMode.THREADS, httpClientService);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertCrawled(search);
+        assertThat("Requests to the matching pages should have been dropped", droppedRequests.get(), greaterThanOrEqualTo(6));
+        assertThat("Retries should not wait for fixed 30 second intervals", elapsedMillis, lessThan(15_000L));
+    }
+
+    @Test
+    @DisplayName("Should stream pages through the keyword and link scanners")
+    void shouldCrawlStreamedPages() throws Exception {
+        // Given
+        HttpClientService httpClientService = new HttpClientService(new PooledPageFetcher(32));
+
+        // When
+        Search search = crawl(ExecutionMode.ASYNC, PageProcessingMode.STREAMING, httpClientService);
+
+        // Then
+        assertCrawled(search);
+    }
+
+    @Test
+    @DisplayName("Should stream pages read on virtual threads")
+    void shouldCrawlStreamedPagesOnVirtualThreads() throws Exception {
+        // Given
+        HttpClientService httpClientService = new HttpClientService();
+
+        // When
+        Search search = crawl(ExecutionMode.VIRTUAL, PageProcessingMode.STREAMING, httpClientService);
+
+        // Then
+        assertCrawled(search);
+    }
+
+    @Test
+    @DisplayName("Should visit every page once and finish once with several workers on one job")
+    void shouldShareOneJobBetweenSeveralWorkers() throws Exception {
+        // Given
+        HttpClientService httpClientService = new HttpClientService();
+        AtomicInteger finishes = new AtomicInteger();
+        SearchService searchService = new SearchService() {
+            @Override
+            public Search updateSearchStatus(String id) throws SearchNotFoundException {
+                finishes.incrementAndGet();
+                return super.updateSearchStatus(id);
+            }
+        };
+        ApplicationConfiguration appConfig = config(ExecutionMode.THREADS, PageProcessingMode.BUFFERED);
+        when(appConfig.getMinThreads()).thenReturn(4);
+        when(appConfig.getMaxThreads()).thenReturn(4);
+        when(appConfig.getJobParallelism()).thenReturn(4);
+
+        // When
+        Search search = crawl(searchService, appConfig, httpClientService);
+
+        // Then
+        assertCrawled(search);
+        assertThat("Every page should be visited", visitsPerPath.keySet(), hasSize(PAGE_COUNT + 1));
+        assertThat("No page should be visited twice", visitsPerPath.values().stream().mapToInt(AtomicInteger::get).max()
+            .orElse(0), is(1));
+        assertThat("Pages should be fetched by several workers at once", maxInFlight.get(), greaterThan(1));
+        assertThat("The job should finish once", finishes.get(), is(1));
+    }
+
+    private Search crawl(ExecutionMode mode, HttpClientService httpClientService) throws Exception {
+        return crawl(mode, PageProcessingMode.BUFFERED, httpClientService);
+    }
+
+    private Search crawl(ExecutionMode mode, PageProcessingMode processing, HttpClientService httpClientService)
+            throws Exception {
+        return crawl(new SearchService(), config(mode, processing), httpClientService);
+    }
+
+    private ApplicationConfiguration config(ExecutionMode mode, PageProcessingMode processing) {
+        ApplicationConfiguration appConfig = mock(ApplicationConfiguration.class);
+        when(appConfig.getBaseUrl()).thenReturn(baseUrl);
+        when(appConfig.getMinThreads()).thenReturn(2);
+        when(appConfig.getMaxThreads()).thenReturn(2);
+        when(appConfig.getExecutionMode()).thenReturn(mode);
+        when(appConfig.getPageProcessingMode()).thenReturn(processing);
+        when(appConfig.getMaxInFlight()).thenReturn(32);
+        when(appConfig.getMaxInFlightPerJob()).thenReturn(32);
+        return appConfig;
+    }
+
+    private Search crawl(SearchService searchService, ApplicationConfiguration appConfig,
+            HttpClientService httpClientService) throws Exception {
+        CrawlerService crawlerService = new CrawlerService(searchService, new LinkExtractorService(),
+            httpClientService, appConfig);
+        String id = searchService.createSearch("keyword");
+
+        long start = System.nanoTime();
+        crawlerService.startCrawl(id);
+        Search search = searchService.findSearchById(id);
+        while (search.getStatus() == Status.ACTIVE && System.nanoTime() - start < 20_000_000_000L) {
+            Thread.sleep(20);
+        }
+        crawlerService.shutdown();
+        httpClientService.shutdown();
+        return search;
+    }
+
+    private void assertCrawled(Search search) {
+        assertThat("The crawl should finish", search.getStatus(), is(Status.DONE));
+        assertThat("The matching pages should be found", search.getUrls(),
+            containsInAnyOrder(baseUrl + "page7.html", baseUrl + "page17.html", baseUrl + "page27.html",
+                baseUrl + "page37.html", baseUrl + "page47.html", baseUrl + "page57.html"));
+    }
+}
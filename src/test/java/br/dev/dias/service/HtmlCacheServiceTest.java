@@ -1,9 +1,13 @@
 package br.dev.dias.service;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import br.dev.dias.model.CrawledPage;
+import br.dev.dias.model.PageValidators;
 import br.dev.dias.service.HtmlCacheService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -34,6 +38,41 @@ class HtmlCacheServiceTest {
         assertThat("Content should be retrieved from cache", cachedContent, is(content));
     }
 
+    @Test
+    void shouldRevalidatePagesCachedWithoutValidators() {
+        String url = "http://example.com";
+        PageValidators response = new PageValidators("\"v1\"", null, 20);
+
+        cacheService.put(url, "<html>Example</html>");
+        CrawledPage page = cacheService.revalidate(url, response);
+
+        assertThat("The cached page should be returned", page.getContent(), is("<html>Example</html>"));
+        assertThat("The response validators should be kept", cacheService.getValidators(url), is(response));
+    }
+
+    @Test
+    void shouldEvictExpiredPagesButKeepRecentlyUsedOnesWhenFull() throws InterruptedException {
+        HtmlCacheService smallCache = new HtmlCacheService(3, Duration.ofMillis(200));
+        try {
+            smallCache.put("http://example.com/a", "a");
+            smallCache.put("http://example.com/b", "b");
+            smallCache.put("http://example.com/c", "c");
+            Thread.sleep(150);
+            smallCache.get("http://example.com/a");
+            Thread.sleep(100);
+
+            smallCache.put("http://example.com/d", "d");
+
+            assertThat("A page used recently should be kept", smallCache.get("http://example.com/a"), is("a"));
+            assertThat("The new page should make room for itself", smallCache.get("http://example.com/d"), is("d"));
+            smallCache.put("http://example.com/e", "e");
+            assertThat("The next expired page should make room for another new page",
+                smallCache.get("http://example.com/e"), is("e"));
+        } finally {
+            smallCache.shutdown();
+        }
+    }
+
     @Test
     void shouldReturnNullForExpiredContent() throws InterruptedException {
         String url = "http://example.com";
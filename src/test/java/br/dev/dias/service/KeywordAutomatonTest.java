@@ -0,0 +1,77 @@
+package br.dev.dias.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import br.dev.dias.model.CrawledPage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class KeywordAutomatonTest {
+
+    @Test
+    void shouldFindEveryKeywordInOnePass() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of("he", "She", "his", "hers", "missing"));
+
+        Map<String, Boolean> matches = automaton.match("USHERS");
+
+        assertThat("Keywords ending inside other keywords should be found", matches,
+            is(Map.of("he", true, "she", true, "his", false, "hers", true, "missing", false)));
+    }
+
+    @Test
+    void shouldKeyResultsIndependentlyOfTheDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            KeywordAutomaton automaton = new KeywordAutomaton(List.of("INFO"));
+            CrawledPage page = new CrawledPage("http://example.com", List.of(), automaton.match("More info here"));
+
+            assertThat("The result should be keyed by the keyword lower-cased in the root locale",
+                automaton.match("More info here"), is(Map.of("info", true)));
+            assertThat("The automaton should recognize its keyword", automaton.contains("INFO"), is(true));
+            assertThat("The page should answer for the keyword", page.containsKeyword("INFO"), is(true));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void shouldCarryPartialMatchesAcrossChunks() {
+        KeywordAutomaton.Scanner scanner = new KeywordAutomaton(Set.of("ação rápida", "crawler")).newScanner();
+        for (char c : "Uma AÇÃO RÁ".toCharArray()) {
+            scanner.accept(c);
+        }
+        for (char c : "PIDA do web crawl".toCharArray()) {
+            scanner.accept(c);
+        }
+
+        assertThat("Accented keywords should match across chunks", scanner.results().get("ação rápida"), is(true));
+        assertThat("An unfinished keyword should not match", scanner.results().get("crawler"), is(false));
+    }
+
+    @Test
+    void shouldMatchAcrossParallelChunks() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of("he", "She", "his", "hers", "missing"));
+        String text = "USHERS and hi s";
+
+        for (int chunks = 2; chunks <= text.length(); chunks++) {
+            assertThat("Chunks overlapping by the longest keyword should find what one pass finds",
+                automaton.matchInChunks(text, chunks), is(automaton.match(text)));
+        }
+    }
+
+    @Test
+    void shouldExtendOnlyWithNewKeywords() {
+        KeywordAutomaton automaton = new KeywordAutomaton(Set.of("crawler"));
+
+        assertThat("A known keyword should reuse the automaton", automaton.with("CRAWLER"), is(sameInstance(automaton)));
+        assertThat("A new keyword should be added", automaton.with("index").contains("Index"), is(true));
+        assertThat("The empty automaton should match nothing", KeywordAutomaton.EMPTY.match("text"), is(Map.of()));
+    }
+}
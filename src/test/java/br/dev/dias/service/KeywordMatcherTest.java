@@ -0,0 +1,39 @@
+package br.dev.dias.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class KeywordMatcherTest {
+
+    @Test
+    void shouldMatchIgnoringCase() {
+        KeywordMatcher matcher = new KeywordMatcher("Security");
+
+        assertThat("Keyword should match in any case", matcher.matches("<p>SECURITY notes</p>"), is(true));
+        assertThat("Keyword should match at the end", matcher.matches("web security"), is(true));
+        assertThat("A partial keyword should not match", matcher.matches("secure"), is(false));
+        assertThat("Null content should not match", matcher.matches(null), is(false));
+    }
+
+    @Test
+    void shouldMatchRepeatedAndAccentedChars() {
+        assertThat("Shifts should not skip overlapping candidates", new KeywordMatcher("abaab").matches("aabaabaab"), is(true));
+        assertThat("Partial overlaps should not match", new KeywordMatcher("aaab").matches("aabaab aab"), is(false));
+        assertThat("Accented chars should ignore case", new KeywordMatcher("AÇÃO").matches("Ação rápida"), is(true));
+        assertThat("Chars sharing a table slot should not match", new KeywordMatcher("ação").matches("aǧǣo"), is(false));
+    }
+
+    @Test
+    void shouldMatchAcrossParallelChunks() {
+        KeywordMatcher matcher = new KeywordMatcher("crawler");
+        String content = "a web CRAWLER reads pages";
+
+        for (int chunks = 2; chunks <= content.length(); chunks++) {
+            assertThat("Overlapping chunks should find a keyword split by a boundary", matcher.matchesInChunks(content, chunks), is(true));
+            assertThat("Chunks should not join separate words", matcher.matchesInChunks("crawl er crawle", chunks), is(false));
+        }
+        assertThat("A range should be searched on its own", matcher.matches(content, 7, 13), is(false));
+    }
+}
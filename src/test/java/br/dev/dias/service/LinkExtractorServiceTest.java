@@ -2,7 +2,9 @@ package br.dev.dias.service;
 
 import org.junit.jupiter.api.Test;
 
+import br.dev.dias.model.Link;
 import br.dev.dias.service.LinkExtractorService;
+import br.dev.dias.util.UrlCanonicalizer;
 
 import java.util.List;
 
@@ -38,4 +40,90 @@ class LinkExtractorServiceTest {
         assertThat("Should extract only valid HTTP/HTTPS links", links, hasSize(1));
         assertThat("Link should match the valid URL", links.get(0), is("http://valid.com"));
     }
+
+    @Test
+    void shouldExtractAnchorText() {
+        String html = "<a href=\"/docs/guide.html\"><b>User</b>\n  guide</a><a href=\"/empty.html\"></a>";
+        String baseUrl = "http://example.com";
+
+        List<Link> links = linkExtractorService.extractAnchors(html, baseUrl + "/index.html", baseUrl);
+
+        assertThat("Should extract both links", links, hasSize(2));
+        assertThat("Link should be resolved", links.get(0).getUrl(), is("http://example.com/docs/guide.html"));
+        assertThat("Anchor text should drop tags and collapse whitespace", links.get(0).getAnchorText(), is("User guide"));
+        assertThat("Empty anchors should have empty text", links.get(1).getAnchorText(), is(""));
+    }
+
+    @Test
+    void shouldCanonicalizeExtractedLinks() {
+        String html = "<a href=\"/a#top\">A</a><a href=\"../a?c=2&b=1\">A</a><a href=\"HTTP://EXAMPLE.com:80/a?b=1&c=2\">A</a>";
+        String baseUrl = "http://example.com";
+
+        List<String> links = linkExtractorService.extractLinks(html, baseUrl + "/docs/index.html", baseUrl);
+
+        assertThat("Every spelling should resolve to its canonical form, once", links,
+            contains("http://example.com/a", "http://example.com/a?b=1&c=2"));
+    }
+
+    @Test
+    void shouldSkipLinksToBinaryFiles() {
+        String html = "<a href=\"/report.PDF\">A</a><a href=\"/logo.png?v=2\">A</a><a href=\"/docs.html\">A</a>"
+            + "<a href=\"/v1.2/\">A</a><a href=\"/download.zip.html\">A</a>";
+        String baseUrl = "http://example.com";
+
+        List<String> skipped = linkExtractorService.extractLinks(html, baseUrl + "/index.html", baseUrl);
+        List<String> followed = new LinkExtractorService(new UrlCanonicalizer(), false)
+            .extractLinks(html, baseUrl + "/index.html", baseUrl);
+
+        assertThat("Links to binary files should be skipped", skipped,
+            contains("http://example.com/docs.html", "http://example.com/v1.2/", "http://example.com/download.zip.html"));
+        assertThat("Every link should be kept when skipping is disabled", followed, hasSize(5));
+        assertThat("A host name is not a file name", LinkExtractorService.hasBinaryExtension("http://example.zip"), is(false));
+    }
+
+    @Test
+    void shouldTokenizeAnchorsLikeABrowser() {
+        String html = "<head><base href=\"/docs/v2/\"><style>a[href='/style.html'] {}</style></head>"
+            + "<script>document.write('<a href=\"/script.html\">x</a>');</script>"
+            + "<!-- <a href=\"/comment.html\">old</a> -->"
+            + "<a href=guide.html class=nav>Guide</a> 1 < 2 "
+            + "<a title=\"a > b\" href='search?q=1&amp;page=2&#38;sort=asc'>Search &amp; more</a>"
+            + "<A\nHREF = \"guide.html\">Guide again</A><abbr href=\"/abbr.html\">x</abbr>";
+        String baseUrl = "http://example.com";
+
+        List<Link> links = linkExtractorService.extractAnchors(html, baseUrl + "/index.html", baseUrl);
+
+        assertThat("Links should be resolved against the base element, once each, outside scripts and comments",
+            links.stream().map(Link::getUrl).toList(),
+            contains("http://example.com/docs/v2/guide.html", "http://example.com/docs/v2/search?page=2&q=1&sort=asc"));
+        assertThat("Anchor text should be kept", links.get(1).getAnchorText(), is("Search &amp; more"));
+    }
+
+    @Test
+    void shouldExtractTheSameLinksFromParallelChunks() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            body.append("<script>if (a <b && c > d) { document.write('<a href=\"/script-").append(i).append(".html\">'); }</script>")
+                .append("<!-- <a href=\"/comment-").append(i).append(".html\">old</a> <p> -->")
+                .append("<a title=\"a > <b>\" href=\"page-").append(i).append(".html\">Page <b>").append(i).append("</b> ")
+                .append("with a long text read on across tags</a> 1 < 2 <a href=\"page-").append(i / 2).append(".html\">again</a>\n");
+        }
+        String baseUrl = "http://example.com";
+        String withBase = "<head><base href=\"/docs/\"></head>" + body + "<base href=\"/other/\">" + body;
+        String withLateBase = body + "<base href=\"/late/\">" + body;
+
+        for (String html : List.of(withBase, withLateBase)) {
+            List<String> expected = linkExtractorService.extractAnchors(html, baseUrl + "/index.html", baseUrl).stream()
+                .map(link -> link.getUrl() + " " + link.getAnchorText()).toList();
+            for (int chunks = 2; chunks <= 64; chunks++) {
+                List<String> links = linkExtractorService.extractAnchorsInChunks(html, baseUrl + "/index.html", baseUrl, chunks)
+                    .stream().map(link -> link.getUrl() + " " + link.getAnchorText()).toList();
+
+                assertThat("Chunks should yield the links of a single tokenizer, in order", links, is(expected));
+            }
+            assertThat("Pages above the threshold should be split",
+                new LinkExtractorService(new UrlCanonicalizer(), true, 1).extractLinks(html, baseUrl + "/index.html", baseUrl),
+                hasSize(expected.size()));
+        }
+    }
 }
@@ -0,0 +1,168 @@
+package br.dev.dias.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.dev.dias.crawler.TrigramIndex;
+import br.dev.dias.exception.HttpRequestFailedException;
+import br.dev.dias.model.CrawledPage;
+import br.dev.dias.model.FetchResult;
+import br.dev.dias.model.PageProcessingMode;
+import br.dev.dias.model.PageValidators;
+
+class PageServiceTest {
+
+    private static final String BASE_URL = "http://example.com/";
+    private static final String CONTENT = "<a href=\"/about\">About us</a><p>keyword</p>";
+
+    private HttpClientService httpClientService;
+    private HtmlCacheService htmlCacheService;
+    private TrigramIndex corpusIndex;
+    private PageService pageService;
+
+    @BeforeEach
+    void setUp() {
+        httpClientService = mock(HttpClientService.class);
+        htmlCacheService = new HtmlCacheService();
+        corpusIndex = new TrigramIndex(100);
+        pageService = new PageService(httpClientService, new LinkExtractorService(), htmlCacheService,
+            corpusIndex, BASE_URL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        htmlCacheService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should fetch and parse a page once for every search reaching it")
+    void shouldFetchPageOnceForConcurrentRequests() throws Exception {
+        // Given
+        var release = new CountDownLatch(1);
+        when(httpClientService.fetchPage(anyString(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return FetchResult.modified(CONTENT, null);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<CrawledPage>> pages = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            pages.add(executor.submit(() -> pageService.getPage(BASE_URL)));
+        }
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<CrawledPage> page : pages) {
+            assertThat("Every request should get the parsed page",
+                page.get(5, TimeUnit.SECONDS).getLinks().get(0).getUrl(), is("http://example.com/about"));
+        }
+        executor.shutdown();
+
+        // Then
+        verify(httpClientService, times(1)).fetchPage(eq(BASE_URL), any());
+        assertThat("Only one fetch should reach the origin", pageService.getFetchCount(), is(1L));
+        assertThat("The fetched page should be indexed once", corpusIndex.size(), is(1));
+    }
+
+    @Test
+    @DisplayName("Should serve searches started later from the page cache")
+    void shouldServeLateRequestsFromCache() {
+        // Given
+        when(httpClientService.fetchPage(eq(BASE_URL), any())).thenReturn(FetchResult.modified(CONTENT, null));
+        CrawledPage first = pageService.getPage(BASE_URL);
+
+        // When
+        CrawledPage second = pageService.getPage(BASE_URL);
+
+        // Then
+        assertThat("The cached page should be reused", second, sameInstance(first));
+        assertThat("The cache hit should be counted", pageService.getCacheHitCount(), is(1L));
+        verify(httpClientService, times(1)).fetchPage(eq(BASE_URL), any());
+    }
+
+    @Test
+    @DisplayName("Should scan a parsed page once for the keywords of every active search")
+    void shouldScanPageForActiveKeywords() {
+        // Given
+        List<String> keywords = new ArrayList<>(List.of("KEYWORD", "about us"));
+        for (int i = 0; i < 8; i++) {
+            keywords.add("missing " + i);
+        }
+        KeywordAutomaton automaton = new KeywordAutomaton(keywords);
+        pageService = new PageService(httpClientService, new LinkExtractorService(), htmlCacheService,
+            corpusIndex, BASE_URL, PageProcessingMode.BUFFERED, () -> automaton);
+        when(httpClientService.fetchPage(eq(BASE_URL), any())).thenReturn(FetchResult.modified(CONTENT, null));
+
+        // When
+        CrawledPage page = pageService.getPage(BASE_URL);
+
+        // Then
+        assertThat("Active keywords should be scanned", page.isScannedFor("keyword"), is(true));
+        assertThat("Found keywords should be recorded", page.containsKeyword("Keyword"), is(true));
+        assertThat("Keywords in markup should be found", page.containsKeyword("About Us"), is(true));
+        assertThat("Absent keywords should be recorded", page.containsKeyword("missing 3"), is(false));
+        assertThat("Other keywords should be left to their search", page.isScannedFor("other"), is(false));
+    }
+
+    @Test
+    @DisplayName("Should fetch again after a failed fetch")
+    void shouldRetryAfterFailedFetch() {
+        // Given
+        when(httpClientService.fetchPage(eq(BASE_URL), any()))
+            .thenThrow(new HttpRequestFailedException("Server error"))
+            .thenReturn(FetchResult.modified(CONTENT, null));
+
+        // When
+        try {
+            pageService.getPage(BASE_URL);
+        } catch (HttpRequestFailedException expected) {
+            // the failure is not cached
+        }
+        CrawledPage page = pageService.getPage(BASE_URL);
+
+        // Then
+        assertThat("The page should be fetched on the next attempt", page.getContent(), is(CONTENT));
+        verify(httpClientService, times(2)).fetchPage(eq(BASE_URL), any());
+    }
+
+    @Test
+    @DisplayName("Should revalidate an expired page with its validators instead of downloading it again")
+    void shouldRevalidateExpiredPage() throws Exception {
+        // Given
+        htmlCacheService.shutdown();
+        htmlCacheService = new HtmlCacheService(10, Duration.ofMillis(1));
+        pageService = new PageService(httpClientService, new LinkExtractorService(), htmlCacheService,
+            corpusIndex, BASE_URL);
+        PageValidators validators = new PageValidators("\"v1\"", "Wed, 21 Oct 2015 07:28:00 GMT", CONTENT.length());
+        when(httpClientService.fetchPage(BASE_URL, null)).thenReturn(FetchResult.modified(CONTENT, validators));
+        when(httpClientService.fetchPage(BASE_URL, validators)).thenReturn(FetchResult.notModified(null));
+        CrawledPage first = pageService.getPage(BASE_URL);
+        Thread.sleep(10);
+
+        // When
+        CrawledPage second = pageService.getPage(BASE_URL);
+
+        // Then
+        assertThat("The cached page should be reused", second, sameInstance(first));
+        assertThat("Only the first request should download the page", pageService.getFetchCount(), is(1L));
+        assertThat("The revalidation should be counted", pageService.getNotModifiedCount(), is(1L));
+        assertThat("The body should not be transferred again", pageService.getSavedBytes(), is((long) CONTENT.length()));
+        assertThat("The validators should be kept", htmlCacheService.getValidators(BASE_URL).getEtag(), is("\"v1\""));
+    }
+}
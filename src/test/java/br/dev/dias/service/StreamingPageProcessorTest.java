@@ -0,0 +1,78 @@
+package br.dev.dias.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import br.dev.dias.model.CrawledPage;
+import br.dev.dias.model.Link;
+
+class StreamingPageProcessorTest {
+
+    private static final String BASE_URL = "http://example.com";
+    private static final String PAGE = "<html><body><p>Crawling the Web</p>"
+        + "<a class=\"nav\" href=\"/docs/guide.html\"><b>User</b>\n  guide</a>"
+        + "<A HREF='../about.html' id=x>About us</A>"
+        + "<a href=\"mailto:team@example.com\">Mail</a><a href=\"http://other.com/\">Other</a>"
+        + "<a name=\"top\">Top</a><a href=\"/report.pdf\">Report</a><a href=\"/empty.html\"></a>"
+        + "<p>a keyword split across chunks</p></body></html>";
+
+    private final LinkExtractorService linkExtractorService = new LinkExtractorService();
+
+    @Test
+    void shouldFindTheSameLinksAsTheBufferedExtractor() {
+        for (int chunkSize : new int[] {1, 2, 3, 7, 64, PAGE.length()}) {
+            CrawledPage page = process(PAGE, chunkSize, Set.of("keyword"));
+
+            assertThat("Links should not depend on chunk size " + chunkSize, describe(page.getLinks()),
+                is(describe(linkExtractorService.extractAnchors(PAGE, BASE_URL + "/docs/index.html", BASE_URL))));
+            assertThat("Links should be resolved and filtered", describe(page.getLinks()), contains(
+                "http://example.com/docs/guide.html|User guide", "http://example.com/about.html|About us",
+                "http://example.com/empty.html|"));
+        }
+    }
+
+    @Test
+    void shouldMatchKeywordsSpanningChunks() {
+        for (int chunkSize : new int[] {1, 2, 5, 13}) {
+            CrawledPage page = process(PAGE, chunkSize, Set.of("KEYWORD SPLIT", "web</p>", "missing", "aab"));
+
+            assertThat("A keyword across chunks should match", page.containsKeyword("keyword split"), is(true));
+            assertThat("Matching should ignore case", page.containsKeyword("Web</P>"), is(true));
+            assertThat("An absent keyword should not match", page.containsKeyword("missing"), is(false));
+            assertThat("Partial overlaps should not match", page.containsKeyword("aab"), is(false));
+            assertThat("Scanned keywords should be known", page.hasCheckedKeyword("Missing"), is(true));
+            assertThat("Other keywords should need another scan", page.hasCheckedKeyword("crawling"), is(false));
+            assertThat("The page text should not be kept", page.getContent(), is(nullValue()));
+        }
+    }
+
+    @Test
+    void shouldRestartPartialMatches() {
+        CrawledPage page = process("xaaab aabaab", 1, Set.of("aaab", "abaab"));
+
+        assertThat("A failed partial match should fall back to its longest suffix", page.containsKeyword("aaab"), is(true));
+        assertThat("Overlapping candidates should match", page.containsKeyword("abaab"), is(true));
+    }
+
+    private static List<String> describe(List<Link> links) {
+        return links.stream().map(link -> link.getUrl() + "|" + link.getAnchorText()).toList();
+    }
+
+    private CrawledPage process(String content, int chunkSize, Set<String> keywords) {
+        StreamingPageProcessor processor = new StreamingPageProcessor(BASE_URL + "/docs/index.html", new KeywordAutomaton(keywords),
+            linkExtractorService, BASE_URL);
+        CharBuffer chunk = CharBuffer.allocate(chunkSize);
+        for (int start = 0; start < content.length(); start += chunkSize) {
+            chunk.clear();
+            chunk.append(content, start, Math.min(content.length(), start + chunkSize)).flip();
+            processor.accept(chunk);
+        }
+        return processor.finish();
+    }
+}
@@ -0,0 +1,51 @@
+package br.dev.dias.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class Utf8KeywordScannerTest {
+
+    private static final String ALPHABET = "cCrRaAwWlL-eEé ";
+
+    @Test
+    void shouldUseTheVectorApiOnlyInVectorBuilds() {
+        assertThat("Only builds with the vector profile should scan with the Vector API",
+            Utf8KeywordScanner.isVectorAvailable(), is(Boolean.getBoolean("crawler.vector")));
+    }
+
+    @Test
+    void shouldMatchLikeTheCharMatcherAtEveryPosition() {
+        String keyword = "Crawl-Er";
+        Random random = new Random(42);
+        for (int length = 0; length < 300; length++) {
+            StringBuilder text = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            if (length > 20 && random.nextBoolean()) {
+                int at = random.nextInt(length - keyword.length());
+                text.replace(at, at + keyword.length(), "cRAWL-eR");
+            }
+            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            boolean expected = new KeywordMatcher(keyword).matches(text);
+
+            assertThat("Vector scan should match for " + text, new Utf8KeywordScanner(keyword).matches(bytes), is(expected));
+            assertThat("Scalar scan should match for " + text, new Utf8KeywordScanner(keyword, false).matches(bytes), is(expected));
+        }
+    }
+
+    @Test
+    void shouldScanRangesAndNonAsciiKeywords() {
+        byte[] page = "<p>Ação rápida do CRAWLER</p>".getBytes(StandardCharsets.UTF_8);
+
+        assertThat("A keyword at the end of the range should match", new Utf8KeywordScanner("crawler").matches(page, 0, page.length - 4), is(true));
+        assertThat("A keyword cut by the range should not match", new Utf8KeywordScanner("crawler").matches(page, 0, page.length - 5), is(false));
+        assertThat("Non-ASCII keywords should ignore case", new Utf8KeywordScanner("AÇÃO RÁPIDA").matches(page), is(true));
+        assertThat("Continuation bytes should not match ASCII letters", new Utf8KeywordScanner("a r").matches(page), is(false));
+    }
+}
@@ -6,9 +6,11 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvFileSource;
 
+import br.dev.dias.exception.DedupeModeValidatorException;
 import br.dev.dias.exception.KeywordValidatorException;
 import br.dev.dias.exception.SearchIDValidatorException;
 import br.dev.dias.service.ValidationService;
@@ -84,4 +86,23 @@ class ValidatorServiceTest {
                 exception.getMessage(), containsString("Invalid search ID"));
         }
     }
+
+    @Test
+    @DisplayName("Should accept known or missing dedupe modes")
+    void shouldAcceptValidDedupeModes() throws DedupeModeValidatorException {
+        validationService.validateDedupeMode(null);
+        validationService.validateDedupeMode("exact");
+        validationService.validateDedupeMode("Probabilistic");
+    }
+
+    @Test
+    @DisplayName("Should reject unknown dedupe modes")
+    void shouldRejectUnknownDedupeMode() {
+        DedupeModeValidatorException exception = assertThrows(
+            DedupeModeValidatorException.class,
+            () -> validationService.validateDedupeMode("fuzzy")
+        );
+        assertThat("Exception message should indicate invalid dedupe mode",
+            exception.getMessage(), containsString("Invalid dedupe mode"));
+    }
 }
@@ -0,0 +1,54 @@
+package br.dev.dias.util;
+
+import org.junit.jupiter.api.Test;
+
+import br.dev.dias.model.UrlNormalizationRule;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConfigurationValidatorTest {
+
+    @Test
+    void shouldParseIntegerSettingsTheSameWay() {
+        assertThat("A missing value should use the default", ConfigurationValidator.validatePageCacheSize(null), is(2000));
+        assertThat("A blank value should use the default", ConfigurationValidator.validateMaxPageBytes(" "), is(2 * 1024 * 1024));
+        assertThat("Values should be trimmed", ConfigurationValidator.validateHostMaxConcurrency(" 12 "), is(12));
+        assertThat("Zero should turn parallel scanning off", ConfigurationValidator.validateParallelPageThreshold("0"), is(0));
+
+        IllegalStateException invalid = assertThrows(IllegalStateException.class,
+            () -> ConfigurationValidator.validateFrontierMemoryLimit("many"));
+        IllegalStateException negative = assertThrows(IllegalStateException.class,
+            () -> ConfigurationValidator.validateMaxInFlight("0", true));
+
+        assertThat("The message should name the setting", invalid.getMessage(), is("FRONTIER_MEMORY_LIMIT must be a valid integer"));
+        assertThat("The message should name the setting", negative.getMessage(), is("ASYNC_MAX_IN_FLIGHT_PER_JOB must be greater than zero"));
+    }
+
+    @Test
+    void shouldKeepTheCorpusIndexOffUnlessEnabled() {
+        assertThat("The corpus index should be off by default", ConfigurationValidator.validateCorpusIndex(null), is(false));
+        assertThat("Flags should be trimmed and case-insensitive", ConfigurationValidator.validateCorpusIndex(" TRUE "), is(true));
+        assertThat("The corpus index should be bounded by default",
+            ConfigurationValidator.validateCorpusIndexMaxPages(null), is(10000));
+
+        IllegalStateException invalid = assertThrows(IllegalStateException.class,
+            () -> ConfigurationValidator.validateCorpusIndex("yes"));
+
+        assertThat("The message should name the setting", invalid.getMessage(), is("CORPUS_INDEX must be true or false"));
+    }
+
+    @Test
+    void shouldCanonicalizeTheBaseUrlLikeExtractedLinks() {
+        String baseUrl = ConfigurationValidator.validateBaseUrl("http://Example.COM:80/", UrlNormalizationRule.defaults());
+        UrlCanonicalizer canonicalizer = new UrlCanonicalizer();
+
+        assertThat("The host should be lower-cased and the default port dropped", baseUrl, is("http://example.com"));
+        assertThat("Extracted links should start with the base URL",
+            canonicalizer.canonicalize("http://EXAMPLE.com:80/docs/page.html"), startsWith(baseUrl));
+        assertThat("Explicit non-default ports should be kept",
+            ConfigurationValidator.validateBaseUrl("https://Example.com:8443/docs/", UrlNormalizationRule.defaults()),
+            is("https://example.com:8443/docs"));
+    }
+}
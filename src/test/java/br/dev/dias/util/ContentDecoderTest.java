@@ -0,0 +1,114 @@
+package br.dev.dias.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+class ContentDecoderTest {
+
+    private static final String PAGE = "<html><body>" + "<p><a href=\"/page.html\">keyword</a></p>".repeat(500)
+        + "</body></html>";
+
+    @Test
+    void shouldDecodeGzipPushedByteByByte() throws Exception {
+        byte[] body = gzip(PAGE);
+
+        assertThat("The gzip body should be decoded", push("gzip", body, 1), is(PAGE));
+    }
+
+    @Test
+    void shouldDecodeZlibAndRawDeflate() throws Exception {
+        assertThat("A zlib-wrapped body should be decoded", push("deflate", deflate(PAGE, false), 100), is(PAGE));
+        assertThat("A raw deflate body should be decoded", push("deflate", deflate(PAGE, true), 100), is(PAGE));
+        assertThat("A raw deflate stream should be decoded",
+            read(ContentDecoder.wrap(new ByteArrayInputStream(deflate(PAGE, true)), "deflate")), is(PAGE));
+    }
+
+    @Test
+    void shouldRejectTruncatedBody() throws Exception {
+        byte[] body = gzip(PAGE);
+        ContentDecoder decoder = ContentDecoder.of("gzip");
+
+        decoder.decode(ByteBuffer.wrap(Arrays.copyOf(body, body.length / 2)), Long.MAX_VALUE);
+
+        assertThrows(IOException.class, decoder::finish);
+    }
+
+    @Test
+    void shouldRejectGzipBodyWithWrongChecksum() throws Exception {
+        byte[] body = gzip(PAGE);
+        body[body.length - 8] ^= 1;
+
+        assertThrows(IOException.class, () -> push("gzip", body, 100));
+    }
+
+    @Test
+    void shouldStopInflatingAtTheByteBudget() throws Exception {
+        byte[] bomb = gzip("a".repeat(10_000_000));
+        ContentDecoder decoder = ContentDecoder.of("gzip");
+
+        long decoded = 0;
+        for (ByteBuffer buffer : decoder.decode(ByteBuffer.wrap(bomb), 50_000)) {
+            decoded += buffer.remaining();
+        }
+        decoder.end();
+
+        assertThat("Only the accepted bytes should be inflated", decoded, is(50_000L));
+    }
+
+    @Test
+    void shouldNotDecodeIdentityBody() throws Exception {
+        assertThat("An identity body needs no decoder", ContentDecoder.of(null), is(nullValue()));
+        assertThrows(IOException.class, () -> ContentDecoder.of("br"));
+    }
+
+    private static String push(String encoding, byte[] body, int chunkSize) throws IOException {
+        ContentDecoder decoder = ContentDecoder.of(encoding);
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        for (int i = 0; i < body.length; i += chunkSize) {
+            for (ByteBuffer buffer : decoder.decode(ByteBuffer.wrap(body, i, Math.min(chunkSize, body.length - i)), Long.MAX_VALUE)) {
+                decoded.write(buffer.array(), buffer.position(), buffer.remaining());
+            }
+        }
+        decoder.finish();
+        return decoded.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String read(InputStream stream) throws IOException {
+        try (stream) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(String text, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+            deflate.write(text.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+}
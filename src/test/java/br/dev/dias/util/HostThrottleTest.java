@@ -0,0 +1,95 @@
+package br.dev.dias.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class HostThrottleTest {
+
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    void shouldSpaceRequestsByTheTokenRate() throws Exception {
+        HostThrottle throttle = new HostThrottle(20, 100, timer);
+        List<CompletableFuture<Void>> permits = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 30; i++) {
+            CompletableFuture<Void> permit = throttle.acquire();
+            permits.add(permit.thenRun(throttle::release));
+        }
+        CompletableFuture.allOf(permits.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat("The requests beyond the burst should wait for tokens", elapsedMillis, greaterThanOrEqualTo(450L));
+    }
+
+    @Test
+    void shouldGrowWhileLatencyIsStableAndHalveOnOverload() throws Exception {
+        HostThrottle throttle = new HostThrottle(10_000, 16, timer);
+        int initial = throttle.getConcurrencyLimit();
+
+        for (int i = 0; i < 200; i++) {
+            saturateAndRelease(throttle, LATENCY);
+        }
+        int grown = throttle.getConcurrencyLimit();
+        throttle.acquire().get();
+        throttle.releaseOverloaded(0);
+        int reduced = throttle.getConcurrencyLimit();
+
+        assertThat("The limit should start low", initial, is(4));
+        assertThat("The limit should grow up to the ceiling while latency is stable", grown, is(16));
+        assertThat("The limit should be halved on overload", reduced, is(8));
+    }
+
+    @Test
+    void shouldHoldTheLimitWhileLatencyRises() throws Exception {
+        HostThrottle throttle = new HostThrottle(10_000, 16, timer);
+        saturateAndRelease(throttle, LATENCY);
+
+        for (int i = 0; i < 50; i++) {
+            saturateAndRelease(throttle, LATENCY * 10);
+        }
+
+        assertThat("A slowing host should not get more requests", throttle.getConcurrencyLimit(), lessThanOrEqualTo(6));
+    }
+
+    @Test
+    void shouldPauseTheHostAfterRetryAfter() throws Exception {
+        HostThrottle throttle = new HostThrottle(10_000, 16, timer);
+        throttle.acquire().get();
+        throttle.releaseOverloaded(TimeUnit.MILLISECONDS.toNanos(300));
+
+        long start = System.nanoTime();
+        throttle.acquire().get(5, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat("The next request should wait for the pause to end", elapsedMillis, greaterThanOrEqualTo(250L));
+    }
+
+    private static void saturateAndRelease(HostThrottle throttle, long latency) throws Exception {
+        int limit = throttle.getConcurrencyLimit();
+        for (int i = 0; i < limit; i++) {
+            throttle.acquire().get(1, TimeUnit.SECONDS);
+        }
+        for (int i = 0; i < limit; i++) {
+            throttle.releaseSucceeded(latency);
+        }
+    }
+}
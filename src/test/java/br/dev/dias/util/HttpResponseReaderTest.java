@@ -5,7 +5,10 @@ import org.junit.jupiter.api.Test;
 import br.dev.dias.util.HttpResponseReader;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
 
 import static org.mockito.Mockito.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -25,4 +28,64 @@ class HttpResponseReaderTest {
 
         assertThat("Response should match expected content", response, is("response"));
     }
+
+    @Test
+    void shouldDecodeGzipResponse() throws Exception {
+        String page = "<p>keyword</p>\n".repeat(200).trim();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(page.getBytes(StandardCharsets.UTF_8));
+        }
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(connection.getResponseCode()).thenReturn(200);
+        when(connection.getContentEncoding()).thenReturn("gzip");
+        when(connection.getInputStream()).thenReturn(new ByteArrayInputStream(compressed.toByteArray()));
+
+        String response = reader.readResponse(connection);
+
+        assertThat("Response should be decoded", response, is(page));
+        assertThat("Wire bytes should be the compressed size", reader.getTransferMetrics().getWireBytes(),
+            is((long) compressed.size()));
+        assertThat("Decoded bytes should be the page size", reader.getTransferMetrics().getDecodedBytes(),
+            is((long) page.length()));
+    }
+
+    @Test
+    void shouldTruncateLargeResponse() throws Exception {
+        HttpResponseReader limitedReader = new HttpResponseReader(new TransferMetrics(), 10);
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(connection.getResponseCode()).thenReturn(200);
+        when(connection.getInputStream()).thenReturn(new ByteArrayInputStream("0123456789abcdef".getBytes()));
+
+        String response = limitedReader.readResponse(connection);
+
+        assertThat("Response should be cut at the limit", response, is("0123456789"));
+        assertThat("Only the kept bytes should be read", limitedReader.getTransferMetrics().getWireBytes(), is(10L));
+    }
+
+    @Test
+    void shouldDecodeCharsetDeclaredInMetaTag() throws Exception {
+        String page = "<html><head><meta charset=\"iso-8859-1\"></head>\r\n<body>Crian\u00e7a \u00e9 \u00f3tima</body></html>";
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(connection.getResponseCode()).thenReturn(200);
+        when(connection.getContentType()).thenReturn("text/html");
+        when(connection.getInputStream()).thenReturn(new ByteArrayInputStream(page.getBytes(StandardCharsets.ISO_8859_1)));
+
+        String response = reader.readResponse(connection);
+
+        assertThat("Response should be decoded with the declared charset", response, is(page.replace("\r\n", "\n")));
+    }
+
+    @Test
+    void shouldPreferCharsetOfContentTypeHeader() throws Exception {
+        String page = "<meta charset=\"utf-8\">" + "<p>S\u00e3o Paulo</p>\n".repeat(2000);
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(connection.getResponseCode()).thenReturn(200);
+        when(connection.getContentType()).thenReturn("text/html; charset=ISO-8859-1");
+        when(connection.getInputStream()).thenReturn(new ByteArrayInputStream(page.getBytes(StandardCharsets.ISO_8859_1)));
+
+        String response = reader.readResponse(connection);
+
+        assertThat("Response should be decoded with the header charset", response, is(page.trim()));
+    }
 }
@@ -0,0 +1,51 @@
+package br.dev.dias.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import br.dev.dias.exception.HttpRequestFailedException;
+
+class PolitePageFetcherTest {
+
+    @Test
+    void shouldHonorRetryAfter() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        PageFetcher origin = url -> {
+            if (requests.incrementAndGet() == 1) {
+                throw new HttpRequestFailedException("Too many requests", 429, "1");
+            }
+            return "<p>keyword</p>";
+        };
+        PolitePageFetcher fetcher = new PolitePageFetcher(origin, 100, 4);
+
+        assertThrows(HttpRequestFailedException.class, () -> fetcher.fetch("http://example.com/a"));
+        long start = System.nanoTime();
+        String content = fetcher.fetch("http://example.com/b");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        String otherHost = fetcher.fetch("http://other.example.com/a");
+        fetcher.close();
+
+        assertThat("The page should be fetched after the pause", content, is("<p>keyword</p>"));
+        assertThat("The host should be left alone for the requested second", elapsedMillis, greaterThanOrEqualTo(900L));
+        assertThat("Other hosts should not be paused", otherHost, is("<p>keyword</p>"));
+    }
+
+    @Test
+    void shouldParseRetryAfterSecondsAndDates() {
+        String inTenSeconds = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusSeconds(10));
+
+        assertThat("Seconds should be parsed", PolitePageFetcher.retryAfterNanos("120"), is(TimeUnit.SECONDS.toNanos(120)));
+        assertThat("Dates should be parsed", PolitePageFetcher.retryAfterNanos(inTenSeconds),
+            both(greaterThan(TimeUnit.SECONDS.toNanos(8))).and(lessThanOrEqualTo(TimeUnit.SECONDS.toNanos(10))));
+        assertThat("Long pauses should be capped", PolitePageFetcher.retryAfterNanos("86400"), is(TimeUnit.MINUTES.toNanos(5)));
+        assertThat("Invalid values should be ignored", PolitePageFetcher.retryAfterNanos("soon"), is(0L));
+    }
+}
@@ -0,0 +1,230 @@
+package br.dev.dias.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import br.dev.dias.exception.HttpRequestFailedException;
+import br.dev.dias.exception.UnsupportedContentException;
+import br.dev.dias.model.FetchResult;
+
+class PooledPageFetcherTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/page.html", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            respond(exchange, 200, "<p>keyword</p>");
+        });
+        server.createContext("/static.html", exchange -> {
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                respond(exchange, 200, "<p>static</p>");
+            }
+        });
+        server.createContext("/compressed.html", exchange -> {
+            byte[] page = "<p>keyword</p>".repeat(1000).getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(page);
+            }
+            String accepted = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            boolean gzipAccepted = accepted != null && accepted.contains("gzip");
+            byte[] body = gzipAccepted ? compressed.toByteArray() : page;
+            if (gzipAccepted) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.createContext("/report.pdf", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/pdf");
+            respond(exchange, 200, "%PDF".repeat(250_000));
+        });
+        server.createContext("/large.html", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+            respond(exchange, 200, "<p>keyword</p>".repeat(100_000));
+        });
+        server.createContext("/accents.html", exchange -> {
+            byte[] page = "<p>ação é crítica 😀</p>".repeat(2000).getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(page);
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                // Flushes odd-sized slices so that characters are split across deliveries
+                byte[] body = compressed.toByteArray();
+                for (int start = 0; start < body.length; start += 333) {
+                    os.write(body, start, Math.min(333, body.length - start));
+                    os.flush();
+                }
+            }
+        });
+        server.createContext("/missing.html", exchange -> respond(exchange, 404, "not found"));
+        server.setExecutor(Executors.newFixedThreadPool(16));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    @Test
+    void shouldFetchPageContent() throws Exception {
+        PooledPageFetcher fetcher = new PooledPageFetcher(4);
+
+        assertThat("Content should be returned", fetcher.fetch(baseUrl + "/page.html"), is("<p>keyword</p>"));
+        fetcher.close();
+    }
+
+    @Test
+    void shouldFailOnUnsuccessfulResponse() {
+        PooledPageFetcher fetcher = new PooledPageFetcher(4);
+
+        assertThrows(HttpRequestFailedException.class, () -> fetcher.fetch(baseUrl + "/missing.html"));
+        fetcher.close();
+    }
+
+    @Test
+    void shouldLimitConcurrentRequestsPerHost() throws Exception {
+        PooledPageFetcher fetcher = new PooledPageFetcher(2);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> pages = new ArrayList<>();
+
+        for (int i = 0; i < 16; i++) {
+            pages.add(executor.submit(() -> fetcher.fetch(baseUrl + "/page.html")));
+        }
+        for (Future<String> page : pages) {
+            page.get();
+        }
+        executor.shutdown();
+        fetcher.close();
+
+        assertThat("No more than two requests should reach the host at once", maxInFlight.get(), lessThanOrEqualTo(2));
+    }
+
+    @Test
+    void shouldRevalidateWithConditionalRequest() throws Exception {
+        PooledPageFetcher fetcher = new PooledPageFetcher(4);
+
+        FetchResult first = fetcher.fetch(baseUrl + "/static.html", null);
+        FetchResult second = fetcher.fetch(baseUrl + "/static.html", first.getValidators());
+        fetcher.close();
+
+        assertThat("The first request should download the page", first.getContent(), is("<p>static</p>"));
+        assertThat("The ETag should be kept", first.getValidators().getEtag(), is("\"v1\""));
+        assertThat("The conditional request should not download the page again", second.isNotModified(), is(true));
+        assertThat("The body size should be remembered", second.getValidators().getContentLength(), is(13L));
+    }
+
+    @Test
+    void shouldDecodeCompressedPages() throws Exception {
+        PooledPageFetcher fetcher = new PooledPageFetcher(4);
+
+        String page = fetcher.fetch(baseUrl + "/compressed.html");
+        String asyncPage = fetcher.fetchAsync(baseUrl + "/compressed.html").get();
+        fetcher.close();
+
+        assertThat("The page should be decoded", page, is("<p>keyword</p>".repeat(1000)));
+        assertThat("The page should be decoded asynchronously", asyncPage, is(page));
+        assertThat("The page should be transferred compressed", fetcher.getTransferMetrics().getWireBytes(),
+            lessThan(fetcher.getTransferMetrics().getDecodedBytes() / 10));
+    }
+
+    @Test
+    void shouldStreamPagesInChunks() throws Exception {
+        PooledPageFetcher fetcher = new PooledPageFetcher(4);
+        StringBuilder streamed = new StringBuilder();
+        StringBuilder asyncStreamed = new StringBuilder();
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        FetchResult result = fetcher.fetch(baseUrl + "/accents.html", null, chunk -> {
+            chunkSizes.add(chunk.remaining());
+            streamed.append(chunk);
+        });
+        fetcher.fetchAsync(baseUrl + "/accents.html", null, asyncStreamed::append).get();
+        fetcher.close();
+
+        assertThat("The streamed text should be decoded", streamed.toString(), is("<p>ação é crítica 😀</p>".repeat(2000)));
+        assertThat("The asynchronous stream should be decoded", asyncStreamed.toString(), is(streamed.toString()));
+        assertThat("The page should arrive in several chunks", chunkSizes.size(), greaterThan(1));
+        assertThat("The content should not be returned", result.getContent(), is(nullValue()));
+    }
+
+    @Test
+    void shouldSkipPagesThatAreNotHtml() throws Exception {
+        PooledPageFetcher fetcher = new PooledPageFetcher(4);
+
+        UnsupportedContentException exception = assertThrows(UnsupportedContentException.class,
+            () -> fetcher.fetch(baseUrl + "/report.pdf"));
+        Throwable asyncFailure = fetcher.fetchAsync(baseUrl + "/report.pdf").handle((page, error) -> error).get();
+        fetcher.close();
+
+        assertThat("The content type should be reported", exception.getContentType(), is("application/pdf"));
+        assertThat("The asynchronous fetch should be skipped too", asyncFailure.getCause(),
+            instanceOf(UnsupportedContentException.class));
+        assertThat("The body should not be downloaded", fetcher.getTransferMetrics().getDecodedBytes(), lessThan(100_000L));
+    }
+
+    @Test
+    void shouldTruncateLargePages() throws Exception {
+        PooledPageFetcher fetcher = new PooledPageFetcher(4, 1000);
+
+        String page = fetcher.fetch(baseUrl + "/large.html");
+        String asyncPage = fetcher.fetchAsync(baseUrl + "/large.html").get();
+        fetcher.close();
+
+        assertThat("The page should be cut at the limit", page, is("<p>keyword</p>".repeat(100_000).substring(0, 1000)));
+        assertThat("The page should be cut asynchronously too", asyncPage, is(page));
+    }
+}
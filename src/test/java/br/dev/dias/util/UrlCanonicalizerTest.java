@@ -0,0 +1,95 @@
+package br.dev.dias.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import br.dev.dias.model.UrlNormalizationRule;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class UrlCanonicalizerTest {
+
+    private final UrlCanonicalizer canonicalizer = new UrlCanonicalizer();
+
+    @Test
+    void shouldResolveRelativeReferences() {
+        // Given
+        UrlCanonicalizer.Base base = canonicalizer.parse("http://a/b/c/d;p?q");
+
+        // Then, examples from RFC 3986, section 5.4
+        assertThat(base.resolve("g"), is("http://a/b/c/g"));
+        assertThat(base.resolve("./g"), is("http://a/b/c/g"));
+        assertThat(base.resolve("g/"), is("http://a/b/c/g/"));
+        assertThat(base.resolve("/g"), is("http://a/g"));
+        assertThat(base.resolve("//g"), is("http://g"));
+        assertThat(base.resolve("?y"), is("http://a/b/c/d;p?y"));
+        assertThat(base.resolve("g?y"), is("http://a/b/c/g?y"));
+        assertThat(base.resolve(""), is("http://a/b/c/d;p?q"));
+        assertThat(base.resolve("."), is("http://a/b/c/"));
+        assertThat(base.resolve(".."), is("http://a/b/"));
+        assertThat(base.resolve("../g"), is("http://a/b/g"));
+        assertThat(base.resolve("../../g"), is("http://a/g"));
+        assertThat(base.resolve("../../../g"), is("http://a/g"));
+        assertThat(base.resolve("/./g"), is("http://a/g"));
+        assertThat(base.resolve("g/../h"), is("http://a/b/c/h"));
+        assertThat(base.resolve("https://other.com/x"), is("https://other.com/x"));
+    }
+
+    @Test
+    void shouldCanonicalizeEquivalentSpellings() {
+        UrlCanonicalizer.Base base = canonicalizer.parse("http://example.com/docs/index.html");
+
+        assertThat("Fragments should be dropped", base.resolve("/a#section"), is("http://example.com/a"));
+        assertThat("Query parameters should be sorted", base.resolve("/a?c=2&b=1"), is(base.resolve("/a?b=1&c=2")));
+        assertThat("Repeated parameters should keep their order", base.resolve("/a?x=2&b=1&x=1"), is("http://example.com/a?b=1&x=2&x=1"));
+        assertThat("Host should be lower-cased and default port removed",
+            canonicalizer.canonicalize("HTTP://Example.COM:80/Path"), is("http://example.com/Path"));
+        assertThat("Non-default ports should be kept", canonicalizer.canonicalize("https://example.com:8443/"), is("https://example.com:8443/"));
+        assertThat("Trailing slashes are kept by default", base.resolve("/a/"), is("http://example.com/a/"));
+    }
+
+    @Test
+    void shouldStripTrailingSlashWhenEnabled() {
+        UrlCanonicalizer stripping = new UrlCanonicalizer(EnumSet.allOf(UrlNormalizationRule.class));
+
+        assertThat(stripping.canonicalize("http://example.com/a/"), is("http://example.com/a"));
+        assertThat(stripping.canonicalize("http://example.com/"), is("http://example.com"));
+    }
+
+    @Test
+    void shouldResolveAgainstTheDirectoryWhenStrippingTrailingSlash() {
+        UrlCanonicalizer stripping = new UrlCanonicalizer(EnumSet.allOf(UrlNormalizationRule.class));
+        UrlCanonicalizer.Base base = stripping.parse("http://example.com/docs/");
+
+        assertThat("The page itself should be reported without its slash", base.toString(), is("http://example.com/docs"));
+        assertThat("Relative links should resolve inside the directory", base.resolve("page"), is("http://example.com/docs/page"));
+        assertThat(base.resolve("../other/"), is("http://example.com/other"));
+        assertThat("An empty reference should stay on the page", base.resolve(""), is("http://example.com/docs"));
+    }
+
+    @Test
+    void shouldKeepUrlsAsWrittenWithoutRules() {
+        UrlCanonicalizer raw = new UrlCanonicalizer(EnumSet.noneOf(UrlNormalizationRule.class));
+
+        assertThat(raw.canonicalize("http://Example.com:80/a?c=2&b=1#x"), is("http://Example.com:80/a?c=2&b=1#x"));
+    }
+
+    @Test
+    void shouldRejectNonHttpReferences() {
+        UrlCanonicalizer.Base base = canonicalizer.parse("http://example.com/");
+
+        assertThat(base.resolve("mailto:someone@example.com"), is(nullValue()));
+        assertThat(base.resolve("javascript:void(0)"), is(nullValue()));
+        assertThat(base.resolve("ftp://example.com/file"), is(nullValue()));
+        assertThat(canonicalizer.parse("/relative/path"), is(nullValue()));
+    }
+
+    @Test
+    void shouldExtractHostWithPort() {
+        assertThat(UrlCanonicalizer.hostOf("http://127.0.0.1:8080/a?b"), is("127.0.0.1:8080"));
+        assertThat(UrlCanonicalizer.hostOf("https://example.com"), is("example.com"));
+        assertThat(UrlCanonicalizer.hostOf("https://example.com#top"), is("example.com"));
+    }
+}